@@ -0,0 +1,34 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+/**
+ * Functions to aggregate values of a column per group
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public enum AggregateFunction {
+    /**
+     * Number of non empty values, or number of rows if no column is given
+     */
+    COUNT,
+
+    /**
+     * Sum of values
+     */
+    SUM,
+
+    /**
+     * Smallest value
+     */
+    MIN,
+
+    /**
+     * Largest value
+     */
+    MAX,
+
+    /**
+     * Average of non empty values
+     */
+    AVG
+}
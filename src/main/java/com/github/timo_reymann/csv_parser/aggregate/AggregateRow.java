@@ -0,0 +1,48 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+import lombok.Value;
+
+/**
+ * Aggregated values of one group
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+@Value
+public class AggregateRow {
+    /**
+     * Values of the key columns, in order of {@link CsvAggregator.Builder#groupBy(Object...)}
+     */
+    String[] keys;
+
+    /**
+     * Aggregated values, in order the aggregates have been added. Minimum, maximum and average of groups without
+     * values are {@link Double#NaN}.
+     */
+    double[] values;
+
+    /**
+     * Number of rows in group
+     */
+    long count;
+
+    /**
+     * Get value of key column
+     *
+     * @param index Index of key column
+     * @return Value of key column
+     */
+    public String getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Get aggregated value
+     *
+     * @param index Index of aggregate
+     * @return Aggregated value
+     */
+    public double getValue(int index) {
+        return values[index];
+    }
+}
@@ -0,0 +1,358 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Statistics of one column computed by the {@link CsvProfiler}
+ * <p>
+ * Lengths are counted in bytes of the encoded value. Minimum and maximum value compare the bytes unsigned, which is
+ * the order of code points for UTF-8. Distinct values are estimated using a {@link HyperLogLog} sketch.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class ColumnProfile {
+    /**
+     * Number of buckets of the length histogram
+     */
+    public static final int LENGTH_BUCKETS = 32;
+
+    /**
+     * Index of column
+     */
+    private final int index;
+
+    /**
+     * Heading of column, null if the input has no heading
+     */
+    private String name;
+
+    /**
+     * Number of rows of the input
+     */
+    private long rows;
+
+    /**
+     * Number of rows containing the column
+     */
+    private long count;
+
+    /**
+     * Number of empty values
+     */
+    private long empty;
+
+    /**
+     * Length of shortest value
+     */
+    private int minLength = Integer.MAX_VALUE;
+
+    /**
+     * Length of longest value
+     */
+    private int maxLength;
+
+    /**
+     * Number of values per length bucket
+     */
+    private final long[] lengthHistogram = new long[LENGTH_BUCKETS];
+
+    /**
+     * Sketch of distinct non empty values
+     */
+    private final HyperLogLog distinct;
+
+    /**
+     * Number of non empty values per {@link ColumnType}
+     */
+    private final long[] types = new long[ColumnType.values().length];
+
+    /**
+     * Smallest number
+     */
+    private double minNumber = Double.POSITIVE_INFINITY;
+
+    /**
+     * Largest number
+     */
+    private double maxNumber = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Bytes of smallest non empty value, null if there is none
+     */
+    private byte[] minValue;
+
+    /**
+     * Bytes of largest non empty value, null if there is none
+     */
+    private byte[] maxValue;
+
+    /**
+     * Charset of values
+     */
+    private Charset charset;
+
+    /**
+     * Create empty profile
+     *
+     * @param index     Index of column
+     * @param precision Precision of distinct value sketch
+     */
+    ColumnProfile(int index, int precision) {
+        this.index = index;
+        this.distinct = new HyperLogLog(precision);
+    }
+
+    /**
+     * Get bucket of the length histogram, bucket 0 holds empty values and bucket i lengths from 2^(i-1) to 2^i - 1
+     *
+     * @param length Length of value
+     * @return Bucket
+     */
+    public static int getLengthBucket(int length) {
+        return 32 - Integer.numberOfLeadingZeros(length);
+    }
+
+    /**
+     * Add value
+     *
+     * @param buffer Buffer containing the value
+     * @param start  Start offset
+     * @param end    End offset (exclusive)
+     * @param type   Type of value
+     * @param number Numeric value for {@link ColumnType#INTEGER} and {@link ColumnType#DECIMAL}
+     */
+    void add(byte[] buffer, int start, int end, ColumnType type, double number) {
+        int length = end - start;
+        count++;
+        lengthHistogram[getLengthBucket(length)]++;
+        if (length < minLength) {
+            minLength = length;
+        }
+        if (length > maxLength) {
+            maxLength = length;
+        }
+
+        if (type == ColumnType.EMPTY) {
+            empty++;
+            return;
+        }
+
+        types[type.ordinal()]++;
+        if (type == ColumnType.INTEGER || type == ColumnType.DECIMAL) {
+            minNumber = Math.min(minNumber, number);
+            maxNumber = Math.max(maxNumber, number);
+        }
+
+        distinct.add(buffer, start, length);
+        if (minValue == null || compare(buffer, start, end, minValue) < 0) {
+            minValue = Arrays.copyOfRange(buffer, start, end);
+        }
+        if (maxValue == null || compare(buffer, start, end, maxValue) > 0) {
+            maxValue = Arrays.copyOfRange(buffer, start, end);
+        }
+    }
+
+    private static int compare(byte[] buffer, int start, int end, byte[] value) {
+        return Arrays.compareUnsigned(buffer, start, end, value, 0, value.length);
+    }
+
+    /**
+     * Merge profile of the same column of another part of the input
+     *
+     * @param other Profile
+     */
+    void merge(ColumnProfile other) {
+        count += other.count;
+        empty += other.empty;
+        minLength = Math.min(minLength, other.minLength);
+        maxLength = Math.max(maxLength, other.maxLength);
+        for (int i = 0; i < LENGTH_BUCKETS; i++) {
+            lengthHistogram[i] += other.lengthHistogram[i];
+        }
+        for (int i = 0; i < types.length; i++) {
+            types[i] += other.types[i];
+        }
+        distinct.merge(other.distinct);
+        minNumber = Math.min(minNumber, other.minNumber);
+        maxNumber = Math.max(maxNumber, other.maxNumber);
+        if (other.minValue != null && (minValue == null || compare(other.minValue, 0, other.minValue.length, minValue) < 0)) {
+            minValue = other.minValue;
+        }
+        if (other.maxValue != null && (maxValue == null || compare(other.maxValue, 0, other.maxValue.length, maxValue) > 0)) {
+            maxValue = other.maxValue;
+        }
+    }
+
+    /**
+     * Complete profile after all parts have been merged
+     *
+     * @param name    Heading of column, null if the input has no heading
+     * @param rows    Number of rows of the input
+     * @param charset Charset of values
+     */
+    void finish(String name, long rows, Charset charset) {
+        this.name = name;
+        this.rows = rows;
+        this.charset = charset;
+    }
+
+    /**
+     * Get index of column
+     *
+     * @return Index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Get heading of column
+     *
+     * @return Heading, null if the input has no heading
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get number of rows containing the column
+     *
+     * @return Number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get number of rows not containing the column, because they have less values
+     *
+     * @return Number of missing values
+     */
+    public long getMissingCount() {
+        return rows - count;
+    }
+
+    /**
+     * Get number of empty values
+     *
+     * @return Number of empty values
+     */
+    public long getEmptyCount() {
+        return empty;
+    }
+
+    /**
+     * Get estimated number of distinct non empty values
+     *
+     * @return Estimated number of distinct values
+     */
+    public long getDistinctCount() {
+        return distinct.estimate();
+    }
+
+    /**
+     * Get length of shortest value in bytes
+     *
+     * @return Length, 0 if the column has no values
+     */
+    public int getMinLength() {
+        return count == 0 ? 0 : minLength;
+    }
+
+    /**
+     * Get length of longest value in bytes
+     *
+     * @return Length
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Get number of values per length bucket, see {@link #getLengthBucket(int)}
+     *
+     * @return Copy of histogram with {@link #LENGTH_BUCKETS} buckets
+     */
+    public long[] getLengthHistogram() {
+        return lengthHistogram.clone();
+    }
+
+    /**
+     * Get number of non empty values of a type
+     *
+     * @param type Type
+     * @return Number of values
+     */
+    public long getTypeCount(ColumnType type) {
+        return types[type.ordinal()];
+    }
+
+    /**
+     * Get type all non empty values have in common
+     *
+     * @return Inferred type
+     */
+    public ColumnType getType() {
+        long values = count - empty;
+        if (values == 0) {
+            return ColumnType.EMPTY;
+        }
+        long integers = types[ColumnType.INTEGER.ordinal()];
+        if (types[ColumnType.BOOLEAN.ordinal()] == values) {
+            return ColumnType.BOOLEAN;
+        } else if (integers == values) {
+            return ColumnType.INTEGER;
+        } else if (integers + types[ColumnType.DECIMAL.ordinal()] == values) {
+            return ColumnType.DECIMAL;
+        } else if (types[ColumnType.DATE.ordinal()] == values) {
+            return ColumnType.DATE;
+        }
+        return ColumnType.TEXT;
+    }
+
+    /**
+     * Get smallest numeric value
+     *
+     * @return Smallest number or {@link Double#NaN} if there are no numeric values
+     */
+    public double getMinNumber() {
+        return minNumber > maxNumber ? Double.NaN : minNumber;
+    }
+
+    /**
+     * Get largest numeric value
+     *
+     * @return Largest number or {@link Double#NaN} if there are no numeric values
+     */
+    public double getMaxNumber() {
+        return minNumber > maxNumber ? Double.NaN : maxNumber;
+    }
+
+    /**
+     * Get smallest non empty value
+     *
+     * @return Value or null if there are no non empty values
+     */
+    public String getMinValue() {
+        return minValue == null ? null : new String(minValue, charset);
+    }
+
+    /**
+     * Get largest non empty value
+     *
+     * @return Value or null if there are no non empty values
+     */
+    public String getMaxValue() {
+        return maxValue == null ? null : new String(maxValue, charset);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnProfile(index=" + index + ", name=" + name + ", type=" + getType() + ", count=" + count
+                + ", missing=" + getMissingCount() + ", empty=" + empty + ", distinct=" + getDistinctCount()
+                + ", minLength=" + getMinLength() + ", maxLength=" + maxLength + ", min=" + getMinValue()
+                + ", max=" + getMaxValue() + ")";
+    }
+}
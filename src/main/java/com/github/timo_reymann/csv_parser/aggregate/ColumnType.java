@@ -0,0 +1,39 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+/**
+ * Type inferred for the non empty values of a column by the {@link CsvProfiler}
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public enum ColumnType {
+    /**
+     * Column has no non empty values
+     */
+    EMPTY,
+
+    /**
+     * All values are <code>true</code> or <code>false</code>, ignoring case
+     */
+    BOOLEAN,
+
+    /**
+     * All values are integers fitting into a long
+     */
+    INTEGER,
+
+    /**
+     * All values are numbers, at least one of them not an integer
+     */
+    DECIMAL,
+
+    /**
+     * All values are ISO dates, e.g. <code>2019-10-26</code>
+     */
+    DATE,
+
+    /**
+     * Values of mixed or other types
+     */
+    TEXT
+}
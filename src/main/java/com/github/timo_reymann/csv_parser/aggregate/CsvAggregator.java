@@ -0,0 +1,425 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.io.FileChunks;
+import com.github.timo_reymann.csv_parser.io.Seperator;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Group csv rows by key columns and aggregate values of columns without mapping rows to beans
+ * <p>
+ * Rows are tokenized and grouped by the raw bytes of their key columns, values are parsed directly from the buffer of
+ * the tokenizer into primitive accumulators. Files are split into chunks at line breaks outside of quoted values, which
+ * are aggregated on multiple threads and merged afterwards.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvAggregator {
+    /**
+     * Default minimum size of a chunk aggregated by one thread
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Input file, null if stream is used
+     */
+    private final File file;
+
+    /**
+     * Input stream, null if file is used
+     */
+    private final InputStream inputStream;
+
+    /**
+     * Charset of input
+     */
+    private final Charset charset;
+
+    /**
+     * Seperator of input
+     */
+    private final char seperator;
+
+    /**
+     * Input has heading
+     */
+    private final boolean hasHeading;
+
+    /**
+     * Key columns as header name or index
+     */
+    private final List<Object> keyColumns;
+
+    /**
+     * Aggregate functions
+     */
+    private final AggregateFunction[] functions;
+
+    /**
+     * Columns to aggregate as header name or index, null for counting rows
+     */
+    private final List<Object> valueColumns;
+
+    /**
+     * Parser for values
+     */
+    private final FastDoubleParser numberParser;
+
+    /**
+     * Number of threads
+     */
+    private final int parallelism;
+
+    /**
+     * Minimum size of a chunk
+     */
+    private final long chunkSize;
+
+    /**
+     * Indexes of key columns, resolved on aggregation
+     */
+    private int[] keyIndexes;
+
+    /**
+     * Indexes of value columns, -1 for counting rows, resolved on aggregation
+     */
+    private int[] valueIndexes;
+
+    private CsvAggregator(Builder builder) {
+        this.file = builder.file;
+        this.inputStream = builder.inputStream;
+        this.charset = builder.charset;
+        this.seperator = builder.seperator.charAt(0);
+        this.hasHeading = builder.hasHeading;
+        this.keyColumns = new ArrayList<>(builder.keyColumns);
+        this.functions = builder.functions.toArray(new AggregateFunction[0]);
+        this.valueColumns = new ArrayList<>(builder.valueColumns);
+        this.numberParser = new FastDoubleParser(builder.decimalSeparator, builder.groupingSeparator);
+        this.parallelism = builder.parallelism;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    /**
+     * Aggregate input
+     *
+     * @return Aggregated groups in order of their first occurrence
+     * @throws IOException    Error reading input
+     * @throws ParseException Value to aggregate is not a number
+     */
+    public List<AggregateRow> aggregate() throws IOException {
+        if (file == null) {
+            try (CsvTokenizer tokenizer = new CsvTokenizer(inputStream, charset, seperator, '"')) {
+                resolveColumns(tokenizer);
+                return aggregate(tokenizer, false).toRows(keyIndexes.length, tokenizer.getCharset());
+            }
+        }
+
+        Charset keyCharset;
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new FileInputStream(file), charset, seperator, '"')) {
+            resolveColumns(tokenizer);
+            keyCharset = tokenizer.getCharset();
+        }
+
+        GroupTable table = FileChunks.process(file, charset, seperator, parallelism, chunkSize, "csv-aggregator",
+                (tokenizer, first) -> aggregate(tokenizer, first && hasHeading), GroupTable::merge);
+        return table.toRows(keyIndexes.length, keyCharset);
+    }
+
+    /**
+     * Resolve key and value columns to indexes, the heading is read if present
+     *
+     * @param tokenizer Tokenizer at start of input
+     */
+    private void resolveColumns(CsvTokenizer tokenizer) throws IOException {
+        List<String> headings = null;
+        if (hasHeading && tokenizer.nextRecord()) {
+            headings = Arrays.asList(tokenizer.getFields());
+        }
+
+        keyIndexes = new int[keyColumns.size()];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            keyIndexes[i] = resolveColumn("groupBy", keyColumns.get(i), headings);
+        }
+
+        valueIndexes = new int[valueColumns.size()];
+        for (int i = 0; i < valueIndexes.length; i++) {
+            valueIndexes[i] = valueColumns.get(i) == null ? -1 : resolveColumn("aggregate", valueColumns.get(i), headings);
+        }
+    }
+
+    private static int resolveColumn(String argument, Object column, List<String> headings) {
+        if (column instanceof Integer && (int) column >= 0) {
+            return (int) column;
+        }
+
+        int index = column instanceof String && headings != null ? headings.indexOf(column) : -1;
+        if (index == -1) {
+            throw new InvalidArgumentException(argument, column);
+        }
+        return index;
+    }
+
+    /**
+     * Aggregate records of tokenizer
+     *
+     * @param tokenizer   Tokenizer
+     * @param skipHeading Skip first record
+     * @return Groups of records
+     */
+    private GroupTable aggregate(CsvTokenizer tokenizer, boolean skipHeading) throws IOException {
+        GroupTable table = new GroupTable(functions);
+        if (skipHeading) {
+            tokenizer.nextRecord();
+        }
+
+        byte[] key = new byte[256];
+        while (tokenizer.nextRecord()) {
+            byte[] buffer = tokenizer.getBuffer();
+            int fieldCount = tokenizer.getFieldCount();
+
+            // Key columns are encoded with their length, so values containing each other can not collide
+            int length = 0;
+            for (int index : keyIndexes) {
+                int start = index < fieldCount ? tokenizer.getFieldStart(index) : 0;
+                int fieldLength = index < fieldCount ? tokenizer.getFieldEnd(index) - start : 0;
+                if (length + 4 + fieldLength > key.length) {
+                    key = Arrays.copyOf(key, Math.max(key.length * 2, length + 4 + fieldLength));
+                }
+                key[length++] = (byte) (fieldLength >>> 24);
+                key[length++] = (byte) (fieldLength >>> 16);
+                key[length++] = (byte) (fieldLength >>> 8);
+                key[length++] = (byte) fieldLength;
+                System.arraycopy(buffer, start, key, length, fieldLength);
+                length += fieldLength;
+            }
+
+            int group = table.group(key, length);
+            table.addRow(group);
+            for (int i = 0; i < valueIndexes.length; i++) {
+                int index = valueIndexes[i];
+                if (index == -1) {
+                    table.add(group, i, 0);
+                    continue;
+                }
+
+                if (index >= fieldCount || tokenizer.getFieldStart(index) == tokenizer.getFieldEnd(index)) {
+                    continue;
+                }
+
+                double value = 0;
+                if (functions[i] != AggregateFunction.COUNT) {
+                    try {
+                        value = numberParser.parseDouble(buffer, tokenizer.getFieldStart(index), tokenizer.getFieldEnd(index));
+                    } catch (NumberFormatException e) {
+                        throw new ParseException("Invalid number " + tokenizer.getField(index) + " in column " + index, e);
+                    }
+                }
+                table.add(group, i, value);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Builder for csv aggregator
+     */
+    public static class Builder {
+        private File file;
+        private InputStream inputStream;
+        private Charset charset = Charset.defaultCharset();
+        private String seperator = Seperator.SEMICOLON;
+        private boolean hasHeading = false;
+        private final List<Object> keyColumns = new ArrayList<>();
+        private final List<AggregateFunction> functions = new ArrayList<>();
+        private final List<Object> valueColumns = new ArrayList<>();
+        private char decimalSeparator = '.';
+        private char groupingSeparator = FastDoubleParser.NO_GROUPING;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long chunkSize = DEFAULT_CHUNK_SIZE;
+
+        /**
+         * Set file to aggregate, files are aggregated in parallel chunks
+         *
+         * @param file CSV file
+         * @return Current builder
+         */
+        public Builder file(File file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Set stream to aggregate, streams are aggregated on the calling thread
+         *
+         * @param inputStream Input stream
+         * @return Current builder
+         */
+        public Builder inputStream(InputStream inputStream) {
+            this.inputStream = inputStream;
+            return this;
+        }
+
+        /**
+         * Set charset of input, default it is the platform charset
+         *
+         * @param charset Charset
+         * @return Current builder
+         */
+        public Builder charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Set seperator, default it is set to ';'
+         *
+         * @param seperator Seperator, must be a single ASCII char
+         * @return Current builder
+         */
+        public Builder seperatedBy(String seperator) {
+            this.seperator = seperator;
+            return this;
+        }
+
+        /**
+         * Input has first row with heading
+         *
+         * @return Current builder
+         */
+        public Builder hasHeading() {
+            this.hasHeading = true;
+            return this;
+        }
+
+        /**
+         * Group rows by values of columns, without key columns all rows are aggregated in one group
+         *
+         * @param columns Header names or indexes of columns
+         * @return Current builder
+         */
+        public Builder groupBy(Object... columns) {
+            this.keyColumns.addAll(Arrays.asList(columns));
+            return this;
+        }
+
+        /**
+         * Add aggregate of column, empty values are ignored
+         *
+         * @param function Aggregate function
+         * @param column   Header name or index of column
+         * @return Current builder
+         */
+        public Builder aggregate(AggregateFunction function, Object column) {
+            if (function == null) {
+                throw new InvalidArgumentException("function", function);
+            }
+            if (column == null) {
+                throw new InvalidArgumentException("column", column);
+            }
+            this.functions.add(function);
+            this.valueColumns.add(column);
+            return this;
+        }
+
+        /**
+         * Add count of rows
+         *
+         * @return Current builder
+         */
+        public Builder count() {
+            this.functions.add(AggregateFunction.COUNT);
+            this.valueColumns.add(null);
+            return this;
+        }
+
+        /**
+         * Set decimal separator of values, default it is '.'
+         *
+         * @param decimalSeparator Decimal separator
+         * @return Current builder
+         */
+        public Builder decimalSeparator(char decimalSeparator) {
+            this.decimalSeparator = decimalSeparator;
+            return this;
+        }
+
+        /**
+         * Set grouping separator of values, default values are not grouped
+         *
+         * @param groupingSeparator Grouping separator
+         * @return Current builder
+         */
+        public Builder groupingSeparator(char groupingSeparator) {
+            this.groupingSeparator = groupingSeparator;
+            return this;
+        }
+
+        /**
+         * Set number of threads aggregating chunks of files, default it is the number of processors
+         *
+         * @param parallelism Number of threads, 1 for input with line breaks in quoted values
+         * @return Current builder
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set minimum size of chunks files are split into, default it is {@link #DEFAULT_CHUNK_SIZE}
+         *
+         * @param chunkSize Minimum size in bytes
+         * @return Current builder
+         */
+        public Builder chunkSize(long chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Build csv aggregator
+         *
+         * @return Ready to use aggregator
+         */
+        public CsvAggregator build() {
+            if ((file == null) == (inputStream == null)) {
+                throw new IllegalArgumentException("Decide to use inputStream or file, exactly one of them is required");
+            }
+
+            if (file != null && !file.exists()) {
+                throw new InvalidArgumentException("file", file);
+            }
+
+            if (seperator == null || seperator.length() != 1 || seperator.charAt(0) >= 0x80) {
+                throw new InvalidArgumentException("seperator", seperator);
+            }
+
+            if (functions.isEmpty()) {
+                throw new InvalidArgumentException("aggregate", functions);
+            }
+
+            if (decimalSeparator == groupingSeparator) {
+                throw new InvalidArgumentException("groupingSeparator", groupingSeparator);
+            }
+
+            if (parallelism < 1) {
+                throw new InvalidArgumentException("parallelism", parallelism);
+            }
+
+            if (chunkSize < 1) {
+                throw new InvalidArgumentException("chunkSize", chunkSize);
+            }
+
+            return new CsvAggregator(this);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.io.FileChunks;
+import com.github.timo_reymann.csv_parser.io.Seperator;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compute statistics of all columns in one pass without mapping rows to beans
+ * <p>
+ * Values are classified directly in the buffer of the tokenizer, only numbers are parsed and only new minimum and
+ * maximum values are copied. Distinct values are counted using {@link HyperLogLog} sketches, so memory does not grow
+ * with the input. Files are split into chunks at line breaks outside of quoted values, which are profiled on multiple
+ * threads and merged afterwards.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvProfiler {
+    /**
+     * Default minimum size of a chunk profiled by one thread
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Default precision of distinct value sketches, the standard error is about 1.6%
+     */
+    public static final int DEFAULT_PRECISION = 12;
+
+    /**
+     * Input file, null if stream is used
+     */
+    private final File file;
+
+    /**
+     * Input stream, null if file is used
+     */
+    private final InputStream inputStream;
+
+    /**
+     * Charset of input
+     */
+    private final Charset charset;
+
+    /**
+     * Seperator of input
+     */
+    private final char seperator;
+
+    /**
+     * Input has heading
+     */
+    private final boolean hasHeading;
+
+    /**
+     * Decimal separator of numbers
+     */
+    private final byte decimalSeparator;
+
+    /**
+     * Grouping separator of numbers, 0 if numbers are not grouped
+     */
+    private final byte groupingSeparator;
+
+    /**
+     * Parser for numbers
+     */
+    private final FastDoubleParser numberParser;
+
+    /**
+     * Precision of distinct value sketches
+     */
+    private final int precision;
+
+    /**
+     * Number of threads
+     */
+    private final int parallelism;
+
+    /**
+     * Minimum size of a chunk
+     */
+    private final long chunkSize;
+
+    private CsvProfiler(Builder builder) {
+        this.file = builder.file;
+        this.inputStream = builder.inputStream;
+        this.charset = builder.charset;
+        this.seperator = builder.seperator.charAt(0);
+        this.hasHeading = builder.hasHeading;
+        this.decimalSeparator = (byte) builder.decimalSeparator;
+        this.groupingSeparator = builder.groupingSeparator == FastDoubleParser.NO_GROUPING ? 0 : (byte) builder.groupingSeparator;
+        this.numberParser = new FastDoubleParser(builder.decimalSeparator, builder.groupingSeparator);
+        this.precision = builder.precision;
+        this.parallelism = builder.parallelism;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    /**
+     * Profile input
+     *
+     * @return Statistics per column in order of the columns, the heading is not counted
+     * @throws IOException Error reading input
+     */
+    public List<ColumnProfile> profile() throws IOException {
+        if (file == null) {
+            try (CsvTokenizer tokenizer = new CsvTokenizer(inputStream, charset, seperator, '"')) {
+                List<String> headings = readHeadings(tokenizer);
+                return finish(profile(tokenizer, false), headings, tokenizer.getCharset());
+            }
+        }
+
+        List<String> headings;
+        Charset valueCharset;
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new FileInputStream(file), charset, seperator, '"')) {
+            headings = readHeadings(tokenizer);
+            valueCharset = tokenizer.getCharset();
+        }
+
+        Profile profile = FileChunks.process(file, charset, seperator, parallelism, chunkSize, "csv-profiler",
+                (tokenizer, first) -> profile(tokenizer, first && hasHeading), Profile::merge);
+        return finish(profile, headings, valueCharset);
+    }
+
+    private List<String> readHeadings(CsvTokenizer tokenizer) throws IOException {
+        if (hasHeading && tokenizer.nextRecord()) {
+            return Arrays.asList(tokenizer.getFields());
+        }
+        return Collections.emptyList();
+    }
+
+    private List<ColumnProfile> finish(Profile profile, List<String> headings, Charset valueCharset) {
+        for (ColumnProfile column : profile.columns) {
+            column.finish(column.getIndex() < headings.size() ? headings.get(column.getIndex()) : null, profile.rows, valueCharset);
+        }
+        return profile.columns;
+    }
+
+    /**
+     * Profile records of tokenizer
+     *
+     * @param tokenizer   Tokenizer
+     * @param skipHeading Skip first record
+     * @return Statistics of records
+     */
+    private Profile profile(CsvTokenizer tokenizer, boolean skipHeading) throws IOException {
+        Profile profile = new Profile();
+        if (skipHeading) {
+            tokenizer.nextRecord();
+        }
+
+        while (tokenizer.nextRecord()) {
+            byte[] buffer = tokenizer.getBuffer();
+            int fieldCount = tokenizer.getFieldCount();
+            profile.rows++;
+            while (profile.columns.size() < fieldCount) {
+                profile.columns.add(new ColumnProfile(profile.columns.size(), precision));
+            }
+
+            for (int i = 0; i < fieldCount; i++) {
+                int start = tokenizer.getFieldStart(i);
+                int end = tokenizer.getFieldEnd(i);
+                ColumnType type = classify(buffer, start, end);
+                double number = Double.NaN;
+                if (type == ColumnType.INTEGER || type == ColumnType.DECIMAL) {
+                    try {
+                        number = numberParser.parseDouble(buffer, start, end);
+                    } catch (NumberFormatException e) {
+                        type = ColumnType.TEXT;
+                    }
+                }
+                profile.columns.get(i).add(buffer, start, end, type, number);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Classify value without decoding it
+     *
+     * @param buffer Buffer containing the value
+     * @param start  Start offset
+     * @param end    End offset (exclusive)
+     * @return Type of value, {@link ColumnType#EMPTY} for empty values
+     */
+    private ColumnType classify(byte[] buffer, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return ColumnType.EMPTY;
+        }
+
+        byte first = buffer[start];
+        if ((first >= '0' && first <= '9') || first == '-' || first == '+' || first == decimalSeparator) {
+            ColumnType number = classifyNumber(buffer, start, end);
+            if (number != null) {
+                return number;
+            }
+            return isDate(buffer, start, length) ? ColumnType.DATE : ColumnType.TEXT;
+        }
+
+        if (isWord(buffer, start, length, "true") || isWord(buffer, start, length, "false")) {
+            return ColumnType.BOOLEAN;
+        }
+        return ColumnType.TEXT;
+    }
+
+    /**
+     * Classify number, optionally signed with grouping separators, decimal separator and exponent
+     *
+     * @return {@link ColumnType#INTEGER}, {@link ColumnType#DECIMAL} or null if the value is no number
+     */
+    private ColumnType classifyNumber(byte[] buffer, int start, int end) {
+        int position = start;
+        if (buffer[position] == '-' || buffer[position] == '+') {
+            position++;
+        }
+
+        int digits = 0;
+        boolean decimal = false;
+        while (position < end) {
+            byte b = buffer[position];
+            if (b >= '0' && b <= '9') {
+                digits++;
+            } else if (b == groupingSeparator && groupingSeparator != 0 && digits > 0 && !decimal) {
+                // Grouped digits, e.g. 1.234.567
+            } else if (b == decimalSeparator && !decimal) {
+                decimal = true;
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (digits == 0) {
+            return null;
+        }
+
+        if (position < end && (buffer[position] == 'e' || buffer[position] == 'E')) {
+            position++;
+            if (position < end && (buffer[position] == '-' || buffer[position] == '+')) {
+                position++;
+            }
+            int exponentDigits = 0;
+            while (position < end && buffer[position] >= '0' && buffer[position] <= '9') {
+                exponentDigits++;
+                position++;
+            }
+            if (exponentDigits == 0) {
+                return null;
+            }
+            decimal = true;
+        }
+
+        if (position != end) {
+            return null;
+        }
+        // Integers of up to 18 digits always fit into a long
+        return decimal || digits > 18 ? ColumnType.DECIMAL : ColumnType.INTEGER;
+    }
+
+    /**
+     * Check for ISO date, e.g. 2019-10-26
+     */
+    private static boolean isDate(byte[] buffer, int start, int length) {
+        if (length != 10 || buffer[start + 4] != '-' || buffer[start + 7] != '-') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (i != 4 && i != 7 && (buffer[start + i] < '0' || buffer[start + i] > '9')) {
+                return false;
+            }
+        }
+        int month = (buffer[start + 5] - '0') * 10 + buffer[start + 6] - '0';
+        int day = (buffer[start + 8] - '0') * 10 + buffer[start + 9] - '0';
+        return month >= 1 && month <= 12 && day >= 1 && day <= 31;
+    }
+
+    /**
+     * Check for ASCII word ignoring case
+     */
+    private static boolean isWord(byte[] buffer, int start, int length, String word) {
+        if (length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((buffer[start + i] | 0x20) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Statistics of a part of the input
+     */
+    private static class Profile {
+        private final List<ColumnProfile> columns = new ArrayList<>();
+        private long rows;
+
+        void merge(Profile other) {
+            rows += other.rows;
+            for (int i = 0; i < other.columns.size(); i++) {
+                if (i < columns.size()) {
+                    columns.get(i).merge(other.columns.get(i));
+                } else {
+                    columns.add(other.columns.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for csv profiler
+     */
+    public static class Builder {
+        private File file;
+        private InputStream inputStream;
+        private Charset charset = Charset.defaultCharset();
+        private String seperator = Seperator.SEMICOLON;
+        private boolean hasHeading = false;
+        private char decimalSeparator = '.';
+        private char groupingSeparator = FastDoubleParser.NO_GROUPING;
+        private int precision = DEFAULT_PRECISION;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long chunkSize = DEFAULT_CHUNK_SIZE;
+
+        /**
+         * Set file to profile, files are profiled in parallel chunks
+         *
+         * @param file CSV file
+         * @return Current builder
+         */
+        public Builder file(File file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Set stream to profile, streams are profiled on the calling thread
+         *
+         * @param inputStream Input stream
+         * @return Current builder
+         */
+        public Builder inputStream(InputStream inputStream) {
+            this.inputStream = inputStream;
+            return this;
+        }
+
+        /**
+         * Set charset of input, default it is the platform charset
+         *
+         * @param charset Charset
+         * @return Current builder
+         */
+        public Builder charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Set seperator, default it is set to ';'
+         *
+         * @param seperator Seperator, must be a single ASCII char
+         * @return Current builder
+         */
+        public Builder seperatedBy(String seperator) {
+            this.seperator = seperator;
+            return this;
+        }
+
+        /**
+         * Input has first row with heading, headings are used as column names
+         *
+         * @return Current builder
+         */
+        public Builder hasHeading() {
+            this.hasHeading = true;
+            return this;
+        }
+
+        /**
+         * Set decimal separator of numbers, default it is '.'
+         *
+         * @param decimalSeparator Decimal separator, must be an ASCII char
+         * @return Current builder
+         */
+        public Builder decimalSeparator(char decimalSeparator) {
+            this.decimalSeparator = decimalSeparator;
+            return this;
+        }
+
+        /**
+         * Set grouping separator of numbers, default numbers are not grouped
+         *
+         * @param groupingSeparator Grouping separator, must be an ASCII char
+         * @return Current builder
+         */
+        public Builder groupingSeparator(char groupingSeparator) {
+            this.groupingSeparator = groupingSeparator;
+            return this;
+        }
+
+        /**
+         * Set precision of distinct value sketches, default it is {@link #DEFAULT_PRECISION}. Each column of each
+         * chunk uses 2^precision bytes.
+         *
+         * @param precision Precision between {@link HyperLogLog#MIN_PRECISION} and {@link HyperLogLog#MAX_PRECISION}
+         * @return Current builder
+         */
+        public Builder precision(int precision) {
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Set number of threads profiling chunks of files, default it is the number of processors
+         *
+         * @param parallelism Number of threads, 1 for input with line breaks in quoted values
+         * @return Current builder
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set minimum size of chunks files are split into, default it is {@link #DEFAULT_CHUNK_SIZE}
+         *
+         * @param chunkSize Minimum size in bytes
+         * @return Current builder
+         */
+        public Builder chunkSize(long chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Build csv profiler
+         *
+         * @return Ready to use profiler
+         */
+        public CsvProfiler build() {
+            if ((file == null) == (inputStream == null)) {
+                throw new IllegalArgumentException("Decide to use inputStream or file, exactly one of them is required");
+            }
+
+            if (file != null && !file.exists()) {
+                throw new InvalidArgumentException("file", file);
+            }
+
+            if (seperator == null || seperator.length() != 1 || seperator.charAt(0) >= 0x80) {
+                throw new InvalidArgumentException("seperator", seperator);
+            }
+
+            if (decimalSeparator >= 0x80 || decimalSeparator == groupingSeparator) {
+                throw new InvalidArgumentException("decimalSeparator", decimalSeparator);
+            }
+
+            if (groupingSeparator != FastDoubleParser.NO_GROUPING && groupingSeparator >= 0x80) {
+                throw new InvalidArgumentException("groupingSeparator", groupingSeparator);
+            }
+
+            if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+                throw new InvalidArgumentException("precision", precision);
+            }
+
+            if (parallelism < 1) {
+                throw new InvalidArgumentException("parallelism", parallelism);
+            }
+
+            if (chunkSize < 1) {
+                throw new InvalidArgumentException("chunkSize", chunkSize);
+            }
+
+            return new CsvProfiler(this);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open addressing hash table mapping raw key bytes to primitive accumulators
+ * <p>
+ * Keys are copied into a single byte array, groups are numbered in order of their first occurrence. Accumulators
+ * are stored in flat arrays indexed by group and aggregate, so adding a value never allocates.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+class GroupTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Aggregate functions
+     */
+    private final AggregateFunction[] functions;
+
+    /**
+     * Group index + 1 per slot, 0 for empty slots
+     */
+    private int[] slots = new int[INITIAL_CAPACITY];
+
+    /**
+     * Hash of key per group
+     */
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Offset of key in {@link #keys} per group
+     */
+    private int[] keyOffsets = new int[INITIAL_CAPACITY];
+
+    /**
+     * Length of key per group
+     */
+    private int[] keyLengths = new int[INITIAL_CAPACITY];
+
+    /**
+     * Bytes of all keys
+     */
+    private byte[] keys = new byte[INITIAL_CAPACITY * 16];
+
+    /**
+     * Used bytes in {@link #keys}
+     */
+    private int keysLength;
+
+    /**
+     * Number of rows per group
+     */
+    private long[] rows = new long[INITIAL_CAPACITY];
+
+    /**
+     * Sum, minimum or maximum per group and aggregate
+     */
+    private double[] values;
+
+    /**
+     * Number of values per group and aggregate
+     */
+    private long[] counts;
+
+    /**
+     * Number of groups
+     */
+    private int size;
+
+    /**
+     * Create empty table
+     *
+     * @param functions Aggregate functions
+     */
+    GroupTable(AggregateFunction[] functions) {
+        this.functions = functions;
+        this.values = new double[INITIAL_CAPACITY * functions.length];
+        this.counts = new long[INITIAL_CAPACITY * functions.length];
+    }
+
+    /**
+     * Get number of groups
+     *
+     * @return Number of groups
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Hash key bytes
+     *
+     * @param key    Key bytes
+     * @param length Length of key
+     * @return Hash
+     */
+    static int hash(byte[] key, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + key[i];
+        }
+        // Spread bits, the slot is taken from the lower bits
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Find group of key, a new group is added if the key does not exist
+     *
+     * @param key    Key bytes
+     * @param length Length of key
+     * @return Index of group
+     */
+    int group(byte[] key, int length) {
+        return group(key, 0, length, hash(key, length));
+    }
+
+    private int group(byte[] key, int offset, int length, int hash) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int group = slots[slot] - 1;
+            if (hashes[group] == hash && keyLengths[group] == length
+                    && Arrays.equals(keys, keyOffsets[group], keyOffsets[group] + length, key, offset, offset + length)) {
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int group = size++;
+        ensureGroupCapacity();
+        if (keysLength + length > keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(keys.length * 2, keysLength + length));
+        }
+        System.arraycopy(key, offset, keys, keysLength, length);
+        keyOffsets[group] = keysLength;
+        keyLengths[group] = length;
+        keysLength += length;
+        hashes[group] = hash;
+
+        for (int i = 0; i < functions.length; i++) {
+            int index = group * functions.length + i;
+            if (functions[i] == AggregateFunction.MIN) {
+                values[index] = Double.POSITIVE_INFINITY;
+            } else if (functions[i] == AggregateFunction.MAX) {
+                values[index] = Double.NEGATIVE_INFINITY;
+            }
+        }
+
+        slots[slot] = group + 1;
+        // Keep load factor below 0.5
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return group;
+    }
+
+    private void ensureGroupCapacity() {
+        if (size <= hashes.length) {
+            return;
+        }
+        int capacity = hashes.length * 2;
+        hashes = Arrays.copyOf(hashes, capacity);
+        keyOffsets = Arrays.copyOf(keyOffsets, capacity);
+        keyLengths = Arrays.copyOf(keyLengths, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+        values = Arrays.copyOf(values, capacity * functions.length);
+        counts = Arrays.copyOf(counts, capacity * functions.length);
+    }
+
+    private void rehash() {
+        int[] slots = new int[this.slots.length * 2];
+        int mask = slots.length - 1;
+        for (int group = 0; group < size; group++) {
+            int slot = hashes[group] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = group + 1;
+        }
+        this.slots = slots;
+    }
+
+    /**
+     * Count row for group
+     *
+     * @param group Index of group
+     */
+    void addRow(int group) {
+        rows[group]++;
+    }
+
+    /**
+     * Add value to aggregate of group
+     *
+     * @param group     Index of group
+     * @param aggregate Index of aggregate
+     * @param value     Value, ignored for {@link AggregateFunction#COUNT}
+     */
+    void add(int group, int aggregate, double value) {
+        int index = group * functions.length + aggregate;
+        counts[index]++;
+        switch (functions[aggregate]) {
+            case SUM:
+            case AVG:
+                values[index] += value;
+                break;
+            case MIN:
+                values[index] = Math.min(values[index], value);
+                break;
+            case MAX:
+                values[index] = Math.max(values[index], value);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Merge groups of other table into this table, groups only existing in the other table are added in their order
+     *
+     * @param other Table with same aggregate functions
+     */
+    void merge(GroupTable other) {
+        for (int otherGroup = 0; otherGroup < other.size; otherGroup++) {
+            int group = group(other.keys, other.keyOffsets[otherGroup], other.keyLengths[otherGroup], other.hashes[otherGroup]);
+            rows[group] += other.rows[otherGroup];
+            for (int i = 0; i < functions.length; i++) {
+                int index = group * functions.length + i;
+                int otherIndex = otherGroup * functions.length + i;
+                counts[index] += other.counts[otherIndex];
+                switch (functions[i]) {
+                    case SUM:
+                    case AVG:
+                        values[index] += other.values[otherIndex];
+                        break;
+                    case MIN:
+                        values[index] = Math.min(values[index], other.values[otherIndex]);
+                        break;
+                    case MAX:
+                        values[index] = Math.max(values[index], other.values[otherIndex]);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Create result rows in order of first occurrence of groups
+     *
+     * @param keyCount Number of key columns encoded in keys
+     * @param charset  Charset of key bytes
+     * @return Result rows
+     */
+    List<AggregateRow> toRows(int keyCount, Charset charset) {
+        List<AggregateRow> result = new ArrayList<>(size);
+        for (int group = 0; group < size; group++) {
+            String[] keyValues = new String[keyCount];
+            int position = keyOffsets[group];
+            for (int i = 0; i < keyCount; i++) {
+                int length = (keys[position] & 0xFF) << 24 | (keys[position + 1] & 0xFF) << 16
+                        | (keys[position + 2] & 0xFF) << 8 | (keys[position + 3] & 0xFF);
+                position += 4;
+                keyValues[i] = new String(keys, position, length, charset);
+                position += length;
+            }
+
+            double[] aggregates = new double[functions.length];
+            for (int i = 0; i < functions.length; i++) {
+                int index = group * functions.length + i;
+                switch (functions[i]) {
+                    case COUNT:
+                        aggregates[i] = counts[index];
+                        break;
+                    case AVG:
+                        aggregates[i] = counts[index] == 0 ? Double.NaN : values[index] / counts[index];
+                        break;
+                    case MIN:
+                    case MAX:
+                        aggregates[i] = counts[index] == 0 ? Double.NaN : values[index];
+                        break;
+                    default:
+                        aggregates[i] = values[index];
+                        break;
+                }
+            }
+            result.add(new AggregateRow(keyValues, aggregates, rows[group]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values
+ * <p>
+ * Values are hashed to 64 bit, the first bits select one of 2^precision registers, which keeps the maximum number of
+ * leading zeros of the remaining bits. Sketches of the same precision are merged by taking the maximum of each
+ * register, so parts of an input can be counted separately. The standard error is about 1.04 / sqrt(2^precision).
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class HyperLogLog {
+    /**
+     * Smallest supported precision
+     */
+    public static final int MIN_PRECISION = 4;
+
+    /**
+     * Largest supported precision
+     */
+    public static final int MAX_PRECISION = 18;
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+    /**
+     * Number of bits selecting the register
+     */
+    private final int precision;
+
+    /**
+     * Maximum rank per register
+     */
+    private final byte[] registers;
+
+    /**
+     * Create empty sketch
+     *
+     * @param precision Number of bits selecting the register, between {@link #MIN_PRECISION} and {@link #MAX_PRECISION}
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Get number of bits selecting the register
+     *
+     * @return Precision
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Hash bytes to 64 bit
+     *
+     * @param bytes  Bytes
+     * @param offset Start offset
+     * @param length Number of bytes
+     * @return Hash
+     */
+    public static long hash(byte[] bytes, int offset, int length) {
+        long hash = PRIME_3 ^ (length * PRIME_1);
+        int end = offset + length;
+        int i = offset;
+        for (; i + 8 <= end; i += 8) {
+            long block = (bytes[i] & 0xFFL) | (bytes[i + 1] & 0xFFL) << 8 | (bytes[i + 2] & 0xFFL) << 16
+                    | (bytes[i + 3] & 0xFFL) << 24 | (bytes[i + 4] & 0xFFL) << 32 | (bytes[i + 5] & 0xFFL) << 40
+                    | (bytes[i + 6] & 0xFFL) << 48 | (bytes[i + 7] & 0xFFL) << 56;
+            hash ^= Long.rotateLeft(block * PRIME_2, 31) * PRIME_1;
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_3;
+        }
+        for (; i < end; i++) {
+            hash ^= (bytes[i] & 0xFFL) * PRIME_3;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        // Finalizer of MurmurHash3, every input bit affects every output bit
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Add value
+     *
+     * @param bytes  Bytes of value
+     * @param offset Start offset
+     * @param length Number of bytes
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        addHash(hash(bytes, offset, length));
+    }
+
+    /**
+     * Add hashed value
+     *
+     * @param hash 64 bit hash of value
+     */
+    public void addHash(long hash) {
+        int register = (int) (hash >>> (64 - precision));
+        // Marker bit limits the rank if all remaining bits are zero
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    /**
+     * Merge other sketch into this one
+     *
+     * @param other Sketch of the same precision
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Sketches of different precision can not be merged");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Estimate number of distinct values added
+     *
+     * @return Estimated number of distinct values
+     */
+    public long estimate() {
+        int count = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double alpha = count == 16 ? 0.673 : count == 32 ? 0.697 : count == 64 ? 0.709 : 0.7213 / (1 + 1.079 / count);
+        double estimate = alpha * count * count / sum;
+        if (estimate <= 2.5 * count && zeros > 0) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = count * Math.log((double) count / zeros);
+        }
+        return Math.round(estimate);
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.timo_reymann.csv_parser.convert;
+
+import com.github.timo_reymann.csv_parser.meta.CsvColumn;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Registry for converters between csv values and field types.
+ * <p>
+ * Converters are looked up in the following order: converters registered for the exact type,
+ * registered factories in registration order, built-in converters. Primitive types are looked up
+ * using their wrapper types. Types without converter are written using {@link Object#toString()} and read as
+ * raw string if the field can hold one.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class ConverterRegistry {
+    /**
+     * Converters registered for a type
+     */
+    private final HashMap<Class<?>, ValueConverter<?>> converters = new HashMap<>();
+
+    /**
+     * Registered factories
+     */
+    private final List<ValueConverterFactory> factories = new ArrayList<>();
+
+    /**
+     * Built-in converters
+     */
+    private DefaultConverters defaultConverters = new DefaultConverters(FastDoubleParser.DEFAULT);
+
+    /**
+     * Register converter for type
+     *
+     * @param type      Field type
+     * @param converter Converter to use for all fields of the given type
+     * @param <V>       Field type
+     * @return Current registry
+     */
+    public <V> ConverterRegistry register(Class<V> type, ValueConverter<V> converter) {
+        converters.put(wrap(type), converter);
+        return this;
+    }
+
+    /**
+     * Register converter factory
+     *
+     * @param factory Factory to ask for converters
+     * @return Current registry
+     */
+    public ConverterRegistry register(ValueConverterFactory factory) {
+        factories.add(factory);
+        return this;
+    }
+
+    /**
+     * Register all converters and factories of another registry, the number format is not copied
+     *
+     * @param registry Registry to copy converters from
+     * @return Current registry
+     */
+    public ConverterRegistry register(ConverterRegistry registry) {
+        converters.putAll(registry.converters);
+        factories.addAll(registry.factories);
+        return this;
+    }
+
+    /**
+     * Set number format for the built-in floating point and {@link java.math.BigDecimal} converters
+     *
+     * @param decimalSeparator  Decimal separator
+     * @param groupingSeparator Grouping separator or <code>0</code> if no grouping is used
+     * @return Current registry
+     */
+    public ConverterRegistry numberFormat(char decimalSeparator, char groupingSeparator) {
+        this.defaultConverters = new DefaultConverters(new FastDoubleParser(decimalSeparator, groupingSeparator));
+        return this;
+    }
+
+    /**
+     * Resolve converter for column
+     *
+     * @param type   Field type
+     * @param column Column annotation
+     * @return Converter
+     */
+    @SuppressWarnings("unchecked")
+    public ValueConverter<Object> resolve(Class<?> type, CsvColumn column) {
+        Class<?> wrapped = wrap(type);
+        ValueConverter<?> converter = converters.get(wrapped);
+
+        for (int i = 0; converter == null && i < factories.size(); i++) {
+            converter = factories.get(i).create(wrapped, column);
+        }
+
+        if (converter == null) {
+            converter = defaultConverters.create(wrapped, column);
+        }
+
+        if (converter == null) {
+            converter = DefaultConverters.fallback(type);
+        }
+        return (ValueConverter<Object>) converter;
+    }
+
+    /**
+     * Check if converter is one of the built-in converters, the binder may bypass those for primitive fields
+     *
+     * @param converter Converter
+     * @return true if converter is built-in
+     */
+    public static boolean isBuiltIn(ValueConverter<?> converter) {
+        return converter instanceof DefaultConverters.BuiltIn;
+    }
+
+    /**
+     * Get wrapper type for primitive types
+     *
+     * @param type Type
+     * @return Wrapper type or the type itself if it is no primitive
+     */
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+}
@@ -0,0 +1,364 @@
+package com.github.timo_reymann.csv_parser.convert;
+
+import com.github.timo_reymann.csv_parser.meta.CsvColumn;
+import com.github.timo_reymann.csv_parser.util.Converter;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+import com.github.timo_reymann.csv_parser.util.FixedWidthDateTimeFormat;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.UUID;
+
+/**
+ * Built-in converters, empty values are read as null for all types except {@link String}
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+class DefaultConverters implements ValueConverterFactory {
+    private static final FixedWidthDateTimeFormat INSTANT_SECONDS = FixedWidthDateTimeFormat.compile("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final FixedWidthDateTimeFormat INSTANT_MILLIS = FixedWidthDateTimeFormat.compile("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Converter api
+     */
+    private final Converter converter;
+
+    /**
+     * Parser for floating point values
+     */
+    private final FastDoubleParser doubleParser;
+
+    DefaultConverters(FastDoubleParser doubleParser) {
+        this.doubleParser = doubleParser;
+        this.converter = new Converter(doubleParser);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ValueConverter<?> create(Class<?> type, CsvColumn column) {
+        if (type == String.class) {
+            return new StringConverter();
+        } else if (type == Integer.class) {
+            return new NullableConverter<Integer>() {
+                @Override
+                Integer readNonEmpty(String value) {
+                    return converter.convertToInt(value);
+                }
+
+                @Override
+                public void write(Integer value, StringBuilder out) {
+                    out.append(value.intValue());
+                }
+            };
+        } else if (type == Long.class) {
+            return new NullableConverter<Long>() {
+                @Override
+                Long readNonEmpty(String value) {
+                    return Long.parseLong(value);
+                }
+
+                @Override
+                public void write(Long value, StringBuilder out) {
+                    out.append(value.longValue());
+                }
+            };
+        } else if (type == Short.class) {
+            return new NullableConverter<Short>() {
+                @Override
+                Short readNonEmpty(String value) {
+                    return Short.parseShort(value);
+                }
+
+                @Override
+                public void write(Short value, StringBuilder out) {
+                    out.append(value.shortValue());
+                }
+            };
+        } else if (type == Byte.class) {
+            return new NullableConverter<Byte>() {
+                @Override
+                Byte readNonEmpty(String value) {
+                    return Byte.parseByte(value);
+                }
+
+                @Override
+                public void write(Byte value, StringBuilder out) {
+                    out.append(value.byteValue());
+                }
+            };
+        } else if (type == Boolean.class) {
+            return new NullableConverter<Boolean>() {
+                @Override
+                Boolean readNonEmpty(String value) {
+                    return converter.convertToBoolean(value);
+                }
+
+                @Override
+                public void write(Boolean value, StringBuilder out) {
+                    out.append(value.booleanValue());
+                }
+            };
+        } else if (type == Double.class) {
+            return new NullableConverter<Double>() {
+                @Override
+                Double readNonEmpty(String value) {
+                    return converter.convertToDouble(value);
+                }
+
+                @Override
+                public void write(Double value, StringBuilder out) {
+                    out.append(value.doubleValue());
+                }
+            };
+        } else if (type == Float.class) {
+            return new NullableConverter<Float>() {
+                @Override
+                Float readNonEmpty(String value) {
+                    return converter.convertToFloat(value);
+                }
+
+                @Override
+                public void write(Float value, StringBuilder out) {
+                    out.append(value.floatValue());
+                }
+            };
+        } else if (type == BigDecimal.class) {
+            return new NullableConverter<BigDecimal>() {
+                @Override
+                BigDecimal readNonEmpty(String value) {
+                    return new BigDecimal(doubleParser.normalize(value, 0, value.length()));
+                }
+
+                @Override
+                public void write(BigDecimal value, StringBuilder out) {
+                    out.append(value);
+                }
+            };
+        } else if (type == BigInteger.class) {
+            return new NullableConverter<BigInteger>() {
+                @Override
+                BigInteger readNonEmpty(String value) {
+                    return new BigInteger(value);
+                }
+
+                @Override
+                public void write(BigInteger value, StringBuilder out) {
+                    out.append(value);
+                }
+            };
+        } else if (type.isEnum()) {
+            return new EnumConverter(type);
+        } else if (type == Instant.class) {
+            return new InstantConverter();
+        } else if (type == UUID.class) {
+            return new UuidConverter();
+        } else if (type == LocalDate.class) {
+            String format = column.format();
+            return new NullableConverter<LocalDate>() {
+                @Override
+                LocalDate readNonEmpty(String value) {
+                    return converter.convertToLocalDate(format, value);
+                }
+
+                @Override
+                public void write(LocalDate value, StringBuilder out) {
+                    converter.appendLocalDate(format, value, out);
+                }
+            };
+        } else if (type == LocalDateTime.class) {
+            String format = column.format();
+            return new NullableConverter<LocalDateTime>() {
+                @Override
+                LocalDateTime readNonEmpty(String value) {
+                    return converter.convertToLocalDateTime(format, value);
+                }
+
+                @Override
+                public void write(LocalDateTime value, StringBuilder out) {
+                    converter.appendLocalDateTime(format, value, out);
+                }
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Create converter for types without registered or built-in converter
+     *
+     * @param type Field type
+     * @return Converter writing {@link Object#toString()} and reading the raw string
+     */
+    static ValueConverter<Object> fallback(Class<?> type) {
+        return new FallbackConverter(type);
+    }
+
+    /**
+     * Marker for built-in converters
+     */
+    interface BuiltIn {
+    }
+
+    /**
+     * Converter reading empty values as null
+     *
+     * @param <V> Type
+     */
+    private abstract static class NullableConverter<V> implements ValueConverter<V>, BuiltIn {
+        @Override
+        public V read(String value) {
+            return value.isEmpty() ? null : readNonEmpty(value);
+        }
+
+        abstract V readNonEmpty(String value);
+    }
+
+    /**
+     * Strings are passed through, empty values stay empty
+     */
+    private static final class StringConverter implements ValueConverter<String>, BuiltIn {
+        @Override
+        public String read(String value) {
+            return value;
+        }
+
+        @Override
+        public void write(String value, StringBuilder out) {
+            out.append(value);
+        }
+    }
+
+    /**
+     * Values are written using {@link Object#toString()}, raw strings are assigned to fields that can hold them,
+     * other types can not be read
+     */
+    private static final class FallbackConverter implements ValueConverter<Object> {
+        private final Class<?> type;
+
+        FallbackConverter(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object read(String value) {
+            if (!type.isAssignableFrom(String.class)) {
+                throw new IllegalArgumentException("No converter registered for type " + type.getName());
+            }
+            return value;
+        }
+
+        @Override
+        public void write(Object value, StringBuilder out) {
+            out.append(value);
+        }
+    }
+
+    /**
+     * Converter for enums using the constant names, lookup map is built once per column
+     */
+    private static final class EnumConverter<E extends Enum<E>> extends NullableConverter<E> {
+        private final Class<E> type;
+        private final HashMap<String, E> constants = new HashMap<>();
+
+        EnumConverter(Class<E> type) {
+            this.type = type;
+            for (E constant : type.getEnumConstants()) {
+                constants.put(constant.name(), constant);
+            }
+        }
+
+        @Override
+        E readNonEmpty(String value) {
+            E constant = constants.get(value);
+            if (constant == null) {
+                throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+            }
+            return constant;
+        }
+
+        @Override
+        public void write(E value, StringBuilder out) {
+            out.append(value.name());
+        }
+    }
+
+    /**
+     * ISO-8601 instants in UTC, the common fixed width representations skip the formatter
+     */
+    private static final class InstantConverter extends NullableConverter<Instant> {
+        @Override
+        Instant readNonEmpty(String value) {
+            LocalDateTime dateTime = INSTANT_SECONDS.parseLocalDateTime(value, 0, value.length());
+            if (dateTime == null) {
+                dateTime = INSTANT_MILLIS.parseLocalDateTime(value, 0, value.length());
+            }
+            return dateTime == null ? Instant.parse(value) : dateTime.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public void write(Instant value, StringBuilder out) {
+            int nano = value.getNano();
+            FixedWidthDateTimeFormat format = nano == 0 ? INSTANT_SECONDS : nano % 1_000_000 == 0 ? INSTANT_MILLIS : null;
+            if (format == null || !format.formatTo(LocalDateTime.ofEpochSecond(value.getEpochSecond(), nano, ZoneOffset.UTC), out)) {
+                DateTimeFormatter.ISO_INSTANT.formatTo(value, out);
+            }
+        }
+    }
+
+    /**
+     * UUIDs in canonical form are parsed and written without intermediate strings
+     */
+    private static final class UuidConverter extends NullableConverter<UUID> {
+        @Override
+        UUID readNonEmpty(String value) {
+            if (value.length() != 36 || value.charAt(8) != '-' || value.charAt(13) != '-'
+                    || value.charAt(18) != '-' || value.charAt(23) != '-') {
+                return UUID.fromString(value);
+            }
+
+            long mostSignificant = 0;
+            long leastSignificant = 0;
+            for (int i = 0; i < 36; i++) {
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    continue;
+                }
+                int digit = Character.digit(value.charAt(i), 16);
+                if (digit == -1) {
+                    return UUID.fromString(value);
+                }
+                if (i < 19) {
+                    mostSignificant = mostSignificant << 4 | digit;
+                } else {
+                    leastSignificant = leastSignificant << 4 | digit;
+                }
+            }
+            return new UUID(mostSignificant, leastSignificant);
+        }
+
+        @Override
+        public void write(UUID value, StringBuilder out) {
+            appendHex(out, value.getMostSignificantBits() >>> 32, 8);
+            out.append('-');
+            appendHex(out, value.getMostSignificantBits() >>> 16, 4);
+            out.append('-');
+            appendHex(out, value.getMostSignificantBits(), 4);
+            out.append('-');
+            appendHex(out, value.getLeastSignificantBits() >>> 48, 4);
+            out.append('-');
+            appendHex(out, value.getLeastSignificantBits(), 12);
+        }
+
+        private static void appendHex(StringBuilder out, long value, int digits) {
+            for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+                out.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+            }
+        }
+    }
+}
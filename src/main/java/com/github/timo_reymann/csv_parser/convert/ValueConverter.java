@@ -0,0 +1,26 @@
+package com.github.timo_reymann.csv_parser.convert;
+
+/**
+ * Converter between the raw csv value and the type of a bean field
+ *
+ * @param <V> Type of the field
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public interface ValueConverter<V> {
+    /**
+     * Convert raw value read from csv
+     *
+     * @param value Raw value, never null but may be empty
+     * @return Converted value, may be null
+     */
+    V read(String value);
+
+    /**
+     * Append value to the line that is currently written
+     *
+     * @param value Value to write, never null
+     * @param out   Builder for the current line
+     */
+    void write(V value, StringBuilder out);
+}
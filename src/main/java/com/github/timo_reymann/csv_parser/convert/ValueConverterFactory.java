@@ -0,0 +1,20 @@
+package com.github.timo_reymann.csv_parser.convert;
+
+import com.github.timo_reymann.csv_parser.meta.CsvColumn;
+
+/**
+ * Factory for converters that depend on the field type or column settings like {@link CsvColumn#format()}
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public interface ValueConverterFactory {
+    /**
+     * Create converter for column
+     *
+     * @param type   Type of the field
+     * @param column Column annotation of the field
+     * @return Converter or null if the type is not supported by this factory
+     */
+    ValueConverter<?> create(Class<?> type, CsvColumn column);
+}
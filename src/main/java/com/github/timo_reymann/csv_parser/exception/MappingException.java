@@ -15,4 +15,14 @@ public class MappingException extends RuntimeException {
     public MappingException(String msg) {
         super(msg);
     }
+
+    /**
+     * Create mapping exception
+     *
+     * @param msg   Message to display for the user
+     * @param cause Cause
+     */
+    public MappingException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
 }
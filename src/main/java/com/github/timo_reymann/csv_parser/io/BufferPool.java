@@ -0,0 +1,273 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of byte buffers for reading, shared by readers and tokenizers
+ * <p>
+ * Buffers are handed out in power of two size classes from {@link #MIN_SIZE} to {@link #MAX_SIZE}. Each thread keeps
+ * one buffer per class up to {@link #THREAD_LOCAL_MAX_SIZE}, so short reads on the same thread reuse their buffer
+ * without any synchronization. All other released buffers are kept in shared queues as long as their total size stays
+ * below the capacity of the pool, buffers beyond are left to the garbage collector.
+ * <p>
+ * Buffers kept per thread are not counted against the capacity, as they are only reclaimed when their thread dies.
+ * In total the pool holds at most its capacity plus {@link #THREAD_LOCAL_BYTES} per thread using it.
+ * <p>
+ * The pool also records the average width of rows read and written per bean class, {@link #sizeFor(Class, long, int)}
+ * uses it to size buffers for a number of rows instead of a fixed size.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class BufferPool {
+    /**
+     * Size of the smallest buffer handed out
+     */
+    public static final int MIN_SIZE = 4 * 1024;
+
+    /**
+     * Size of the largest pooled buffer, larger buffers are allocated and dropped
+     */
+    public static final int MAX_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Size of the largest buffer kept per thread
+     */
+    public static final int THREAD_LOCAL_MAX_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of bytes kept per thread, one buffer of every size class up to {@link #THREAD_LOCAL_MAX_SIZE}
+     */
+    public static final int THREAD_LOCAL_BYTES = 2 * THREAD_LOCAL_MAX_SIZE - MIN_SIZE;
+
+    /**
+     * Default number of bytes kept in the shared queues
+     */
+    public static final long DEFAULT_CAPACITY = 32L * 1024 * 1024;
+
+    /**
+     * Number of rows a buffer sized by row width holds
+     */
+    public static final int ROWS_PER_BUFFER = 512;
+
+    /**
+     * Inputs larger than this are read using at least {@link #LARGE_INPUT_SIZE} bytes per buffer
+     */
+    private static final long LARGE_INPUT = 64L * 1024 * 1024;
+
+    /**
+     * Buffer size for large inputs
+     */
+    private static final int LARGE_INPUT_SIZE = 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SHIFT + 1;
+
+    private static final int THREAD_LOCAL_CLASS_COUNT = Integer.numberOfTrailingZeros(THREAD_LOCAL_MAX_SIZE) - MIN_SHIFT + 1;
+
+    /**
+     * Pool used by default
+     */
+    private static final BufferPool SHARED = new BufferPool(DEFAULT_CAPACITY);
+
+    /**
+     * Maximum number of bytes kept in the shared queues
+     */
+    private final long capacity;
+
+    /**
+     * Number of bytes currently kept in the shared queues
+     */
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    /**
+     * Released buffers per size class
+     */
+    private final ConcurrentLinkedQueue<byte[]>[] queues;
+
+    /**
+     * Buffer kept per size class for the current thread
+     */
+    private final ThreadLocal<byte[][]> local = ThreadLocal.withInitial(() -> new byte[THREAD_LOCAL_CLASS_COUNT][]);
+
+    /**
+     * Average row width in bytes per bean class, 0 if no rows were recorded. Attached to the class itself, so the
+     * shared pool does not keep bean classes and their class loaders from being unloaded.
+     */
+    private final ClassValue<AtomicInteger> rowWidths = new ClassValue<AtomicInteger>() {
+        @Override
+        protected AtomicInteger computeValue(Class<?> type) {
+            return new AtomicInteger();
+        }
+    };
+
+    /**
+     * Create pool
+     *
+     * @param capacity Maximum number of bytes kept in the shared queues, buffers kept per thread are not counted
+     *                 (see {@link #THREAD_LOCAL_BYTES})
+     */
+    public BufferPool(long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        this.capacity = capacity;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ConcurrentLinkedQueue<byte[]>[] queues = new ConcurrentLinkedQueue[CLASS_COUNT];
+        this.queues = queues;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Get pool used by default
+     *
+     * @return Shared pool
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get size class for a minimum size
+     *
+     * @param size Minimum size, at most {@link #MAX_SIZE}
+     * @return Index of size class
+     */
+    private static int classOf(int size) {
+        if (size <= MIN_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Get a buffer of at least the given size, buffers are not cleared
+     *
+     * @param minSize Minimum size
+     * @return Buffer, the size is a power of two unless it exceeds {@link #MAX_SIZE}
+     */
+    public byte[] acquire(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("Size must not be negative");
+        }
+        if (minSize > MAX_SIZE) {
+            return new byte[minSize];
+        }
+
+        int sizeClass = classOf(minSize);
+        if (sizeClass < THREAD_LOCAL_CLASS_COUNT) {
+            byte[][] slots = local.get();
+            byte[] buffer = slots[sizeClass];
+            if (buffer != null) {
+                slots[sizeClass] = null;
+                return buffer;
+            }
+        }
+
+        byte[] buffer = queues[sizeClass].poll();
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.length);
+            return buffer;
+        }
+        return new byte[MIN_SIZE << sizeClass];
+    }
+
+    /**
+     * Return buffer to the pool, it must not be used afterwards
+     *
+     * @param buffer Buffer acquired from any pool, other buffers are ignored
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length < MIN_SIZE || buffer.length > MAX_SIZE || Integer.bitCount(buffer.length) != 1) {
+            return;
+        }
+
+        int sizeClass = classOf(buffer.length);
+        if (sizeClass < THREAD_LOCAL_CLASS_COUNT) {
+            byte[][] slots = local.get();
+            if (slots[sizeClass] == null) {
+                slots[sizeClass] = buffer;
+                return;
+            }
+        }
+
+        if (pooledBytes.addAndGet(buffer.length) > capacity) {
+            pooledBytes.addAndGet(-buffer.length);
+            return;
+        }
+        queues[sizeClass].offer(buffer);
+    }
+
+    /**
+     * Get number of bytes kept in the shared queues
+     *
+     * @return Number of bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Get maximum number of bytes kept in the shared queues, buffers kept per thread are not counted
+     *
+     * @return Capacity in bytes
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Record rows read or written for a bean class, the average width is smoothed over all calls
+     *
+     * @param type  Bean class
+     * @param bytes Number of bytes of all rows
+     * @param rows  Number of rows
+     */
+    public void recordRows(Class<?> type, long bytes, long rows) {
+        if (type == null || rows <= 0 || bytes <= 0) {
+            return;
+        }
+        int width = (int) Math.min(Integer.MAX_VALUE, Math.max(1, bytes / rows));
+        rowWidths.get(type).updateAndGet(previous -> previous == 0 ? width : (int) ((previous * 3L + width) / 4));
+    }
+
+    /**
+     * Get average width of rows recorded for a bean class
+     *
+     * @param type Bean class
+     * @return Width in bytes, 0 if no rows were recorded
+     */
+    public int getRowWidth(Class<?> type) {
+        return type == null ? 0 : rowWidths.get(type).get();
+    }
+
+    /**
+     * Get buffer size for a bean class and input
+     * <p>
+     * With recorded rows the buffer holds {@link #ROWS_PER_BUFFER} rows, otherwise the default size is used. Inputs of
+     * known length smaller than that get a buffer just large enough, inputs larger than 64 MB at least 1 MB.
+     *
+     * @param type        Bean class
+     * @param length      Length of input in bytes, negative if unknown
+     * @param defaultSize Size without recorded rows
+     * @return Buffer size between {@link #MIN_SIZE} and {@link #MAX_SIZE}, a power of two
+     */
+    public int sizeFor(Class<?> type, long length, int defaultSize) {
+        int width = getRowWidth(type);
+        long size = width > 0 ? (long) width * ROWS_PER_BUFFER : defaultSize;
+        if (length >= 0) {
+            // One byte more, so reaching the end of input does not grow the buffer
+            size = Math.min(size, length + 1);
+            if (length > LARGE_INPUT) {
+                size = Math.max(size, LARGE_INPUT_SIZE);
+            }
+        }
+        size = Math.max(MIN_SIZE, Math.min(MAX_SIZE, size));
+        return MIN_SIZE << classOf((int) size);
+    }
+}
@@ -0,0 +1,353 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writer for beans that can be shared by many producer threads
+ * <p>
+ * Lines are formatted into striped buffers, the stripe is selected by the id of the calling thread, so threads
+ * formatting lines at the same time rarely wait for each other. A stripe is encoded and written to the output once it
+ * is full, always containing whole lines only, so lines of different threads never interleave. The order of lines
+ * written by different threads is not defined, lines written by the same thread keep their order.
+ * <p>
+ * Headings are written when the writer is created, the output is not checked again for every line.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class ConcurrentCsvWriter<T> implements AutoCloseable, Closeable, Flushable {
+    /**
+     * Default size of a stripe in chars
+     */
+    public static final int DEFAULT_STRIPE_SIZE = 64 * 1024;
+
+    /**
+     * Writer the stripes are written to
+     */
+    private final CsvWriter<T> writer;
+
+    /**
+     * Buffers of lines not written yet
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Mask to select a stripe by thread id
+     */
+    private final int mask;
+
+    /**
+     * Size of a stripe in chars, the stripe is written once it is reached
+     */
+    private final int stripeSize;
+
+    /**
+     * Line separator of the writer
+     */
+    private final String lineSeperator;
+
+    /**
+     * Lock for writing to the output, always acquired after the lock of a stripe
+     */
+    private final Object outputLock = new Object();
+
+    /**
+     * Number of lines written
+     */
+    private final LongAdder writtenLines = new LongAdder();
+
+    /**
+     * Writer was closed
+     */
+    private volatile boolean closed;
+
+    private ConcurrentCsvWriter(Builder<T> builder) throws IOException {
+        this.writer = builder.writer;
+        this.stripeSize = builder.stripeSize;
+        this.lineSeperator = writer.getLineSeperator();
+        this.stripes = new Stripe[builder.stripes];
+        this.mask = builder.stripes - 1;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+
+        // Resolve heading state once, lines are written around the buffered writer afterwards
+        writer.writeHeadingIfRequired();
+        writer.flush();
+    }
+
+    /**
+     * Write bean, may be called by multiple threads at the same time
+     *
+     * @param bean Bean to write
+     * @throws IllegalAccessException Error getting value from object
+     * @throws IOException            Error writing to file or writer is closed
+     */
+    public void writeLine(T bean) throws IllegalAccessException, IOException {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            ensureOpen();
+            append(stripe, bean);
+            if (stripe.buffer.length() >= stripeSize) {
+                drain(stripe);
+            }
+        }
+        writtenLines.increment();
+    }
+
+    /**
+     * Write beans, the lines are kept together in the output
+     *
+     * @param beans Beans to write
+     * @throws IllegalAccessException Error getting value from object
+     * @throws IOException            Error writing to file or writer is closed
+     */
+    public void writeLine(List<T> beans) throws IllegalAccessException, IOException {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            ensureOpen();
+            for (T bean : beans) {
+                append(stripe, bean);
+            }
+            if (stripe.buffer.length() >= stripeSize) {
+                drain(stripe);
+            }
+        }
+        writtenLines.add(beans.size());
+    }
+
+    /**
+     * Get number of lines written, including lines not flushed yet
+     *
+     * @return Number of lines
+     */
+    public long getWrittenLines() {
+        return writtenLines.sum();
+    }
+
+    /**
+     * Write the lines of all stripes to the output
+     *
+     * @throws IOException Error writing to file
+     */
+    @Override
+    public void flush() throws IOException {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                drain(stripe);
+            }
+        }
+        synchronized (outputLock) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Flush all stripes and close the underlying writer, lines written afterwards are rejected. Atomic writers
+     * discard the written data, use {@link #commit()} to publish it.
+     *
+     * @throws IOException Error writing or closing
+     */
+    @Override
+    public void close() throws IOException {
+        if (!markClosed()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (outputLock) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Flush all stripes and commit the underlying writer using {@link CsvWriter#commit()}, lines written afterwards
+     * are rejected. If flushing fails the writer is closed without committing.
+     *
+     * @throws IOException Error writing or committing
+     */
+    public void commit() throws IOException {
+        if (!markClosed()) {
+            throw new IOException("Writer is closed");
+        }
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            synchronized (outputLock) {
+                try {
+                    writer.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        synchronized (outputLock) {
+            writer.commit();
+        }
+    }
+
+    /**
+     * Reject further lines
+     *
+     * @return Writer was open before
+     */
+    private boolean markClosed() {
+        synchronized (outputLock) {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().getId() & mask];
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+    }
+
+    /**
+     * Append bean as line to stripe, nothing is appended if formatting fails
+     *
+     * @param stripe Stripe, locked by the caller
+     * @param bean   Bean
+     * @throws IllegalAccessException Error getting value from object
+     */
+    private void append(Stripe stripe, T bean) throws IllegalAccessException {
+        StringBuilder buffer = stripe.buffer;
+        int start = buffer.length();
+        try {
+            writer.appendLine(bean, buffer);
+        } catch (IllegalAccessException | RuntimeException e) {
+            buffer.setLength(start);
+            throw e;
+        }
+        buffer.append(lineSeperator);
+        stripe.lines++;
+    }
+
+    /**
+     * Encode lines of stripe and write them to the output
+     *
+     * @param stripe Stripe, locked by the caller
+     * @throws IOException Error writing to file
+     */
+    private void drain(Stripe stripe) throws IOException {
+        if (stripe.lines == 0) {
+            return;
+        }
+        // Encode while holding only the stripe, so other stripes can be written meanwhile
+        ByteBuffer bytes = writer.encodeLines(stripe.buffer);
+        synchronized (outputLock) {
+            writer.writeEncoded(bytes, stripe.lines, stripe.buffer.length());
+        }
+        stripe.buffer.setLength(0);
+        stripe.lines = 0;
+    }
+
+    /**
+     * Buffer of lines shared by the threads mapped to it
+     */
+    private static final class Stripe {
+        /**
+         * Whole lines including line separators
+         */
+        private final StringBuilder buffer;
+
+        /**
+         * Number of lines in buffer
+         */
+        private long lines;
+
+        private Stripe(int size) {
+            this.buffer = new StringBuilder(size + size / 4);
+        }
+    }
+
+    /**
+     * Builder for concurrent writer
+     *
+     * @param <T> Type of bean
+     */
+    public static class Builder<T> {
+        private CsvWriter<T> writer;
+        private int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1);
+        private int stripeSize = DEFAULT_STRIPE_SIZE;
+
+        /**
+         * Set writer for beans, the writer is closed with the concurrent writer and must not be used directly anymore
+         *
+         * @param writer Writer
+         * @return Current builder
+         */
+        public Builder<T> writer(CsvWriter<T> writer) {
+            this.writer = writer;
+            return this;
+        }
+
+        /**
+         * Set number of stripes, must be a power of two, default it is at least twice the number of processors
+         *
+         * @param stripes Number of stripes
+         * @return Current builder
+         */
+        public Builder<T> stripes(int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * Set size of a stripe in chars, default it is {@link #DEFAULT_STRIPE_SIZE}
+         *
+         * @param stripeSize Stripe size
+         * @return Current builder
+         */
+        public Builder<T> stripeSize(int stripeSize) {
+            this.stripeSize = stripeSize;
+            return this;
+        }
+
+        /**
+         * Build writer, headings are written if required
+         *
+         * @return Writer ready to be shared between threads
+         * @throws IOException Error writing headings
+         */
+        public ConcurrentCsvWriter<T> build() throws IOException {
+            if (writer == null) {
+                throw new InvalidArgumentException("writer", writer);
+            }
+
+            if (writer.isRecordingBlockIndex()) {
+                // Block index needs the offset of every line in order
+                throw new InvalidArgumentException("writer", "recording block index");
+            }
+
+            if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+                throw new InvalidArgumentException("stripes", stripes);
+            }
+
+            if (stripeSize < 1) {
+                throw new InvalidArgumentException("stripeSize", stripeSize);
+            }
+
+            return new ConcurrentCsvWriter<>(this);
+        }
+    }
+}
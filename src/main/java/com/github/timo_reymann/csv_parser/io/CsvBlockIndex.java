@@ -0,0 +1,860 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.aggregate.HyperLogLog;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Sidecar index of a csv file for skipping blocks of records on filtered reads
+ * <p>
+ * The records after the heading are grouped into blocks of about {@link #DEFAULT_BLOCK_SIZE} bytes. For every indexed
+ * column each block stores the number of values, the smallest and largest value and a bloom filter of the formatted
+ * values. A filtered read only reads the heading and the blocks whose zone map and bloom filter might contain matching
+ * values, so lookups by id or date range in mostly sorted files read a small fraction of the file.
+ * <p>
+ * The index is stored next to the csv file with {@link #EXTENSION} appended to its name. It stores size and
+ * modification time of the file, the bean and type and converter of every indexed column. Indexes with a different
+ * key are stale and ignored. Indexes are only valid for charsets encoding line breaks as single byte (see
+ * {@link CsvTokenizer#isAsciiCompatible(java.nio.charset.Charset)}).
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class CsvBlockIndex {
+    /**
+     * Extension appended to the name of the csv file
+     */
+    public static final String EXTENSION = ".blkidx";
+
+    /**
+     * Default size of blocks in bytes
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * Magic number at the start of index files
+     */
+    private static final int MAGIC = 0x43534249;
+
+    /**
+     * Version of the binary format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Bits of the bloom filter per value, about 1% false positives with {@link #HASHES} hashes
+     */
+    private static final int BITS_PER_VALUE = 10;
+
+    /**
+     * Number of bits set per value in the bloom filter
+     */
+    private static final int HASHES = 7;
+
+    /**
+     * Size of the csv file the index was built for
+     */
+    private final long sourceLength;
+
+    /**
+     * Modification time of the csv file the index was built for
+     */
+    private final long sourceModified;
+
+    /**
+     * Offset of the first record after the heading
+     */
+    private final long dataStart;
+
+    /**
+     * Keys of the indexed columns, see {@link CsvBinder.Column#getKey()}
+     */
+    private final String[] keys;
+
+    /**
+     * Type and converter of every indexed column
+     */
+    private final String[] descriptors;
+
+    /**
+     * Blocks in order of the file
+     */
+    private final List<Block> blocks;
+
+    /**
+     * Converters of the indexed columns, only set for loaded indexes
+     */
+    private ValueConverter<Object>[] converters;
+
+    private CsvBlockIndex(long sourceLength, long sourceModified, long dataStart, String[] keys, String[] descriptors, List<Block> blocks) {
+        this.sourceLength = sourceLength;
+        this.sourceModified = sourceModified;
+        this.dataStart = dataStart;
+        this.keys = keys;
+        this.descriptors = descriptors;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Create array of converters
+     *
+     * @param length Length of array
+     * @return Empty array
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueConverter<Object>[] newConverters(int length) {
+        return new ValueConverter[length];
+    }
+
+    /**
+     * Get index file of csv file
+     *
+     * @param source Csv file
+     * @return Index file, might not exist
+     */
+    public static File getFile(File source) {
+        return new File(source.getPath() + EXTENSION);
+    }
+
+    /**
+     * Load index of csv file
+     *
+     * @param source Csv file
+     * @param binder Binding of the bean
+     * @return Index or null if there is no index file or it is stale
+     * @throws IOException Error reading index file
+     */
+    public static CsvBlockIndex load(File source, CsvBinder<?> binder) throws IOException {
+        File file = getFile(source);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long length = in.readLong();
+            long modified = in.readLong();
+            if (length != source.length() || modified != source.lastModified() || !binder.getBeanClass().getName().equals(in.readUTF())) {
+                return null;
+            }
+
+            long dataStart = in.readLong();
+            int columnCount = in.readInt();
+            String[] keys = new String[columnCount];
+            String[] descriptors = new String[columnCount];
+            ValueConverter<Object>[] converters = newConverters(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                keys[i] = in.readUTF();
+                descriptors[i] = in.readUTF();
+                int slot = findSlot(binder, keys[i]);
+                if (slot == -1 || !descriptors[i].equals(describe(binder.getColumn(slot)))) {
+                    return null;
+                }
+                converters[i] = binder.getColumn(slot).getConverter();
+            }
+
+            int blockCount = in.readInt();
+            List<Block> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(Block.readFrom(in, columnCount));
+            }
+
+            CsvBlockIndex index = new CsvBlockIndex(length, modified, dataStart, keys, descriptors, blocks);
+            index.converters = converters;
+            return index;
+        }
+    }
+
+    /**
+     * Write index next to the csv file, the file is written to a temporary file and moved in place afterwards.
+     * Nothing is written if the size of the csv file differs from the size recorded.
+     *
+     * @param source   Csv file
+     * @param beanName Name of the bean class
+     * @throws IOException Error writing index file
+     */
+    private void store(File source, String beanName) throws IOException {
+        if (source.length() != sourceLength || source.lastModified() != sourceModified) {
+            return;
+        }
+
+        Path target = getFile(source).toPath();
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(sourceLength);
+                out.writeLong(sourceModified);
+                out.writeUTF(beanName);
+                out.writeLong(dataStart);
+                out.writeInt(keys.length);
+                for (int i = 0; i < keys.length; i++) {
+                    out.writeUTF(keys[i]);
+                    out.writeUTF(descriptors[i]);
+                }
+                out.writeInt(blocks.size());
+                for (Block block : blocks) {
+                    block.writeTo(out);
+                }
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Start recording an index, the modification time of the file is taken when the recording is stored
+     *
+     * @param source    Csv file
+     * @param binder    Binding of the bean
+     * @param slots     Binder slots of the indexed columns
+     * @param blockSize Minimum size of blocks in bytes
+     * @return Recorder to add records to
+     */
+    public static Recorder record(File source, CsvBinder<?> binder, int[] slots, int blockSize) {
+        return new Recorder(source, binder, slots, blockSize);
+    }
+
+    /**
+     * Get keys of indexed columns
+     *
+     * @return Keys as string
+     */
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * Get number of blocks
+     *
+     * @return Number of blocks
+     */
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Get offset of the first record after the heading
+     *
+     * @return Offset in bytes
+     */
+    public long getDataStart() {
+        return dataStart;
+    }
+
+    /**
+     * Select blocks that might contain records matching all conditions, conditions on columns that are not indexed
+     * match all blocks
+     *
+     * @param conditions Conditions
+     * @return Indexes of selected blocks
+     */
+    BitSet select(List<Condition> conditions) {
+        BitSet selected = new BitSet(blocks.size());
+        selected.set(0, blocks.size());
+        for (Condition condition : conditions) {
+            int column = Arrays.asList(keys).indexOf(condition.key);
+            if (column == -1) {
+                continue;
+            }
+
+            byte[] formatted = condition.equality ? format(converters[column], condition.from) : null;
+            for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                if (!blocks.get(i).mightMatch(column, converters[column], condition, formatted)) {
+                    selected.clear(i);
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Open stream reading the heading and the selected blocks of the csv file
+     *
+     * @param source   Csv file
+     * @param selected Indexes of blocks to read
+     * @return Stream, closing it closes the file
+     * @throws IOException Error opening file
+     */
+    InputStream open(File source, BitSet selected) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        ranges.add(new long[]{0, dataStart});
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            Block block = blocks.get(i);
+            long[] last = ranges.get(ranges.size() - 1);
+            // Adjacent blocks are read as one range
+            if (last[1] == block.start) {
+                last[1] = block.end;
+            } else {
+                ranges.add(new long[]{block.start, block.end});
+            }
+        }
+        return new RangeInputStream(FileChannel.open(source.toPath(), StandardOpenOption.READ), ranges);
+    }
+
+    /**
+     * Describe type and converter of column, indexes of columns with another description are stale
+     *
+     * @param column Column
+     * @return Description
+     */
+    private static String describe(CsvBinder.Column column) {
+        return column.getType().getName() + ':' + (column.getCsvColumn() == null ? "" : column.getCsvColumn().format())
+                + ':' + column.getConverter().getClass().getName();
+    }
+
+    /**
+     * Find slot of column by key, keys of columns mapped by index are compared as string
+     *
+     * @param binder Binding of the bean
+     * @param key    Key as string
+     * @return Slot or -1 if there is no such column
+     */
+    static int findSlot(CsvBinder<?> binder, String key) {
+        for (int slot = 0; slot < binder.getColumnCount(); slot++) {
+            if (String.valueOf(binder.getColumn(slot).getKey()).equals(key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Format value using the converter of its column
+     *
+     * @param converter Converter
+     * @param value     Value, never null
+     * @return Formatted value encoded as UTF-8
+     */
+    private static byte[] format(ValueConverter<Object> converter, Object value) {
+        StringBuilder out = new StringBuilder();
+        converter.write(value, out);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare values of the same column
+     *
+     * @param a First value
+     * @param b Second value
+     * @return Result of {@link Comparable#compareTo(Object)}
+     */
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * Condition on the value of a column, used for the records and the blocks of a filtered read
+     */
+    static final class Condition {
+        /**
+         * Key of column as string
+         */
+        private final String key;
+
+        /**
+         * Slot of column in the binder
+         */
+        private final int slot;
+
+        /**
+         * Value for equality, lower bound otherwise. Null for ranges without lower bound.
+         */
+        private final Object from;
+
+        /**
+         * Upper bound, null for ranges without upper bound
+         */
+        private final Object to;
+
+        /**
+         * Condition requires equality to {@link #from}
+         */
+        private final boolean equality;
+
+        /**
+         * Create condition
+         *
+         * @param binder   Binding of the bean
+         * @param key      Key of column, see {@link CsvBinder.Column#getKey()}
+         * @param from     Value for equality or inclusive lower bound
+         * @param to       Inclusive upper bound
+         * @param equality Condition requires equality to from
+         * @throws InvalidArgumentException Column is not mapped or values are invalid
+         */
+        Condition(CsvBinder<?> binder, Object key, Object from, Object to, boolean equality) {
+            this.key = String.valueOf(key);
+            this.slot = findSlot(binder, this.key);
+            if (slot == -1) {
+                throw new InvalidArgumentException("where", key);
+            }
+            if (equality && from == null) {
+                throw new InvalidArgumentException("where", null);
+            }
+            if (!equality && ((from != null && !(from instanceof Comparable)) || (to != null && !(to instanceof Comparable)))) {
+                throw new InvalidArgumentException("where", Arrays.asList(from, to));
+            }
+            this.from = from;
+            this.to = to;
+            this.equality = equality;
+        }
+
+        /**
+         * Get slot of column in the binder
+         *
+         * @return Slot
+         */
+        int getSlot() {
+            return slot;
+        }
+
+        /**
+         * Test value of a record
+         *
+         * @param value Converted value, null for empty or missing values
+         * @return true if the value matches
+         */
+        boolean test(Object value) {
+            if (value == null) {
+                return false;
+            }
+            if (equality) {
+                return from instanceof Comparable ? compare(from, value) == 0 : from.equals(value);
+            }
+            return (from == null || compare(value, from) >= 0) && (to == null || compare(value, to) <= 0);
+        }
+    }
+
+    /**
+     * Records of one block and the statistics of its indexed columns
+     */
+    private static final class Block {
+        /**
+         * Offset of the first record
+         */
+        private final long start;
+
+        /**
+         * Offset after the last record
+         */
+        private long end;
+
+        /**
+         * Number of non empty values per column
+         */
+        private final int[] counts;
+
+        /**
+         * Smallest formatted value per column, null if there are no values or they are not comparable
+         */
+        private final String[] mins;
+
+        /**
+         * Largest formatted value per column, null if there are no values or they are not comparable
+         */
+        private final String[] maxs;
+
+        /**
+         * Bloom filter of formatted values per column
+         */
+        private final long[][] blooms;
+
+        /**
+         * Smallest and largest value per column, parsed on first use
+         */
+        private Object[][] bounds;
+
+        private Block(long start, int columnCount) {
+            this.start = start;
+            this.counts = new int[columnCount];
+            this.mins = new String[columnCount];
+            this.maxs = new String[columnCount];
+            this.blooms = new long[columnCount][];
+        }
+
+        /**
+         * Check if block might contain values matching the condition
+         *
+         * @param column    Index of column
+         * @param converter Converter of column
+         * @param condition Condition
+         * @param formatted Formatted value for equality, null for ranges
+         * @return false if no value of the block can match
+         */
+        private boolean mightMatch(int column, ValueConverter<Object> converter, Condition condition, byte[] formatted) {
+            if (counts[column] == 0) {
+                return false;
+            }
+
+            Object[] range = bounds(column, converter);
+            if (range != null) {
+                Object lower = condition.from;
+                Object upper = condition.equality ? condition.from : condition.to;
+                if ((lower != null && compare(lower, range[1]) > 0) || (upper != null && compare(upper, range[0]) < 0)) {
+                    return false;
+                }
+            }
+            return formatted == null || mightContain(blooms[column], HyperLogLog.hash(formatted, 0, formatted.length));
+        }
+
+        /**
+         * Parse smallest and largest value of column
+         *
+         * @param column    Index of column
+         * @param converter Converter of column
+         * @return Smallest and largest value or null if they are unknown
+         */
+        private Object[] bounds(int column, ValueConverter<Object> converter) {
+            if (mins[column] == null) {
+                return null;
+            }
+            if (bounds == null) {
+                bounds = new Object[counts.length][];
+            }
+            if (bounds[column] == null) {
+                try {
+                    bounds[column] = new Object[]{converter.read(mins[column]), converter.read(maxs[column])};
+                } catch (RuntimeException e) {
+                    throw new ParseException("Error parsing bounds of block index", e);
+                }
+            }
+            return bounds[column][0] == null || bounds[column][1] == null ? null : bounds[column];
+        }
+
+        private static boolean mightContain(long[] bloom, long hash) {
+            int bits = bloom.length * Long.SIZE;
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void add(long[] bloom, long hash) {
+            int bits = bloom.length * Long.SIZE;
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                bloom[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(start);
+            out.writeLong(end);
+            for (int i = 0; i < counts.length; i++) {
+                out.writeInt(counts[i]);
+                writeString(out, mins[i]);
+                writeString(out, maxs[i]);
+                out.writeInt(blooms[i].length);
+                for (long word : blooms[i]) {
+                    out.writeLong(word);
+                }
+            }
+        }
+
+        private static Block readFrom(DataInputStream in, int columnCount) throws IOException {
+            Block block = new Block(in.readLong(), columnCount);
+            block.end = in.readLong();
+            for (int i = 0; i < columnCount; i++) {
+                block.counts[i] = in.readInt();
+                block.mins[i] = readString(in);
+                block.maxs[i] = readString(in);
+                block.blooms[i] = new long[in.readInt()];
+                for (int word = 0; word < block.blooms[i].length; word++) {
+                    block.blooms[i][word] = in.readLong();
+                }
+            }
+            return block;
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Recorder building the index while a csv file is read or written
+     */
+    public static final class Recorder {
+        /**
+         * Csv file
+         */
+        private final File source;
+
+        /**
+         * Name of the bean class
+         */
+        private final String beanName;
+
+        /**
+         * Keys of the indexed columns
+         */
+        private final String[] keys;
+
+        /**
+         * Type and converter of the indexed columns
+         */
+        private final String[] descriptors;
+
+        /**
+         * Converters of the indexed columns
+         */
+        private final ValueConverter<Object>[] converters;
+
+        /**
+         * Minimum size of blocks in bytes
+         */
+        private final int blockSize;
+
+        /**
+         * Values of the current record
+         */
+        private final Object[] values;
+
+        /**
+         * Completed blocks
+         */
+        private final List<Block> blocks = new ArrayList<>();
+
+        /**
+         * Block records are added to, null before the first record
+         */
+        private Block current;
+
+        /**
+         * Smallest and largest value per column of the current block
+         */
+        private Object[] mins, maxs;
+
+        /**
+         * Hashes of the formatted values per column of the current block
+         */
+        private long[][] hashes;
+
+        /**
+         * Offset of the first record, -1 before the first record
+         */
+        private long dataStart = -1;
+
+        /**
+         * Reusable builder for formatting values
+         */
+        private final StringBuilder formatted = new StringBuilder();
+
+        private Recorder(File source, CsvBinder<?> binder, int[] slots, int blockSize) {
+            this.source = source;
+            this.beanName = binder.getBeanClass().getName();
+            this.blockSize = blockSize;
+            this.keys = new String[slots.length];
+            this.descriptors = new String[slots.length];
+            this.converters = newConverters(slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                CsvBinder.Column column = binder.getColumn(slots[i]);
+                keys[i] = String.valueOf(column.getKey());
+                descriptors[i] = describe(column);
+                converters[i] = column.getConverter();
+            }
+            this.values = new Object[slots.length];
+        }
+
+        /**
+         * Add current record of tokenizer
+         *
+         * @param tokenizer Tokenizer holding the record
+         * @param columns   Index of value in the record per indexed column, -1 for columns missing in the file
+         * @throws ParseException Error converting value
+         */
+        public void append(CsvTokenizer tokenizer, int[] columns) {
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = null;
+                if (columns[i] >= 0 && columns[i] < tokenizer.getFieldCount()) {
+                    String value = tokenizer.getField(columns[i]);
+                    try {
+                        values[i] = value.isEmpty() ? null : converters[i].read(value);
+                    } catch (RuntimeException e) {
+                        throw new ParseException("Error parsing value '" + value + "' for block index", e);
+                    }
+                }
+            }
+            add(tokenizer.getRecordOffset(), values);
+        }
+
+        /**
+         * Add record
+         *
+         * @param offset Offset of the record in the file
+         * @param values Values of the indexed columns, null for empty values
+         */
+        public void add(long offset, Object[] values) {
+            if (dataStart == -1) {
+                dataStart = offset;
+            }
+            if (current == null || offset - current.start >= blockSize) {
+                completeBlock(offset);
+                current = new Block(offset, keys.length);
+                mins = new Object[keys.length];
+                maxs = new Object[keys.length];
+                hashes = new long[keys.length][16];
+            }
+
+            for (int i = 0; i < keys.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                formatted.setLength(0);
+                converters[i].write(value, formatted);
+                if (formatted.length() == 0) {
+                    // Empty values are read as null, so they never match
+                    continue;
+                }
+
+                int count = current.counts[i]++;
+                if (value instanceof Comparable && (count == 0 || mins[i] != null)) {
+                    if (count == 0 || compare(value, mins[i]) < 0) {
+                        mins[i] = value;
+                    }
+                    if (count == 0 || compare(value, maxs[i]) > 0) {
+                        maxs[i] = value;
+                    }
+                } else {
+                    // Values without order only use the bloom filter
+                    mins[i] = null;
+                    maxs[i] = null;
+                }
+
+                byte[] bytes = formatted.toString().getBytes(StandardCharsets.UTF_8);
+                if (count == hashes[i].length) {
+                    hashes[i] = Arrays.copyOf(hashes[i], count * 2);
+                }
+                hashes[i][count] = HyperLogLog.hash(bytes, 0, bytes.length);
+            }
+        }
+
+        /**
+         * Complete current block, the bloom filters are sized by the number of values
+         *
+         * @param end Offset after the last record of the block
+         */
+        private void completeBlock(long end) {
+            if (current == null) {
+                return;
+            }
+            current.end = end;
+            for (int i = 0; i < keys.length; i++) {
+                int count = current.counts[i];
+                long[] bloom = new long[Math.max(1, (count * BITS_PER_VALUE + Long.SIZE - 1) / Long.SIZE)];
+                for (int value = 0; value < count; value++) {
+                    Block.add(bloom, hashes[i][value]);
+                }
+                current.blooms[i] = bloom;
+                if (mins[i] != null) {
+                    current.mins[i] = new String(format(converters[i], mins[i]), StandardCharsets.UTF_8);
+                    current.maxs[i] = new String(format(converters[i], maxs[i]), StandardCharsets.UTF_8);
+                }
+            }
+            blocks.add(current);
+            current = null;
+        }
+
+        /**
+         * Store recorded index next to the csv file, must only be called once all records were added and the csv
+         * file is complete
+         *
+         * @param end Size of the csv file
+         * @throws IOException Error writing index file
+         */
+        public void store(long end) throws IOException {
+            completeBlock(end);
+            CsvBlockIndex index = new CsvBlockIndex(end, source.lastModified(), dataStart == -1 ? end : dataStart, keys, descriptors, blocks);
+            index.store(source, beanName);
+        }
+    }
+
+    /**
+     * Stream reading ranges of a file one after another
+     */
+    private static class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final Iterator<long[]> ranges;
+        private InputStream current;
+
+        private RangeInputStream(FileChannel channel, List<long[]> ranges) {
+            this.channel = channel;
+            this.ranges = ranges.iterator();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            while (true) {
+                if (current == null) {
+                    if (!ranges.hasNext()) {
+                        return -1;
+                    }
+                    long[] range = ranges.next();
+                    current = FileChunks.open(channel, range[0], range[1]);
+                }
+                int read = current.read(b, off, len);
+                if (read > 0) {
+                    return read;
+                }
+                current = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.MappingException;
+import com.github.timo_reymann.csv_parser.util.Workers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscriber writing beans of a {@link Flow.Publisher} using a {@link CsvWriter}
+ * <p>
+ * Beans are requested in batches sized to fill the output buffer, based on the average length of the lines written
+ * so far. Beans are written on the thread delivering them, so there is no queue between publisher and writer and
+ * never more beans requested than fit into the buffer. The buffer is flushed when it is full, when the flush interval
+ * passes and on completion.
+ * <p>
+ * {@link #getCompletion()} completes once the publisher completed and the writer was flushed, synced if requested
+ * and committed. It completes exceptionally if the publisher signals an error or writing fails, the subscription is
+ * cancelled and the writer closed without committing then.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvFlowSubscriber<T> implements Flow.Subscriber<T> {
+    /**
+     * Default size of the output buffer in chars
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Assumed length of a line until the first lines are written
+     */
+    private static final int INITIAL_LINE_LENGTH = 128;
+
+    /**
+     * Writer for beans
+     */
+    private final CsvWriter<T> writer;
+
+    /**
+     * Size of output buffer in chars
+     */
+    private final int bufferSize;
+
+    /**
+     * Interval for flushing buffered lines, null to flush only if the buffer is full
+     */
+    private final Duration flushInterval;
+
+    /**
+     * Force written data to the storage device before completing
+     */
+    private final boolean syncOnComplete;
+
+    /**
+     * Completed after the writer was closed
+     */
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    /**
+     * Current subscription, null before subscribing
+     */
+    private Flow.Subscription subscription;
+
+    /**
+     * Timer flushing the buffer, null if no flush interval is set
+     */
+    private ScheduledExecutorService timer;
+
+    /**
+     * Number of requested beans not delivered yet
+     */
+    private long outstanding;
+
+    /**
+     * Number of chars written since the last flush
+     */
+    private long buffered;
+
+    /**
+     * Number of lines written
+     */
+    private long lines;
+
+    /**
+     * Number of chars written
+     */
+    private long chars;
+
+    /**
+     * Subscriber reached a terminal state
+     */
+    private boolean done;
+
+    private CsvFlowSubscriber(Builder<T> builder) {
+        this.writer = builder.writer;
+        this.bufferSize = builder.bufferSize;
+        this.flushInterval = builder.flushInterval;
+        this.syncOnComplete = builder.syncOnComplete;
+    }
+
+    /**
+     * Get future completed after all beans were written and the writer was closed
+     *
+     * @return Completion of the subscriber
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Get number of beans written
+     *
+     * @return Number of beans
+     */
+    public synchronized long getWrittenCount() {
+        return lines;
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null || done) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+
+        try {
+            writer.writeHeadingIfRequired();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+            return;
+        }
+
+        if (flushInterval != null) {
+            timer = Executors.newSingleThreadScheduledExecutor(Workers.daemonThreads("csv-flow-subscriber-flush"));
+            long interval = flushInterval.toNanos();
+            timer.scheduleAtFixedRate(this::flushBuffered, interval, interval, TimeUnit.NANOSECONDS);
+        }
+        requestBatch();
+    }
+
+    @Override
+    public synchronized void onNext(T bean) {
+        if (done) {
+            return;
+        }
+        outstanding--;
+
+        try {
+            StringBuilder line = writer.formatLine(bean);
+            int length = line.length() + writer.getLineSeperator().length();
+            writer.writeFormattedLine();
+            lines++;
+            chars += length;
+            buffered += length;
+            if (buffered >= bufferSize) {
+                writer.flush();
+                buffered = 0;
+            }
+        } catch (IOException | IllegalAccessException | RuntimeException e) {
+            subscription.cancel();
+            fail(e);
+            return;
+        }
+
+        if (outstanding == 0) {
+            requestBatch();
+        }
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        if (!done) {
+            fail(throwable);
+        }
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        stopTimer();
+
+        try {
+            if (syncOnComplete) {
+                writer.sync();
+            }
+            writer.commit();
+        } catch (IOException | RuntimeException e) {
+            completion.completeExceptionally(e);
+            return;
+        }
+        completion.complete(null);
+    }
+
+    /**
+     * Request as many beans as fit into the free part of the buffer, at least one
+     */
+    private void requestBatch() {
+        long lineLength = lines == 0 ? INITIAL_LINE_LENGTH : Math.max(1, chars / lines);
+        long batch = Math.max(1, (bufferSize - buffered) / lineLength);
+        outstanding += batch;
+        subscription.request(batch);
+    }
+
+    /**
+     * Flush lines written since the last flush, called by the timer
+     */
+    private synchronized void flushBuffered() {
+        if (done || buffered == 0) {
+            return;
+        }
+
+        try {
+            writer.flush();
+            buffered = 0;
+        } catch (IOException e) {
+            subscription.cancel();
+            fail(e);
+        }
+    }
+
+    /**
+     * Close writer and complete exceptionally
+     *
+     * @param error Cause
+     */
+    private void fail(Throwable error) {
+        done = true;
+        stopTimer();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+        completion.completeExceptionally(error instanceof IllegalAccessException
+                ? new MappingException("Error getting value from bean", error) : error);
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Builder for flow subscriber
+     *
+     * @param <T> Type of bean
+     */
+    public static class Builder<T> {
+        private CsvWriter<T> writer;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private Duration flushInterval;
+        private boolean syncOnComplete = false;
+
+        /**
+         * Set writer for beans, the writer is committed on completion
+         *
+         * @param writer Writer
+         * @return Current builder
+         */
+        public Builder<T> writer(CsvWriter<T> writer) {
+            this.writer = writer;
+            return this;
+        }
+
+        /**
+         * Set size of output buffer in chars, default it is {@link #DEFAULT_BUFFER_SIZE}
+         *
+         * @param bufferSize Buffer size
+         * @return Current builder
+         */
+        public Builder<T> bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Flush buffered lines after the interval, default they are flushed only if the buffer is full
+         *
+         * @param flushInterval Maximum time lines stay in the buffer
+         * @return Current builder
+         */
+        public Builder<T> flushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * Force written data to the storage device before completing, only applies to files
+         *
+         * @return Current builder
+         */
+        public Builder<T> syncOnComplete() {
+            this.syncOnComplete = true;
+            return this;
+        }
+
+        /**
+         * Build subscriber
+         *
+         * @return Subscriber ready to subscribe once
+         */
+        public CsvFlowSubscriber<T> build() {
+            if (writer == null) {
+                throw new InvalidArgumentException("writer", writer);
+            }
+
+            if (bufferSize < 1) {
+                throw new InvalidArgumentException("bufferSize", bufferSize);
+            }
+
+            if (flushInterval != null && (flushInterval.isNegative() || flushInterval.isZero())) {
+                throw new InvalidArgumentException("flushInterval", flushInterval);
+            }
+
+            return new CsvFlowSubscriber<>(this);
+        }
+    }
+}
@@ -1,22 +1,33 @@
 package com.github.timo_reymann.csv_parser.io;
 
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.convert.ValueConverterFactory;
 import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
 import com.github.timo_reymann.csv_parser.exception.ParseException;
-import com.github.timo_reymann.csv_parser.meta.CsvMetaDataReader;
-import com.github.timo_reymann.csv_parser.util.Converter;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.meta.CsvLazyRow;
+import com.github.timo_reymann.csv_parser.table.CsvTable;
+import com.github.timo_reymann.csv_parser.table.CsvTableCache;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Setter;
 
 import java.io.*;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Reader for csv files
@@ -26,16 +37,9 @@ import java.util.stream.Stream;
  */
 public class CsvReader<T> implements AutoCloseable, Closeable {
     /**
-     * Underlying file reader
+     * Tokenizer for records of the input
      */
-    @Setter(AccessLevel.PROTECTED)
-    private InputStreamReader inputStream;
-
-    /**
-     * Buffered reader for reading lines
-     */
-    @Setter(AccessLevel.PROTECTED)
-    private BufferedReader bufferedReader;
+    private CsvTokenizer tokenizer;
 
     /**
      * Class object for type to read from file
@@ -53,24 +57,82 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
      * Seperator for csv file
      */
     private String seperator;
+
     /**
      * Headings for file, if headings detection is enabled for this file
      */
     private HashMap<Integer, String> headings = new HashMap<>();
+
+    /**
+     * Converters for field types
+     */
+    private ConverterRegistry converters = new ConverterRegistry();
+
+    /**
+     * Binding of columns to bean fields, resolved on first mapping
+     */
+    private CsvBinder<T> binder;
+
+    /**
+     * Slot in {@link #binder} for every column of the file, -1 for columns that are not mapped. Resolved on first mapping.
+     */
+    private int[] slots;
+
+    /**
+     * Dialect detected from the start of the input, null if detection is disabled
+     */
+    @Getter
+    private Dialect dialect;
+
+    /**
+     * Create beans converting values on first access, disabled if the bean has no generated lazy subclass
+     */
+    private boolean lazy;
+
+    /**
+     * Table loaded from cache, beans are created from it instead of the input. Null if the cache is not used.
+     */
+    private CsvTable<T> cachedTable;
+
+    /**
+     * Next row of {@link #cachedTable}
+     */
+    private int cachedRow;
+
+    /**
+     * Recorder for the cache while the input is read the first time, null if nothing is recorded
+     */
+    private CsvTableCache.Recorder<T> recorder;
+
+    /**
+     * Pool the read buffer is borrowed from and rows are recorded in, null for readers not built by the builder
+     */
+    private BufferPool bufferPool;
+
     /**
-     * Meta data api
+     * Recorder for the block index while the input is read, null if no index is recorded
      */
-    private final CsvMetaDataReader<T> csvMetaDataReader;
+    private CsvBlockIndex.Recorder blockRecorder;
 
     /**
-     * Converter api
+     * Index of value in records per column of the block index
      */
-    private final Converter converter = new Converter();
+    private int[] blockColumns;
 
     /**
-     * Mark if file has been read
+     * Size of the input recorded in the block index
      */
-    private boolean hasReadData = false;
+    private long blockSourceLength;
+
+    /**
+     * Conditions records must match, records not matching are skipped
+     */
+    private List<CsvBlockIndex.Condition> conditions = Collections.emptyList();
+
+    /**
+     * Index of value in records per condition, -1 for columns missing in the file. Resolved on first record.
+     */
+    private int[] conditionColumns;
 
     /**
      * Create CsvReader for file
@@ -96,7 +158,37 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
      */
     public CsvReader(InputStream inputStream, Class<T> clazz, boolean hasHeading, String seperator) {
         this(clazz, hasHeading, seperator);
-        initUsingInputStream(inputStream);
+        initUsingInputStream(inputStream, Charset.defaultCharset());
+    }
+
+    /**
+     * Create CsvReader for InputStream
+     *
+     * @param inputStream InputStream to read from
+     * @param charset     Charset of input
+     * @param clazz       Class of bean to read
+     * @param hasHeading  Has the file headers for column names, null to use the detected headings
+     * @param seperator   Seperator, null to use the detected seperator
+     * @param detector    Detector for dialect, null to disable detection
+     * @param bufferSize  Initial size of the read buffer
+     * @param bufferPool  Pool for the read buffer
+     * @throws IOException Error reading sample or headings
+     */
+    private CsvReader(InputStream inputStream, Charset charset, Class<T> clazz, Boolean hasHeading, String seperator, DialectDetector detector,
+                      int bufferSize, BufferPool bufferPool) throws IOException {
+        this.setClazz(clazz);
+        this.bufferPool = bufferPool;
+        this.tokenizer = new CsvTokenizer(inputStream, charset, Seperator.SEMICOLON.charAt(0), '"', bufferSize, bufferPool);
+
+        if (detector != null) {
+            this.dialect = detector.detect(tokenizer);
+            tokenizer.setQuoteChar(dialect.getQuoteChar());
+        }
+
+        // An explicit heading setting wins over the detected one
+        this.setHasHeading(hasHeading != null ? hasHeading : dialect != null && dialect.isHasHeading());
+        this.setSeperator(seperator == null ? (dialect == null ? Seperator.SEMICOLON : dialect.getSeperator()) : seperator);
+        getHeadings();
     }
 
     /**
@@ -109,155 +201,299 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
     private CsvReader(Class<T> clazz, boolean hasHeading, String seperator) {
         this.setClazz(clazz);
         this.setHasHeading(hasHeading);
-        this.setSeperator(seperator);
-        this.csvMetaDataReader = new CsvMetaDataReader<>(clazz);
+        this.seperator = Seperator.validate(seperator);
     }
 
     /**
-     * Map splitted data of line to object of bean
+     * Map values of current record to object of bean
      *
-     * @param data Data to map
      * @return Mapped object
      * @throws InstantiationException Error creating bean instance, this occurs when
      *                                no default constructor without parameters is available or an exception is thrown during initalization
      * @throws IllegalAccessException Constructor is private
      */
-    private T map(String[] data) throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        if (hasHeading) {
-            return mapByHeading(data);
+    private T map() throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+        int[] slots = resolveSlots();
+        if (lazy) {
+            T bean = mapLazy(slots);
+            if (bean != null) {
+                return bean;
+            }
+            lazy = false;
         }
 
-        return mapByIndex(data);
+        T obj = binder.newInstance();
+        int fieldCount = tokenizer.getFieldCount();
+        // Columns missing in the record are null if mapped by heading and keep their default if mapped by index
+        int columns = hasHeading ? slots.length : Math.min(slots.length, fieldCount);
+        for (int i = 0; i < columns; i++) {
+            // Ignore if field is not mapped, unmapped values are never decoded
+            if (slots[i] != -1) {
+                binder.read(obj, slots[i], i < fieldCount ? tokenizer.getField(i) : null);
+            }
+        }
+        return obj;
     }
 
     /**
-     * Map bean by heading in annotations
+     * Create bean holding the raw values of the current record, values are converted on first access
      *
-     * @param data Data to set
-     * @return Mapped bean instance
-     * @throws IllegalAccessException Constructor is private
-     * @throws InstantiationException Error creating bean instance, this occurs when
-     *                                no default constructor without parameters is available or an exception is thrown during initalization
+     * @param slots Slot for every column
+     * @return Lazy bean or null if there is no lazy subclass of the bean
      */
-    private T mapByHeading(String[] data) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
-        T obj = clazz.getConstructor().newInstance();
-        HashMap<Object, Field> effectiveValueForColumnMapping = csvMetaDataReader.getEffectiveValueForColumnMapping();
-        for (Map.Entry<Integer, String> headingEntry : headings.entrySet()) {
-            String val;
-            try {
-                val = data[headingEntry.getKey()];
-            } catch (ArrayIndexOutOfBoundsException e) { // No element found
-                val = null;
-            }
+    private T mapLazy(int[] slots) {
+        int fieldCount = tokenizer.getFieldCount();
+        int columns = hasHeading ? slots.length : Math.min(slots.length, fieldCount);
+        int[] starts = new int[binder.getColumnCount()];
+        int[] ends = new int[starts.length];
+        Arrays.fill(starts, CsvLazyRow.SKIPPED);
 
-            Field field = effectiveValueForColumnMapping.get(headingEntry.getValue());
+        // Copy only the bytes of the mapped values, the buffer of the tokenizer is reused for the next record
+        int from = Integer.MAX_VALUE;
+        int to = 0;
+        for (int i = 0; i < columns && i < fieldCount; i++) {
+            if (slots[i] != -1) {
+                from = Math.min(from, tokenizer.getFieldStart(i));
+                to = Math.max(to, tokenizer.getFieldEnd(i));
+            }
+        }
+        byte[] bytes = from < to ? Arrays.copyOfRange(tokenizer.getBuffer(), from, to) : new byte[0];
 
-            // Ignore if field is not mapped
-            if (field != null) {
-                setValue(field, obj, val);
+        for (int i = 0; i < columns; i++) {
+            if (slots[i] == -1) {
+                continue;
+            }
+            if (i < fieldCount) {
+                int start = tokenizer.getFieldStart(i);
+                int end = tokenizer.getFieldEnd(i);
+                starts[slots[i]] = start == end ? 0 : start - from;
+                ends[slots[i]] = start == end ? 0 : end - from;
+            } else {
+                starts[slots[i]] = CsvLazyRow.NULL;
             }
         }
-        return obj;
+        return binder.newLazyInstance(bytes, starts, ends, tokenizer.getCharset());
     }
 
     /**
-     * Set value for field, this automatically picks the type for the field
+     * Resolve binder slots for columns of the file, by heading or by index
      *
-     * @param field Field
-     * @param obj   Object to set field in
-     * @param value Value to set to field
-     */
-    private void setValue(Field field, Object obj, String value) {
-        Class<?> type = field.getType();
-        Function<String, Object> mapper = null;
-        // Basic types
-        if (type.isAssignableFrom(String.class)) {
-            mapper = String::valueOf;
-        } else if (type.isAssignableFrom(Integer.class)) {
-            mapper = converter::convertToInt;
-        } else if (type.isAssignableFrom(Boolean.class)) {
-            mapper = converter::convertToBoolean;
-        } else if (type.isAssignableFrom(Double.class)) {
-            mapper = converter::convertToDouble;
-        } else if (type.isAssignableFrom(Float.class)) {
-            mapper = converter::convertToFloat;
-        } else if (type.isAssignableFrom(LocalDate.class)) {
-            mapper = (input) -> converter.convertToLocalDate(getFormatForColumn(field), input);
-        } else if (type.isAssignableFrom(LocalDateTime.class)) {
-            mapper = (input) -> converter.convertToLocalDateTime(getFormatForColumn(field), input);
+     * @return Slot for every column, -1 if the column is not mapped
+     */
+    int[] resolveSlots() {
+        if (slots != null) {
+            return slots;
+        }
+
+        if (binder == null) {
+            binder = new CsvBinder<>(clazz, converters);
+        }
+
+        if (hasHeading) {
+            slots = new int[headings.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = binder.getSlot(headings.get(i));
+            }
         } else {
-            try {
-                // 'Castable' types, may produce error
-                field.set(obj, field.getType().cast(value));
-            } catch (Exception e) {
-                throw new ParseException("Error parsing value '" + value + "'. Assigment for field failed", e);
+            int columnCount = 0;
+            for (int slot = 0; slot < binder.getColumnCount(); slot++) {
+                columnCount = Math.max(columnCount, (int) binder.getColumn(slot).getKey() + 1);
+            }
+            slots = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                slots[i] = binder.getSlot(i);
             }
+        }
+        return slots;
+    }
+
+    /**
+     * Get binding of columns to bean fields, e.g. to access fields of read beans by column
+     *
+     * @return Binder
+     */
+    public CsvBinder<T> getBinder() {
+        resolveSlots();
+        return binder;
+    }
 
-            // Leave method because no mapper is assigned
+    /**
+     * Serve beans from cache if it is up to date, otherwise record records read for the cache
+     *
+     * @param cache             Cache
+     * @param file              Source file
+     * @param decimalSeparator  Decimal separator of floating point values
+     * @param groupingSeparator Grouping separator of floating point values or <code>0</code> if no grouping is used
+     */
+    private void initCache(CsvTableCache cache, File file, char decimalSeparator, char groupingSeparator) {
+        String options = "decimalSeparator=" + decimalSeparator + ";groupingSeparator=" + groupingSeparator;
+        int[] slots = resolveSlots();
+        options += ";seperator=" + seperator + ";quote=" + (dialect == null ? '"' : dialect.getQuoteChar()) + ";heading=" + hasHeading;
+        try {
+            cachedTable = cache.load(file, binder, tokenizer.getCharset(), decimalSeparator, groupingSeparator, options);
+        } catch (IOException | RuntimeException e) {
+            // Unreadable cache files are replaced by reading the input
+            cachedTable = null;
+        }
+
+        if (cachedTable != null) {
+            try {
+                tokenizer.close();
+            } catch (IOException e) {
+                // Input is not read anymore
+            }
             return;
         }
 
-        try {
-            converter.setField(field, obj, value == null ? null : mapper.apply(value));
-        } catch (Exception e) {
-            throw new ParseException("Error assigning value '" + value + "' to field " + field.getName() + "", e);
+        int[] indexes = new int[binder.getColumnCount()];
+        Arrays.fill(indexes, -1);
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != -1) {
+                indexes[slots[i]] = i;
+            }
         }
+        recorder = cache.record(file, binder, tokenizer.getCharset(), decimalSeparator, groupingSeparator, options, indexes);
     }
 
-    private String getFormatForColumn(Field field) {
-        try {
-            return csvMetaDataReader.getCsvColumnForField(field).format();
-        } catch (Exception e) {
-            throw new InvalidArgumentException("format", "Format for column must be set if the datatype requires a format");
+    /**
+     * Record block index of file while it is read
+     *
+     * @param file      Source file
+     * @param slots     Binder slots of indexed columns
+     * @param blockSize Minimum size of blocks in bytes
+     */
+    private void initBlockIndex(File file, int[] slots, int blockSize) {
+        int[] columns = resolveSlots();
+        blockColumns = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            blockColumns[i] = indexOf(columns, slots[i]);
         }
+        blockSourceLength = file.length();
+        blockRecorder = CsvBlockIndex.record(file, binder, slots, blockSize);
     }
 
     /**
-     * Map bean by index specified in annotation
+     * Find column mapped to slot
      *
-     * @param data Data to set
-     * @return Mapped bean
-     * @throws IllegalAccessException Constructor is private
-     * @throws InstantiationException Error creating bean instance, this occurs when
-     *                                no default constructor without parameters is available or an exception is thrown during initalization
+     * @param columns Slot for every column
+     * @param slot    Slot
+     * @return Index of column or -1 if the slot is not mapped
      */
-    private T mapByIndex(String[] data) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
-        T obj = clazz.getConstructor().newInstance();
-        HashMap<Object, Field> effectiveMapping = csvMetaDataReader.getEffectiveValueForColumnMapping();
-        for (int i = 0, dataLength = data.length; i < dataLength; i++) {
-            Field field = effectiveMapping.get(i);
+    private static int indexOf(int[] columns, int slot) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == slot) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-            if (field != null) {
-                setValue(field, obj, data[i]);
+    /**
+     * Move to next record matching the conditions, all records are passed to the recorders of cache and block index
+     *
+     * @return Record is available
+     * @throws IOException Error reading input
+     */
+    private boolean nextRecord() throws IOException {
+        boolean available;
+        do {
+            available = nextRecordRecorded();
+        } while (available && !matchesConditions());
+        return available;
+    }
+
+    /**
+     * Check if current record matches all conditions
+     *
+     * @return true if all conditions match
+     * @throws ParseException Error converting value
+     */
+    private boolean matchesConditions() {
+        if (conditions.isEmpty()) {
+            return true;
+        }
+
+        if (conditionColumns == null) {
+            int[] columns = resolveSlots();
+            conditionColumns = new int[conditions.size()];
+            for (int i = 0; i < conditionColumns.length; i++) {
+                conditionColumns[i] = indexOf(columns, conditions.get(i).getSlot());
             }
         }
-        return obj;
+
+        for (int i = 0; i < conditionColumns.length; i++) {
+            int column = conditionColumns[i];
+            Object value = null;
+            if (column != -1 && column < tokenizer.getFieldCount()) {
+                String raw = tokenizer.getField(column);
+                try {
+                    value = raw.isEmpty() ? null : binder.getColumn(conditions.get(i).getSlot()).getConverter().read(raw);
+                } catch (RuntimeException e) {
+                    throw new ParseException("Error parsing value '" + raw + "' for condition", e);
+                }
+            }
+            if (!conditions.get(i).test(value)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Read line from underlying {@link BufferedReader} and split it by seperator
+     * Get next bean of the cached table matching the conditions
      *
-     * @return String array with columns split by seperator
-     * @throws IOException Error reading line
+     * @return Bean or null if there are no more rows
+     * @throws IllegalAccessException Error getting value of condition from bean
      */
-    private String[] readLineAndSplitBySeperator() throws IOException {
-        if (hasReadData) {
-            return splitBySeperator(bufferedReader.readLine());
-        } else {
-            hasReadData = true;
-            String line = bufferedReader.readLine();
-            return splitBySeperator(line.replace("\uFEFF", ""));
+    private T nextCachedBean() throws IllegalAccessException {
+        while (cachedRow < cachedTable.getRowCount()) {
+            T bean = cachedTable.getBean(cachedRow++);
+            boolean matches = true;
+            for (int i = 0; i < conditions.size() && matches; i++) {
+                matches = conditions.get(i).test(binder.get(bean, conditions.get(i).getSlot()));
+            }
+            if (matches) {
+                return bean;
+            }
         }
+        return null;
     }
 
     /**
-     * Split string by seperator
+     * Move to next record, records are passed to the recorders of cache and block index
      *
-     * @param line Line to split
-     * @return String array with data
+     * @return Record is available
+     * @throws IOException Error reading input
      */
-    private String[] splitBySeperator(String line) {
-        return line.split(seperator);
+    private boolean nextRecordRecorded() throws IOException {
+        boolean available = tokenizer.nextRecord();
+        if (blockRecorder != null) {
+            try {
+                if (available) {
+                    blockRecorder.append(tokenizer, blockColumns);
+                } else {
+                    blockRecorder.store(blockSourceLength);
+                    blockRecorder = null;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Index is optional, reading continues without it
+                blockRecorder = null;
+            }
+        }
+        if (recorder != null) {
+            try {
+                if (available) {
+                    recorder.append(tokenizer);
+                } else {
+                    recorder.store();
+                    recorder = null;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Cache is optional, reading continues without it
+                recorder = null;
+            }
+        }
+        return available;
     }
 
     /**
@@ -271,21 +507,22 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
         }
 
         headings.clear();
-        String[] headingStrings = readLineAndSplitBySeperator();
-        for (int i = 0; i < headingStrings.length; i++) {
-            headings.put(i, headingStrings[i]);
+        if (tokenizer.nextRecord()) {
+            for (int i = 0; i < tokenizer.getFieldCount(); i++) {
+                headings.put(i, tokenizer.getField(i));
+            }
         }
     }
 
     /**
-     * Initialize input stream and {@link BufferedReader} for specified file
+     * Initialize tokenizer for specified file
      *
      * @param file File
      * @throws FileNotFoundException File was not found on disk
      */
     private void initUsingFile(File file) throws FileNotFoundException {
-        inputStream = new FileReader(file);
-        bufferedReader = new BufferedReader(inputStream);
+        tokenizer = new CsvTokenizer(new FileInputStream(file), Charset.defaultCharset(), Seperator.SEMICOLON.charAt(0), '"');
+        tokenizer.setSeperator(seperator);
         try {
             getHeadings();
         } catch (IOException e) {
@@ -297,10 +534,11 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
      * Initialize
      *
      * @param inputStream Input stream to use
+     * @param charset     Charset of input
      */
-    private void initUsingInputStream(InputStream inputStream) {
-        this.inputStream = new InputStreamReader(inputStream);
-        this.bufferedReader = new BufferedReader(this.inputStream);
+    private void initUsingInputStream(InputStream inputStream, Charset charset) {
+        this.tokenizer = new CsvTokenizer(inputStream, charset, Seperator.SEMICOLON.charAt(0), '"');
+        tokenizer.setSeperator(seperator);
         try {
             getHeadings();
         } catch (IOException e) {
@@ -309,54 +547,117 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
     }
 
     /**
-     * Close {@link FileReader} and {@link BufferedReader} instance
+     * Close underlying input and return the read buffer to its pool
      *
-     * @throws IOException Error while trying to close readers
+     * @throws IOException Error while trying to close input
      */
     public void close() throws IOException {
-        this.hasReadData = false;
-
-        if (this.inputStream != null) {
-            this.inputStream.close();
-        }
-
-        if (this.bufferedReader != null) {
-            this.bufferedReader.close();
+        if (this.tokenizer != null) {
+            if (bufferPool != null) {
+                bufferPool.recordRows(clazz, tokenizer.getBytesRead(), tokenizer.getRecordCount());
+            }
+            this.tokenizer.close();
         }
     }
 
     /**
      * Read line from csv file
      *
-     * @return Mapped bean
+     * @return Mapped bean or null if there are no more lines
      * @throws IOException            Error reading line from csv file
      * @throws IllegalAccessException Error mapping fields
      * @throws InstantiationException Error creating new bean instance for mapping
      */
     public T readLine() throws IOException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
-        return map(readLineAndSplitBySeperator());
+        if (cachedTable != null) {
+            return nextCachedBean();
+        }
+
+        if (!nextRecord()) {
+            return null;
+        }
+        return map();
     }
 
     /**
-     * Get stream with remaining lines from {@link BufferedReader} already mapped to beans,
+     * Get stream with remaining lines already mapped to beans,
      * if an error occurred during mapping, its element in list is null
      *
      * @return Stream with mapped bean objects
      */
     public Stream<T> lines() {
-        return bufferedReader.lines()
-                .map(l -> {
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (cachedTable != null) {
+                    T bean;
                     try {
-                        return map(splitBySeperator(l));
-                    } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
-                        // Ignore Exception
+                        bean = nextCachedBean();
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (bean == null) {
+                        return false;
+                    }
+                    action.accept(bean);
+                    return true;
+                }
+
+                try {
+                    if (!nextRecord()) {
+                        return false;
                     }
-                    return null;
-                });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                T bean = null;
+                try {
+                    bean = map();
+                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                    // Ignore Exception
+                }
+                action.accept(bean);
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * Set converters for field types
+     *
+     * @param converters Converter registry
+     */
+    protected void setConverters(ConverterRegistry converters) {
+        this.converters = converters;
+        this.binder = null;
+        this.slots = null;
+    }
+
+    /**
+     * Use binder shared with other readers of the same bean, converters are taken from the binder then
+     *
+     * @param binder Binder
+     */
+    void setBinder(CsvBinder<T> binder) {
+        this.binder = binder;
+        this.slots = null;
+    }
+
+    /**
+     * Set scanner for structural bytes
+     *
+     * @param scanner Scanner, null to check byte by byte
+     */
+    protected void setScanner(StructuralScanner scanner) {
+        tokenizer.setScanner(scanner);
     }
 
     public void setSeperator(String seperator) {
-        this.seperator = Pattern.quote(seperator);
+        this.seperator = Seperator.validate(seperator);
+        if (tokenizer != null) {
+            tokenizer.setSeperator(this.seperator);
+        }
     }
 
     /**
@@ -384,12 +685,77 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
         /**
          * The file has a first line with headings
          */
-        private boolean hasHeading = false;
+        private Boolean hasHeading;
+
+        /**
+         * Separator for file, null if not set explicitly
+         */
+        private String seperator;
+
+        /**
+         * Charset of input
+         */
+        private Charset charset = Charset.defaultCharset();
+
+        /**
+         * Scanner for structural bytes, null to check byte by byte
+         */
+        private StructuralScanner scanner;
+
+        /**
+         * Detector for dialect, null if detection is disabled
+         */
+        private DialectDetector dialectDetector;
+
+        /**
+         * Decimal separator for floating point columns
+         */
+        private char decimalSeparator = '.';
+
+        /**
+         * Grouping separator for floating point columns
+         */
+        private char groupingSeparator = FastDoubleParser.NO_GROUPING;
 
         /**
-         * Separator for file
+         * Converters for field types
          */
-        private String seperator = Seperator.SEMICOLON;
+        private final ConverterRegistry converters = new ConverterRegistry();
+
+        /**
+         * Create beans converting values on first access
+         */
+        private boolean lazy = false;
+
+        /**
+         * Directory of the columnar cache, null if the cache is disabled
+         */
+        private File cacheDirectory;
+
+        /**
+         * Pool for read buffers
+         */
+        private BufferPool bufferPool = BufferPool.shared();
+
+        /**
+         * Initial size of the read buffer, 0 to size it adaptively
+         */
+        private int bufferSize = 0;
+
+        /**
+         * Keys of the columns to record the block index for, null if no index is recorded
+         */
+        private Object[] blockIndexColumns;
+
+        /**
+         * Minimum size of blocks of the block index in bytes
+         */
+        private int blockSize = CsvBlockIndex.DEFAULT_BLOCK_SIZE;
+
+        /**
+         * Conditions as key, lower bound or value, upper bound and equality flag
+         */
+        private final List<Object[]> conditions = new ArrayList<>();
 
         /**
          * Set class of bean
@@ -434,6 +800,119 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
             return this;
         }
 
+        /**
+         * File to read has no heading, the first row is read as values even if {@link #detectDialect()} detects a
+         * heading
+         *
+         * @return Current builder
+         */
+        public Builder<T> noHeading() {
+            this.hasHeading = false;
+            return this;
+        }
+
+        /**
+         * Detect seperator and headings from the first {@value DialectDetector#DEFAULT_SAMPLE_SIZE} bytes of the input.
+         * Explicitly set seperator and headings take precedence over detected ones.
+         *
+         * @return Current builder
+         */
+        public Builder<T> detectDialect() {
+            return detectDialect(DialectDetector.DEFAULT_SAMPLE_SIZE);
+        }
+
+        /**
+         * Detect seperator and headings from the first bytes of the input.
+         * Explicitly set seperator and headings take precedence over detected ones.
+         *
+         * @param sampleSize Number of bytes to sample
+         * @return Current builder
+         */
+        public Builder<T> detectDialect(int sampleSize) {
+            this.dialectDetector = new DialectDetector(sampleSize);
+            return this;
+        }
+
+        /**
+         * Set decimal separator for floating point columns, default it is set to '.'
+         *
+         * @param decimalSeparator Decimal separator, e.g. ',' for <code>1.234,56</code>
+         * @return Current builder
+         */
+        public Builder<T> decimalSeparator(char decimalSeparator) {
+            this.decimalSeparator = decimalSeparator;
+            return this;
+        }
+
+        /**
+         * Set grouping separator for floating point columns, default there is none
+         *
+         * @param groupingSeparator Grouping separator, e.g. '.' for <code>1.234,56</code>
+         * @return Current builder
+         */
+        public Builder<T> groupingSeparator(char groupingSeparator) {
+            this.groupingSeparator = groupingSeparator;
+            return this;
+        }
+
+        /**
+         * Register converter for fields of the given type
+         *
+         * @param type      Field type
+         * @param converter Converter
+         * @param <V>       Field type
+         * @return Current builder
+         */
+        public <V> Builder<T> withConverter(Class<V> type, ValueConverter<V> converter) {
+            this.converters.register(type, converter);
+            return this;
+        }
+
+        /**
+         * Register all converters and converter factories of the registry
+         *
+         * @param converters Registry to copy converters from
+         * @return Current builder
+         */
+        public Builder<T> withConverters(ConverterRegistry converters) {
+            this.converters.register(converters);
+            return this;
+        }
+
+        /**
+         * Register converter factory, e.g. for converters depending on {@link com.github.timo_reymann.csv_parser.meta.CsvColumn#format()}
+         *
+         * @param factory Converter factory
+         * @return Current builder
+         */
+        public Builder<T> withConverterFactory(ValueConverterFactory factory) {
+            this.converters.register(factory);
+            return this;
+        }
+
+        /**
+         * Set scanner used to find seperators, quotes and line breaks in blocks of bytes, e.g.
+         * {@link SwarStructuralScanner} for inputs with long values. Default every byte is checked on its own.
+         *
+         * @param scanner Scanner
+         * @return Current builder
+         */
+        public Builder<T> scanner(StructuralScanner scanner) {
+            this.scanner = scanner;
+            return this;
+        }
+
+        /**
+         * Set charset of input, default it is the platform charset
+         *
+         * @param charset Charset
+         * @return Current builder
+         */
+        public Builder<T> charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
         /**
          * Set the input stream to use instead of file
          *
@@ -445,6 +924,116 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
             return this;
         }
 
+        /**
+         * Create beans holding the raw values of their record, each value is converted on first access of its getter.
+         * Requires a mapper generated by {@link com.github.timo_reymann.csv_parser.processor.CsvMapperProcessor}
+         * with getters and setters for all fields, otherwise beans are mapped as usual.
+         * Errors converting values are thrown by the getters then.
+         *
+         * @return Current builder
+         */
+        public Builder<T> lazy() {
+            this.lazy = true;
+            return this;
+        }
+
+        /**
+         * Cache values of the file in a binary columnar file in the directory. The first read writes the cache file,
+         * once the file was read completely. Later reads load it instead of parsing the file, as long as file, bean
+         * and options are unchanged. See {@link CsvTableCache}.
+         *
+         * @param directory Cache directory
+         * @return Current builder
+         */
+        public Builder<T> cache(File directory) {
+            this.cacheDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Set pool the read buffer is borrowed from, default it is {@link BufferPool#shared()}. The buffer is returned
+         * when the reader is closed.
+         *
+         * @param bufferPool Pool for read buffers
+         * @return Current builder
+         */
+        public Builder<T> bufferPool(BufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Set initial size of the read buffer, default it is sized by {@link BufferPool#sizeFor(Class, long, int)} for
+         * the length of the file and the width of rows read before
+         *
+         * @param bufferSize Buffer size in bytes
+         * @return Current builder
+         */
+        public Builder<T> bufferSize(int bufferSize) {
+            if (bufferSize < 1) {
+                throw new InvalidArgumentException("bufferSize", bufferSize);
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Record a {@link CsvBlockIndex} for the columns while the file is read, unless the file already has an up to
+         * date index for them. The index is written next to the file once it was read completely.
+         *
+         * @param columns Keys of the columns, heading or index as mapped by {@link com.github.timo_reymann.csv_parser.meta.CsvColumn}
+         * @return Current builder
+         */
+        public Builder<T> blockIndex(Object... columns) {
+            if (columns.length == 0) {
+                throw new InvalidArgumentException("blockIndex", columns);
+            }
+            this.blockIndexColumns = columns;
+            return this;
+        }
+
+        /**
+         * Set minimum size of blocks of the recorded block index, default it is {@value CsvBlockIndex#DEFAULT_BLOCK_SIZE}
+         * bytes. Smaller blocks skip more precisely but make the index larger.
+         *
+         * @param blockSize Block size in bytes
+         * @return Current builder
+         */
+        public Builder<T> blockSize(int blockSize) {
+            if (blockSize < 1) {
+                throw new InvalidArgumentException("blockSize", blockSize);
+            }
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Only read records with the value in the column. If the file has an up to date {@link CsvBlockIndex} for the
+         * column, only blocks that might contain the value are read.
+         *
+         * @param column Key of the column, heading or index as mapped by {@link com.github.timo_reymann.csv_parser.meta.CsvColumn}
+         * @param value  Value of the field type
+         * @return Current builder
+         */
+        public Builder<T> where(Object column, Object value) {
+            this.conditions.add(new Object[]{column, value, null, true});
+            return this;
+        }
+
+        /**
+         * Only read records with a value in the column between the bounds, both bounds are inclusive. If the file has an
+         * up to date {@link CsvBlockIndex} for the column, only blocks with values overlapping the range are read.
+         *
+         * @param column Key of the column, heading or index as mapped by {@link com.github.timo_reymann.csv_parser.meta.CsvColumn}
+         * @param from   Lower bound of the field type, null for no lower bound
+         * @param to     Upper bound of the field type, null for no upper bound
+         * @return Current builder
+         */
+        public Builder<T> whereBetween(Object column, Comparable<?> from, Comparable<?> to) {
+            this.conditions.add(new Object[]{column, from, to, false});
+            return this;
+        }
+
         /**
          * Build csv reader instance
          *
@@ -465,25 +1054,112 @@ public class CsvReader<T> implements AutoCloseable, Closeable {
                 throw new InvalidArgumentException("class", clazz);
             }
 
-            CsvReader<T> csvReader;
+            if (decimalSeparator == groupingSeparator) {
+                throw new InvalidArgumentException("groupingSeparator", groupingSeparator);
+            }
+
+            if (cacheDirectory != null && file == null) {
+                throw new InvalidArgumentException("cache", cacheDirectory);
+            }
 
+            if (bufferPool == null) {
+                throw new InvalidArgumentException("bufferPool", bufferPool);
+            }
+
+            boolean indexable = file != null && cacheDirectory == null && CsvTokenizer.isAsciiCompatible(charset);
+            if (blockIndexColumns != null && !indexable) {
+                throw new InvalidArgumentException("blockIndex", Arrays.asList(blockIndexColumns));
+            }
+
+            String seperator = this.seperator == null || this.seperator.isEmpty() ? null : this.seperator;
+            if (seperator != null) {
+                Seperator.validate(seperator);
+            }
+
+            converters.numberFormat(decimalSeparator, groupingSeparator);
+            CsvBinder<T> binder = null;
+            List<CsvBlockIndex.Condition> conditions = new ArrayList<>();
+            int[] blockSlots = null;
+            CsvBlockIndex blockIndex = null;
+            if (blockIndexColumns != null || !this.conditions.isEmpty()) {
+                binder = new CsvBinder<>(clazz, converters);
+                for (Object[] condition : this.conditions) {
+                    conditions.add(new CsvBlockIndex.Condition(binder, condition[0], condition[1], condition[2], (boolean) condition[3]));
+                }
+                if (blockIndexColumns != null) {
+                    blockSlots = new int[blockIndexColumns.length];
+                    for (int i = 0; i < blockSlots.length; i++) {
+                        blockSlots[i] = CsvBlockIndex.findSlot(binder, String.valueOf(blockIndexColumns[i]));
+                        if (blockSlots[i] == -1) {
+                            throw new InvalidArgumentException("blockIndex", blockIndexColumns[i]);
+                        }
+                    }
+                }
+                if (indexable) {
+                    blockIndex = loadBlockIndex(binder);
+                }
+            }
+
+            CsvReader<T> csvReader;
             try {
+                InputStream input;
                 if (inputStream != null) {
-                    csvReader = new CsvReader<T>(inputStream, clazz, hasHeading, seperator);
+                    input = inputStream;
+                } else if (blockIndex != null && !conditions.isEmpty()) {
+                    BitSet blocks = blockIndex.select(conditions);
+                    input = blockIndex.open(file, blocks);
                 } else {
-                    csvReader = new CsvReader<T>(file, clazz, hasHeading, seperator);
+                    input = new FileInputStream(file);
                 }
+                int size = bufferSize > 0 ? bufferSize
+                        : bufferPool.sizeFor(clazz, file == null ? -1 : file.length(), CsvTokenizer.DEFAULT_BUFFER_SIZE);
+                csvReader = new CsvReader<T>(input, charset, clazz, hasHeading, seperator, dialectDetector, size, bufferPool);
             } catch (FileNotFoundException e) {
                 throw new InvalidArgumentException("file", e);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Error reading start of input", e);
             }
 
-            csvReader.setHasHeading(this.hasHeading);
-
-            if (this.seperator != null && !this.seperator.isEmpty()) {
-                csvReader.setSeperator(seperator);
+            csvReader.setConverters(converters);
+            if (binder != null) {
+                csvReader.setBinder(binder);
+            }
+            csvReader.setScanner(scanner);
+            csvReader.lazy = lazy;
+            csvReader.conditions = conditions;
+            if (blockIndexColumns != null && blockIndex == null) {
+                csvReader.initBlockIndex(file, blockSlots, blockSize);
+            }
+            if (cacheDirectory != null) {
+                csvReader.initCache(new CsvTableCache(cacheDirectory), file, decimalSeparator, groupingSeparator);
             }
 
             return csvReader;
         }
+
+        /**
+         * Load block index of the file, indexes not covering all columns to record are ignored
+         *
+         * @param binder Binding of the bean
+         * @return Index or null if there is no up to date index
+         */
+        private CsvBlockIndex loadBlockIndex(CsvBinder<T> binder) {
+            CsvBlockIndex blockIndex;
+            try {
+                blockIndex = CsvBlockIndex.load(file, binder);
+            } catch (IOException | RuntimeException e) {
+                // Unreadable index files are replaced by reading the input
+                return null;
+            }
+
+            if (blockIndex != null && blockIndexColumns != null) {
+                for (Object column : blockIndexColumns) {
+                    if (!blockIndex.getColumns().contains(String.valueOf(column))) {
+                        return null;
+                    }
+                }
+            }
+            return blockIndex;
+        }
     }
 }
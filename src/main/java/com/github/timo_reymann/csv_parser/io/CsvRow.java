@@ -0,0 +1,339 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * View on the current record of a {@link CsvRowReader}
+ * <p>
+ * The row is reused for every record, values are decoded when they are accessed. Char sequences returned are
+ * flyweights reused as well, so they and the row are only valid until the next record is read. Copy values using
+ * {@link #getString(int)} to keep them.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class CsvRow {
+    /**
+     * Tokenizer holding the current record
+     */
+    private final CsvTokenizer tokenizer;
+
+    /**
+     * Index of column per heading, empty if there are no headings
+     */
+    private final Map<String, Integer> headings;
+
+    /**
+     * Parser for floating point values
+     */
+    private final FastDoubleParser numberParser;
+
+    /**
+     * Decoder for non ASCII values
+     */
+    private final CharsetDecoder decoder;
+
+    /**
+     * Decoded chars of the values accessed in the current record
+     */
+    private char[] chars = new char[256];
+
+    /**
+     * Used chars in {@link #chars}
+     */
+    private int charsLength;
+
+    /**
+     * Flyweight per column
+     */
+    private Value[] values = new Value[0];
+
+    /**
+     * Number of the current record, values decoded for older records are stale
+     */
+    private long record;
+
+    /**
+     * Create row
+     *
+     * @param tokenizer    Tokenizer holding the current record
+     * @param headings     Index of column per heading
+     * @param numberParser Parser for floating point values
+     */
+    CsvRow(CsvTokenizer tokenizer, Map<String, Integer> headings, FastDoubleParser numberParser) {
+        this.tokenizer = tokenizer;
+        this.headings = headings;
+        this.numberParser = numberParser;
+        this.decoder = tokenizer.getCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Move to the record the tokenizer has read
+     */
+    void next() {
+        record++;
+        charsLength = 0;
+    }
+
+    /**
+     * Get number of values
+     *
+     * @return Number of values in current record
+     */
+    public int size() {
+        return tokenizer.getFieldCount();
+    }
+
+    /**
+     * Get index of column by heading
+     *
+     * @param heading Heading of column
+     * @return Index of column
+     * @throws IllegalArgumentException There is no column with the heading
+     */
+    public int getIndex(String heading) {
+        Integer index = headings.get(heading);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column " + heading);
+        }
+        return index;
+    }
+
+    /**
+     * Check if value is empty
+     *
+     * @param index Index of column
+     * @return Value is empty
+     */
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return tokenizer.getFieldStart(index) == tokenizer.getFieldEnd(index);
+    }
+
+    /**
+     * Get value, the returned sequence is reused for the column and only valid until the next record is read
+     *
+     * @param index Index of column
+     * @return Decoded value
+     */
+    public CharSequence getCharSequence(int index) {
+        checkIndex(index);
+        if (index >= values.length) {
+            int length = values.length;
+            values = Arrays.copyOf(values, Math.max(index + 1, length * 2));
+            for (int i = length; i < values.length; i++) {
+                values[i] = new Value();
+            }
+        }
+
+        Value value = values[index];
+        if (value.record != record) {
+            decode(index, value);
+        }
+        return value;
+    }
+
+    /**
+     * Get value as string
+     *
+     * @param index Index of column
+     * @return Value
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        return tokenizer.getField(index);
+    }
+
+    /**
+     * Parse value as int, the value is parsed from the raw bytes without decoding
+     *
+     * @param index Index of column
+     * @return Parsed value
+     * @throws NumberFormatException Value is not an int
+     */
+    public int getInt(int index) {
+        long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of range for int: " + getString(index));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse value as long, the value is parsed from the raw bytes without decoding
+     *
+     * @param index Index of column
+     * @return Parsed value
+     * @throws NumberFormatException Value is not a long
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        byte[] buffer = tokenizer.getBuffer();
+        int position = tokenizer.getFieldStart(index);
+        int end = tokenizer.getFieldEnd(index);
+
+        boolean negative = position < end && buffer[position] == '-';
+        if (position < end && (negative || buffer[position] == '+')) {
+            position++;
+        }
+        if (position == end) {
+            throw new NumberFormatException("Invalid long: " + getString(index));
+        }
+
+        // Accumulate negative, so Long.MIN_VALUE can be parsed
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; position < end; position++) {
+            int digit = buffer[position] - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10 || result * 10 < limit + digit) {
+                throw new NumberFormatException("Invalid long: " + getString(index));
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parse value as double, the value is parsed from the raw bytes without decoding
+     *
+     * @param index Index of column
+     * @return Parsed value
+     * @throws NumberFormatException Value is not a double
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        return numberParser.parseDouble(tokenizer.getBuffer(), tokenizer.getFieldStart(index), tokenizer.getFieldEnd(index));
+    }
+
+    /**
+     * Get value by heading, see {@link #getCharSequence(int)}
+     *
+     * @param heading Heading of column
+     * @return Decoded value
+     */
+    public CharSequence getCharSequence(String heading) {
+        return getCharSequence(getIndex(heading));
+    }
+
+    /**
+     * Get value as string by heading
+     *
+     * @param heading Heading of column
+     * @return Value
+     */
+    public String getString(String heading) {
+        return getString(getIndex(heading));
+    }
+
+    /**
+     * Parse value as int by heading
+     *
+     * @param heading Heading of column
+     * @return Parsed value
+     */
+    public int getInt(String heading) {
+        return getInt(getIndex(heading));
+    }
+
+    /**
+     * Parse value as long by heading
+     *
+     * @param heading Heading of column
+     * @return Parsed value
+     */
+    public long getLong(String heading) {
+        return getLong(getIndex(heading));
+    }
+
+    /**
+     * Parse value as double by heading
+     *
+     * @param heading Heading of column
+     * @return Parsed value
+     */
+    public double getDouble(String heading) {
+        return getDouble(getIndex(heading));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= tokenizer.getFieldCount()) {
+            throw new IndexOutOfBoundsException("Column " + index + " does not exist in record with " + tokenizer.getFieldCount() + " values");
+        }
+    }
+
+    /**
+     * Decode value into {@link #chars}
+     *
+     * @param index Index of column
+     * @param value Flyweight of column
+     */
+    private void decode(int index, Value value) {
+        byte[] buffer = tokenizer.getBuffer();
+        int start = tokenizer.getFieldStart(index);
+        int end = tokenizer.getFieldEnd(index);
+
+        // The buffer is UTF-8 or a single byte charset, so values never have more chars than bytes
+        if (charsLength + end - start > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charsLength + end - start));
+        }
+
+        int offset = charsLength;
+        int position = start;
+        while (position < end && buffer[position] >= 0) {
+            chars[charsLength++] = (char) buffer[position++];
+        }
+
+        if (position < end) {
+            CharBuffer out = CharBuffer.wrap(chars, charsLength, chars.length - charsLength);
+            decoder.reset();
+            decoder.decode(ByteBuffer.wrap(buffer, position, end - position), out, true);
+            decoder.flush(out);
+            charsLength = out.position();
+        }
+
+        value.offset = offset;
+        value.length = charsLength - offset;
+        value.record = record;
+    }
+
+    /**
+     * Flyweight for a decoded value
+     */
+    private final class Value implements CharSequence {
+        private int offset;
+        private int length;
+        private long record = -1;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of range for length " + length);
+            }
+            return chars[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, offset, length);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Read csv records without mapping them to beans
+ * <p>
+ * Records are exposed through a single {@link CsvRow} reused for the whole input, so iterating does not allocate
+ * as long as values are parsed as numbers or accessed as char sequences.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvRowReader implements AutoCloseable, Closeable {
+    /**
+     * Tokenizer for records of the input
+     */
+    private final CsvTokenizer tokenizer;
+
+    /**
+     * Headings of the input, empty if there are no headings
+     */
+    @Getter
+    private final List<String> headings;
+
+    /**
+     * Dialect detected from the start of the input, null if detection is disabled
+     */
+    @Getter
+    private final Dialect dialect;
+
+    /**
+     * Row reused for every record
+     */
+    private final CsvRow row;
+
+    /**
+     * Create reader
+     *
+     * @param tokenizer    Tokenizer at start of input
+     * @param seperator    Seperator, null to use the detected seperator
+     * @param hasHeading   Input has heading, null to use the detected headings
+     * @param detector     Detector for dialect, null to disable detection
+     * @param numberParser Parser for floating point values
+     * @throws IOException Error reading sample or headings
+     */
+    private CsvRowReader(CsvTokenizer tokenizer, String seperator, Boolean hasHeading, DialectDetector detector, FastDoubleParser numberParser) throws IOException {
+        this.tokenizer = tokenizer;
+        this.dialect = detector == null ? null : detector.detect(tokenizer);
+        if (dialect != null) {
+            tokenizer.setQuoteChar(dialect.getQuoteChar());
+        }
+        // An explicit seperator wins over the detected one
+        if (seperator != null) {
+            tokenizer.setSeperator(seperator);
+        } else if (dialect != null) {
+            tokenizer.setSeperator(dialect.getSeperator());
+        }
+
+        Map<String, Integer> index = new HashMap<>();
+        // An explicit heading setting wins over the detected one
+        boolean heading = hasHeading != null ? hasHeading : dialect != null && dialect.isHasHeading();
+        if (heading && tokenizer.nextRecord()) {
+            this.headings = Collections.unmodifiableList(Arrays.asList(tokenizer.getFields()));
+            for (int i = headings.size() - 1; i >= 0; i--) {
+                index.put(headings.get(i), i);
+            }
+        } else {
+            this.headings = Collections.emptyList();
+        }
+        this.row = new CsvRow(tokenizer, index, numberParser);
+    }
+
+    /**
+     * Read next record
+     *
+     * @return Row reused for every record, null if there are no more records
+     * @throws IOException Error reading input
+     */
+    public CsvRow readRow() throws IOException {
+        if (!tokenizer.nextRecord()) {
+            return null;
+        }
+        row.next();
+        return row;
+    }
+
+    /**
+     * Pass every remaining record to action, the row must not be kept after the action returns
+     *
+     * @param action Action for row
+     * @throws IOException Error reading input
+     */
+    public void forEach(Consumer<? super CsvRow> action) throws IOException {
+        CsvRow current;
+        while ((current = readRow()) != null) {
+            action.accept(current);
+        }
+    }
+
+    /**
+     * Close underlying input
+     *
+     * @throws IOException Error while trying to close input
+     */
+    @Override
+    public void close() throws IOException {
+        tokenizer.close();
+    }
+
+    /**
+     * Builder for csv row reader
+     */
+    public static class Builder {
+        private File file;
+        private InputStream inputStream;
+        private Boolean hasHeading;
+        private String seperator;
+        private Charset charset = Charset.defaultCharset();
+        private StructuralScanner scanner;
+        private DialectDetector dialectDetector;
+        private char decimalSeparator = '.';
+        private char groupingSeparator = FastDoubleParser.NO_GROUPING;
+
+        /**
+         * Set file to read
+         *
+         * @param file CSV file
+         * @return Current builder
+         */
+        public Builder file(File file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Set stream to read
+         *
+         * @param inputStream Input stream
+         * @return Current builder
+         */
+        public Builder inputStream(InputStream inputStream) {
+            this.inputStream = inputStream;
+            return this;
+        }
+
+        /**
+         * Input has first row with heading, values can be accessed by heading then
+         *
+         * @return Current builder
+         */
+        public Builder hasHeading() {
+            this.hasHeading = true;
+            return this;
+        }
+
+        /**
+         * Input has no heading, the first row is read as values even if {@link #detectDialect()} detects a heading
+         *
+         * @return Current builder
+         */
+        public Builder noHeading() {
+            this.hasHeading = false;
+            return this;
+        }
+
+        /**
+         * Set seperator, default it is set to ';' or detected if {@link #detectDialect()} is used
+         *
+         * @param seperator Seperator, may consist of multiple chars
+         * @return Current builder
+         */
+        public Builder seperatedBy(String seperator) {
+            this.seperator = seperator;
+            return this;
+        }
+
+        /**
+         * Set charset of input, default it is the platform charset
+         *
+         * @param charset Charset
+         * @return Current builder
+         */
+        public Builder charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Detect seperator, quote char and heading from the start of the input
+         *
+         * @return Current builder
+         */
+        public Builder detectDialect() {
+            this.dialectDetector = new DialectDetector();
+            return this;
+        }
+
+        /**
+         * Detect seperator, quote char and heading from the start of the input
+         *
+         * @param sampleSize Number of bytes to inspect
+         * @return Current builder
+         */
+        public Builder detectDialect(int sampleSize) {
+            this.dialectDetector = new DialectDetector(sampleSize);
+            return this;
+        }
+
+        /**
+         * Set scanner for structural bytes, default bytes are checked one by one
+         *
+         * @param scanner Scanner
+         * @return Current builder
+         */
+        public Builder scanner(StructuralScanner scanner) {
+            this.scanner = scanner;
+            return this;
+        }
+
+        /**
+         * Set decimal separator for {@link CsvRow#getDouble(int)}, default it is '.'
+         *
+         * @param decimalSeparator Decimal separator
+         * @return Current builder
+         */
+        public Builder decimalSeparator(char decimalSeparator) {
+            this.decimalSeparator = decimalSeparator;
+            return this;
+        }
+
+        /**
+         * Set grouping separator for {@link CsvRow#getDouble(int)}, default values are not grouped
+         *
+         * @param groupingSeparator Grouping separator
+         * @return Current builder
+         */
+        public Builder groupingSeparator(char groupingSeparator) {
+            this.groupingSeparator = groupingSeparator;
+            return this;
+        }
+
+        /**
+         * Build csv row reader
+         *
+         * @return Ready to use reader
+         */
+        public CsvRowReader build() {
+            if ((file == null) == (inputStream == null)) {
+                throw new IllegalArgumentException("Decide to use inputStream or file, exactly one of them is required");
+            }
+
+            if (file != null && !file.exists()) {
+                throw new InvalidArgumentException("file", file);
+            }
+
+            if (seperator != null) {
+                Seperator.validate(seperator);
+            }
+
+            if (decimalSeparator == groupingSeparator) {
+                throw new InvalidArgumentException("groupingSeparator", groupingSeparator);
+            }
+
+            try {
+                InputStream input = inputStream != null ? inputStream : new FileInputStream(file);
+                CsvTokenizer tokenizer = new CsvTokenizer(input, charset, Seperator.SEMICOLON.charAt(0), '"');
+                tokenizer.setScanner(scanner);
+                return new CsvRowReader(tokenizer, seperator, hasHeading, dialectDetector, new FastDoubleParser(decimalSeparator, groupingSeparator));
+            } catch (FileNotFoundException e) {
+                throw new InvalidArgumentException("file", file);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Error reading start of input", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,739 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming tokenizer for csv records as specified by RFC 4180
+ * <p>
+ * The input is scanned byte by byte in a reusable buffer, quote state is carried across buffer refills, so quoted
+ * values may contain seperators, escaped quotes and line breaks. Values are not copied, their bounds in the buffer
+ * are recorded and escaped quotes are removed in place. Strings are only created for values that are requested.
+ * <p>
+ * Charsets that encode the structural chars as single ASCII bytes that never occur inside other chars (e.g. UTF-8 or
+ * ISO-8859-1) are scanned directly, all others are transcoded to UTF-8 first.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvTokenizer implements Closeable {
+    /**
+     * Default size of the read buffer
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Quote char to disable quoting
+     */
+    public static final char NO_QUOTE = 0;
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    /**
+     * Input to read from
+     */
+    private final InputStream input;
+
+    /**
+     * Charset of bytes in the buffer
+     */
+    @Getter
+    private final Charset charset;
+
+    /**
+     * First byte of the seperator
+     */
+    private byte seperator;
+
+    /**
+     * Seperator as bytes, values are only split at the whole sequence
+     */
+    private byte[] seperatorBytes;
+
+    /**
+     * Quote char as byte
+     */
+    private byte quote;
+
+    /**
+     * Quoting is enabled
+     */
+    private boolean quoting;
+
+    /**
+     * Read buffer, grows if a single record does not fit in
+     */
+    private byte[] buffer;
+
+    /**
+     * Position of the next byte to scan
+     */
+    private int position;
+
+    /**
+     * Number of valid bytes in the buffer
+     */
+    private int limit;
+
+    /**
+     * Start of the current record, bytes before may be discarded on refill
+     */
+    private int recordStart;
+
+    /**
+     * End of input has been reached
+     */
+    private boolean endOfInput;
+
+    /**
+     * BOM check has been done
+     */
+    private boolean started;
+
+    /**
+     * Input started with a byte order mark that has been skipped
+     */
+    @Getter
+    private boolean bomSkipped;
+
+    /**
+     * Start offsets of the values of the current record
+     */
+    private int[] starts = new int[16];
+
+    /**
+     * End offsets (exclusive) of the values of the current record
+     */
+    private int[] ends = new int[16];
+
+    /**
+     * Scanner for structural bytes, null to check byte by byte
+     */
+    private StructuralScanner scanner;
+
+    /**
+     * {@link #scanner} is used, this requires a seperator of a single byte
+     */
+    private boolean scanning;
+
+    /**
+     * Bitmap of structural bytes of the last block scanned by {@link #scanner}
+     */
+    private long mask;
+
+    /**
+     * Start of the block {@link #mask} belongs to
+     */
+    private int maskBase = -StructuralScanner.BLOCK_SIZE;
+
+    /**
+     * Number of values in the current record
+     */
+    @Getter
+    private int fieldCount;
+
+    /**
+     * Pool the buffer is borrowed from, null if it is allocated
+     */
+    private final BufferPool pool;
+
+    /**
+     * Number of bytes read from input
+     */
+    private long bytesRead;
+
+    /**
+     * Number of records read
+     */
+    @Getter
+    private long recordCount;
+
+    /**
+     * Create tokenizer with {@link #DEFAULT_BUFFER_SIZE}
+     *
+     * @param input     Input to read from
+     * @param charset   Charset of input
+     * @param seperator Seperator, must be an ASCII char
+     * @param quoteChar Quote char, must be an ASCII char or {@link #NO_QUOTE}
+     */
+    public CsvTokenizer(InputStream input, Charset charset, char seperator, char quoteChar) {
+        this(input, charset, seperator, quoteChar, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create tokenizer
+     *
+     * @param input      Input to read from
+     * @param charset    Charset of input
+     * @param seperator  Seperator, must be an ASCII char
+     * @param quoteChar  Quote char, must be an ASCII char or {@link #NO_QUOTE}
+     * @param bufferSize Initial size of the read buffer
+     */
+    public CsvTokenizer(InputStream input, Charset charset, char seperator, char quoteChar, int bufferSize) {
+        this(input, charset, seperator, quoteChar, bufferSize, null);
+    }
+
+    /**
+     * Create tokenizer reading into buffers borrowed from a pool, they are returned on {@link #close()}
+     *
+     * @param input      Input to read from
+     * @param charset    Charset of input
+     * @param seperator  Seperator, must be an ASCII char
+     * @param quoteChar  Quote char, must be an ASCII char or {@link #NO_QUOTE}
+     * @param bufferSize Initial size of the read buffer
+     * @param pool       Pool for buffers, null to allocate them
+     */
+    public CsvTokenizer(InputStream input, Charset charset, char seperator, char quoteChar, int bufferSize, BufferPool pool) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+
+        if (isAsciiCompatible(charset)) {
+            this.input = input;
+            this.charset = charset;
+        } else {
+            this.input = new TranscodingInputStream(input, charset);
+            this.charset = StandardCharsets.UTF_8;
+        }
+        this.pool = pool;
+        this.buffer = pool == null ? new byte[bufferSize] : pool.acquire(bufferSize);
+        setSeperator(seperator);
+        setQuoteChar(quoteChar);
+    }
+
+    /**
+     * Check if the charset can be scanned for structural chars byte by byte
+     *
+     * @param charset Charset
+     * @return true for UTF-8 and single byte charsets encoding ASCII as is
+     */
+    public static boolean isAsciiCompatible(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1)) {
+            return true;
+        }
+
+        if (!charset.canEncode()) {
+            return false;
+        }
+
+        CharsetEncoder encoder = charset.newEncoder();
+        if (encoder.maxBytesPerChar() != 1 || charset.newDecoder().maxCharsPerByte() != 1) {
+            return false;
+        }
+
+        byte[] ascii = new byte[128];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (byte) i;
+        }
+        return Arrays.equals(ascii, new String(ascii, StandardCharsets.US_ASCII).getBytes(charset));
+    }
+
+    private static byte toAsciiByte(char c, String name) {
+        if (c >= 0x80) {
+            throw new IllegalArgumentException(name + " must be an ASCII char");
+        }
+        return (byte) c;
+    }
+
+    /**
+     * Set seperator, applies to all records read afterwards
+     *
+     * @param seperator Seperator, must be an ASCII char
+     */
+    public void setSeperator(char seperator) {
+        this.seperator = toAsciiByte(seperator, "Seperator");
+        this.seperatorBytes = new byte[]{this.seperator};
+        this.scanning = scanner != null;
+        this.maskBase = -StructuralScanner.BLOCK_SIZE;
+    }
+
+    /**
+     * Set seperator, applies to all records read afterwards. Seperators encoded as multiple bytes are matched as a
+     * whole, they are found byte by byte as the scanner only supports single bytes.
+     *
+     * @param seperator Seperator, must not be empty or contain line breaks
+     */
+    public void setSeperator(String seperator) {
+        if (seperator == null || seperator.isEmpty() || seperator.indexOf('\n') >= 0 || seperator.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Seperator must not be empty or contain line breaks");
+        }
+        if (!charset.newEncoder().canEncode(seperator)) {
+            throw new IllegalArgumentException("Seperator can not be encoded in " + charset);
+        }
+
+        byte[] bytes = seperator.getBytes(charset);
+        this.seperator = bytes[0];
+        this.seperatorBytes = bytes;
+        this.scanning = scanner != null && bytes.length == 1;
+        this.maskBase = -StructuralScanner.BLOCK_SIZE;
+    }
+
+    /**
+     * Set quote char, applies to all records read afterwards
+     *
+     * @param quoteChar Quote char, must be an ASCII char or {@link #NO_QUOTE}
+     */
+    public void setQuoteChar(char quoteChar) {
+        this.quote = toAsciiByte(quoteChar, "Quote char");
+        this.quoting = quoteChar != NO_QUOTE;
+        this.maskBase = -StructuralScanner.BLOCK_SIZE;
+    }
+
+    /**
+     * Set scanner for structural bytes, applies to all records read afterwards
+     *
+     * @param scanner Scanner, null to check byte by byte
+     */
+    public void setScanner(StructuralScanner scanner) {
+        this.scanner = scanner;
+        this.scanning = scanner != null && seperatorBytes.length == 1;
+        this.maskBase = -StructuralScanner.BLOCK_SIZE;
+    }
+
+    /**
+     * Read more bytes, bytes before the current record are discarded and the buffer grows if the record fills it
+     * completely. {@link #position} is adjusted, callers must shift their own offsets by the value of
+     * {@link #recordStart} before the call, bytes are discarded even if the end of input has been reached already.
+     *
+     * @return true if bytes were read
+     * @throws IOException Error reading input
+     */
+    private boolean fill() throws IOException {
+        int shift = recordStart;
+        if (shift > 0) {
+            System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+            limit -= shift;
+            position = Math.max(0, position - shift);
+            recordStart = 0;
+            maskBase = maskBase >= shift ? maskBase - shift : -StructuralScanner.BLOCK_SIZE;
+            for (int i = 0; i < fieldCount; i++) {
+                starts[i] -= shift;
+                ends[i] -= shift;
+            }
+        }
+
+        if (endOfInput) {
+            return false;
+        }
+
+        if (limit == buffer.length) {
+            if (pool == null) {
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
+            } else {
+                byte[] grown = pool.acquire(buffer.length << 1);
+                System.arraycopy(buffer, 0, grown, 0, limit);
+                pool.release(buffer);
+                buffer = grown;
+            }
+        }
+
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        limit += read;
+        bytesRead += read;
+        return true;
+    }
+
+    /**
+     * Check the buffer has not been returned by {@link #close()}
+     *
+     * @throws IOException Tokenizer is closed
+     */
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Tokenizer is closed");
+        }
+    }
+
+    /**
+     * Skip UTF-8 byte order mark at the start of input
+     *
+     * @throws IOException Error reading input
+     */
+    private void start() throws IOException {
+        started = true;
+        while (limit < 3 && fill()) {
+            // Read until the BOM can be checked
+        }
+        if (limit >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF && charset.equals(StandardCharsets.UTF_8)) {
+            position = 3;
+            bomSkipped = true;
+        }
+    }
+
+    /**
+     * Get the start of the remaining input without consuming it
+     *
+     * @param length Maximum number of bytes
+     * @return Decoded bytes
+     * @throws IOException Error reading input
+     */
+    public String peek(int length) throws IOException {
+        ensureOpen();
+        if (!started) {
+            start();
+        }
+        recordStart = position;
+        fieldCount = 0;
+        while (limit - position < length && fill()) {
+            // Read until sample is complete
+        }
+        return new String(buffer, position, Math.min(length, limit - position), charset);
+    }
+
+    /**
+     * Check if the whole remaining input is in the buffer, e.g. after {@link #peek(int)}
+     *
+     * @return true if the end of input has been reached
+     */
+    public boolean isEndOfInputBuffered() {
+        return endOfInput;
+    }
+
+    /**
+     * Read next record, empty lines are skipped
+     *
+     * @return true if a record was read, false on end of input
+     * @throws IOException Error reading input
+     */
+    public boolean nextRecord() throws IOException {
+        ensureOpen();
+        if (!started) {
+            start();
+        }
+
+        fieldCount = 0;
+        while (true) {
+            if (position == limit) {
+                recordStart = position;
+                if (!fill()) {
+                    return false;
+                }
+            }
+            byte b = buffer[position];
+            if (b != LF && b != CR) {
+                break;
+            }
+            position++;
+        }
+
+        recordStart = position;
+        while (scanField()) {
+            // Continue with next value
+        }
+        recordCount++;
+        return true;
+    }
+
+    /**
+     * Scan value starting at {@link #position}
+     *
+     * @return true if the value is followed by a seperator
+     * @throws IOException Error reading input
+     */
+    private boolean scanField() throws IOException {
+        if (position == limit && !fill()) {
+            // Seperator at end of input
+            addField(position, position);
+            return false;
+        }
+
+        if (quoting && buffer[position] == quote) {
+            return scanQuotedField();
+        }
+
+        byte[] buf = buffer;
+        int lim = limit;
+        int start = position;
+        int i = start;
+        byte sep = seperator;
+        boolean single = seperatorBytes.length == 1;
+        while (true) {
+            // Seperator of multiple bytes that continues after the end of the buffer
+            boolean partial = false;
+            if (scanning) {
+                // Quotes inside of unquoted values have no special meaning
+                i = nextStructural(i, lim);
+                while (i < lim && buf[i] == quote && buf[i] != sep) {
+                    i = nextStructural(i + 1, lim);
+                }
+            } else {
+                while (i < lim) {
+                    byte b = buf[i];
+                    if (b == LF || b == CR) {
+                        break;
+                    } else if (b == sep) {
+                        int match = single ? 1 : matchSeperator(i);
+                        if (match != 0) {
+                            partial = match < 0;
+                            break;
+                        }
+                    }
+                    i++;
+                }
+            }
+            if (i < lim && !partial) {
+                break;
+            }
+
+            int shift = recordStart;
+            boolean more = fill();
+            i -= shift;
+            start -= shift;
+            buf = buffer;
+            lim = limit;
+            if (!more && !partial) {
+                break;
+            }
+        }
+        return endField(start, i, i);
+    }
+
+    /**
+     * Scan quoted value starting at the quote at {@link #position}. Escaped quotes are removed in place and chars
+     * after the closing quote are appended to the value.
+     *
+     * @return true if the value is followed by a seperator
+     * @throws IOException Error reading input
+     */
+    private boolean scanQuotedField() throws IOException {
+        int i = position + 1;
+        int start = i;
+        int write = i;
+        boolean quoted = true;
+        while (true) {
+            if (i == limit || (quoted && i + 1 == limit && buffer[i] == quote)
+                    || (!quoted && buffer[i] == seperator && matchSeperator(i) < 0)) {
+                // Refill on end of buffer, a quote needs to see the following byte, a seperator all of its bytes
+                int shift = recordStart;
+                boolean more = fill();
+                i -= shift;
+                start -= shift;
+                write -= shift;
+                if (!more && i == limit) {
+                    break;
+                }
+            }
+
+            if (quoted && scanning) {
+                // Skip to next quote and move the chars in between at once
+                int next = i;
+                do {
+                    next = nextStructural(next, limit);
+                } while (next < limit && buffer[next] != quote && ++next < limit);
+                if (next > i) {
+                    if (write != i) {
+                        System.arraycopy(buffer, i, buffer, write, next - i);
+                    }
+                    write += next - i;
+                    i = next;
+                    continue;
+                }
+            }
+
+            byte b = buffer[i];
+            if (quoted) {
+                if (b == quote) {
+                    if (i + 1 < limit && buffer[i + 1] == quote) {
+                        buffer[write++] = b;
+                        i += 2;
+                    } else {
+                        quoted = false;
+                        i++;
+                    }
+                    continue;
+                }
+            } else if ((b == seperator && matchSeperator(i) > 0) || b == LF || b == CR) {
+                break;
+            }
+            buffer[write++] = b;
+            i++;
+        }
+        return endField(start, write, i);
+    }
+
+    /**
+     * Find next structural byte using {@link #scanner}, the bitmap of the last scanned block is reused
+     *
+     * @param from  Position to start from
+     * @param limit End of valid bytes
+     * @return Position of structural byte or limit if there is none
+     */
+    private int nextStructural(int from, int limit) {
+        int i = from;
+        while (true) {
+            if (i >= maskBase && i < maskBase + StructuralScanner.BLOCK_SIZE) {
+                long bits = mask & (-1L << (i - maskBase));
+                if (bits != 0) {
+                    return maskBase + Long.numberOfTrailingZeros(bits);
+                }
+                i = maskBase + StructuralScanner.BLOCK_SIZE;
+            }
+
+            if (i + StructuralScanner.BLOCK_SIZE > limit) {
+                // Not enough bytes for a whole block
+                for (; i < limit; i++) {
+                    byte b = buffer[i];
+                    if (b == seperator || b == quote || b == LF || b == CR) {
+                        return i;
+                    }
+                }
+                return limit;
+            }
+
+            mask = scanner.scan(buffer, i, seperator, quote);
+            maskBase = i;
+        }
+    }
+
+    /**
+     * Record value and consume its terminator
+     *
+     * @param start      Start of value
+     * @param end        End of value (exclusive)
+     * @param terminator Position of the terminator, {@link #limit} on end of input, the first byte if the terminator
+     *                   is a seperator
+     * @return true if the terminator is a seperator
+     */
+    private boolean endField(int start, int end, int terminator) {
+        addField(start, end);
+        if (terminator >= limit) {
+            position = limit;
+            return false;
+        }
+        if (buffer[terminator] != seperator) {
+            position = terminator + 1;
+            return false;
+        }
+        position = terminator + seperatorBytes.length;
+        return true;
+    }
+
+    /**
+     * Check if the seperator starts at a position whose byte equals the first byte of the seperator
+     *
+     * @param i Position
+     * @return 1 if the whole seperator matches, 0 if not, -1 if more bytes need to be read to decide
+     */
+    private int matchSeperator(int i) {
+        for (int j = 1; j < seperatorBytes.length; j++) {
+            if (i + j >= limit) {
+                return endOfInput ? 0 : -1;
+            }
+            if (buffer[i + j] != seperatorBytes[j]) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount << 1);
+            ends = Arrays.copyOf(ends, fieldCount << 1);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Get buffer containing the values of the current record, only valid until the next record is read
+     *
+     * @return Buffer
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Get start offset of value in {@link #getBuffer()}
+     *
+     * @param index Index of value
+     * @return Start offset
+     */
+    public int getFieldStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * Get end offset (exclusive) of value in {@link #getBuffer()}
+     *
+     * @param index Index of value
+     * @return End offset
+     */
+    public int getFieldEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * Get number of bytes of input consumed by the records read so far, bytes read ahead into the buffer are not
+     * counted
+     *
+     * @return Number of bytes
+     */
+    public long getBytesRead() {
+        return bytesRead - (limit - position);
+    }
+
+    /**
+     * Get offset of the current record in the input, bytes of a byte order mark are counted
+     *
+     * @return Offset in bytes
+     */
+    public long getRecordOffset() {
+        return bytesRead - limit + recordStart;
+    }
+
+    /**
+     * Decode value of current record
+     *
+     * @param index Index of value
+     * @return Value
+     */
+    public String getField(int index) {
+        return new String(buffer, starts[index], ends[index] - starts[index], charset);
+    }
+
+    /**
+     * Decode all values of current record
+     *
+     * @return Values
+     */
+    public String[] getFields() {
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = getField(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Close underlying input and return the buffer to the pool, values must not be accessed afterwards
+     *
+     * @throws IOException Error closing input
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            input.close();
+        } finally {
+            if (pool != null && buffer != null) {
+                pool.release(buffer);
+            }
+            buffer = null;
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package com.github.timo_reymann.csv_parser.io;
 
-import com.github.timo_reymann.csv_parser.meta.CsvMetaDataReader;
-import com.github.timo_reymann.csv_parser.util.Converter;
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.convert.ValueConverterFactory;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
 import com.github.timo_reymann.csv_parser.util.Platform;
+import com.github.timo_reymann.csv_parser.util.Workers;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.io.*;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 /**
  * Write csv files
@@ -21,6 +37,21 @@ import java.util.*;
  */
 @Data
 public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
+    /**
+     * Quote char for values containing special chars
+     */
+    private static final char QUOTE = '"';
+
+    /**
+     * Number of beans encoded together by one worker when writing in parallel
+     */
+    public static final int PARALLEL_CHUNK_SIZE = 1024;
+
+    /**
+     * Default size of the output buffer in chars, used until the width of rows is known
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
     /**
      * Append to file instead of replacing it completely
      */
@@ -37,9 +68,14 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
     private Class<T> clazz;
 
     /**
-     * Meta data provider for bean
+     * Converters for field types
      */
-    private CsvMetaDataReader<T> csvMetaDataReader;
+    private ConverterRegistry converters = new ConverterRegistry();
+
+    /**
+     * Binding of columns to bean fields, resolved on first write
+     */
+    private CsvBinder<T> binder;
 
     /**
      * File to save, this may be null if only stream is used
@@ -62,9 +98,156 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
     private boolean hasWrittenData;
 
     /**
-     * Converter api
+     * Number of threads used by {@link #writeLinesParallel(Stream)}
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Stream the {@link #bufferedWriter} writes to
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private OutputStream output;
+
+    /**
+     * Charset of output
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Charset charset;
+
+    /**
+     * Line separator of the platform
      */
-    private final Converter converter = new Converter();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final String lineSeperator = Platform.getLineSeperator();
+
+    /**
+     * Binder slots in output order, resolved on first write. Columns without mapped field are -1.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] columns;
+
+    /**
+     * Headings in output order, resolved on first write if headings are used
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<String> headings;
+
+    /**
+     * Reusable builder for the current line
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Reusable buffer for copying the current line to the writer
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private char[] lineChars = new char[256];
+
+    /**
+     * Pool the width of written rows is recorded in, null for writers not built by the builder
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private BufferPool bufferPool;
+
+    /**
+     * Number of lines written
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long writtenLines;
+
+    /**
+     * Number of chars written
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long writtenChars;
+
+    /**
+     * Recorder for the block index of the file, null if no index is recorded
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CsvBlockIndex.Recorder blockRecorder;
+
+    /**
+     * Binder slots of the columns of the block index
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] blockSlots;
+
+    /**
+     * Reusable values of the current line for the block index
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Object[] blockValues;
+
+    /**
+     * Number of bytes written to the file, only counted while the block index is recorded
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long writtenBytes;
+
+    /**
+     * Bean of the line returned by {@link #formatLine(Object)}
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private T formattedBean;
+
+    /**
+     * Headings still have to be written, resolved once when the output is opened instead of checking the file per line
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean headingPending;
+
+    /**
+     * File replaced by {@link #file} on close in atomic mode, null if the file is written directly
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private File target;
+
+    /**
+     * Policy for forcing written data to the storage device
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Durability durability = Durability.none();
+
+    /**
+     * Bytes written since data was forced last, chars for buffered lines
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long unsyncedBytes;
+
+    /**
+     * Time data was forced last as returned by {@link System#nanoTime()}
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long lastSync = System.nanoTime();
+
+    /**
+     * Writer was closed
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean closed;
 
     /**
      * Create new csv writer
@@ -77,8 +260,23 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
      * @throws IOException Error opening file streams
      */
     public CsvWriter(Class<T> clazz, File file, boolean append, boolean hasHeadings, String seperator) throws IOException {
+        this(clazz, file, append, hasHeadings, seperator, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create new csv writer
+     *
+     * @param clazz       Class for bean
+     * @param file        File to write
+     * @param append      Append to output
+     * @param hasHeadings Has the file headings, if this is a new file headers are automatically generated
+     * @param seperator   Seperator for csv file
+     * @param bufferSize  Size of the output buffer in chars
+     * @throws IOException Error opening file streams
+     */
+    private CsvWriter(Class<T> clazz, File file, boolean append, boolean hasHeadings, String seperator, int bufferSize) throws IOException {
         this(clazz, append, hasHeadings, seperator);
-        initUsingFile(file);
+        initUsingFile(file, bufferSize);
     }
 
     /**
@@ -92,8 +290,22 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
      * @throws IOException Error opening file streams
      */
     public CsvWriter(Class<T> clazz, OutputStream outputStream, boolean append, boolean hasHeadings, String seperator) throws IOException {
+        this(clazz, outputStream, append, hasHeadings, seperator, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create new csv writer
+     *
+     * @param clazz        Class for bean
+     * @param outputStream OutputStream to write to
+     * @param append       Append to output
+     * @param hasHeadings  Has the file headings, if this is a new file headers are automatically generated
+     * @param seperator    Seperator for csv file
+     * @param bufferSize   Size of the output buffer in chars
+     */
+    private CsvWriter(Class<T> clazz, OutputStream outputStream, boolean append, boolean hasHeadings, String seperator, int bufferSize) {
         this(clazz, append, hasHeadings, seperator);
-        initUsingStream(outputStream);
+        initUsingStream(outputStream, bufferSize);
     }
 
 
@@ -107,88 +319,141 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
      */
     private CsvWriter(Class<T> clazz, boolean append, boolean hasHeadings, String seperator) {
         this.clazz = clazz;
-        this.csvMetaDataReader = new CsvMetaDataReader<>(clazz);
         this.append = append;
         this.hasHeadings = hasHeadings;
-        this.seperator = seperator;
+        this.seperator = Seperator.validate(seperator);
     }
 
     /**
-     * Map beans to string array, this method automatically decides to map by heading or by index
+     * Resolve columns in output order, this automatically decides to map by heading or by index
      *
-     * @param bean Bean to map
-     * @return String array with bean data mapped
-     * @throws IllegalAccessException Error getting values from bean
-     * @throws IOException            Error writing header
+     * @return Binder slots in output order, slots without mapped field are -1
      */
-    private String[] map(T bean) throws IllegalAccessException, IOException {
+    private int[] resolveColumns() {
+        if (columns != null) {
+            return columns;
+        }
+
+        if (binder == null) {
+            binder = new CsvBinder<>(clazz, converters);
+        }
+
         if (hasHeadings) {
-            return mapByHeading(bean);
+            headings = new ArrayList<>();
+            columns = new int[binder.getColumnCount()];
+            for (int slot = 0; slot < columns.length; slot++) {
+                columns[slot] = slot;
+                headings.add(binder.getColumn(slot).getKey().toString());
+            }
+        } else {
+            int columnCount = 0;
+            for (int slot = 0; slot < binder.getColumnCount(); slot++) {
+                columnCount = Math.max(columnCount, (int) binder.getColumn(slot).getKey() + 1);
+            }
+            columns = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = binder.getSlot(i);
+            }
         }
-        return mapByIndex(bean);
+        return columns;
     }
 
     /**
-     * Map bean by index
+     * Append bean as csv line without line separator, safe to call from multiple threads once the columns are resolved
      *
      * @param bean Bean
-     * @return String array with data mapped according to specification over annotations
+     * @param out  Builder to append to
      * @throws IllegalAccessException Error getting values from bean
      */
-    private String[] mapByIndex(T bean) throws IllegalAccessException {
-        HashMap<Object, Field> effectiveMapping = csvMetaDataReader.getEffectiveValueForColumnMapping();
-        String[] data = new String[effectiveMapping.size()];
-        for (Map.Entry<Object, Field> entry : effectiveMapping.entrySet()) {
-            data[(int) entry.getKey()] = formatValue(entry.getValue(), bean);
+    void appendLine(T bean, StringBuilder out) throws IllegalAccessException {
+        int[] slots = resolveColumns();
+        for (int i = 0; i < slots.length; i++) {
+            if (i > 0) {
+                out.append(seperator);
+            }
+            if (slots[i] != -1) {
+                int start = out.length();
+                binder.write(bean, slots[i], out);
+                quoteIfNeeded(out, start);
+            }
         }
-        return data;
     }
 
-    private String formatValue(Field field, Object obj) throws IllegalAccessException {
-        Object value = field.get(obj);
-        Class<?> type = field.getType();
-        String format = csvMetaDataReader.getCsvColumnForField(field).format();
+    /**
+     * Quote value at the end of the builder if it contains the seperator, a quote or a line break,
+     * quotes in the value are escaped by doubling them
+     *
+     * @param out   Builder containing the value
+     * @param start Start of value in builder
+     */
+    private void quoteIfNeeded(StringBuilder out, int start) {
+        char seperatorChar = seperator.charAt(0);
+        boolean single = seperator.length() == 1;
+        int length = out.length();
+        int i = start;
+        while (i < length) {
+            char c = out.charAt(i);
+            if ((c == seperatorChar && (single || isSeperatorAt(out, i, length))) || c == QUOTE || c == '\n' || c == '\r') {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            return;
+        }
 
-        if (type.isAssignableFrom(LocalDateTime.class)) {
-            return converter.formatLocalDateTime(format, (LocalDateTime) value);
-        } else if (type.isAssignableFrom(LocalDate.class)) {
-            return converter.formatLocalDate(format, (LocalDate) value);
-        } else {
-            return value == null ? "" : value.toString();
+        String value = out.substring(start);
+        out.setLength(start);
+        out.append(QUOTE);
+        for (int j = 0; j < value.length(); j++) {
+            char c = value.charAt(j);
+            if (c == QUOTE) {
+                out.append(QUOTE);
+            }
+            out.append(c);
         }
+        out.append(QUOTE);
     }
 
     /**
-     * Join list with strings to one single string separated by specified separator
+     * Check if a seperator of multiple chars would be read at an offset of the value, including seperators starting
+     * in the value and ending in the seperator written after it
      *
-     * @param data List with strings to join
-     * @return String
+     * @param out    Builder containing the value
+     * @param offset Offset in builder
+     * @param length End of value in builder
+     * @return true if the seperator starts at offset
      */
-    private String joinBySeperator(List<String> data) {
-        return String.join(seperator, data);
+    private boolean isSeperatorAt(StringBuilder out, int offset, int length) {
+        for (int i = 0; i < seperator.length(); i++) {
+            int j = offset + i;
+            char c = j < length ? out.charAt(j) : seperator.charAt(j - length);
+            if (c != seperator.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
      * Write file header then headings are used for mapping and no file exists or file is empty
      *
      * @param headings Headings
+     * @return Number of bytes written including BOM and line separator, 0 if no header was written
      * @throws IOException Error writing header to file
      */
-    private void writeFileHeader(List<String> headings) throws IOException {
-        // If file is null, only input stream is used, and this will ALWAYS add headings to the output
-        if (file != null) {
-            if (file.length() > 0 || !hasHeadings) {
-                return;
-            }
-        } else {
-            if (hasWrittenData) {
-                return;
-            }
+    private long writeFileHeader(List<String> headings) throws IOException {
+        if (!headingPending) {
+            return 0;
         }
+        headingPending = false;
 
         bufferedWriter.write('\uFEFF');
+        writtenBytes += 3;
         writeRawData(headings);
         bufferedWriter.flush();
+        // Line buffer still holds the terminated heading line
+        return 3 + utf8Length(lineChars, line.length());
     }
 
     /**
@@ -198,26 +463,116 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
      * @throws IOException Error writing to file
      */
     private void writeRawData(List<String> data) throws IOException {
-        bufferedWriter.write(joinBySeperator(data) + Platform.getLineSeperator());
+        line.setLength(0);
+        for (int i = 0; i < data.size(); i++) {
+            if (i > 0) {
+                line.append(seperator);
+            }
+            int start = line.length();
+            line.append(data.get(i));
+            quoteIfNeeded(line, start);
+        }
+        writeLineBuffer(line);
+    }
+
+    /**
+     * Terminate line in builder and copy it to the {@link BufferedWriter} using the reusable char buffer
+     *
+     * @param line Line to write
+     * @throws IOException Error writing to file
+     */
+    private void writeLineBuffer(StringBuilder line) throws IOException {
+        line.append(lineSeperator);
+        int length = line.length();
+        if (lineChars.length < length) {
+            lineChars = new char[Math.max(length, lineChars.length * 2)];
+        }
+        line.getChars(0, length, lineChars, 0);
+        bufferedWriter.write(lineChars, 0, length);
+        if (blockRecorder != null) {
+            writtenBytes += utf8Length(lineChars, length);
+        }
         hasWrittenData = true;
+        writtenLines++;
+        writtenChars += length;
+        unsyncedBytes += length;
+        syncIfDue();
     }
 
-    private String[] mapByHeading(T bean) throws IllegalAccessException, IOException {
-        HashMap<Object, Field> effectiveMapping = csvMetaDataReader.getEffectiveValueForColumnMapping();
+    /**
+     * Force written data to the storage device if the group commit of the durability policy is due
+     *
+     * @throws IOException Error flushing or syncing
+     */
+    private void syncIfDue() throws IOException {
+        if (durability.isGroupCommit()
+                && (unsyncedBytes >= durability.getBytes() || System.nanoTime() - lastSync >= durability.getIntervalNanos())) {
+            sync();
+        }
+    }
 
-        List<String> list = new ArrayList<>();
-        for (Map.Entry<Object, Field> objectFieldEntry : effectiveMapping.entrySet()) {
-            Object key = objectFieldEntry.getKey();
-            list.add(key.toString());
+    /**
+     * Count bytes of chars encoded as UTF-8
+     *
+     * @param chars  Chars
+     * @param length Number of chars
+     * @return Number of bytes
+     */
+    private static long utf8Length(char[] chars, int length) {
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                    // Surrogate pair is encoded as 4 bytes
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            } else if (c >= 0x80) {
+                bytes++;
+            }
         }
-        writeFileHeader(list);
+        return bytes;
+    }
 
-        String[] data = new String[effectiveMapping.size()];
-        for (Map.Entry<Object, Field> entry : effectiveMapping.entrySet()) {
-            int index = list.indexOf(entry.getKey().toString());
-            data[index] = formatValue(entry.getValue(), bean);
+    /**
+     * Record the block index for the file written, only if the file is empty. The index is stored on {@link #close()}.
+     *
+     * @param slots     Binder slots of indexed columns
+     * @param blockSize Minimum size of blocks in bytes
+     */
+    private void initBlockIndex(int[] slots, int blockSize) {
+        if (file.length() > 0) {
+            // Offsets of appended lines are unknown, the index is recorded when the file is read next time
+            return;
+        }
+        resolveColumns();
+        blockSlots = slots;
+        blockValues = new Object[slots.length];
+        writtenBytes = 0;
+        blockRecorder = CsvBlockIndex.record(file, binder, slots, blockSize);
+    }
+
+    /**
+     * Add bean to the block index before its line is written
+     *
+     * @param bean Bean
+     */
+    private void recordBlockIndex(T bean) {
+        if (blockRecorder == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < blockSlots.length; i++) {
+                blockValues[i] = binder.get(bean, blockSlots[i]);
+            }
+            blockRecorder.add(writtenBytes, blockValues);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // Index is optional, writing continues without it
+            blockRecorder = null;
         }
-        return data;
     }
 
     /**
@@ -229,7 +584,8 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
      */
     public void writeFileHeading() throws IllegalAccessException, InstantiationException, IOException, NoSuchMethodException, InvocationTargetException {
         if (isHasHeadings()) {
-            mapByHeading(clazz.getConstructor().newInstance());
+            resolveColumns();
+            writeFileHeader(headings);
         }
     }
 
@@ -241,7 +597,58 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
      * @throws IOException            Error writing to file
      */
     public void writeLine(T bean) throws IllegalAccessException, IOException {
-        writeRawData(Arrays.asList(map(bean)));
+        resolveColumns();
+        if (hasHeadings) {
+            writeFileHeader(headings);
+        }
+
+        StringBuilder line = formatLine(bean);
+        recordBlockIndex(bean);
+        writeLineBuffer(line);
+    }
+
+    /**
+     * Write headings if headings are used and the output is empty
+     *
+     * @return Number of bytes written, 0 if no headings were written
+     * @throws IOException Error writing to file
+     */
+    long writeHeadingIfRequired() throws IOException {
+        resolveColumns();
+        return hasHeadings ? writeFileHeader(headings) : 0;
+    }
+
+    /**
+     * Format bean as line without line separator, the returned builder is reused for the next line
+     *
+     * @param bean Bean to format
+     * @return Builder containing the line
+     * @throws IllegalAccessException Error getting value from object
+     */
+    StringBuilder formatLine(T bean) throws IllegalAccessException {
+        line.setLength(0);
+        appendLine(bean, line);
+        formattedBean = bean;
+        return line;
+    }
+
+    /**
+     * Write line returned by {@link #formatLine(Object)} without checking for headings
+     *
+     * @throws IOException Error writing to file
+     */
+    void writeFormattedLine() throws IOException {
+        recordBlockIndex(formattedBean);
+        writeLineBuffer(line);
+    }
+
+    /**
+     * Get line separator written after every line
+     *
+     * @return Line separator
+     */
+    String getLineSeperator() {
+        return lineSeperator;
     }
 
     /**
@@ -257,23 +664,224 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
         }
     }
 
+    /**
+     * Write beans to file, chunks of {@link #PARALLEL_CHUNK_SIZE} beans are encoded on {@link #parallelism} threads.
+     * The output is the same as writing the beans one by one using {@link #writeLine(Object)}.
+     *
+     * @param beans Beans to write
+     * @throws IllegalAccessException Error getting value from object
+     * @throws IOException            Error writing to file
+     */
+    public void writeLinesParallel(Collection<T> beans) throws IOException, IllegalAccessException {
+        writeLinesParallel(beans.stream());
+    }
+
+    /**
+     * Write beans to file, chunks of {@link #PARALLEL_CHUNK_SIZE} beans are encoded on {@link #parallelism} threads.
+     * Encoded chunks are written in order of the stream, for files using gathering writes on the file channel.
+     * The output is the same as writing the beans one by one using {@link #writeLine(Object)}.
+     *
+     * @param beans Beans to write
+     * @throws IllegalAccessException Error getting value from object
+     * @throws IOException            Error writing to file
+     */
+    public void writeLinesParallel(Stream<T> beans) throws IOException, IllegalAccessException {
+        resolveColumns();
+        if (hasHeadings) {
+            writeFileHeader(headings);
+        }
+        if (blockRecorder != null) {
+            // Offsets of the lines are needed for the block index
+            Iterator<T> iterator = beans.iterator();
+            while (iterator.hasNext()) {
+                writeLine(iterator.next());
+            }
+            return;
+        }
+
+        // Everything written before must be in the output before the chunks are written around the buffered writer
+        bufferedWriter.flush();
+
+        GatheringByteChannel channel = output instanceof FileOutputStream ? ((FileOutputStream) output).getChannel() : null;
+        int threads = Math.max(1, parallelism);
+        ExecutorService executor = Workers.newFixedThreadPool(threads, "csv-writer-encoder");
+
+        ArrayDeque<Future<EncodedChunk>> pending = new ArrayDeque<>();
+        try {
+            Iterator<T> iterator = beans.iterator();
+            while (iterator.hasNext()) {
+                List<T> chunk = new ArrayList<>(PARALLEL_CHUNK_SIZE);
+                while (iterator.hasNext() && chunk.size() < PARALLEL_CHUNK_SIZE) {
+                    chunk.add(iterator.next());
+                }
+                pending.add(executor.submit(() -> encodeChunk(chunk)));
+
+                // Limit number of encoded chunks in memory
+                if (pending.size() >= threads * 2) {
+                    writeChunks(pending, channel, threads);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                writeChunks(pending, channel, threads);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Encode beans as lines
+     *
+     * @param beans Beans to encode
+     * @return Encoded lines
+     * @throws IllegalAccessException Error getting value from object
+     */
+    private EncodedChunk encodeChunk(List<T> beans) throws IllegalAccessException {
+        StringBuilder out = new StringBuilder(beans.size() * 128);
+        for (T bean : beans) {
+            appendLine(bean, out);
+            out.append(lineSeperator);
+        }
+        return new EncodedChunk(encodeLines(out), beans.size(), out.length());
+    }
+
+    /**
+     * Wait for the oldest chunk and write it together with all following chunks that are already encoded
+     *
+     * @param pending   Chunks in input order
+     * @param channel   Channel for gathering writes, null to write to {@link #output}
+     * @param maxChunks Maximum number of chunks to write at once
+     * @throws IllegalAccessException Error getting value from object
+     * @throws IOException            Error writing to file
+     */
+    private void writeChunks(ArrayDeque<Future<EncodedChunk>> pending, GatheringByteChannel channel, int maxChunks) throws IOException, IllegalAccessException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        long bytes = 0;
+        do {
+            EncodedChunk chunk = Workers.await(pending.poll(), IllegalAccessException.class, "encoding lines");
+            chunks.add(chunk.bytes);
+            bytes += chunk.bytes.remaining();
+            writtenLines += chunk.lines;
+            writtenChars += chunk.chars;
+        } while (chunks.size() < maxChunks && !pending.isEmpty() && pending.peek().isDone());
+
+        if (channel != null) {
+            unsyncedBytes += bytes;
+            ByteBuffer[] buffers = chunks.toArray(new ByteBuffer[0]);
+            while (bytes > 0) {
+                bytes -= channel.write(buffers);
+            }
+        } else {
+            for (ByteBuffer chunk : chunks) {
+                unsyncedBytes += chunk.remaining();
+                output.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+            }
+            output.flush();
+        }
+        hasWrittenData = true;
+        syncIfDue();
+    }
+
+    /**
+     * Lines encoded on a worker thread together with the numbers needed for the row width statistics
+     */
+    private static final class EncodedChunk {
+        /**
+         * Encoded lines
+         */
+        private final ByteBuffer bytes;
+
+        /**
+         * Number of lines
+         */
+        private final int lines;
+
+        /**
+         * Number of chars before encoding
+         */
+        private final int chars;
+
+        private EncodedChunk(ByteBuffer bytes, int lines, int chars) {
+            this.bytes = bytes;
+            this.lines = lines;
+            this.chars = chars;
+        }
+    }
+
+    /**
+     * Encode lines using the charset of the output
+     *
+     * @param lines Lines including line separators
+     * @return Encoded lines
+     */
+    ByteBuffer encodeLines(CharSequence lines) {
+        return charset.encode(CharBuffer.wrap(lines));
+    }
+
+    /**
+     * Write encoded lines directly to the output, bypassing the {@link BufferedWriter}. The buffered writer must have
+     * been flushed before and callers have to make sure only one thread writes at a time.
+     *
+     * @param bytes Encoded lines
+     * @param lines Number of lines
+     * @param chars Number of chars before encoding
+     * @throws IOException Error writing to file
+     */
+    void writeEncoded(ByteBuffer bytes, long lines, long chars) throws IOException {
+        unsyncedBytes += bytes.remaining();
+        if (output instanceof FileOutputStream) {
+            FileChannel channel = ((FileOutputStream) output).getChannel();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } else {
+            output.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            output.flush();
+        }
+        hasWrittenData = true;
+        writtenLines += lines;
+        writtenChars += chars;
+        syncIfDue();
+    }
+
+    /**
+     * Check if a block index is recorded, which requires the offset of every line
+     *
+     * @return Block index is recorded
+     */
+    boolean isRecordingBlockIndex() {
+        return blockRecorder != null;
+    }
+
     /**
      * Init {@link BufferedWriter} with file
      *
+     * @param file       File to write
+     * @param bufferSize Size of the output buffer in chars
      * @throws IOException Error open file
      */
-    private void initUsingFile(File file) throws IOException {
+    private void initUsingFile(File file, int bufferSize) throws IOException {
         this.file = file;
-        bufferedWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8));
+        this.output = new FileOutputStream(file, append);
+        this.charset = StandardCharsets.UTF_8;
+        // Headings are only written to new or empty files
+        this.headingPending = hasHeadings && file.length() == 0;
+        bufferedWriter = new BufferedWriter(new OutputStreamWriter(output, charset), bufferSize);
     }
 
     /**
      * Init {@link BufferedWriter} with output stream
      *
      * @param outputStream OutputStream to use
+     * @param bufferSize   Size of the output buffer in chars
      */
-    private void initUsingStream(OutputStream outputStream) {
-        bufferedWriter = new BufferedWriter(new OutputStreamWriter(outputStream));
+    private void initUsingStream(OutputStream outputStream, int bufferSize) {
+        this.output = outputStream;
+        this.charset = Charset.defaultCharset();
+        // If file is null, only input stream is used, and this will ALWAYS add headings to the output
+        this.headingPending = hasHeadings;
+        bufferedWriter = new BufferedWriter(new OutputStreamWriter(outputStream, charset), bufferSize);
     }
 
     /**
@@ -288,14 +896,163 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
     }
 
     /**
-     * Close underyling {@link BufferedWriter} and {@link FileWriter}
+     * Flush and force written data to the storage device, if the output is a file
+     *
+     * @throws IOException Error flushing or syncing
+     */
+    void sync() throws IOException {
+        flush();
+        if (output instanceof FileOutputStream) {
+            ((FileOutputStream) output).getFD().sync();
+        }
+        unsyncedBytes = 0;
+        lastSync = System.nanoTime();
+    }
+
+    /**
+     * Close underyling {@link BufferedWriter} and {@link FileWriter}. Written data is forced to the storage device
+     * if the durability policy requires it. In atomic mode the written data is discarded unless {@link #commit()} was
+     * called before, so failing before the commit leaves the file unchanged.
      *
      * @throws IOException Error close writers
      */
     @Override
     public void close() throws IOException {
-        if (bufferedWriter != null)
+        if (closed) {
+            return;
+        }
+        if (target != null) {
+            abort();
+            return;
+        }
+
+        closeOutput();
+        storeBlockIndex();
+    }
+
+    /**
+     * Close writer and publish everything written, in atomic mode the file is replaced by the temporary file. If
+     * committing fails the file is left unchanged. Writers that are not atomic are just closed.
+     *
+     * @throws IOException Error closing or replacing the file
+     */
+    public void commit() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+        if (target == null) {
+            close();
+            return;
+        }
+
+        boolean committed = false;
+        try {
+            closeOutput();
+            storeBlockIndex();
+            replaceTarget();
+            committed = true;
+        } finally {
+            if (!committed) {
+                abort();
+            }
+        }
+    }
+
+    /**
+     * Close writer and discard everything written, the file is left unchanged. Only supported in atomic mode.
+     *
+     * @throws IOException Error closing or deleting the temporary file
+     */
+    public void abort() throws IOException {
+        if (target == null) {
+            throw new IllegalStateException("Only atomic writers can be aborted");
+        }
+        closed = true;
+        blockRecorder = null;
+        target = null;
+        try {
+            bufferedWriter.close();
+        } finally {
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(CsvBlockIndex.getFile(file).toPath());
+        }
+    }
+
+    /**
+     * Force written data to the storage device if required and close the output, the output is closed even if
+     * forcing fails
+     *
+     * @throws IOException Error syncing or closing
+     */
+    private void closeOutput() throws IOException {
+        closed = true;
+        if (bufferPool != null) {
+            bufferPool.recordRows(clazz, writtenChars, writtenLines);
+        }
+        if (bufferedWriter == null) {
+            return;
+        }
+        try {
+            if (durability.isSyncOnClose()) {
+                sync();
+            }
+        } finally {
             bufferedWriter.close();
+        }
+    }
+
+    /**
+     * Store recorded block index next to the file
+     */
+    private void storeBlockIndex() {
+        if (blockRecorder != null) {
+            try {
+                blockRecorder.store(writtenBytes);
+            } catch (IOException | RuntimeException e) {
+                // Index is optional, it is recorded when the file is read next time
+            }
+            blockRecorder = null;
+        }
+    }
+
+    /**
+     * Replace the target file by the temporary file written in atomic mode, together with its block index
+     *
+     * @throws IOException Error replacing the file
+     */
+    private void replaceTarget() throws IOException {
+        File written = file;
+        File replaced = target;
+        move(written, replaced);
+        target = null;
+        file = replaced;
+
+        File index = CsvBlockIndex.getFile(written);
+        if (index.exists()) {
+            try {
+                move(index, CsvBlockIndex.getFile(replaced));
+            } catch (IOException e) {
+                // Index is optional, it is recorded when the file is read next time
+                Files.deleteIfExists(index.toPath());
+            }
+        }
+
+        if (durability.isSyncOnClose()) {
+            // Persist the rename itself
+            try (FileChannel directory = FileChannel.open(replaced.getAbsoluteFile().getParentFile().toPath(), StandardOpenOption.READ)) {
+                directory.force(true);
+            } catch (IOException e) {
+                // Directories can not be opened on all platforms
+            }
+        }
+    }
+
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     public static class Builder<T> {
@@ -329,6 +1086,46 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
          */
         private String seperator = Seperator.SEMICOLON;
 
+        /**
+         * Converters for field types
+         */
+        private final ConverterRegistry converters = new ConverterRegistry();
+
+        /**
+         * Number of threads for parallel writes
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Pool to size the output buffer by the width of rows read and written before
+         */
+        private BufferPool bufferPool = BufferPool.shared();
+
+        /**
+         * Size of the output buffer in chars, 0 to size it adaptively
+         */
+        private int bufferSize = 0;
+
+        /**
+         * Keys of the columns to record the block index for, null if no index is recorded
+         */
+        private Object[] blockIndexColumns;
+
+        /**
+         * Minimum size of blocks of the block index in bytes
+         */
+        private int blockSize = CsvBlockIndex.DEFAULT_BLOCK_SIZE;
+
+        /**
+         * Write to a temporary file replacing the file on close
+         */
+        private boolean atomic = false;
+
+        /**
+         * Policy for forcing written data to the storage device
+         */
+        private Durability durability = Durability.none();
+
         /**
          * Set class of bean
          *
@@ -363,9 +1160,9 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
         }
 
         /**
-         * Set seperator for csv reader, default it is set to ';'
+         * Set seperator for csv writer, default it is set to ';'
          *
-         * @param seperator Seperator
+         * @param seperator Seperator, may consist of multiple chars
          * @return Current builder
          */
         public Builder<T> seperatedBy(String seperator) {
@@ -383,6 +1180,137 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
             return this;
         }
 
+        /**
+         * Register converter for fields of the given type
+         *
+         * @param type      Field type
+         * @param converter Converter
+         * @param <V>       Field type
+         * @return Current builder
+         */
+        public <V> Builder<T> withConverter(Class<V> type, ValueConverter<V> converter) {
+            this.converters.register(type, converter);
+            return this;
+        }
+
+        /**
+         * Register all converters and converter factories of the registry
+         *
+         * @param converters Registry to copy converters from
+         * @return Current builder
+         */
+        public Builder<T> withConverters(ConverterRegistry converters) {
+            this.converters.register(converters);
+            return this;
+        }
+
+        /**
+         * Register converter factory, e.g. for converters depending on {@link com.github.timo_reymann.csv_parser.meta.CsvColumn#format()}
+         *
+         * @param factory Converter factory
+         * @return Current builder
+         */
+        public Builder<T> withConverterFactory(ValueConverterFactory factory) {
+            this.converters.register(factory);
+            return this;
+        }
+
+        /**
+         * Set number of threads used by {@link CsvWriter#writeLinesParallel(Stream)}, default it is the number of processors
+         *
+         * @param parallelism Number of threads
+         * @return Current builder
+         */
+        public Builder<T> parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new InvalidArgumentException("parallelism", parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set pool the width of written rows is recorded in, default it is {@link BufferPool#shared()}
+         *
+         * @param bufferPool Pool
+         * @return Current builder
+         */
+        public Builder<T> bufferPool(BufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Set size of the output buffer in chars, default it holds {@value BufferPool#ROWS_PER_BUFFER} rows of the
+         * width recorded in the pool and {@value #DEFAULT_BUFFER_SIZE} chars if there are no rows recorded yet
+         *
+         * @param bufferSize Buffer size in chars
+         * @return Current builder
+         */
+        public Builder<T> bufferSize(int bufferSize) {
+            if (bufferSize < 1) {
+                throw new InvalidArgumentException("bufferSize", bufferSize);
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Record a {@link CsvBlockIndex} for the columns while the file is written, it is written next to the file on
+         * close. Only files that are empty when the writer is built are indexed.
+         *
+         * @param columns Keys of the columns, heading or index as mapped by {@link com.github.timo_reymann.csv_parser.meta.CsvColumn}
+         * @return Current builder
+         */
+        public Builder<T> blockIndex(Object... columns) {
+            if (columns.length == 0) {
+                throw new InvalidArgumentException("blockIndex", columns);
+            }
+            this.blockIndexColumns = columns;
+            return this;
+        }
+
+        /**
+         * Set minimum size of blocks of the recorded block index, default it is {@value CsvBlockIndex#DEFAULT_BLOCK_SIZE}
+         * bytes
+         *
+         * @param blockSize Block size in bytes
+         * @return Current builder
+         */
+        public Builder<T> blockSize(int blockSize) {
+            if (blockSize < 1) {
+                throw new InvalidArgumentException("blockSize", blockSize);
+            }
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Write to a temporary file in the same directory that replaces the file on {@link CsvWriter#commit()}, so
+         * readers never see a partially written file. Closing the writer without committing discards the written data.
+         * Only supported for files, when appending the existing content is copied to the temporary file first.
+         *
+         * @return Current builder
+         */
+        public Builder<T> atomic() {
+            this.atomic = true;
+            return this;
+        }
+
+        /**
+         * Set policy for forcing written data to the storage device, default it is {@link Durability#none()}
+         *
+         * @param durability Policy
+         * @return Current builder
+         */
+        public Builder<T> durability(Durability durability) {
+            if (durability == null) {
+                throw new InvalidArgumentException("durability", durability);
+            }
+            this.durability = durability;
+            return this;
+        }
+
         public Builder<T> noAppend() {
             this.append = false;
             return this;
@@ -393,12 +1321,77 @@ public class CsvWriter<T> implements AutoCloseable, Closeable, Flushable {
                 throw new IllegalArgumentException("Decide if you want to use an outputstream or an file, both at the same time are not supported!");
             }
 
-            if (this.outputStream == null) {
-                return new CsvWriter<>(clazz, file, append, hasHeadings, seperator);
+            if (bufferPool == null) {
+                throw new InvalidArgumentException("bufferPool", bufferPool);
+            }
+
+            Seperator.validate(seperator);
+
+            CsvBinder<T> binder = null;
+            int[] blockSlots = null;
+            if (blockIndexColumns != null) {
+                if (file == null) {
+                    throw new InvalidArgumentException("blockIndex", Arrays.asList(blockIndexColumns));
+                }
+                binder = new CsvBinder<>(clazz, converters);
+                blockSlots = new int[blockIndexColumns.length];
+                for (int i = 0; i < blockSlots.length; i++) {
+                    blockSlots[i] = CsvBlockIndex.findSlot(binder, String.valueOf(blockIndexColumns[i]));
+                    if (blockSlots[i] == -1) {
+                        throw new InvalidArgumentException("blockIndex", blockIndexColumns[i]);
+                    }
+                }
+            }
+
+            if (atomic && file == null) {
+                throw new InvalidArgumentException("atomic", outputStream);
+            }
+
+            int outputBufferSize = bufferSize > 0 ? bufferSize : bufferPool.sizeFor(clazz, -1, DEFAULT_BUFFER_SIZE);
+            CsvWriter<T> csvWriter;
+            if (atomic) {
+                File temporary = createTemporaryFile();
+                try {
+                    csvWriter = new CsvWriter<>(clazz, temporary, true, hasHeadings, seperator, outputBufferSize);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(temporary.toPath());
+                    throw e;
+                }
+                csvWriter.target = file;
+            } else if (this.outputStream == null) {
+                csvWriter = new CsvWriter<>(clazz, file, append, hasHeadings, seperator, outputBufferSize);
             } else {
-                return new CsvWriter<>(clazz, outputStream, append, hasHeadings, seperator);
+                csvWriter = new CsvWriter<>(clazz, outputStream, append, hasHeadings, seperator, outputBufferSize);
             }
+            csvWriter.bufferPool = bufferPool;
+            csvWriter.setConverters(converters);
+            csvWriter.setParallelism(parallelism);
+            csvWriter.durability = durability;
+            if (binder != null) {
+                csvWriter.setBinder(binder);
+                csvWriter.initBlockIndex(blockSlots, blockSize);
+            }
+            return csvWriter;
         }
 
+        /**
+         * Create temporary file for atomic mode next to the file, so it can be renamed on close
+         *
+         * @return Empty file or copy of the file when appending
+         * @throws IOException Error creating or copying file
+         */
+        private File createTemporaryFile() throws IOException {
+            File directory = file.getAbsoluteFile().getParentFile();
+            File temporary = File.createTempFile("." + file.getName() + ".", ".tmp", directory);
+            if (append && file.exists()) {
+                try {
+                    Files.copy(file.toPath(), temporary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    Files.deleteIfExists(temporary.toPath());
+                    throw e;
+                }
+            }
+            return temporary;
+        }
     }
 }
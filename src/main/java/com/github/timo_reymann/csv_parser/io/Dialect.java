@@ -0,0 +1,37 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import lombok.Value;
+
+/**
+ * Format properties of a csv file as detected by {@link DialectDetector}
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+@Value
+public class Dialect {
+    /**
+     * Seperator for line values
+     */
+    String seperator;
+
+    /**
+     * Char used to quote values, <code>'"'</code> if the sample contained no quoted values
+     */
+    char quoteChar;
+
+    /**
+     * First line contains headings
+     */
+    boolean hasHeading;
+
+    /**
+     * Input starts with a byte order mark
+     */
+    boolean hasBom;
+
+    /**
+     * Line separator, one of <code>\n</code>, <code>\r\n</code> or <code>\r</code>
+     */
+    String lineSeperator;
+}
@@ -0,0 +1,292 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detect seperator, quote char, headings, BOM and line separator from a sample of a csv file
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class DialectDetector {
+    /**
+     * Default number of bytes to sample
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 8192;
+
+    /**
+     * Seperators to test, in order of preference if multiple seperators split the sample equally well
+     */
+    private static final char[] SEPERATORS = {'\t', ';', ',', '|', ':'};
+
+    /**
+     * Quote chars to test, in order of preference
+     */
+    private static final char[] QUOTE_CHARS = {'"', '\''};
+
+    /**
+     * Number of bytes to sample
+     */
+    @Getter
+    private final int sampleSize;
+
+    /**
+     * Create detector using {@link #DEFAULT_SAMPLE_SIZE}
+     */
+    public DialectDetector() {
+        this(DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * Create detector
+     *
+     * @param sampleSize Number of bytes to sample
+     */
+    public DialectDetector(int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be positive");
+        }
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Detect dialect from the start of the remaining input of the tokenizer without consuming it
+     *
+     * @param tokenizer Tokenizer to sample
+     * @return Detected dialect
+     * @throws IOException Error reading sample
+     */
+    public Dialect detect(CsvTokenizer tokenizer) throws IOException {
+        Dialect dialect = detect(tokenizer.peek(sampleSize), tokenizer.isEndOfInputBuffered());
+        if (!tokenizer.isBomSkipped()) {
+            return dialect;
+        }
+        return new Dialect(dialect.getSeperator(), dialect.getQuoteChar(), dialect.isHasHeading(), true, dialect.getLineSeperator());
+    }
+
+    /**
+     * Detect dialect from sample
+     *
+     * @param sample   Start of the csv file
+     * @param complete Sample contains the whole file, otherwise the last line is assumed to be cut off
+     * @return Detected dialect
+     */
+    public Dialect detect(CharSequence sample, boolean complete) {
+        boolean hasBom = sample.length() > 0 && sample.charAt(0) == '\uFEFF';
+        int start = hasBom ? 1 : 0;
+
+        char quoteChar = detectQuoteChar(sample, start);
+        char seperator = SEPERATORS[1];
+        List<List<String>> records = null;
+        double bestScore = 0;
+        for (char candidate : SEPERATORS) {
+            List<List<String>> candidateRecords = split(sample, start, candidate, quoteChar, complete);
+            double score = score(candidateRecords);
+            // Prefer earlier seperators on (almost) equal scores, e.g. ';' over ',' for decimal commas
+            if (score > bestScore + 1e-9) {
+                bestScore = score;
+                seperator = candidate;
+                records = candidateRecords;
+            }
+        }
+
+        boolean hasHeading = records != null && detectHeading(records);
+        return new Dialect(String.valueOf(seperator), quoteChar, hasHeading, hasBom, detectLineSeperator(sample, start, quoteChar));
+    }
+
+    /**
+     * Find quote char that most often encloses whole values
+     */
+    private static char detectQuoteChar(CharSequence sample, int start) {
+        char best = QUOTE_CHARS[0];
+        int bestCount = 0;
+        for (char quote : QUOTE_CHARS) {
+            int count = 0;
+            for (int i = start; i < sample.length(); i++) {
+                if (sample.charAt(i) != quote) {
+                    continue;
+                }
+                char before = i == start ? '\n' : sample.charAt(i - 1);
+                char after = i + 1 == sample.length() ? '\n' : sample.charAt(i + 1);
+                if (isBoundary(before) || isBoundary(after)) {
+                    count++;
+                }
+            }
+            if (count > bestCount) {
+                best = quote;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isBoundary(char c) {
+        if (c == '\n' || c == '\r') {
+            return true;
+        }
+        for (char seperator : SEPERATORS) {
+            if (c == seperator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String detectLineSeperator(CharSequence sample, int start, char quoteChar) {
+        boolean quoted = false;
+        for (int i = start; i < sample.length(); i++) {
+            char c = sample.charAt(i);
+            if (c == quoteChar) {
+                quoted = !quoted;
+            } else if (!quoted && c == '\r') {
+                return i + 1 < sample.length() && sample.charAt(i + 1) == '\n' ? "\r\n" : "\r";
+            } else if (!quoted && c == '\n') {
+                return "\n";
+            }
+        }
+        return System.lineSeparator();
+    }
+
+    /**
+     * Split sample into records, honoring quoted values
+     */
+    private static List<List<String>> split(CharSequence sample, int start, char seperator, char quoteChar, boolean complete) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = start;
+        while (i < sample.length()) {
+            char c = sample.charAt(i++);
+            if (quoted) {
+                if (c != quoteChar) {
+                    value.append(c);
+                } else if (i < sample.length() && sample.charAt(i) == quoteChar) {
+                    value.append(c);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == quoteChar && value.length() == 0) {
+                quoted = true;
+            } else if (c == seperator) {
+                record.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i < sample.length() && sample.charAt(i) == '\n') {
+                    i++;
+                }
+                record.add(value.toString());
+                value.setLength(0);
+                if (record.size() > 1 || !record.get(0).isEmpty()) {
+                    records.add(record);
+                }
+                record = new ArrayList<>();
+            } else {
+                value.append(c);
+            }
+        }
+
+        // Last line is only complete if the sample contains the whole input
+        if (complete && !quoted && (value.length() > 0 || !record.isEmpty())) {
+            record.add(value.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Score records split by a seperator, higher is better
+     *
+     * @return Share of records with the most common number of values, 0 if records have only one value
+     */
+    private static double score(List<List<String>> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, Integer> frequencies = new HashMap<>();
+        int mode = 0;
+        int modeFrequency = 0;
+        for (List<String> record : records) {
+            int frequency = frequencies.merge(record.size(), 1, Integer::sum);
+            if (frequency > modeFrequency || (frequency == modeFrequency && record.size() > mode)) {
+                mode = record.size();
+                modeFrequency = frequency;
+            }
+        }
+
+        if (mode < 2) {
+            return 0;
+        }
+        return (double) modeFrequency / records.size();
+    }
+
+    /**
+     * Vote for headings column by column: a column votes for a heading if all values below the first line are
+     * numeric and the first one is not, or if they all have the same length and the first one has a different length
+     */
+    private static boolean detectHeading(List<List<String>> records) {
+        if (records.size() < 2) {
+            return false;
+        }
+
+        List<String> first = records.get(0);
+        int votes = 0;
+        for (int column = 0; column < first.size(); column++) {
+            boolean allNumeric = true;
+            int length = -1;
+            boolean sameLength = true;
+            int values = 0;
+            for (int row = 1; row < records.size(); row++) {
+                List<String> record = records.get(row);
+                if (record.size() != first.size()) {
+                    continue;
+                }
+                String value = record.get(column);
+                if (value.isEmpty()) {
+                    continue;
+                }
+                values++;
+                allNumeric &= isNumeric(value);
+                if (length == -1) {
+                    length = value.length();
+                } else if (length != value.length()) {
+                    sameLength = false;
+                }
+            }
+
+            if (values == 0) {
+                continue;
+            }
+
+            String heading = first.get(column);
+            if (allNumeric) {
+                votes += isNumeric(heading) ? -1 : 1;
+            } else if (sameLength) {
+                votes += heading.length() == length ? -1 : 1;
+            }
+        }
+        return votes > 0;
+    }
+
+    private static boolean isNumeric(String value) {
+        int i = value.startsWith("-") || value.startsWith("+") ? 1 : 0;
+        boolean digits = false;
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c != '.' && c != ',') {
+                return false;
+            }
+        }
+        return digits;
+    }
+}
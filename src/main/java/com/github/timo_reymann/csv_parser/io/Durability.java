@@ -0,0 +1,89 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Policy when a {@link CsvWriter} forces written data to the storage device
+ * <p>
+ * Forcing data is expensive, so the policy trades throughput against the amount of data lost on a crash. Without
+ * forcing data it is up to the operating system when data reaches the storage device. Group commit forces data once
+ * the interval passed or the number of bytes were written since data was forced last, checked whenever lines are
+ * written. Policies forcing data always force the remaining data on close.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+@Getter
+public final class Durability {
+    private static final Durability NONE = new Durability(false, Long.MAX_VALUE, Long.MAX_VALUE);
+    private static final Durability ON_CLOSE = new Durability(true, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Force data on close
+     */
+    private final boolean syncOnClose;
+
+    /**
+     * Maximum time in nanoseconds between forcing data, {@link Long#MAX_VALUE} if unlimited
+     */
+    private final long intervalNanos;
+
+    /**
+     * Maximum number of bytes written between forcing data, {@link Long#MAX_VALUE} if unlimited
+     */
+    private final long bytes;
+
+    private Durability(boolean syncOnClose, long intervalNanos, long bytes) {
+        this.syncOnClose = syncOnClose;
+        this.intervalNanos = intervalNanos;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Never force data, this is the default
+     *
+     * @return Policy
+     */
+    public static Durability none() {
+        return NONE;
+    }
+
+    /**
+     * Force data once on close
+     *
+     * @return Policy
+     */
+    public static Durability onClose() {
+        return ON_CLOSE;
+    }
+
+    /**
+     * Force data every interval or number of bytes, whatever is reached first, and on close
+     *
+     * @param interval Maximum time between forcing data, null if only bytes are counted
+     * @param bytes    Maximum number of bytes between forcing data, 0 if only time is measured. Buffered lines are
+     *                 counted in chars, which equals their bytes for ASCII content.
+     * @return Policy
+     */
+    public static Durability groupCommit(Duration interval, long bytes) {
+        if (interval != null && (interval.isNegative() || interval.isZero())) {
+            throw new InvalidArgumentException("interval", interval);
+        }
+        if (bytes < 0 || (bytes == 0 && interval == null)) {
+            throw new InvalidArgumentException("bytes", bytes);
+        }
+        return new Durability(true, interval == null ? Long.MAX_VALUE : interval.toNanos(), bytes == 0 ? Long.MAX_VALUE : bytes);
+    }
+
+    /**
+     * Check if data is forced while writing
+     *
+     * @return Policy is group commit
+     */
+    public boolean isGroupCommit() {
+        return intervalNanos != Long.MAX_VALUE || bytes != Long.MAX_VALUE;
+    }
+}
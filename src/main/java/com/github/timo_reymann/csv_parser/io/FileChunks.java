@@ -0,0 +1,261 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.util.Workers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Split csv files into chunks starting at record bounds, so chunks can be tokenized on multiple threads
+ * <p>
+ * Chunks are only valid for charsets encoding quotes and line breaks as single byte (see
+ * {@link CsvTokenizer#isAsciiCompatible(java.nio.charset.Charset)}).
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class FileChunks {
+    /**
+     * Size of buffer for scanning for chunk bounds
+     */
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * At start of a value, a quote starts a quoted value
+     */
+    private static final int VALUE_START = 0;
+
+    /**
+     * Inside of an unquoted value or behind the closing quote, quotes are literals
+     */
+    private static final int UNQUOTED = 1;
+
+    /**
+     * Inside of a quoted value
+     */
+    private static final int QUOTED = 2;
+
+    /**
+     * Quote inside of a quoted value, either closing the value or escaping the next quote
+     */
+    private static final int QUOTE = 3;
+
+    private FileChunks() {
+    }
+
+    /**
+     * Work done for every chunk of a file
+     *
+     * @param <R> Type of result
+     */
+    @FunctionalInterface
+    public interface ChunkProcessor<R> {
+        /**
+         * Process records of chunk
+         *
+         * @param tokenizer Tokenizer of chunk
+         * @param first     Chunk is the first one of the file, so it starts with the heading if there is any
+         * @return Result of chunk
+         * @throws IOException Error reading chunk
+         */
+        R process(CsvTokenizer tokenizer, boolean first) throws IOException;
+    }
+
+    /**
+     * Process file in chunks on multiple threads and merge the results in order of chunks
+     * <p>
+     * The file is processed as one chunk on the calling thread if it is too small for more chunks, the parallelism
+     * is 1 or the charset does not encode quotes and line breaks as single byte.
+     *
+     * @param file        File to process
+     * @param charset     Charset of file
+     * @param seperator   Seperator, must be an ASCII char
+     * @param parallelism Number of threads
+     * @param chunkSize   Minimum size of a chunk in bytes
+     * @param threadName  Name of worker threads
+     * @param processor   Work done per chunk
+     * @param merge       Merge result of a chunk into the result of all chunks before
+     * @param <R>         Type of result
+     * @return Merged result
+     * @throws IOException Error reading file
+     */
+    public static <R> R process(File file, Charset charset, char seperator, int parallelism, long chunkSize,
+                                String threadName, ChunkProcessor<R> processor, BiConsumer<R, R> merge) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // Quotes and line breaks can only be found in the bytes if the charset encodes them as single byte
+            long[] bounds = parallelism == 1 || !CsvTokenizer.isAsciiCompatible(charset)
+                    ? new long[]{0, channel.size()} : split(channel, parallelism * 4, chunkSize, seperator, '"');
+            if (bounds.length == 2) {
+                try (CsvTokenizer tokenizer = new CsvTokenizer(new FileInputStream(file), charset, seperator, '"')) {
+                    return processor.process(tokenizer, true);
+                }
+            }
+
+            ExecutorService executor = Workers.newFixedThreadPool(parallelism, threadName);
+            try {
+                List<Future<R>> chunks = new ArrayList<>();
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    boolean first = i == 0;
+                    InputStream chunk = open(channel, bounds[i], bounds[i + 1]);
+                    int bufferSize = BufferPool.shared().sizeFor(null, bounds[i + 1] - bounds[i], CsvTokenizer.DEFAULT_BUFFER_SIZE);
+                    chunks.add(executor.submit(() -> {
+                        // Buffers of finished chunks are reused by the next chunks of the same worker
+                        try (CsvTokenizer tokenizer = new CsvTokenizer(chunk, charset, seperator, '"', bufferSize, BufferPool.shared())) {
+                            return processor.process(tokenizer, first);
+                        }
+                    }));
+                }
+
+                R result = null;
+                for (Future<R> chunk : chunks) {
+                    R chunkResult = Workers.await(chunk, "processing chunks");
+                    if (result == null) {
+                        result = chunkResult;
+                    } else {
+                        merge.accept(result, chunkResult);
+                    }
+                }
+                return result;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Split file into chunks at line breaks outside of quoted values
+     * <p>
+     * Quoted values are tracked from the start of the file the same way {@link CsvTokenizer} does: a quote only
+     * starts a quoted value at the start of a value, quotes inside of unquoted values are literals. So a line break
+     * inside a quoted value never starts a chunk. This reads the file once up to the last chunk bound, only looking
+     * at seperators, quotes and line breaks.
+     *
+     * @param channel      Channel of file
+     * @param maxChunks    Maximum number of chunks
+     * @param minChunkSize Minimum size of a chunk in bytes
+     * @param seperator    Seperator, must be an ASCII char
+     * @param quoteChar    Quote char, must be an ASCII char or {@link CsvTokenizer#NO_QUOTE}
+     * @return Bounds of chunks, chunk i starts at bounds[i] and ends before bounds[i + 1]
+     * @throws IOException Error reading file
+     */
+    public static long[] split(FileChannel channel, int maxChunks, long minChunkSize, char seperator, char quoteChar) throws IOException {
+        long size = channel.size();
+        int chunkCount = (int) Math.max(1, Math.min(maxChunks, size / minChunkSize));
+        long[] bounds = new long[chunkCount + 1];
+        int count = 1;
+        int next = 1;
+        long target = size / chunkCount;
+        byte sep = (byte) seperator;
+        byte quote = (byte) quoteChar;
+        boolean quoting = quoteChar != CsvTokenizer.NO_QUOTE;
+        int state = VALUE_START;
+        long position = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        while (next < chunkCount && position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            // The tokenizer skips a byte order mark, so a quote behind it starts a quoted value
+            int i = position == 0 && read >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF ? 3 : 0;
+            for (; i < read && next < chunkCount; i++) {
+                byte b = bytes[i];
+                if (state == QUOTED) {
+                    if (b == quote) {
+                        state = QUOTE;
+                    }
+                    continue;
+                } else if (state == QUOTE && b == quote) {
+                    // Escaped quote
+                    state = QUOTED;
+                    continue;
+                }
+
+                if (b == sep || b == '\r') {
+                    state = VALUE_START;
+                } else if (b == '\n') {
+                    state = VALUE_START;
+                    if (position + i < target) {
+                        continue;
+                    }
+                    long lineStart = position + i + 1;
+                    if (lineStart < size) {
+                        bounds[count++] = lineStart;
+                    }
+                    // Skip targets passed by long records
+                    do {
+                        next++;
+                    } while (next < chunkCount && size * next / chunkCount < lineStart);
+                    target = size * next / chunkCount;
+                } else if (state == VALUE_START && quoting && b == quote) {
+                    state = QUOTED;
+                } else {
+                    state = UNQUOTED;
+                }
+            }
+            position += read;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Open stream for chunk, the stream uses positional reads so all chunks can share one channel
+     *
+     * @param channel Channel of file
+     * @param start   Start of chunk
+     * @param end     End of chunk (exclusive)
+     * @return Stream reading the chunk, closing it does not close the channel
+     */
+    public static InputStream open(FileChannel channel, long start, long end) {
+        return new ChunkInputStream(channel, start, end);
+    }
+
+    /**
+     * Stream reading a range of a file
+     */
+    private static class ChunkInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        private ChunkInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (read <= 0) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+    }
+}
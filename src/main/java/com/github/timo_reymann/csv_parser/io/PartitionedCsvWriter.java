@@ -0,0 +1,531 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.convert.ValueConverterFactory;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Write beans to one csv file per partition key. Files are rolled over when they reach a maximum number of rows
+ * or bytes, only a limited number of files is kept open and the least recently used one is closed if a new one
+ * has to be opened. Headings are written once per file, all files share the same column mapping.
+ *
+ * @param <T> Type of bean
+ * @param <K> Type of partition key
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class PartitionedCsvWriter<T, K> implements AutoCloseable, Closeable, Flushable {
+    /**
+     * Class for bean
+     */
+    private final Class<T> clazz;
+
+    /**
+     * Directory for files
+     */
+    private final File directory;
+
+    /**
+     * Function to get partition key for bean
+     */
+    private final Function<? super T, ? extends K> partitionBy;
+
+    /**
+     * Function to get file name for partition key and part number
+     */
+    private final BiFunction<? super K, Integer, String> fileName;
+
+    /**
+     * Files have headings
+     */
+    private final boolean hasHeadings;
+
+    /**
+     * Seperator for lines
+     */
+    private final String seperator;
+
+    /**
+     * Maximum number of open files
+     */
+    private final int maxOpenFiles;
+
+    /**
+     * Maximum number of rows per file, not counting headings
+     */
+    private final long maxRowsPerFile;
+
+    /**
+     * Maximum size of a file in bytes, a file gets at least one row
+     */
+    private final long maxBytesPerFile;
+
+    /**
+     * Converters for field types
+     */
+    private final ConverterRegistry converters;
+
+    /**
+     * Column mapping shared by all files, resolved on first write
+     */
+    private CsvBinder<T> binder;
+
+    /**
+     * State of all partitions written so far
+     */
+    private final HashMap<K, Partition<T>> partitions = new HashMap<>();
+
+    /**
+     * Partitions with open file, least recently used first
+     */
+    private final LinkedHashMap<K, Partition<T>> openPartitions = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * All files written, in order of creation
+     */
+    private final List<File> files = new ArrayList<>();
+
+    private PartitionedCsvWriter(Builder<T, K> builder) {
+        this.clazz = builder.clazz;
+        this.directory = builder.directory;
+        this.partitionBy = builder.partitionBy;
+        this.fileName = builder.fileName;
+        this.hasHeadings = builder.hasHeadings;
+        this.seperator = builder.seperator;
+        this.maxOpenFiles = builder.maxOpenFiles;
+        this.maxRowsPerFile = builder.maxRowsPerFile;
+        this.maxBytesPerFile = builder.maxBytesPerFile;
+        this.converters = builder.converters;
+    }
+
+    /**
+     * Write bean to the file of its partition
+     *
+     * @param bean Bean to write
+     * @throws IllegalAccessException Error getting value from object
+     * @throws IOException            Error writing to file
+     */
+    public void writeLine(T bean) throws IOException, IllegalAccessException {
+        K key = partitionBy.apply(bean);
+        Partition<T> partition = partitions.get(key);
+        if (partition == null) {
+            partition = new Partition<>();
+            partitions.put(key, partition);
+        }
+
+        CsvWriter<T> writer = open(key, partition);
+        StringBuilder line = writer.formatLine(bean);
+        long lineBytes = utf8Length(line) + writer.getLineSeperator().length();
+
+        if (partition.rows > 0 && (partition.rows >= maxRowsPerFile || partition.bytes + lineBytes > maxBytesPerFile)) {
+            roll(key, partition);
+            writer = open(key, partition);
+            // Format again into the line buffer of the new writer
+            writer.formatLine(bean);
+        }
+
+        writer.writeFormattedLine();
+        partition.rows++;
+        partition.bytes += lineBytes;
+    }
+
+    /**
+     * Write beans to the files of their partitions
+     *
+     * @param beans Beans to write
+     * @throws IllegalAccessException Error getting value from object
+     * @throws IOException            Error writing to file
+     */
+    public void writeLine(List<T> beans) throws IOException, IllegalAccessException {
+        for (T bean : beans) {
+            writeLine(bean);
+        }
+    }
+
+    /**
+     * Get writer for current file of partition, opening it if required
+     *
+     * @param key       Partition key
+     * @param partition Partition state
+     * @return Writer for current file
+     * @throws IOException Error opening file
+     */
+    private CsvWriter<T> open(K key, Partition<T> partition) throws IOException {
+        if (partition.writer != null) {
+            // Mark as recently used
+            openPartitions.get(key);
+            return partition.writer;
+        }
+
+        if (openPartitions.size() >= maxOpenFiles) {
+            Iterator<Map.Entry<K, Partition<T>>> eldest = openPartitions.entrySet().iterator();
+            Partition<T> evicted = eldest.next().getValue();
+            eldest.remove();
+            evicted.writer.close();
+            evicted.writer = null;
+        }
+
+        if (binder == null) {
+            binder = new CsvBinder<>(clazz, converters);
+        }
+
+        // Files are replaced when opened for the first time and appended to when reopened after eviction
+        boolean reopen = partition.file != null;
+        if (!reopen) {
+            partition.file = new File(directory, fileName.apply(key, partition.part));
+            files.add(partition.file);
+        }
+
+        CsvWriter<T> writer = new CsvWriter<>(clazz, partition.file, reopen, hasHeadings, seperator);
+        writer.setConverters(converters);
+        writer.setBinder(binder);
+        if (!reopen) {
+            partition.bytes = writer.writeHeadingIfRequired();
+        }
+
+        partition.writer = writer;
+        openPartitions.put(key, partition);
+        return writer;
+    }
+
+    /**
+     * Close current file of partition and start the next part
+     *
+     * @param key       Partition key
+     * @param partition Partition state
+     * @throws IOException Error closing file
+     */
+    private void roll(K key, Partition<T> partition) throws IOException {
+        partition.writer.close();
+        partition.writer = null;
+        openPartitions.remove(key);
+        partition.part++;
+        partition.file = null;
+        partition.rows = 0;
+        partition.bytes = 0;
+    }
+
+    /**
+     * Get number of bytes of value encoded as UTF-8
+     *
+     * @param value Value
+     * @return Number of bytes
+     */
+    private static long utf8Length(CharSequence value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                // Surrogate pairs are four bytes
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Get all files written so far
+     *
+     * @return Files in order of creation
+     */
+    public List<File> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Flush all open files
+     *
+     * @throws IOException Error flushing
+     */
+    @Override
+    public void flush() throws IOException {
+        for (Partition<T> partition : openPartitions.values()) {
+            partition.writer.flush();
+        }
+    }
+
+    /**
+     * Close all open files
+     *
+     * @throws IOException Error closing files
+     */
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (Partition<T> partition : openPartitions.values()) {
+            try {
+                partition.writer.close();
+            } catch (IOException e) {
+                error = e;
+            }
+            partition.writer = null;
+        }
+        openPartitions.clear();
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * State of a partition
+     *
+     * @param <T> Type of bean
+     */
+    private static class Partition<T> {
+        /**
+         * Number of the current file
+         */
+        private int part;
+
+        /**
+         * Current file, null if the next part has not been opened yet
+         */
+        private File file;
+
+        /**
+         * Writer for current file, null if closed
+         */
+        private CsvWriter<T> writer;
+
+        /**
+         * Number of rows in current file
+         */
+        private long rows;
+
+        /**
+         * Size of current file
+         */
+        private long bytes;
+    }
+
+    /**
+     * Builder for partitioned csv writer
+     *
+     * @param <T> Type of bean
+     * @param <K> Type of partition key
+     */
+    public static class Builder<T, K> {
+        /**
+         * Class for bean
+         */
+        private Class<T> clazz;
+
+        /**
+         * Directory for files
+         */
+        private File directory;
+
+        /**
+         * Function to get partition key for bean
+         */
+        private Function<? super T, ? extends K> partitionBy;
+
+        /**
+         * Function to get file name for partition key and part number
+         */
+        private BiFunction<? super K, Integer, String> fileName = (key, part) -> part == 0 ? key + ".csv" : key + "." + part + ".csv";
+
+        /**
+         * Files have headings
+         */
+        private boolean hasHeadings = false;
+
+        /**
+         * Seperator for lines
+         */
+        private String seperator = Seperator.SEMICOLON;
+
+        /**
+         * Maximum number of open files
+         */
+        private int maxOpenFiles = 32;
+
+        /**
+         * Maximum number of rows per file
+         */
+        private long maxRowsPerFile = Long.MAX_VALUE;
+
+        /**
+         * Maximum size of a file in bytes
+         */
+        private long maxBytesPerFile = Long.MAX_VALUE;
+
+        /**
+         * Converters for field types
+         */
+        private final ConverterRegistry converters = new ConverterRegistry();
+
+        /**
+         * Set class of bean
+         *
+         * @param clazz Class object for bean
+         * @return Current builder
+         */
+        public Builder<T, K> forClass(Class<T> clazz) {
+            this.clazz = clazz;
+            return this;
+        }
+
+        /**
+         * Set directory to write files to
+         *
+         * @param directory Directory
+         * @return Current builder
+         */
+        public Builder<T, K> directory(File directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Set function to get the partition key of a bean
+         *
+         * @param partitionBy Function returning partition key
+         * @return Current builder
+         */
+        public Builder<T, K> partitionBy(Function<? super T, ? extends K> partitionBy) {
+            this.partitionBy = partitionBy;
+            return this;
+        }
+
+        /**
+         * Set function to get the file name for partition key and part number, default it is <code>key.csv</code>
+         * for the first part and <code>key.part.csv</code> for the following ones
+         *
+         * @param fileName Function returning file name
+         * @return Current builder
+         */
+        public Builder<T, K> fileName(BiFunction<? super K, Integer, String> fileName) {
+            this.fileName = fileName;
+            return this;
+        }
+
+        /**
+         * Files have first row with heading
+         *
+         * @return Current builder
+         */
+        public Builder<T, K> hasHeading() {
+            this.hasHeadings = true;
+            return this;
+        }
+
+        /**
+         * Set seperator for files, default it is set to ';'
+         *
+         * @param seperator Seperator
+         * @return Current builder
+         */
+        public Builder<T, K> seperatedBy(String seperator) {
+            this.seperator = seperator;
+            return this;
+        }
+
+        /**
+         * Set maximum number of files open at the same time, default it is 32
+         *
+         * @param maxOpenFiles Maximum number of open files
+         * @return Current builder
+         */
+        public Builder<T, K> maxOpenFiles(int maxOpenFiles) {
+            this.maxOpenFiles = maxOpenFiles;
+            return this;
+        }
+
+        /**
+         * Start a new file when a file has the given number of rows
+         *
+         * @param maxRowsPerFile Maximum number of rows, not counting headings
+         * @return Current builder
+         */
+        public Builder<T, K> maxRowsPerFile(long maxRowsPerFile) {
+            this.maxRowsPerFile = maxRowsPerFile;
+            return this;
+        }
+
+        /**
+         * Start a new file when the next row would exceed the given size, files get at least one row
+         *
+         * @param maxBytesPerFile Maximum file size in bytes
+         * @return Current builder
+         */
+        public Builder<T, K> maxBytesPerFile(long maxBytesPerFile) {
+            this.maxBytesPerFile = maxBytesPerFile;
+            return this;
+        }
+
+        /**
+         * Register converter for fields of the given type
+         *
+         * @param type      Field type
+         * @param converter Converter
+         * @param <V>       Field type
+         * @return Current builder
+         */
+        public <V> Builder<T, K> withConverter(Class<V> type, ValueConverter<V> converter) {
+            this.converters.register(type, converter);
+            return this;
+        }
+
+        /**
+         * Register converter factory, e.g. for converters depending on {@link com.github.timo_reymann.csv_parser.meta.CsvColumn#format()}
+         *
+         * @param factory Converter factory
+         * @return Current builder
+         */
+        public Builder<T, K> withConverterFactory(ValueConverterFactory factory) {
+            this.converters.register(factory);
+            return this;
+        }
+
+        /**
+         * Build partitioned writer
+         *
+         * @return Ready to use writer
+         */
+        public PartitionedCsvWriter<T, K> build() {
+            if (clazz == null) {
+                throw new InvalidArgumentException("class", clazz);
+            }
+
+            if (directory == null || !directory.isDirectory()) {
+                throw new InvalidArgumentException("directory", directory);
+            }
+
+            if (partitionBy == null) {
+                throw new InvalidArgumentException("partitionBy", partitionBy);
+            }
+
+            if (maxOpenFiles < 1) {
+                throw new InvalidArgumentException("maxOpenFiles", maxOpenFiles);
+            }
+
+            if (maxRowsPerFile < 1) {
+                throw new InvalidArgumentException("maxRowsPerFile", maxRowsPerFile);
+            }
+
+            if (maxBytesPerFile < 1) {
+                throw new InvalidArgumentException("maxBytesPerFile", maxBytesPerFile);
+            }
+
+            Seperator.validate(seperator);
+
+            return new PartitionedCsvWriter<>(this);
+        }
+    }
+}
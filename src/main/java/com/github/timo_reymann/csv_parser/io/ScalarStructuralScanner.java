@@ -0,0 +1,21 @@
+package com.github.timo_reymann.csv_parser.io;
+
+/**
+ * Scanner checking one byte at a time, reference implementation for other scanners
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class ScalarStructuralScanner implements StructuralScanner {
+    @Override
+    public long scan(byte[] buffer, int offset, byte seperator, byte quote) {
+        long bits = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            byte b = buffer[offset + i];
+            if (b == seperator || b == quote || b == '\n' || b == '\r') {
+                bits |= 1L << i;
+            }
+        }
+        return bits;
+    }
+}
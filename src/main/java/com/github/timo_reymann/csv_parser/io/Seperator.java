@@ -1,5 +1,7 @@
 package com.github.timo_reymann.csv_parser.io;
 
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+
 /**
  * @author Timo Reymann
  * @since 20.12.17
@@ -28,4 +30,19 @@ public class Seperator {
      * Space seperator
      */
     public static final String SPACE = " ";
+
+    /**
+     * Check seperator can be used for reading and writing, seperators may consist of multiple chars
+     *
+     * @param seperator Seperator
+     * @return Seperator
+     * @throws InvalidArgumentException Seperator is empty or contains quotes or line breaks
+     */
+    public static String validate(String seperator) {
+        if (seperator == null || seperator.isEmpty() || seperator.indexOf('"') >= 0
+                || seperator.indexOf('\n') >= 0 || seperator.indexOf('\r') >= 0) {
+            throw new InvalidArgumentException("seperator", seperator);
+        }
+        return seperator;
+    }
 }
@@ -0,0 +1,537 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.convert.ValueConverterFactory;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.MappingException;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.util.Workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read many csv files with the same columns, e.g. shards of a daily feed, as one stream of beans
+ * <p>
+ * Shards are read concurrently by a bounded number of threads, every thread reads one shard at a time, so at most
+ * {@link Builder#parallelism(int)} files are open. All shards share the column mapping of the bean. Headings are
+ * resolved per shard, so the order of columns may differ, but every shard has to map the same fields as the first
+ * one.
+ * <p>
+ * In ordered mode beans are returned shard by shard in order of the files, shards read ahead are buffered up to a
+ * limited number of batches. In unordered mode beans are returned as soon as they are read.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class ShardedCsvReader<T> {
+    /**
+     * Default number of beans passed from reading threads at once
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * Maximum number of batches buffered per shard in ordered mode and per thread in unordered mode
+     */
+    private static final int QUEUE_CAPACITY = 16;
+
+    /**
+     * Class of bean
+     */
+    private final Class<T> clazz;
+
+    /**
+     * Shards in order
+     */
+    private final List<File> files;
+
+    /**
+     * Charset of shards
+     */
+    private final Charset charset;
+
+    /**
+     * Seperator of shards
+     */
+    private final String seperator;
+
+    /**
+     * Shards have headings
+     */
+    private final boolean hasHeading;
+
+    /**
+     * Converters for field types
+     */
+    private final ConverterRegistry converters;
+
+    /**
+     * Number of threads reading shards
+     */
+    private final int parallelism;
+
+    /**
+     * Return beans in order of shards
+     */
+    private final boolean ordered;
+
+    /**
+     * Number of beans per batch
+     */
+    private final int batchSize;
+
+    private ShardedCsvReader(Builder<T> builder, List<File> files) {
+        this.clazz = builder.clazz;
+        this.files = files;
+        this.charset = builder.charset;
+        this.seperator = builder.seperator;
+        this.hasHeading = builder.hasHeading;
+        this.converters = builder.converters;
+        this.parallelism = builder.parallelism;
+        this.ordered = builder.ordered;
+        this.batchSize = builder.batchSize;
+    }
+
+    /**
+     * Get shards in order
+     *
+     * @return Files
+     */
+    public List<File> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Start reading all shards. The stream must be closed if it is not consumed completely, to stop reading.
+     * Errors reading a shard are thrown by the stream, {@link IOException} wrapped in {@link UncheckedIOException}.
+     *
+     * @return Stream of beans
+     * @throws MappingException Headings of a shard do not match the first shard
+     */
+    public Stream<T> lines() {
+        CsvBinder<T> binder = new CsvBinder<>(clazz, converters);
+        BitSet expected = hasHeading ? resolveMappedSlots(files.get(0), binder) : null;
+
+        int workers = Math.min(parallelism, files.size());
+        List<BlockingQueue<Batch<T>>> queues = new ArrayList<>();
+        if (ordered) {
+            for (int i = 0; i < files.size(); i++) {
+                queues.add(new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+            }
+        } else {
+            queues.add(new ArrayBlockingQueue<>(QUEUE_CAPACITY * workers));
+        }
+
+        ExecutorService executor = Workers.newFixedThreadPool(workers, "csv-shard-reader");
+        AtomicInteger next = new AtomicInteger();
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                int shard;
+                while ((shard = next.getAndIncrement()) < files.size()) {
+                    try {
+                        read(files.get(shard), binder, expected, queues.get(ordered ? shard : 0));
+                    } catch (InterruptedException e) {
+                        // Stream was closed
+                        return;
+                    }
+                }
+            });
+        }
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, ordered ? Spliterator.ORDERED : 0) {
+            private Iterator<T> batch = Collections.emptyIterator();
+            private int finished;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (!batch.hasNext()) {
+                    if (finished == files.size()) {
+                        executor.shutdown();
+                        return false;
+                    }
+                    batch = take(queues.get(ordered ? finished : 0)).beans.iterator();
+                }
+                action.accept(batch.next());
+                return true;
+            }
+
+            private Batch<T> take(BlockingQueue<Batch<T>> queue) {
+                Batch<T> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for shards"));
+                }
+
+                if (batch.error != null) {
+                    executor.shutdownNow();
+                    throw batch.error;
+                }
+                if (batch.last) {
+                    finished++;
+                }
+                return batch;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(executor::shutdownNow);
+    }
+
+    /**
+     * Read all shards and pass beans to action on the calling thread
+     *
+     * @param action Action for every bean
+     */
+    public void forEach(Consumer<? super T> action) {
+        try (Stream<T> lines = lines()) {
+            lines.forEach(action);
+        }
+    }
+
+    /**
+     * Read one shard into the queue, errors are passed as failed batch
+     *
+     * @param file     Shard
+     * @param binder   Shared binder
+     * @param expected Slots mapped by the first shard, null if the shards have no headings
+     * @param queue    Queue for batches
+     * @throws InterruptedException Stream was closed
+     */
+    private void read(File file, CsvBinder<T> binder, BitSet expected, BlockingQueue<Batch<T>> queue) throws InterruptedException {
+        RuntimeException error;
+        try (CsvReader<T> reader = open(file, binder)) {
+            if (expected != null && !expected.equals(mappedSlots(reader))) {
+                throw new MappingException("Headings of " + file + " map other fields than the headings of " + files.get(0));
+            }
+
+            List<T> beans = new ArrayList<>(batchSize);
+            T bean;
+            while ((bean = reader.readLine()) != null) {
+                beans.add(bean);
+                if (beans.size() == batchSize) {
+                    queue.put(new Batch<>(beans, false, null));
+                    beans = new ArrayList<>(batchSize);
+                }
+            }
+            queue.put(new Batch<>(beans, true, null));
+            return;
+        } catch (IOException e) {
+            error = new UncheckedIOException("Error reading shard " + file, e);
+        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+            error = new MappingException("Error creating bean for shard " + file, e);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        queue.put(new Batch<>(Collections.emptyList(), true, error));
+    }
+
+    /**
+     * Open reader for shard using the shared binder
+     *
+     * @param file   Shard
+     * @param binder Shared binder
+     * @return Reader positioned after the headings
+     */
+    private CsvReader<T> open(File file, CsvBinder<T> binder) {
+        CsvReader.Builder<T> builder = new CsvReader.Builder<T>()
+                .forClass(clazz)
+                .file(file)
+                .charset(charset)
+                .seperatedBy(seperator);
+        if (hasHeading) {
+            builder.hasHeading();
+        }
+
+        CsvReader<T> reader = builder.build();
+        reader.setBinder(binder);
+        return reader;
+    }
+
+    /**
+     * Resolve slots mapped by the headings of a shard
+     *
+     * @param file   Shard
+     * @param binder Shared binder
+     * @return Mapped slots
+     */
+    private BitSet resolveMappedSlots(File file, CsvBinder<T> binder) {
+        try (CsvReader<T> reader = open(file, binder)) {
+            return mappedSlots(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading shard " + file, e);
+        }
+    }
+
+    private static BitSet mappedSlots(CsvReader<?> reader) {
+        BitSet mapped = new BitSet();
+        for (int slot : reader.resolveSlots()) {
+            if (slot != -1) {
+                mapped.set(slot);
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Beans passed from a reading thread
+     *
+     * @param <T> Type of bean
+     */
+    private static final class Batch<T> {
+        /**
+         * Beans in order
+         */
+        private final List<T> beans;
+
+        /**
+         * Last batch of the shard
+         */
+        private final boolean last;
+
+        /**
+         * Error reading the shard, null if read successfully
+         */
+        private final RuntimeException error;
+
+        private Batch(List<T> beans, boolean last, RuntimeException error) {
+            this.beans = beans;
+            this.last = last;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Builder for sharded csv reader
+     *
+     * @param <T> Type of bean
+     */
+    public static class Builder<T> {
+        private Class<T> clazz;
+        private final List<File> files = new ArrayList<>();
+        private final List<File> directories = new ArrayList<>();
+        private final List<String> globs = new ArrayList<>();
+        private Charset charset = Charset.defaultCharset();
+        private String seperator = Seperator.SEMICOLON;
+        private boolean hasHeading = false;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private boolean ordered = true;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private final ConverterRegistry converters = new ConverterRegistry();
+
+        /**
+         * Set class of bean
+         *
+         * @param clazz Class object for bean
+         * @return Current builder
+         */
+        public Builder<T> forClass(Class<T> clazz) {
+            this.clazz = clazz;
+            return this;
+        }
+
+        /**
+         * Add shards, shards are read in order they are added
+         *
+         * @param files CSV files
+         * @return Current builder
+         */
+        public Builder<T> files(Collection<File> files) {
+            this.files.addAll(files);
+            return this;
+        }
+
+        /**
+         * Add shards, shards are read in order they are added
+         *
+         * @param files CSV files
+         * @return Current builder
+         */
+        public Builder<T> files(File... files) {
+            return files(Arrays.asList(files));
+        }
+
+        /**
+         * Add all files ending with <code>.csv</code> in directory as shards, ordered by name
+         *
+         * @param directory Directory
+         * @return Current builder
+         */
+        public Builder<T> directory(File directory) {
+            return directory(directory, "*.csv");
+        }
+
+        /**
+         * Add all files in directory matching the glob as shards, ordered by name
+         *
+         * @param directory Directory
+         * @param glob      Glob for file names, e.g. <code>feed-*.csv</code>
+         * @return Current builder
+         */
+        public Builder<T> directory(File directory, String glob) {
+            this.directories.add(directory);
+            this.globs.add(glob);
+            return this;
+        }
+
+        /**
+         * Set charset of shards, default it is the platform charset
+         *
+         * @param charset Charset
+         * @return Current builder
+         */
+        public Builder<T> charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Set seperator of shards, default it is set to ';'
+         *
+         * @param seperator Seperator
+         * @return Current builder
+         */
+        public Builder<T> seperatedBy(String seperator) {
+            this.seperator = seperator;
+            return this;
+        }
+
+        /**
+         * Shards have first row with heading
+         *
+         * @return Current builder
+         */
+        public Builder<T> hasHeading() {
+            this.hasHeading = true;
+            return this;
+        }
+
+        /**
+         * Register converter for fields of the given type
+         *
+         * @param type      Field type
+         * @param converter Converter
+         * @param <V>       Field type
+         * @return Current builder
+         */
+        public <V> Builder<T> withConverter(Class<V> type, ValueConverter<V> converter) {
+            this.converters.register(type, converter);
+            return this;
+        }
+
+        /**
+         * Register all converters and converter factories of the registry
+         *
+         * @param converters Registry to copy converters from
+         * @return Current builder
+         */
+        public Builder<T> withConverters(ConverterRegistry converters) {
+            this.converters.register(converters);
+            return this;
+        }
+
+        /**
+         * Register converter factory, e.g. for converters depending on {@link com.github.timo_reymann.csv_parser.meta.CsvColumn#format()}
+         *
+         * @param factory Converter factory
+         * @return Current builder
+         */
+        public Builder<T> withConverterFactory(ValueConverterFactory factory) {
+            this.converters.register(factory);
+            return this;
+        }
+
+        /**
+         * Set number of threads reading shards, which is the maximum number of open files, too.
+         * Default it is the number of processors.
+         *
+         * @param parallelism Number of threads
+         * @return Current builder
+         */
+        public Builder<T> parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Return beans as soon as they are read, instead of in order of shards
+         *
+         * @return Current builder
+         */
+        public Builder<T> unordered() {
+            this.ordered = false;
+            return this;
+        }
+
+        /**
+         * Set number of beans passed from reading threads at once, default it is {@link #DEFAULT_BATCH_SIZE}
+         *
+         * @param batchSize Number of beans
+         * @return Current builder
+         */
+        public Builder<T> batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Build sharded csv reader, directories are listed now
+         *
+         * @return Ready to use reader
+         */
+        public ShardedCsvReader<T> build() {
+            if (clazz == null) {
+                throw new InvalidArgumentException("class", clazz);
+            }
+
+            List<File> shards = new ArrayList<>(files);
+            for (int i = 0; i < directories.size(); i++) {
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + globs.get(i));
+                File[] matches = directories.get(i).listFiles(file -> file.isFile() && matcher.matches(file.toPath().getFileName()));
+                if (matches == null) {
+                    throw new InvalidArgumentException("directory", directories.get(i));
+                }
+                Arrays.sort(matches, Comparator.comparing(File::getName));
+                shards.addAll(Arrays.asList(matches));
+            }
+
+            if (shards.isEmpty()) {
+                throw new InvalidArgumentException("files", shards);
+            }
+
+            for (File shard : shards) {
+                if (!shard.isFile()) {
+                    throw new InvalidArgumentException("file", shard);
+                }
+            }
+
+            Seperator.validate(seperator);
+
+            if (parallelism < 1) {
+                throw new InvalidArgumentException("parallelism", parallelism);
+            }
+
+            if (batchSize < 1) {
+                throw new InvalidArgumentException("batchSize", batchSize);
+            }
+
+            return new ShardedCsvReader<>(this, shards);
+        }
+    }
+}
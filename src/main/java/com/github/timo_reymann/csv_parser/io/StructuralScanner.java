@@ -0,0 +1,26 @@
+package com.github.timo_reymann.csv_parser.io;
+
+/**
+ * Scanner finding structural bytes (seperator, quote, line feed and carriage return) in blocks of
+ * {@link #BLOCK_SIZE} bytes at once. Used by {@link CsvTokenizer} to skip over values without checking every byte.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public interface StructuralScanner {
+    /**
+     * Number of bytes scanned per call
+     */
+    int BLOCK_SIZE = 64;
+
+    /**
+     * Scan block for structural bytes
+     *
+     * @param buffer    Buffer to scan, at least {@link #BLOCK_SIZE} bytes must be available from offset
+     * @param offset    Start of block
+     * @param seperator Seperator byte
+     * @param quote     Quote byte
+     * @return Bitmap with bit <code>i</code> set if <code>buffer[offset + i]</code> is a structural byte
+     */
+    long scan(byte[] buffer, int offset, byte seperator, byte quote);
+}
@@ -0,0 +1,50 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Scanner comparing eight bytes at once using arithmetic on <code>long</code> words (SIMD within a register)
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class SwarStructuralScanner implements StructuralScanner {
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long BYTES = 0x0101010101010101L;
+    private static final long LINE_FEEDS = BYTES * '\n';
+    private static final long CARRIAGE_RETURNS = BYTES * '\r';
+
+    /**
+     * Multiplier collecting the high bit of every byte into the highest byte, lowest byte first
+     */
+    private static final long GATHER = 0x0102040810204080L;
+
+    @Override
+    public long scan(byte[] buffer, int offset, byte seperator, byte quote) {
+        long seperators = BYTES * (seperator & 0xFF);
+        long quotes = BYTES * (quote & 0xFF);
+        long bits = 0;
+        for (int word = 0; word < BLOCK_SIZE / 8; word++) {
+            long value = (long) LONGS.get(buffer, offset + (word << 3));
+            long matches = zeroBytes(value ^ seperators) | zeroBytes(value ^ quotes)
+                    | zeroBytes(value ^ LINE_FEEDS) | zeroBytes(value ^ CARRIAGE_RETURNS);
+            bits |= (((matches >>> 7) * GATHER) >>> 56) << (word << 3);
+        }
+        return bits;
+    }
+
+    /**
+     * Mark zero bytes without false positives
+     *
+     * @param value Word
+     * @return Word with the high bit set in exactly the bytes that are zero
+     */
+    private static long zeroBytes(long value) {
+        long t = (value & LOW_BITS) + LOW_BITS;
+        return ~(t | value | LOW_BITS);
+    }
+}
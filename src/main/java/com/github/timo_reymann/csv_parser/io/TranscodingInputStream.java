@@ -0,0 +1,103 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Input stream transcoding input of any charset to UTF-8
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+class TranscodingInputStream extends InputStream {
+    /**
+     * Reader decoding the source input
+     */
+    private final Reader reader;
+
+    /**
+     * Encoder for UTF-8
+     */
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * Decoded chars not encoded yet
+     */
+    private final CharBuffer chars = CharBuffer.allocate(8192);
+
+    /**
+     * Encoded bytes not read yet
+     */
+    private final ByteBuffer bytes = ByteBuffer.allocate(8192 * 3);
+
+    /**
+     * Source input has been read completely
+     */
+    private boolean endOfInput;
+
+    /**
+     * Create stream
+     *
+     * @param input   Source input
+     * @param charset Charset of source input
+     */
+    TranscodingInputStream(InputStream input, Charset charset) {
+        this.reader = new InputStreamReader(input, charset);
+        bytes.flip();
+    }
+
+    private boolean fill() throws IOException {
+        while (!bytes.hasRemaining()) {
+            if (endOfInput) {
+                return false;
+            }
+
+            int read = reader.read(chars);
+            chars.flip();
+            bytes.clear();
+            if (read == -1) {
+                endOfInput = true;
+                encoder.encode(chars, bytes, true);
+                encoder.flush(bytes);
+            } else {
+                encoder.encode(chars, bytes, false);
+            }
+            chars.compact();
+            bytes.flip();
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fill() ? bytes.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(len, bytes.remaining());
+        bytes.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
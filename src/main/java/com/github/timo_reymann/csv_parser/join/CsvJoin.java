@@ -0,0 +1,819 @@
+package com.github.timo_reymann.csv_parser.join;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.MappingException;
+import com.github.timo_reymann.csv_parser.io.CsvReader;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Hash join of two csv sources on mapped key columns
+ * <p>
+ * The beans of the build side, default the right source, are loaded into a compact hash table. Afterwards the beans of
+ * the probe side are streamed and joined with the beans of equal keys. Integral keys are compared by value, so columns
+ * of different integral types can be joined. Beans with null keys never match.
+ * <p>
+ * If the build side has more than {@link Builder#maxRowsInMemory(int)} beans, both sides are partitioned by the hash
+ * of their key into temporary files and joined partition by partition (grace hash join). Partitions still too large
+ * are partitioned again using other bits of the hash. Only fields mapped to columns are kept in temporary files.
+ *
+ * @param <L> Type of left bean
+ * @param <R> Type of right bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvJoin<L, R> {
+    /**
+     * Maximum number of times a partition is partitioned again, partitions of keys with too many beans are loaded
+     * completely afterwards
+     */
+    private static final int MAX_LEVEL = 4;
+
+    /**
+     * Side loaded into the hash table
+     */
+    private final Side<?> build;
+
+    /**
+     * Side streamed against the hash table
+     */
+    private final Side<?> probe;
+
+    /**
+     * The left source is the build side
+     */
+    private final boolean buildLeft;
+
+    /**
+     * Type of join
+     */
+    private final JoinType type;
+
+    /**
+     * Maximum number of build beans held in the hash table
+     */
+    private final int maxRowsInMemory;
+
+    /**
+     * Number of partitions, a power of two
+     */
+    private final int partitions;
+
+    /**
+     * Directory for temporary files, null for the default temporary directory
+     */
+    private final File tempDirectory;
+
+    /**
+     * Keys of both sides are integral numbers
+     */
+    private final boolean primitive;
+
+    /**
+     * Temporary files currently existing
+     */
+    private final List<File> tempFiles = new ArrayList<>();
+
+    /**
+     * Join was started, sources can only be read once
+     */
+    private boolean started;
+
+    private CsvJoin(Builder<L, R> builder, Side<L> left, Side<R> right) {
+        this.buildLeft = builder.buildLeft;
+        this.build = buildLeft ? left : right;
+        this.probe = buildLeft ? right : left;
+        this.type = builder.type;
+        this.maxRowsInMemory = builder.maxRowsInMemory;
+        this.partitions = builder.partitions;
+        this.tempDirectory = builder.tempDirectory;
+        this.primitive = left.isIntegral() && right.isIntegral();
+    }
+
+    /**
+     * Join the sources, the sources are read while the stream is consumed. Closing the stream deletes all
+     * temporary files, the readers are not closed.
+     *
+     * @return Joined beans, in order of the probe side as long as nothing is written to temporary files
+     * @throws IllegalStateException Join was already started
+     */
+    public synchronized Stream<JoinedRow<L, R>> join() {
+        if (started) {
+            throw new IllegalStateException("Sources have already been joined");
+        }
+        started = true;
+
+        JoinIterator iterator = new JoinIterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Get partition of key
+     *
+     * @param key   Key, null keys are in partition 0
+     * @param level Number of times the rows have been partitioned before
+     * @return Partition
+     */
+    private int partition(Object key, int level) {
+        if (key == null) {
+            return 0;
+        }
+        int bits = Integer.numberOfTrailingZeros(partitions);
+        return (int) (JoinHashTable.hash(key) >>> (64 - bits * (level + 1))) & (partitions - 1);
+    }
+
+    /**
+     * Pair beans of build and probe side
+     */
+    @SuppressWarnings("unchecked")
+    private JoinedRow<L, R> pair(Object buildRow, Object probeRow) {
+        return buildLeft ? new JoinedRow<>((L) buildRow, (R) probeRow) : new JoinedRow<>((L) probeRow, (R) buildRow);
+    }
+
+    private synchronized File createTempFile() throws IOException {
+        File file = File.createTempFile("csv-join-", ".bin", tempDirectory);
+        tempFiles.add(file);
+        return file;
+    }
+
+    private synchronized void deleteTempFile(File file) {
+        if (tempFiles.remove(file)) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Source of beans, the reader of a side or a temporary file
+     */
+    private interface Source extends Closeable {
+        /**
+         * Read next bean
+         *
+         * @return Bean or null if there are no more beans
+         * @throws IOException Error reading source
+         */
+        Object next() throws IOException;
+
+        /**
+         * Close source, sources reading a reader do not close it
+         *
+         * @throws IOException Error closing source
+         */
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    /**
+     * Reader and key columns of one side
+     *
+     * @param <T> Type of bean
+     */
+    private static class Side<T> {
+        /**
+         * Reader of the side
+         */
+        private final CsvReader<T> reader;
+
+        /**
+         * Binding of the bean
+         */
+        private final CsvBinder<T> binder;
+
+        /**
+         * Binder slots of the key columns
+         */
+        private final int[] slots;
+
+        /**
+         * Key columns are mapped to fields of a single integral type
+         */
+        private final boolean integral;
+
+        private Side(CsvReader<T> reader, List<Object> keys, String argument) {
+            this.reader = reader;
+            this.binder = reader.getBinder();
+            this.slots = new int[keys.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = binder.getSlot(keys.get(i));
+                if (slots[i] == -1) {
+                    throw new InvalidArgumentException(argument, keys.get(i));
+                }
+            }
+            this.integral = slots.length == 1 && isIntegral(binder.getColumn(slots[0]).getType());
+        }
+
+        private static boolean isIntegral(Class<?> type) {
+            return type == long.class || type == Long.class || type == int.class || type == Integer.class
+                    || type == short.class || type == Short.class || type == byte.class || type == Byte.class;
+        }
+
+        private boolean isIntegral() {
+            return integral;
+        }
+
+        /**
+         * Get key of bean, integral numbers are converted to long
+         *
+         * @param bean Bean
+         * @return Key, a list for multiple key columns, or null if a key column is null
+         * @throws MappingException Error reading field
+         */
+        @SuppressWarnings("unchecked")
+        private Object key(Object bean) {
+            try {
+                if (slots.length == 1) {
+                    return normalize(binder.get((T) bean, slots[0]));
+                }
+                Object[] values = new Object[slots.length];
+                for (int i = 0; i < slots.length; i++) {
+                    values[i] = normalize(binder.get((T) bean, slots[i]));
+                    if (values[i] == null) {
+                        return null;
+                    }
+                }
+                return Arrays.asList(values);
+            } catch (IllegalAccessException e) {
+                throw new MappingException("Error reading key of bean " + bean.getClass().getName(), e);
+            }
+        }
+
+        private static Object normalize(Object value) {
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return ((Number) value).longValue();
+            }
+            return value;
+        }
+
+        /**
+         * Replace string key of bean by the instance stored in the hash table, so equal keys share one string
+         *
+         * @param bean Bean
+         * @param key  Stored key
+         */
+        @SuppressWarnings("unchecked")
+        private void intern(Object bean, Object key) {
+            if (key instanceof String) {
+                binder.set((T) bean, slots[0], key);
+            }
+        }
+
+        /**
+         * Create source reading the remaining beans of the reader
+         *
+         * @return Source, closing it does not close the reader
+         */
+        private Source readerSource() {
+            return () -> {
+                try {
+                    return reader.readLine();
+                } catch (IllegalAccessException | InstantiationException | NoSuchMethodException | InvocationTargetException e) {
+                    throw new MappingException("Error mapping bean", e);
+                }
+            };
+        }
+
+        /**
+         * Write bean to temporary file, values are formatted by the converters of their columns
+         *
+         * @param bean Bean
+         * @param out  Output of temporary file
+         * @param line Reusable builder for values
+         * @throws IOException Error writing file
+         */
+        @SuppressWarnings("unchecked")
+        private void write(Object bean, DataOutputStream out, StringBuilder line) throws IOException {
+            try {
+                for (int slot = 0; slot < binder.getColumnCount(); slot++) {
+                    if (binder.get((T) bean, slot) == null) {
+                        out.writeInt(-1);
+                        continue;
+                    }
+                    line.setLength(0);
+                    binder.write((T) bean, slot, line);
+                    byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            } catch (IllegalAccessException e) {
+                throw new MappingException("Error reading field of bean " + bean.getClass().getName(), e);
+            }
+        }
+
+        /**
+         * Read bean written by {@link #write(Object, DataOutputStream, StringBuilder)}
+         *
+         * @param in Input of temporary file
+         * @return Bean
+         * @throws IOException Error reading file
+         */
+        private T read(DataInputStream in) throws IOException {
+            T bean;
+            try {
+                bean = binder.newInstance();
+            } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                throw new MappingException("Error creating bean", e);
+            }
+            for (int slot = 0; slot < binder.getColumnCount(); slot++) {
+                int length = in.readInt();
+                if (length >= 0) {
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    binder.read(bean, slot, new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * Temporary file holding the beans of one partition of a side
+     */
+    private class Spill {
+        private final Side<?> side;
+        private final File file;
+        private final DataOutputStream out;
+        private final StringBuilder line = new StringBuilder();
+
+        private Spill(Side<?> side) throws IOException {
+            this.side = side;
+            this.file = createTempFile();
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        }
+
+        private void write(Object bean) throws IOException {
+            out.writeBoolean(true);
+            side.write(bean, out, line);
+        }
+
+        /**
+         * Complete file and open it for reading, the file is deleted when the source is closed
+         *
+         * @return Source reading the beans
+         * @throws IOException Error writing or opening file
+         */
+        private Source finish() throws IOException {
+            out.writeBoolean(false);
+            out.close();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            return new Source() {
+                @Override
+                public Object next() throws IOException {
+                    return in.readBoolean() ? side.read(in) : null;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    in.close();
+                    deleteTempFile(file);
+                }
+            };
+        }
+    }
+
+    /**
+     * Build and probe beans of one partition
+     */
+    private static class Task {
+        private final Source build;
+        private final Source probe;
+        private final int level;
+
+        private Task(Source build, Source probe, int level) {
+            this.build = build;
+            this.probe = probe;
+            this.level = level;
+        }
+    }
+
+    /**
+     * Iterator joining the tasks one after another
+     */
+    private class JoinIterator implements Iterator<JoinedRow<L, R>> {
+        /**
+         * Tasks not started yet
+         */
+        private final Deque<Task> tasks = new ArrayDeque<>();
+
+        /**
+         * Hash table of the current task
+         */
+        private JoinHashTable<Object> table;
+
+        /**
+         * Build rows of the current table that have been joined, only tracked for left joins building the left side
+         */
+        private BitSet matched;
+
+        /**
+         * Probe side of the current task, null once it was read completely
+         */
+        private Source probeSource;
+
+        /**
+         * Current probe bean, null if the next one has to be read
+         */
+        private Object probeRow;
+
+        /**
+         * Next build row joined with the current probe bean, -1 if there is none
+         */
+        private int match = -1;
+
+        /**
+         * Next build row checked for being unmatched, -1 if unmatched rows are not emitted
+         */
+        private int unmatched = -1;
+
+        /**
+         * Next joined row, null if it has to be computed
+         */
+        private JoinedRow<L, R> next;
+
+        private JoinIterator() {
+            tasks.add(new Task(build.readerSource(), probe.readerSource(), 0));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = compute();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public JoinedRow<L, R> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            JoinedRow<L, R> row = next;
+            next = null;
+            return row;
+        }
+
+        /**
+         * Compute next joined row
+         *
+         * @return Joined row or null if all tasks are done
+         * @throws IOException Error reading sources or temporary files
+         */
+        private JoinedRow<L, R> compute() throws IOException {
+            while (true) {
+                if (match != -1) {
+                    int row = match;
+                    match = table.next(match);
+                    if (matched != null) {
+                        matched.set(row);
+                    }
+                    if (match == -1) {
+                        Object probed = probeRow;
+                        probeRow = null;
+                        return pair(table.getRow(row), probed);
+                    }
+                    return pair(table.getRow(row), probeRow);
+                }
+
+                if (probeSource != null) {
+                    probeRow = probeSource.next();
+                    if (probeRow == null) {
+                        probeSource.close();
+                        probeSource = null;
+                        if (matched != null) {
+                            unmatched = 0;
+                        }
+                        continue;
+                    }
+
+                    match = table.find(probe.key(probeRow));
+                    if (match == -1) {
+                        Object probed = probeRow;
+                        probeRow = null;
+                        if (type == JoinType.LEFT && !buildLeft) {
+                            return pair(null, probed);
+                        }
+                    }
+                    continue;
+                }
+
+                if (unmatched != -1) {
+                    int row = matched.nextClearBit(unmatched);
+                    if (row < table.size()) {
+                        unmatched = row + 1;
+                        return pair(table.getRow(row), null);
+                    }
+                    unmatched = -1;
+                    continue;
+                }
+
+                table = null;
+                matched = null;
+                Task task = tasks.poll();
+                if (task == null) {
+                    return null;
+                }
+                start(task);
+            }
+        }
+
+        /**
+         * Load build side of task into the hash table, the task is partitioned if the build side is too large
+         *
+         * @param task Task
+         * @throws IOException Error reading or writing temporary files
+         */
+        private void start(Task task) throws IOException {
+            boolean keepNullKeys = type == JoinType.LEFT && buildLeft;
+            JoinHashTable<Object> table = new JoinHashTable<>(primitive);
+            Object row;
+            try {
+                while ((row = task.build.next()) != null) {
+                    Object key = build.key(row);
+                    if (key == null && !keepNullKeys) {
+                        continue;
+                    }
+                    build.intern(row, table.add(key, row));
+
+                    if (table.size() > maxRowsInMemory && task.level < MAX_LEVEL) {
+                        spill(task, table);
+                        return;
+                    }
+                }
+            } finally {
+                task.build.close();
+            }
+
+            this.table = table;
+            this.matched = keepNullKeys ? new BitSet(table.size()) : null;
+            this.probeSource = task.probe;
+        }
+
+        /**
+         * Write build rows of the table, the remaining build rows and all probe rows of the task to temporary files
+         * per partition and add tasks for the partitions
+         *
+         * @param task  Task too large for memory
+         * @param table Hash table containing the first build rows
+         * @throws IOException Error reading or writing temporary files
+         */
+        private void spill(Task task, JoinHashTable<Object> table) throws IOException {
+            List<Spill> builds = new ArrayList<>(partitions);
+            List<Spill> probes = new ArrayList<>(partitions);
+            try {
+                for (int i = 0; i < partitions; i++) {
+                    builds.add(new Spill(build));
+                    probes.add(new Spill(probe));
+                }
+
+                for (int i = 0; i < table.size(); i++) {
+                    Object row = table.getRow(i);
+                    builds.get(partition(build.key(row), task.level)).write(row);
+                }
+                Object row;
+                while ((row = task.build.next()) != null) {
+                    Object key = build.key(row);
+                    if (key != null || type == JoinType.LEFT && buildLeft) {
+                        builds.get(partition(key, task.level)).write(row);
+                    }
+                }
+
+                boolean keepNullKeys = type == JoinType.LEFT && !buildLeft;
+                try {
+                    while ((row = task.probe.next()) != null) {
+                        Object key = probe.key(row);
+                        if (key != null || keepNullKeys) {
+                            probes.get(partition(key, task.level)).write(row);
+                        }
+                    }
+                } finally {
+                    task.probe.close();
+                }
+
+                for (int i = partitions - 1; i >= 0; i--) {
+                    tasks.addFirst(new Task(builds.get(i).finish(), probes.get(i).finish(), task.level + 1));
+                }
+            } catch (IOException | RuntimeException e) {
+                for (Spill spill : builds) {
+                    spill.out.close();
+                }
+                for (Spill spill : probes) {
+                    spill.out.close();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Close open temporary files and delete all of them
+         */
+        private void close() {
+            for (Task task : tasks) {
+                closeQuietly(task.build);
+                closeQuietly(task.probe);
+            }
+            tasks.clear();
+            if (probeSource != null) {
+                closeQuietly(probeSource);
+                probeSource = null;
+            }
+            for (File file : new ArrayList<>(tempFiles)) {
+                deleteTempFile(file);
+            }
+        }
+
+        private void closeQuietly(Source source) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                // Source is not read anymore
+            }
+        }
+    }
+
+    /**
+     * Builder for csv join
+     *
+     * @param <L> Type of left bean
+     * @param <R> Type of right bean
+     */
+    public static class Builder<L, R> {
+        /**
+         * Reader of the left source
+         */
+        private CsvReader<L> left;
+
+        /**
+         * Reader of the right source
+         */
+        private CsvReader<R> right;
+
+        /**
+         * Key columns of the left source
+         */
+        private final List<Object> leftKeys = new ArrayList<>();
+
+        /**
+         * Key columns of the right source
+         */
+        private final List<Object> rightKeys = new ArrayList<>();
+
+        /**
+         * Type of join
+         */
+        private JoinType type = JoinType.INNER;
+
+        /**
+         * The left source is the build side
+         */
+        private boolean buildLeft = false;
+
+        /**
+         * Maximum number of build beans held in the hash table
+         */
+        private int maxRowsInMemory = 1_000_000;
+
+        /**
+         * Number of partitions
+         */
+        private int partitions = 16;
+
+        /**
+         * Directory for temporary files
+         */
+        private File tempDirectory;
+
+        /**
+         * Set reader of the left source, e.g. orders
+         *
+         * @param left Reader
+         * @return Current builder
+         */
+        public Builder<L, R> left(CsvReader<L> left) {
+            this.left = left;
+            return this;
+        }
+
+        /**
+         * Set reader of the right source, e.g. customers
+         *
+         * @param right Reader
+         * @return Current builder
+         */
+        public Builder<L, R> right(CsvReader<R> right) {
+            this.right = right;
+            return this;
+        }
+
+        /**
+         * Join on equal values of the columns, call multiple times to join on multiple columns
+         *
+         * @param leftKey  Header name or index of the left column
+         * @param rightKey Header name or index of the right column
+         * @return Current builder
+         */
+        public Builder<L, R> on(Object leftKey, Object rightKey) {
+            this.leftKeys.add(leftKey);
+            this.rightKeys.add(rightKey);
+            return this;
+        }
+
+        /**
+         * Set type of join, default it is {@link JoinType#INNER}
+         *
+         * @param type Type of join
+         * @return Current builder
+         */
+        public Builder<L, R> type(JoinType type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Load the left source into the hash table instead of the right one, if it is the smaller side
+         *
+         * @return Current builder
+         */
+        public Builder<L, R> buildLeft() {
+            this.buildLeft = true;
+            return this;
+        }
+
+        /**
+         * Set maximum number of beans of the build side held in memory, default it is 1000000. Larger sides are
+         * partitioned into temporary files.
+         *
+         * @param maxRowsInMemory Maximum number of beans
+         * @return Current builder
+         */
+        public Builder<L, R> maxRowsInMemory(int maxRowsInMemory) {
+            this.maxRowsInMemory = maxRowsInMemory;
+            return this;
+        }
+
+        /**
+         * Set number of partitions sides are split into if the build side is too large, default it is 16
+         *
+         * @param partitions Number of partitions, a power of two between 2 and 256
+         * @return Current builder
+         */
+        public Builder<L, R> partitions(int partitions) {
+            this.partitions = partitions;
+            return this;
+        }
+
+        /**
+         * Set directory for temporary files, default it is the temporary directory of the platform
+         *
+         * @param tempDirectory Directory
+         * @return Current builder
+         */
+        public Builder<L, R> tempDirectory(File tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        /**
+         * Build csv join
+         *
+         * @return Ready to use join
+         */
+        public CsvJoin<L, R> build() {
+            if (left == null) {
+                throw new InvalidArgumentException("left", left);
+            }
+
+            if (right == null) {
+                throw new InvalidArgumentException("right", right);
+            }
+
+            if (leftKeys.isEmpty()) {
+                throw new InvalidArgumentException("on", leftKeys);
+            }
+
+            if (type == null) {
+                throw new InvalidArgumentException("type", type);
+            }
+
+            if (maxRowsInMemory < 1) {
+                throw new InvalidArgumentException("maxRowsInMemory", maxRowsInMemory);
+            }
+
+            if (partitions < 2 || partitions > 256 || Integer.bitCount(partitions) != 1) {
+                throw new InvalidArgumentException("partitions", partitions);
+            }
+
+            return new CsvJoin<>(this, new Side<>(left, leftKeys, "on"), new Side<>(right, rightKeys, "on"));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.github.timo_reymann.csv_parser.join;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table mapping join keys to the beans of the build side
+ * <p>
+ * Every distinct key is stored once, integral keys as primitive longs. Beans with the same key are chained in order
+ * of insertion through a flat array of row indexes, so adding a bean with an existing key does not allocate.
+ *
+ * @param <B> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+class JoinHashTable<B> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Keys are integral numbers stored in {@link #longKeys}
+     */
+    private final boolean primitive;
+
+    /**
+     * Key index + 1 per slot, 0 for empty slots
+     */
+    private int[] slots = new int[INITIAL_CAPACITY];
+
+    /**
+     * Hash per key
+     */
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Primitive keys, only used for primitive tables
+     */
+    private long[] longKeys;
+
+    /**
+     * Keys, only used for tables of other keys
+     */
+    private Object[] objectKeys;
+
+    /**
+     * First row per key
+     */
+    private int[] firstRows = new int[INITIAL_CAPACITY];
+
+    /**
+     * Last row per key
+     */
+    private int[] lastRows = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of distinct keys
+     */
+    private int keyCount;
+
+    /**
+     * Beans in order of insertion
+     */
+    private Object[] rows = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Next row with the same key per row, -1 for the last one
+     */
+    private int[] nextRows = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of rows
+     */
+    private int rowCount;
+
+    /**
+     * Create empty table
+     *
+     * @param primitive Keys are integral numbers
+     */
+    JoinHashTable(boolean primitive) {
+        this.primitive = primitive;
+        if (primitive) {
+            longKeys = new long[INITIAL_CAPACITY];
+        } else {
+            objectKeys = new Object[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Hash key to 64 bit, integral numbers are hashed by value
+     *
+     * @param key Key, not null
+     * @return Hash
+     */
+    static long hash(Object key) {
+        long hash = key instanceof Long ? (Long) key : key.hashCode();
+        // Finalizer of MurmurHash3, every input bit affects every output bit
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Get number of rows
+     *
+     * @return Number of rows
+     */
+    int size() {
+        return rowCount;
+    }
+
+    /**
+     * Add bean
+     *
+     * @param key Key of bean, beans with null keys are stored but never found
+     * @param row Bean
+     * @return Stored key equal to the key of the bean, null for null keys
+     */
+    Object add(Object key, B row) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, rowCount * 2);
+            nextRows = Arrays.copyOf(nextRows, rowCount * 2);
+        }
+        int index = rowCount++;
+        rows[index] = row;
+        nextRows[index] = -1;
+        if (key == null) {
+            return null;
+        }
+
+        int hash = (int) hash(key);
+        int keyIndex = findKey(key, hash);
+        if (keyIndex == -1) {
+            keyIndex = addKey(key, hash);
+            firstRows[keyIndex] = index;
+        } else {
+            nextRows[lastRows[keyIndex]] = index;
+        }
+        lastRows[keyIndex] = index;
+        return primitive ? key : objectKeys[keyIndex];
+    }
+
+    /**
+     * Find first row of key
+     *
+     * @param key Key, null keys are never found
+     * @return Index of row or -1 if there is no bean with the key
+     */
+    int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int keyIndex = findKey(key, (int) hash(key));
+        return keyIndex == -1 ? -1 : firstRows[keyIndex];
+    }
+
+    /**
+     * Get next row with the same key
+     *
+     * @param row Index of row
+     * @return Index of next row or -1 if there is none
+     */
+    int next(int row) {
+        return nextRows[row];
+    }
+
+    /**
+     * Get bean of row
+     *
+     * @param row Index of row
+     * @return Bean
+     */
+    @SuppressWarnings("unchecked")
+    B getRow(int row) {
+        return (B) rows[row];
+    }
+
+    private int findKey(Object key, int hash) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        if (primitive) {
+            long value = ((Number) key).longValue();
+            while (slots[slot] != 0) {
+                int keyIndex = slots[slot] - 1;
+                if (longKeys[keyIndex] == value) {
+                    return keyIndex;
+                }
+                slot = (slot + 1) & mask;
+            }
+        } else {
+            while (slots[slot] != 0) {
+                int keyIndex = slots[slot] - 1;
+                if (hashes[keyIndex] == hash && objectKeys[keyIndex].equals(key)) {
+                    return keyIndex;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    private int addKey(Object key, int hash) {
+        int keyIndex = keyCount++;
+        if (keyIndex == hashes.length) {
+            int capacity = keyIndex * 2;
+            hashes = Arrays.copyOf(hashes, capacity);
+            firstRows = Arrays.copyOf(firstRows, capacity);
+            lastRows = Arrays.copyOf(lastRows, capacity);
+            if (primitive) {
+                longKeys = Arrays.copyOf(longKeys, capacity);
+            } else {
+                objectKeys = Arrays.copyOf(objectKeys, capacity);
+            }
+        }
+        hashes[keyIndex] = hash;
+        if (primitive) {
+            longKeys[keyIndex] = ((Number) key).longValue();
+        } else {
+            objectKeys[keyIndex] = key;
+        }
+
+        // Keep load factor below 0.5
+        if (keyCount * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i < keyCount; i++) {
+                insertSlot(i);
+            }
+        } else {
+            insertSlot(keyIndex);
+        }
+        return keyIndex;
+    }
+
+    private void insertSlot(int keyIndex) {
+        int mask = slots.length - 1;
+        int slot = hashes[keyIndex] & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = keyIndex + 1;
+    }
+}
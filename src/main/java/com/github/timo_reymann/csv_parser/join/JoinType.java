@@ -0,0 +1,19 @@
+package com.github.timo_reymann.csv_parser.join;
+
+/**
+ * Type of join performed by {@link CsvJoin}
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public enum JoinType {
+    /**
+     * Only pairs of left and right beans with equal keys
+     */
+    INNER,
+
+    /**
+     * Pairs with equal keys and every left bean without matching right bean, paired with null
+     */
+    LEFT
+}
@@ -0,0 +1,24 @@
+package com.github.timo_reymann.csv_parser.join;
+
+import lombok.Value;
+
+/**
+ * Pair of beans joined by {@link CsvJoin}
+ *
+ * @param <L> Type of left bean
+ * @param <R> Type of right bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+@Value
+public class JoinedRow<L, R> {
+    /**
+     * Bean of the left source
+     */
+    L left;
+
+    /**
+     * Bean of the right source, null for left beans without match of a {@link JoinType#LEFT} join
+     */
+    R right;
+}
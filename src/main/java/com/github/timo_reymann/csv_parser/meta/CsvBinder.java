@@ -0,0 +1,507 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.exception.MappingException;
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binding of csv columns to bean fields. Converters are resolved once when the binder is created,
+ * reading and writing a value only dispatches on the column slot.
+ * <p>
+ * If a {@link CsvMapper} was generated for the bean class at compile time it is used for all field access,
+ * otherwise fields are accessed using reflection.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvBinder<T> {
+    /**
+     * Class object of bean
+     */
+    private final Class<T> clazz;
+
+    /**
+     * Generated mapper, null if reflection is used
+     */
+    private final CsvMapper<T> mapper;
+
+    /**
+     * Bound columns, the index is the slot of the column
+     */
+    private final Column[] columns;
+
+    /**
+     * Slots indexed by effective value for column mapping (headerName/index)
+     */
+    private final HashMap<Object, Integer> slots = new HashMap<>();
+
+    /**
+     * Slot per column of {@link #mapper}, -1 for columns not bound. Null if reflection is used.
+     */
+    private final int[] mapperSlots;
+
+    /**
+     * Zero-args constructor of bean, resolved on first use if reflection is used
+     */
+    private Constructor<T> constructor;
+
+    /**
+     * Create binder for bean class
+     *
+     * @param clazz      Class object of bean
+     * @param converters Registry to resolve converters from
+     */
+    public CsvBinder(Class<T> clazz, ConverterRegistry converters) {
+        this.clazz = clazz;
+        this.mapper = CsvMappers.find(clazz);
+
+        if (mapper != null) {
+            // Same slot order as for reflection, so headings are written in the same order
+            HashMap<Object, Integer> effectiveMapping = new HashMap<>();
+            for (int column = 0; column < mapper.getColumnCount(); column++) {
+                CsvColumn csvColumn = mapper.getCsvColumn(column);
+                effectiveMapping.put(csvColumn.index() == -1 ? csvColumn.headerName() : csvColumn.index(), column);
+            }
+
+            this.columns = new Column[effectiveMapping.size()];
+            this.mapperSlots = new int[mapper.getColumnCount()];
+            Arrays.fill(mapperSlots, -1);
+            int slot = 0;
+            for (Map.Entry<Object, Integer> entry : effectiveMapping.entrySet()) {
+                int column = entry.getValue();
+                CsvColumn csvColumn = mapper.getCsvColumn(column);
+                columns[slot] = new MapperColumn<>(mapper, column, csvColumn, converters.resolve(mapper.getType(column), csvColumn));
+                mapperSlots[column] = slot;
+                slots.put(entry.getKey(), slot);
+                slot++;
+            }
+            return;
+        }
+
+        this.mapperSlots = null;
+        CsvMetaDataReader<T> csvMetaDataReader = new CsvMetaDataReader<>(clazz);
+        HashMap<Object, Field> effectiveMapping = csvMetaDataReader.getEffectiveValueForColumnMapping();
+        this.columns = new Column[effectiveMapping.size()];
+
+        int slot = 0;
+        for (Map.Entry<Object, Field> entry : effectiveMapping.entrySet()) {
+            Field field = entry.getValue();
+            CsvColumn csvColumn = csvMetaDataReader.getCsvColumnForField(field);
+            columns[slot] = FieldColumn.create(field, csvColumn, converters.resolve(field.getType(), csvColumn));
+            slots.put(entry.getKey(), slot);
+            slot++;
+        }
+    }
+
+    /**
+     * Get class object of bean
+     *
+     * @return Class object
+     */
+    public Class<T> getBeanClass() {
+        return clazz;
+    }
+
+    /**
+     * Check if a generated mapper is used instead of reflection
+     *
+     * @return true if a generated mapper is used
+     */
+    public boolean isGenerated() {
+        return mapper != null;
+    }
+
+    /**
+     * Get number of bound columns
+     *
+     * @return Number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Get column for slot
+     *
+     * @param slot Slot of column
+     * @return Column
+     */
+    public Column getColumn(int slot) {
+        return columns[slot];
+    }
+
+    /**
+     * Get slot for effective value for column mapping
+     *
+     * @param key Header name or index
+     * @return Slot or -1 if no field is mapped to the column
+     */
+    public int getSlot(Object key) {
+        Integer slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Create new bean instance
+     *
+     * @return Bean
+     * @throws InstantiationException    Bean class is abstract
+     * @throws IllegalAccessException    Constructor is private
+     * @throws NoSuchMethodException     No zero-args constructor available
+     * @throws InvocationTargetException Constructor threw an exception
+     */
+    public T newInstance() throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+        if (mapper != null) {
+            return mapper.newInstance();
+        }
+
+        if (constructor == null) {
+            constructor = clazz.getConstructor();
+        }
+        return constructor.newInstance();
+    }
+
+    /**
+     * Convert raw value and set it on the bean
+     *
+     * @param bean  Bean
+     * @param slot  Slot of column
+     * @param value Raw value, null if the column is missing in the line
+     * @throws ParseException Error converting or assigning value
+     */
+    public void read(T bean, int slot, String value) {
+        columns[slot].read(bean, value);
+    }
+
+    /**
+     * Append value of the bean to line
+     *
+     * @param bean Bean
+     * @param slot Slot of column
+     * @param out  Builder for current line
+     * @throws IllegalAccessException Error reading field
+     */
+    public void write(T bean, int slot, StringBuilder out) throws IllegalAccessException {
+        columns[slot].write(bean, out);
+    }
+
+    /**
+     * Get field value of the bean
+     *
+     * @param bean Bean
+     * @param slot Slot of column
+     * @return Field value, primitives are boxed
+     * @throws IllegalAccessException Error reading field
+     */
+    public Object get(T bean, int slot) throws IllegalAccessException {
+        return columns[slot].get(bean);
+    }
+
+    /**
+     * Set converted value on the bean, null values are skipped for primitive fields
+     *
+     * @param bean  Bean
+     * @param slot  Slot of column
+     * @param value Value of the field type, primitives are boxed
+     * @throws MappingException Error assigning value
+     */
+    public void set(T bean, int slot, Object value) {
+        columns[slot].set(bean, value);
+    }
+
+    /**
+     * Create bean converting its values on first access of their getters, see {@link CsvLazyRow}
+     *
+     * @param bytes   Raw values of the record
+     * @param starts  Start of value in bytes per slot, {@link CsvLazyRow#NULL} or {@link CsvLazyRow#SKIPPED}
+     * @param ends    End of value in bytes (exclusive) per slot
+     * @param charset Charset of raw values
+     * @return Lazy bean or null if no lazy bean is generated for the class
+     */
+    public T newLazyInstance(byte[] bytes, int[] starts, int[] ends, Charset charset) {
+        if (mapper == null) {
+            return null;
+        }
+        return mapper.newLazyInstance(new CsvLazyRow<>(this, bytes, starts, ends, charset, mapperSlots.length));
+    }
+
+    /**
+     * Get slot of column of the generated mapper
+     *
+     * @param column Column of mapper
+     * @return Slot or -1 if not bound
+     */
+    int getSlotOfMapperColumn(int column) {
+        return mapperSlots[column];
+    }
+
+    /**
+     * Binding of one column to a field
+     */
+    public abstract static class Column {
+        /**
+         * Column annotation
+         */
+        private final CsvColumn csvColumn;
+
+        /**
+         * Converter for field type
+         */
+        protected final ValueConverter<Object> converter;
+
+        Column(CsvColumn csvColumn, ValueConverter<Object> converter) {
+            this.csvColumn = csvColumn;
+            this.converter = converter;
+        }
+
+        /**
+         * Get effective value for column mapping
+         *
+         * @return headerName ({@link String}) or index ({@link Integer})
+         */
+        public Object getKey() {
+            if (csvColumn.index() == -1) {
+                return csvColumn.headerName();
+            } else {
+                return csvColumn.index();
+            }
+        }
+
+        /**
+         * Get name of mapped field
+         *
+         * @return Field name
+         */
+        public abstract String getName();
+
+        /**
+         * Get type of mapped field
+         *
+         * @return Field type
+         */
+        public abstract Class<?> getType();
+
+        public CsvColumn getCsvColumn() {
+            return csvColumn;
+        }
+
+        public ValueConverter<Object> getConverter() {
+            return converter;
+        }
+
+        /**
+         * Convert raw value and set it on the bean, primitive fields keep their default for missing values
+         *
+         * @param bean  Bean
+         * @param value Raw value, null if the column is missing in the line
+         */
+        abstract void read(Object bean, String value);
+
+        /**
+         * Append value of the bean to line, null values are written as empty value
+         *
+         * @param bean Bean
+         * @param out  Builder for current line
+         * @throws IllegalAccessException Error reading field
+         */
+        abstract void write(Object bean, StringBuilder out) throws IllegalAccessException;
+
+        /**
+         * Get field value of the bean
+         *
+         * @param bean Bean
+         * @return Field value, primitives are boxed
+         * @throws IllegalAccessException Error reading field
+         */
+        abstract Object get(Object bean) throws IllegalAccessException;
+
+        /**
+         * Set converted value on the bean
+         *
+         * @param bean  Bean
+         * @param value Value of the field type
+         */
+        abstract void set(Object bean, Object value);
+    }
+
+    /**
+     * Column accessed using reflection
+     */
+    private static class FieldColumn extends Column {
+        /**
+         * Field
+         */
+        protected final Field field;
+
+        private FieldColumn(Field field, CsvColumn csvColumn, ValueConverter<Object> converter) {
+            super(csvColumn, converter);
+            this.field = field;
+        }
+
+        /**
+         * Create column, primitive fields using built-in converters are written without boxing
+         */
+        private static FieldColumn create(Field field, CsvColumn csvColumn, ValueConverter<Object> converter) {
+            Class<?> type = field.getType();
+            if (!type.isPrimitive() || !ConverterRegistry.isBuiltIn(converter)) {
+                return new FieldColumn(field, csvColumn, converter);
+            } else if (type == int.class) {
+                return new FieldColumn(field, csvColumn, converter) {
+                    @Override
+                    void write(Object bean, StringBuilder out) throws IllegalAccessException {
+                        out.append(field.getInt(bean));
+                    }
+                };
+            } else if (type == long.class) {
+                return new FieldColumn(field, csvColumn, converter) {
+                    @Override
+                    void write(Object bean, StringBuilder out) throws IllegalAccessException {
+                        out.append(field.getLong(bean));
+                    }
+                };
+            } else if (type == double.class) {
+                return new FieldColumn(field, csvColumn, converter) {
+                    @Override
+                    void write(Object bean, StringBuilder out) throws IllegalAccessException {
+                        out.append(field.getDouble(bean));
+                    }
+                };
+            } else if (type == float.class) {
+                return new FieldColumn(field, csvColumn, converter) {
+                    @Override
+                    void write(Object bean, StringBuilder out) throws IllegalAccessException {
+                        out.append(field.getFloat(bean));
+                    }
+                };
+            } else if (type == boolean.class) {
+                return new FieldColumn(field, csvColumn, converter) {
+                    @Override
+                    void write(Object bean, StringBuilder out) throws IllegalAccessException {
+                        out.append(field.getBoolean(bean));
+                    }
+                };
+            }
+            return new FieldColumn(field, csvColumn, converter);
+        }
+
+        @Override
+        public String getName() {
+            return field.getName();
+        }
+
+        @Override
+        public Class<?> getType() {
+            return field.getType();
+        }
+
+        @Override
+        void read(Object bean, String value) {
+            Object converted;
+            try {
+                converted = value == null ? null : converter.read(value);
+            } catch (Exception e) {
+                throw new ParseException("Error parsing value '" + value + "' for field " + field.getName(), e);
+            }
+
+            if (converted == null && field.getType().isPrimitive()) {
+                return;
+            }
+
+            try {
+                field.set(bean, converted);
+            } catch (Exception e) {
+                throw new ParseException("Error assigning value '" + value + "' to field " + field.getName(), e);
+            }
+        }
+
+        @Override
+        void write(Object bean, StringBuilder out) throws IllegalAccessException {
+            Object value = field.get(bean);
+            if (value != null) {
+                converter.write(value, out);
+            }
+        }
+
+        @Override
+        Object get(Object bean) throws IllegalAccessException {
+            return field.get(bean);
+        }
+
+        @Override
+        void set(Object bean, Object value) {
+            if (value == null && field.getType().isPrimitive()) {
+                return;
+            }
+
+            try {
+                field.set(bean, value);
+            } catch (Exception e) {
+                throw new MappingException("Error assigning value '" + value + "' to field " + field.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Column accessed using a generated mapper
+     *
+     * @param <T> Type of bean
+     */
+    private static class MapperColumn<T> extends Column {
+        private final CsvMapper<T> mapper;
+        private final int column;
+
+        private MapperColumn(CsvMapper<T> mapper, int column, CsvColumn csvColumn, ValueConverter<Object> converter) {
+            super(csvColumn, converter);
+            this.mapper = mapper;
+            this.column = column;
+        }
+
+        @Override
+        public String getName() {
+            return mapper.getFieldName(column);
+        }
+
+        @Override
+        public Class<?> getType() {
+            return mapper.getType(column);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void read(Object bean, String value) {
+            try {
+                mapper.read((T) bean, column, value, converter);
+            } catch (Exception e) {
+                throw new ParseException("Error parsing value '" + value + "' for field " + getName(), e);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void write(Object bean, StringBuilder out) {
+            mapper.write((T) bean, column, out, converter);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object get(Object bean) {
+            return mapper.get((T) bean, column);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void set(Object bean, Object value) {
+            mapper.set((T) bean, column, value);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+
+/**
+ * Instance of {@link CsvColumn} without reading the annotation reflectively, used by generated mappers
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class CsvColumnLiteral implements CsvColumn {
+    private final int index;
+    private final String headerName;
+    private final String format;
+
+    /**
+     * Create new instance.
+     *
+     * @param index      Index of csv column
+     * @param headerName Header name
+     * @param format     Format for column
+     */
+    public CsvColumnLiteral(int index, String headerName, String format) {
+        this.index = index;
+        this.headerName = headerName;
+        this.format = format;
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public String headerName() {
+        return headerName;
+    }
+
+    @Override
+    public String format() {
+        return format;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return CsvColumn.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CsvColumn)) {
+            return false;
+        }
+        CsvColumn other = (CsvColumn) o;
+        return index == other.index() && headerName.equals(other.headerName()) && format.equals(other.format());
+    }
+
+    @Override
+    public int hashCode() {
+        // As specified by Annotation#hashCode()
+        return (127 * "index".hashCode() ^ Integer.hashCode(index))
+                + (127 * "headerName".hashCode() ^ headerName.hashCode())
+                + (127 * "format".hashCode() ^ format.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "@" + CsvColumn.class.getName() + "(index=" + index + ", headerName=\"" + headerName
+                + "\", format=\"" + format + "\")";
+    }
+}
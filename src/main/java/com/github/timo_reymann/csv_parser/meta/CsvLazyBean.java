@@ -0,0 +1,15 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+/**
+ * Bean created by a generated mapper, whose values are converted on first access of their getters.
+ * See {@link CsvLazyRow}.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public interface CsvLazyBean {
+    /**
+     * Convert all values not accessed yet, e.g. before the bean is passed to code accessing its fields directly
+     */
+    void loadAll();
+}
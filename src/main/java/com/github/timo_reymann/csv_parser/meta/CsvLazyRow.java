@@ -0,0 +1,105 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+import java.nio.charset.Charset;
+
+/**
+ * Raw values of one record held by a {@link CsvLazyBean}
+ * <p>
+ * Values are decoded and converted on first access of their getter and stored in the bean afterwards, setting a
+ * value before marks it as converted. Errors converting a value are thrown by the getter. Like beans, rows are not
+ * thread safe.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class CsvLazyRow<T> {
+    /**
+     * Start of values that are null, e.g. columns missing in the record
+     */
+    public static final int NULL = -1;
+
+    /**
+     * Start of values that are not mapped, the field keeps its default
+     */
+    public static final int SKIPPED = -2;
+
+    /**
+     * Binding of the bean
+     */
+    private final CsvBinder<T> binder;
+
+    /**
+     * Raw values of the record
+     */
+    private final byte[] bytes;
+
+    /**
+     * Start of value in {@link #bytes} per binder slot
+     */
+    private final int[] starts;
+
+    /**
+     * End of value (exclusive) in {@link #bytes} per binder slot
+     */
+    private final int[] ends;
+
+    /**
+     * Charset of raw values
+     */
+    private final Charset charset;
+
+    /**
+     * Value was converted or set per mapper column
+     */
+    private final boolean[] loaded;
+
+    CsvLazyRow(CsvBinder<T> binder, byte[] bytes, int[] starts, int[] ends, Charset charset, int columnCount) {
+        this.binder = binder;
+        this.bytes = bytes;
+        this.starts = starts;
+        this.ends = ends;
+        this.charset = charset;
+        this.loaded = new boolean[columnCount];
+    }
+
+    /**
+     * Convert value of column into the bean, if not done before
+     *
+     * @param bean   Bean
+     * @param column Column of the generated mapper
+     * @throws com.github.timo_reymann.csv_parser.exception.ParseException Error converting value
+     */
+    public void load(T bean, int column) {
+        if (loaded[column]) {
+            return;
+        }
+
+        int slot = binder.getSlotOfMapperColumn(column);
+        if (slot != -1 && starts[slot] != SKIPPED) {
+            int start = starts[slot];
+            binder.read(bean, slot, start == NULL ? null : new String(bytes, start, ends[slot] - start, charset));
+        }
+        loaded[column] = true;
+    }
+
+    /**
+     * Mark column as loaded, because its value was set
+     *
+     * @param column Column of the generated mapper
+     */
+    public void skip(int column) {
+        loaded[column] = true;
+    }
+
+    /**
+     * Convert all values not converted yet
+     *
+     * @param bean Bean
+     */
+    public void loadAll(T bean) {
+        for (int column = 0; column < loaded.length; column++) {
+            load(bean, column);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+
+/**
+ * Reflection free mapper for a bean class, implementations are generated at compile time by
+ * {@link com.github.timo_reymann.csv_parser.processor.CsvMapperProcessor} and picked up automatically.
+ * <p>
+ * Columns are numbered in declaration order of the mapped fields.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public interface CsvMapper<T> {
+    /**
+     * Suffix appended to the name of the bean class for the name of the generated mapper
+     */
+    String SUFFIX = "_CsvMapper";
+
+    /**
+     * Get class object of bean
+     *
+     * @return Class object
+     */
+    Class<T> getBeanClass();
+
+    /**
+     * Get number of mapped columns
+     *
+     * @return Number of columns
+     */
+    int getColumnCount();
+
+    /**
+     * Get name of field mapped to column
+     *
+     * @param column Column
+     * @return Field name
+     */
+    String getFieldName(int column);
+
+    /**
+     * Get type of field mapped to column
+     *
+     * @param column Column
+     * @return Field type
+     */
+    Class<?> getType(int column);
+
+    /**
+     * Get column annotation of field mapped to column
+     *
+     * @param column Column
+     * @return Column annotation
+     */
+    CsvColumn getCsvColumn(int column);
+
+    /**
+     * Create new bean instance
+     *
+     * @return Bean
+     */
+    T newInstance();
+
+    /**
+     * Convert raw value and set it on the bean
+     *
+     * @param bean      Bean
+     * @param column    Column
+     * @param value     Raw value, null if the column is missing in the line
+     * @param converter Converter resolved for the column
+     */
+    void read(T bean, int column, String value, ValueConverter<Object> converter);
+
+    /**
+     * Append value of the bean to line, null values are skipped
+     *
+     * @param bean      Bean
+     * @param column    Column
+     * @param out       Builder for current line
+     * @param converter Converter resolved for the column
+     */
+    void write(T bean, int column, StringBuilder out, ValueConverter<Object> converter);
+
+    /**
+     * Get field value of the bean
+     *
+     * @param bean   Bean
+     * @param column Column
+     * @return Field value, primitives are boxed
+     */
+    Object get(T bean, int column);
+
+    /**
+     * Set converted value on the bean, null values are skipped for primitive fields
+     *
+     * @param bean   Bean
+     * @param column Column
+     * @param value  Value of the field type, primitives are boxed
+     */
+    void set(T bean, int column, Object value);
+
+    /**
+     * Create bean converting values on first access of their getters
+     *
+     * @param row Raw values of the record
+     * @return Lazy bean or null if the bean can not be subclassed, e.g. because it is final or has fields without
+     * getters and setters
+     */
+    default T newLazyInstance(CsvLazyRow<T> row) {
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup for generated {@link CsvMapper} implementations
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class CsvMappers {
+    /**
+     * Set this system property to <code>false</code> to always use reflection
+     */
+    public static final String ENABLED_PROPERTY = "csv_parser.generatedMappers";
+
+    /**
+     * Cache for lookups, including classes without generated mapper
+     */
+    private static final ConcurrentHashMap<Class<?>, Optional<CsvMapper<?>>> CACHE = new ConcurrentHashMap<>();
+
+    private CsvMappers() {
+    }
+
+    /**
+     * Get name of generated mapper for bean class
+     *
+     * @param clazz Bean class
+     * @return Binary name of mapper class
+     */
+    public static String getMapperName(Class<?> clazz) {
+        String name = clazz.getName();
+        int packageEnd = name.lastIndexOf('.');
+        return name.substring(0, packageEnd + 1) + name.substring(packageEnd + 1).replace('$', '_') + CsvMapper.SUFFIX;
+    }
+
+    /**
+     * Find generated mapper for bean class
+     *
+     * @param clazz Bean class
+     * @param <T>   Type of bean
+     * @return Mapper or null if no mapper was generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CsvMapper<T> find(Class<T> clazz) {
+        if ("false".equals(System.getProperty(ENABLED_PROPERTY))) {
+            return null;
+        }
+        return (CsvMapper<T>) CACHE.computeIfAbsent(clazz, CsvMappers::load).orElse(null);
+    }
+
+    private static Optional<CsvMapper<?>> load(Class<?> clazz) {
+        try {
+            Class<?> mapperClass = Class.forName(getMapperName(clazz), true, clazz.getClassLoader());
+            if (!CsvMapper.class.isAssignableFrom(mapperClass)) {
+                return Optional.empty();
+            }
+
+            CsvMapper<?> mapper = (CsvMapper<?>) mapperClass.getConstructor().newInstance();
+            return mapper.getBeanClass() == clazz ? Optional.of(mapper) : Optional.empty();
+        } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -5,24 +5,17 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Csv meta data reader, used for reading meta information from bean class
+ * Csv meta data reader, used for reading meta information from bean class. Fields are resolved by the
+ * {@link CsvSchemaRegistry}.
  *
  * @author Timo Reymann
  * @since 20.12.17
  */
 public class CsvMetaDataReader<T> {
-    /**
-     * Cache for mapping of csv columns to fields
-     */
-    private static HashMap<Class, HashMap<Field, CsvColumn>> CACHE = new HashMap<>();
     /**
      * Class object of entity
      */
     private Class<T> clazz;
-    /**
-     * Mapping of csv columns to fields
-     */
-    private HashMap<Field, CsvColumn> fields;
 
     /**
      * Create new meta data reader
@@ -34,22 +27,12 @@ public class CsvMetaDataReader<T> {
     }
 
     /**
-     * Get field csv column mapping
+     * Get field csv column mapping of the class and all its superclasses
      *
      * @return Map with fields
      */
-    private HashMap<Field, CsvColumn> getFieldsToMap() {
-        HashMap<Field, CsvColumn> csvColumnFieldHashMap = CACHE.get(clazz);
-
-        if (csvColumnFieldHashMap != null) {
-            return csvColumnFieldHashMap;
-        }
-
-        fields = new HashMap<>();
-        process(clazz.getDeclaredFields());
-        process(clazz.getSuperclass().getDeclaredFields());
-        CACHE.put(clazz, fields);
-        return fields;
+    private Map<Field, CsvColumn> getFieldsToMap() {
+        return CsvSchemaRegistry.getColumns(clazz);
     }
 
     public CsvColumn getCsvColumnForField(Field field) {
@@ -62,7 +45,7 @@ public class CsvMetaDataReader<T> {
      * @return HashMap with fields indexed by Effective index (headerName/index)
      */
     public HashMap<Object, Field> getEffectiveValueForColumnMapping() {
-        HashMap<Field, CsvColumn> fieldsToMap = getFieldsToMap();
+        Map<Field, CsvColumn> fieldsToMap = getFieldsToMap();
         HashMap<Object, Field> effective = new HashMap<>();
 
 
@@ -87,59 +70,6 @@ public class CsvMetaDataReader<T> {
         }
     }
 
-    /**
-     * process fields list
-     *
-     * @param fields Fields of bean
-     */
-    private void process(Field[] fields) {
-        for (Field field : fields) {
-            process(field);
-        }
-    }
-
-    /**
-     * Validate column mapping annotation
-     *
-     * @param column Column annotation
-     */
-    private void validate(CsvColumn column) {
-        if (column.index() == -1 && column.headerName().isEmpty()) {
-            throw new InvalidCsvColumnAnnotation(column, "Please specifiy a column index or an header name to map the field on");
-        }
-
-        if (column.index() != -1 && column.index() < 0) {
-            throw new InvalidCsvColumnAnnotation(column, "Index for column to map cant be negative");
-        }
-    }
-
-    /**
-     * Process field and its annotation, including validation
-     *
-     * @param field Field to process
-     */
-    private void process(Field field) {
-        CsvColumn csvColumn = readMeta(field);
-
-        if (csvColumn == null) {
-            return;
-        }
-
-        validate(csvColumn);
-        field.setAccessible(true);
-        fields.put(field, csvColumn);
-    }
-
-    /**
-     * Read annotation from field
-     *
-     * @param field Field to read
-     * @return annotation object or null if not present
-     */
-    private CsvColumn readMeta(Field field) {
-        return field.getDeclaredAnnotation(CsvColumn.class);
-    }
-
     /**
      * Invalid csv column annotation value
      */
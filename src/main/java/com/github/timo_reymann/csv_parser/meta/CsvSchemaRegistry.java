@@ -0,0 +1,339 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry for the {@link CsvColumn} fields of bean classes, shared by all readers and writers
+ * <p>
+ * Fields are collected from the bean class and all its superclasses, the class itself first. The result is cached per
+ * class, so annotations are only read once per class and thread safe.
+ * <p>
+ * The annotation processor writes an index of all bean classes it has seen to {@value #INDEX_RESOURCE}. Classes
+ * contained in an index of their class loader are resolved by field name from the index, without scanning fields and
+ * reading annotations. Entries not matching the class anymore, e.g. after compiling the class without the processor,
+ * fall back to scanning. {@link #warmUpIndexed(ClassLoader)} resolves all indexed classes at startup.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class CsvSchemaRegistry {
+    /**
+     * Location of index files in the class path
+     */
+    public static final String INDEX_RESOURCE = "META-INF/csv-parser/schema.index";
+
+    /**
+     * Resolved fields per bean class
+     */
+    private static final ConcurrentHashMap<Class<?>, Map<Field, CsvColumn>> SCHEMAS = new ConcurrentHashMap<>();
+
+    /**
+     * Index entries per binary name of bean class
+     */
+    private static final ConcurrentHashMap<String, List<IndexEntry>> INDEX = new ConcurrentHashMap<>();
+
+    /**
+     * Index files already read
+     */
+    private static final Set<String> LOADED_INDEXES = ConcurrentHashMap.newKeySet();
+
+    private CsvSchemaRegistry() {
+    }
+
+    /**
+     * Get mapped fields of bean class
+     *
+     * @param clazz Bean class
+     * @return Unmodifiable map of accessible fields to their column annotation
+     * @throws CsvMetaDataReader.InvalidCsvColumnAnnotation Annotation of a field is not valid
+     */
+    public static Map<Field, CsvColumn> getColumns(Class<?> clazz) {
+        Map<Field, CsvColumn> columns = SCHEMAS.get(clazz);
+        // Invalid annotations are not cached, every caller gets the validation error
+        return columns != null ? columns : SCHEMAS.computeIfAbsent(clazz, CsvSchemaRegistry::resolve);
+    }
+
+    /**
+     * Resolve mapped fields and generated mappers of bean classes ahead of the first read or write
+     *
+     * @param classes Bean classes
+     * @throws CsvMetaDataReader.InvalidCsvColumnAnnotation Annotation of a field is not valid
+     */
+    public static void warmUp(Class<?>... classes) {
+        for (Class<?> clazz : classes) {
+            getColumns(clazz);
+            CsvMappers.find(clazz);
+        }
+    }
+
+    /**
+     * Read all index files of the class loader and warm up the bean classes listed in them, classes that can not be
+     * loaded are skipped
+     *
+     * @param loader Class loader to load index files and classes from
+     * @return Bean classes warmed up
+     * @throws IOException Error reading index files
+     */
+    public static List<Class<?>> warmUpIndexed(ClassLoader loader) throws IOException {
+        List<String> names = loadIndexes(loader);
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names) {
+            try {
+                classes.add(Class.forName(name, false, loader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Index may list classes of optional parts of the application
+            }
+        }
+        warmUp(classes.toArray(new Class<?>[0]));
+        return classes;
+    }
+
+    /**
+     * Write index entries for bean classes, e.g. from a build step for classes not compiled with the annotation
+     * processor
+     *
+     * @param out     Writer for index
+     * @param classes Bean classes
+     * @throws IOException Error writing index
+     */
+    public static void writeIndex(Writer out, Class<?>... classes) throws IOException {
+        for (Class<?> clazz : classes) {
+            for (Map.Entry<Field, CsvColumn> entry : getColumns(clazz).entrySet()) {
+                Field field = entry.getKey();
+                CsvColumn column = entry.getValue();
+                out.write(formatIndexEntry(clazz.getName(), field.getDeclaringClass().getName(), field.getName(),
+                        column.index(), column.headerName(), column.format()));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Register entries of an index, classes already resolved are not changed
+     *
+     * @param in Reader for index
+     * @return Binary names of bean classes in the index
+     * @throws IOException Error reading index or index is malformed
+     */
+    public static List<String> readIndex(Reader in) throws IOException {
+        Map<String, List<IndexEntry>> entries = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(in);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\t", -1);
+            if (parts.length != 6) {
+                throw new IOException("Malformed schema index entry: " + line);
+            }
+            try {
+                IndexEntry entry = new IndexEntry(parts[1], parts[2],
+                        new CsvColumnLiteral(Integer.parseInt(parts[3]), unescape(parts[4]), unescape(parts[5])));
+                entries.computeIfAbsent(parts[0], name -> new ArrayList<>()).add(entry);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed schema index entry: " + line, e);
+            }
+        }
+
+        for (Map.Entry<String, List<IndexEntry>> entry : entries.entrySet()) {
+            INDEX.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Format a line of the index, used by the annotation processor
+     *
+     * @param beanClass      Binary name of bean class
+     * @param declaringClass Binary name of class declaring the field
+     * @param field          Name of field
+     * @param index          Index of column
+     * @param headerName     Header name of column
+     * @param format         Format of column
+     * @return Line without line break
+     */
+    public static String formatIndexEntry(String beanClass, String declaringClass, String field, int index, String headerName, String format) {
+        return beanClass + '\t' + declaringClass + '\t' + field + '\t' + index + '\t' + escape(headerName) + '\t' + escape(format);
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String unescape(String value) throws IOException {
+        if (value.indexOf('\\') == -1) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\') {
+                unescaped.append(c);
+                continue;
+            }
+            if (++i == value.length()) {
+                throw new IOException("Malformed escape in schema index: " + value);
+            }
+            char escaped = value.charAt(i);
+            unescaped.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Read index files of the class loader not read yet
+     *
+     * @param loader Class loader, null for the system class loader
+     * @return Binary names of bean classes in the index files read
+     * @throws IOException Error reading index files
+     */
+    private static List<String> loadIndexes(ClassLoader loader) throws IOException {
+        Enumeration<URL> resources = loader == null ? ClassLoader.getSystemResources(INDEX_RESOURCE) : loader.getResources(INDEX_RESOURCE);
+        List<String> names = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if (!LOADED_INDEXES.add(resource.toString())) {
+                continue;
+            }
+            try (Reader in = new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)) {
+                names.addAll(readIndex(in));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Resolve fields from the index if possible, otherwise by scanning the class hierarchy
+     */
+    private static Map<Field, CsvColumn> resolve(Class<?> clazz) {
+        try {
+            loadIndexes(clazz.getClassLoader());
+        } catch (IOException | RuntimeException e) {
+            // Unreadable index files only cost the scan
+        }
+
+        Map<Field, CsvColumn> fields = null;
+        List<IndexEntry> entries = INDEX.get(clazz.getName());
+        if (entries != null) {
+            fields = resolveIndexed(clazz, entries);
+        }
+        if (fields == null) {
+            fields = scan(clazz);
+        }
+        for (Field field : fields.keySet()) {
+            field.setAccessible(true);
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * Look up indexed fields by name
+     *
+     * @return Fields or null if the index does not match the class
+     */
+    private static Map<Field, CsvColumn> resolveIndexed(Class<?> clazz, List<IndexEntry> entries) {
+        Map<Field, CsvColumn> fields = new LinkedHashMap<>();
+        for (IndexEntry entry : entries) {
+            Class<?> declaringClass = clazz;
+            while (declaringClass != null && !declaringClass.getName().equals(entry.declaringClass)) {
+                declaringClass = declaringClass.getSuperclass();
+            }
+            if (declaringClass == null) {
+                return null;
+            }
+
+            try {
+                Field field = declaringClass.getDeclaredField(entry.field);
+                validate(entry.column);
+                fields.put(field, entry.column);
+            } catch (NoSuchFieldException e) {
+                return null;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Read annotations of all fields of the class and its superclasses
+     */
+    private static Map<Field, CsvColumn> scan(Class<?> clazz) {
+        Map<Field, CsvColumn> fields = new LinkedHashMap<>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                CsvColumn column = field.getDeclaredAnnotation(CsvColumn.class);
+                if (column != null) {
+                    validate(column);
+                    fields.put(field, column);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Validate column mapping annotation
+     *
+     * @param column Column annotation
+     */
+    private static void validate(CsvColumn column) {
+        if (column.index() == -1 && column.headerName().isEmpty()) {
+            throw new CsvMetaDataReader.InvalidCsvColumnAnnotation(column, "Please specifiy a column index or an header name to map the field on");
+        }
+
+        if (column.index() != -1 && column.index() < 0) {
+            throw new CsvMetaDataReader.InvalidCsvColumnAnnotation(column, "Index for column to map cant be negative");
+        }
+    }
+
+    /**
+     * Field of a bean class listed in an index
+     */
+    private static final class IndexEntry {
+        private final String declaringClass;
+        private final String field;
+        private final CsvColumn column;
+
+        IndexEntry(String declaringClass, String field, CsvColumn column) {
+            this.declaringClass = declaringClass;
+            this.field = field;
+            this.column = column;
+        }
+    }
+}
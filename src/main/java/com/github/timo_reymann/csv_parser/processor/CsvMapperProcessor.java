@@ -0,0 +1,539 @@
+package com.github.timo_reymann.csv_parser.processor;
+
+import com.github.timo_reymann.csv_parser.meta.CsvSchemaRegistry;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Annotation processor generating a {@link com.github.timo_reymann.csv_parser.meta.CsvMapper} for every class
+ * with {@link com.github.timo_reymann.csv_parser.meta.CsvColumn} fields.
+ * <p>
+ * Fields are accessed using setters and getters (including the ones generated by lombok) or directly if they are not private.
+ * Classes that can not be mapped without reflection are skipped with a note, those are mapped using reflection at runtime.
+ * <p>
+ * If all fields are accessed using overridable getters and setters, the mapper also contains a subclass of the bean
+ * converting values on first access, see {@link com.github.timo_reymann.csv_parser.meta.CsvLazyRow}.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+@SupportedAnnotationTypes(CsvMapperProcessor.CSV_COLUMN)
+public class CsvMapperProcessor extends AbstractProcessor {
+    static final String CSV_COLUMN = "com.github.timo_reymann.csv_parser.meta.CsvColumn";
+    private static final String SUFFIX = "_CsvMapper";
+
+    /**
+     * Classes already generated, processing rounds may report the same class again
+     */
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * Entries of the schema index for all classes seen in any round
+     */
+    private final List<String> index = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement csvColumn = processingEnv.getElementUtils().getTypeElement(CSV_COLUMN);
+        if (csvColumn == null) {
+            return false;
+        }
+
+        if (roundEnv.processingOver()) {
+            if (!index.isEmpty()) {
+                writeIndex();
+            }
+            return false;
+        }
+
+        Set<TypeElement> beans = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(csvColumn)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                beans.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+
+        for (TypeElement bean : beans) {
+            if (generated.add(bean.getQualifiedName().toString())) {
+                generate(bean);
+            }
+        }
+        return false;
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "No csv mapper generated: " + message, element);
+    }
+
+    private void generate(TypeElement bean) {
+        List<ColumnModel> columns = readColumns(bean);
+        if (columns == null) {
+            return;
+        }
+        String beanName = processingEnv.getElementUtils().getBinaryName(bean).toString();
+        for (ColumnModel column : columns) {
+            index.add(CsvSchemaRegistry.formatIndexEntry(beanName,
+                    processingEnv.getElementUtils().getBinaryName((TypeElement) column.field.getEnclosingElement()).toString(),
+                    column.field.getSimpleName().toString(), column.index, column.headerName, column.format));
+        }
+
+        if (bean.getKind() != ElementKind.CLASS || bean.getModifiers().contains(Modifier.ABSTRACT)
+                || !bean.getTypeParameters().isEmpty() || !isReachable(bean)) {
+            note(bean, "class must be a non generic, non abstract top level or static nested class that is not private");
+            return;
+        }
+
+        if (!hasAccessibleConstructor(bean)) {
+            note(bean, "no accessible zero-args constructor");
+            return;
+        }
+
+        for (ColumnModel column : columns) {
+            TypeElement declaringType = (TypeElement) column.field.getEnclosingElement();
+            column.setter = findAccessor(bean, declaringType, column.field, true);
+            column.getter = findAccessor(bean, declaringType, column.field, false);
+            if (column.setter == null || column.getter == null) {
+                note(column.field, "field " + column.field.getSimpleName() + " is neither accessible nor has accessible getter and setter");
+                return;
+            }
+        }
+
+        try {
+            write(bean, columns, isLazySupported(bean, columns));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Error writing csv mapper: " + e.getMessage(), bean);
+        }
+    }
+
+    /**
+     * Read mapped fields of the class and all its superclasses, the same fields as
+     * {@link CsvSchemaRegistry} reads at runtime
+     *
+     * @return Columns or null if a mapping is not valid
+     */
+    private List<ColumnModel> readColumns(TypeElement bean) {
+        List<ColumnModel> columns = new ArrayList<>();
+        Set<Object> keys = new HashSet<>();
+        for (TypeElement type = bean; type != null; type = asTypeElement(type.getSuperclass())) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                AnnotationMirror annotation = findCsvColumn(field);
+                if (annotation == null) {
+                    continue;
+                }
+
+                ColumnModel column = new ColumnModel(field, annotation);
+                if (column.index == -1 && column.headerName.isEmpty() || column.index < -1) {
+                    note(field, "invalid column mapping");
+                    return null;
+                }
+                if (!keys.add(column.index == -1 ? column.headerName : column.index)) {
+                    note(field, "column is mapped more than once");
+                    return null;
+                }
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Write index of all bean classes seen, see {@link CsvSchemaRegistry#INDEX_RESOURCE}
+     */
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", CsvSchemaRegistry.INDEX_RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by " + CsvMapperProcessor.class.getName() + "\n");
+                for (String entry : index) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Error writing csv schema index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check if a subclass of the bean can intercept all accessors of the columns and the methods of {@link Object}
+     * reading all fields
+     */
+    private boolean isLazySupported(TypeElement bean, List<ColumnModel> columns) {
+        if (bean.getModifiers().contains(Modifier.FINAL)) {
+            return false;
+        }
+
+        Set<String> overridden = new HashSet<>(Arrays.asList("equals", "hashCode", "toString"));
+        for (ColumnModel column : columns) {
+            if (column.getter.startsWith("=") || column.setter.startsWith("=")) {
+                return false;
+            }
+            overridden.add(column.getter);
+            overridden.add(column.setter);
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean))) {
+            if (overridden.contains(method.getSimpleName().toString()) && method.getModifiers().contains(Modifier.FINAL)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TypeElement asTypeElement(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private boolean isReachable(TypeElement type) {
+        Element current = type;
+        while (current.getKind().isClass() || current.getKind().isInterface()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            Element enclosing = current.getEnclosingElement();
+            if ((enclosing.getKind().isClass() || enclosing.getKind().isInterface()) && !current.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+            current = enclosing;
+        }
+        return true;
+    }
+
+    private boolean hasAccessibleConstructor(TypeElement bean) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(bean.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AnnotationMirror findCsvColumn(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(CSV_COLUMN)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if member is accessible from generated mapper in the package of the bean
+     */
+    private boolean isAccessible(TypeElement bean, Element member) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        PackageElement beanPackage = processingEnv.getElementUtils().getPackageOf(bean);
+        return beanPackage.equals(processingEnv.getElementUtils().getPackageOf(member));
+    }
+
+    /**
+     * Find access expression for field
+     *
+     * @return Name of setter/getter method, "=" prefixed field name for direct access or null if not accessible
+     */
+    private String findAccessor(TypeElement bean, TypeElement declaringType, VariableElement field, boolean setter) {
+        String name = field.getSimpleName().toString();
+        boolean primitiveBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        String property = primitiveBoolean && name.startsWith("is") && name.length() > 2 && Character.isUpperCase(name.charAt(2))
+                ? name.substring(2) : capitalize(name);
+        String methodName = setter ? "set" + property : (primitiveBoolean ? (name.startsWith("is") && !property.equals(capitalize(name)) ? name : "is" + property) : "get" + property);
+
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean))) {
+            if (!method.getSimpleName().contentEquals(methodName) || method.getModifiers().contains(Modifier.STATIC)
+                    || !isAccessible(bean, method)) {
+                continue;
+            }
+            if (setter && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), field.asType())) {
+                return methodName;
+            }
+            if (!setter && method.getParameters().isEmpty()
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                return methodName;
+            }
+        }
+
+        if (isAccessible(bean, field) && !field.getModifiers().contains(Modifier.STATIC)
+                && !(setter && field.getModifiers().contains(Modifier.FINAL))) {
+            return "=" + name;
+        }
+
+        // Lombok generates accessors after or during this round, rely on its naming conventions. Annotations on the
+        // field take precedence over annotations on the class.
+        Boolean lombokAccessor = lombokAccessor(field, setter);
+        if (lombokAccessor == null) {
+            lombokAccessor = lombokAccessor(declaringType, setter);
+        }
+        return Boolean.TRUE.equals(lombokAccessor) ? methodName : null;
+    }
+
+    /**
+     * Check if lombok generates an accessible accessor because of an annotation on the element
+     *
+     * @param element Field or class
+     * @param setter  Check for setter instead of getter
+     * @return Accessor is generated, null if the element has no lombok annotation for the accessor
+     */
+    private Boolean lombokAccessor(Element element, boolean setter) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            String name = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (name.equals("lombok.Data") || name.equals(setter ? "lombok.Setter" : "lombok.Getter")
+                    || (!setter && name.equals("lombok.Value"))) {
+                for (AnnotationValue value : annotation.getElementValues().values()) {
+                    String level = value.toString();
+                    if (level.endsWith("NONE") || level.endsWith("PRIVATE")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return null;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void write(TypeElement bean, List<ColumnModel> columns, boolean lazy) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(bean).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(bean).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + SUFFIX;
+        String beanName = bean.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Csv mapper for {@link ").append(beanName).append("}, generated by ")
+                .append(CsvMapperProcessor.class.getName()).append("\n */\n");
+        source.append("public final class ").append(simpleName)
+                .append(" implements com.github.timo_reymann.csv_parser.meta.CsvMapper<").append(beanName).append("> {\n");
+
+        source.append("    private static final String[] FIELD_NAMES = {");
+        for (int i = 0; i < columns.size(); i++) {
+            source.append(i > 0 ? ", " : "").append('"').append(columns.get(i).field.getSimpleName()).append('"');
+        }
+        source.append("};\n");
+
+        source.append("    private static final Class<?>[] TYPES = {");
+        for (int i = 0; i < columns.size(); i++) {
+            source.append(i > 0 ? ", " : "").append(columns.get(i).typeName()).append(".class");
+        }
+        source.append("};\n");
+
+        source.append("    private static final com.github.timo_reymann.csv_parser.meta.CsvColumn[] COLUMNS = {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnModel column = columns.get(i);
+            source.append("            new com.github.timo_reymann.csv_parser.meta.CsvColumnLiteral(").append(column.index)
+                    .append(", ").append(processingEnv.getElementUtils().getConstantExpression(column.headerName))
+                    .append(", ").append(processingEnv.getElementUtils().getConstantExpression(column.format))
+                    .append(i < columns.size() - 1 ? "),\n" : ")\n");
+        }
+        source.append("    };\n\n");
+
+        source.append("    @Override\n    public Class<").append(beanName).append("> getBeanClass() {\n        return ")
+                .append(beanName).append(".class;\n    }\n\n");
+        source.append("    @Override\n    public int getColumnCount() {\n        return ").append(columns.size()).append(";\n    }\n\n");
+        source.append("    @Override\n    public String getFieldName(int column) {\n        return FIELD_NAMES[column];\n    }\n\n");
+        source.append("    @Override\n    public Class<?> getType(int column) {\n        return TYPES[column];\n    }\n\n");
+        source.append("    @Override\n    public com.github.timo_reymann.csv_parser.meta.CsvColumn getCsvColumn(int column) {\n        return COLUMNS[column];\n    }\n\n");
+        source.append("    @Override\n    public ").append(beanName).append(" newInstance() {\n        return new ").append(beanName).append("();\n    }\n\n");
+
+        source.append("    @Override\n    public void read(").append(beanName)
+                .append(" bean, int column, String value, com.github.timo_reymann.csv_parser.convert.ValueConverter<Object> converter) {\n");
+        source.append("        switch (column) {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnModel column = columns.get(i);
+            String boxed = column.boxedTypeName();
+            source.append("            case ").append(i).append(": {\n");
+            source.append("                ").append(boxed).append(" converted = value == null ? null : (").append(boxed).append(") converter.read(value);\n");
+            if (column.isPrimitive()) {
+                source.append("                if (converted != null) {\n    ");
+            }
+            source.append("                ").append(column.assign("converted")).append(";\n");
+            if (column.isPrimitive()) {
+                source.append("                }\n");
+            }
+            source.append("                break;\n            }\n");
+        }
+        source.append("            default:\n                throw new IndexOutOfBoundsException(\"Column \" + column);\n        }\n    }\n\n");
+
+        source.append("    @Override\n    public void write(").append(beanName)
+                .append(" bean, int column, StringBuilder out, com.github.timo_reymann.csv_parser.convert.ValueConverter<Object> converter) {\n");
+        source.append("        switch (column) {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnModel column = columns.get(i);
+            source.append("            case ").append(i).append(": {\n");
+            source.append("                Object value = ").append(column.read()).append(";\n");
+            source.append("                if (value != null) {\n                    converter.write(value, out);\n                }\n");
+            source.append("                break;\n            }\n");
+        }
+        source.append("            default:\n                throw new IndexOutOfBoundsException(\"Column \" + column);\n        }\n    }\n\n");
+
+        source.append("    @Override\n    public Object get(").append(beanName).append(" bean, int column) {\n");
+        source.append("        switch (column) {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            source.append("            case ").append(i).append(":\n                return ").append(columns.get(i).read()).append(";\n");
+        }
+        source.append("            default:\n                throw new IndexOutOfBoundsException(\"Column \" + column);\n        }\n    }\n\n");
+
+        source.append("    @Override\n    public void set(").append(beanName).append(" bean, int column, Object value) {\n");
+        source.append("        switch (column) {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnModel column = columns.get(i);
+            String boxed = column.boxedTypeName();
+            source.append("            case ").append(i).append(":\n");
+            if (column.isPrimitive()) {
+                source.append("                if (value != null) {\n    ");
+            }
+            source.append("                ").append(column.assign("(" + boxed + ") value")).append(";\n");
+            if (column.isPrimitive()) {
+                source.append("                }\n");
+            }
+            source.append("                break;\n");
+        }
+        source.append("            default:\n                throw new IndexOutOfBoundsException(\"Column \" + column);\n        }\n    }\n");
+
+        if (lazy) {
+            writeLazy(source, beanName, columns);
+        }
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, bean);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    /**
+     * Write factory method and subclass of the bean converting values on first access of their getters
+     */
+    private void writeLazy(StringBuilder source, String beanName, List<ColumnModel> columns) {
+        String row = "com.github.timo_reymann.csv_parser.meta.CsvLazyRow<" + beanName + ">";
+        String lazyBean = "com.github.timo_reymann.csv_parser.meta.CsvLazyBean";
+
+        source.append("\n    @Override\n    public ").append(beanName).append(" newLazyInstance(").append(row).append(" row) {\n")
+                .append("        return new Lazy(row);\n    }\n\n");
+        source.append("    /**\n     * Bean converting values on first access\n     */\n");
+        source.append("    private static final class Lazy extends ").append(beanName).append(" implements ").append(lazyBean).append(" {\n");
+        source.append("        private final transient ").append(row).append(" row;\n\n");
+        source.append("        private Lazy(").append(row).append(" row) {\n            this.row = row;\n        }\n");
+
+        // Row is null while the constructor of the bean runs
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnModel column = columns.get(i);
+            String type = column.field.asType().toString();
+            source.append("\n        @Override\n        public ").append(type).append(' ').append(column.getter).append("() {\n")
+                    .append("            if (row != null) {\n                row.load(this, ").append(i).append(");\n            }\n")
+                    .append("            return super.").append(column.getter).append("();\n        }\n");
+            source.append("\n        @Override\n        public void ").append(column.setter).append('(').append(type).append(" value) {\n")
+                    .append("            if (row != null) {\n                row.skip(").append(i).append(");\n            }\n")
+                    .append("            super.").append(column.setter).append("(value);\n        }\n");
+        }
+
+        source.append("\n        @Override\n        public void loadAll() {\n            if (row != null) {\n                row.loadAll(this);\n            }\n        }\n");
+        source.append("\n        @Override\n        public boolean equals(Object other) {\n            loadAll();\n")
+                .append("            if (other instanceof ").append(lazyBean).append(") {\n")
+                .append("                ((").append(lazyBean).append(") other).loadAll();\n            }\n")
+                .append("            return super.equals(other);\n        }\n");
+        source.append("\n        @Override\n        public int hashCode() {\n            loadAll();\n            return super.hashCode();\n        }\n");
+        source.append("\n        @Override\n        public String toString() {\n            loadAll();\n            return super.toString();\n        }\n");
+        source.append("    }\n");
+    }
+
+    /**
+     * Mapping of one field
+     */
+    private class ColumnModel {
+        private final VariableElement field;
+        private final int index;
+        private final String headerName;
+        private final String format;
+        private String setter;
+        private String getter;
+
+        ColumnModel(VariableElement field, AnnotationMirror annotation) {
+            this.field = field;
+            Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                    processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+            int index = -1;
+            String headerName = "";
+            String format = "none";
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+                String name = entry.getKey().getSimpleName().toString();
+                Object value = entry.getValue().getValue();
+                if (name.equals("index")) {
+                    index = (Integer) value;
+                } else if (name.equals("headerName")) {
+                    headerName = (String) value;
+                } else if (name.equals("format")) {
+                    format = (String) value;
+                }
+            }
+            this.index = index;
+            this.headerName = headerName;
+            this.format = format;
+        }
+
+        boolean isPrimitive() {
+            return field.asType().getKind().isPrimitive();
+        }
+
+        String typeName() {
+            return processingEnv.getTypeUtils().erasure(field.asType()).toString();
+        }
+
+        String boxedTypeName() {
+            if (isPrimitive()) {
+                return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(field.asType().getKind()))
+                        .getQualifiedName().toString();
+            }
+            return typeName();
+        }
+
+        String assign(String value) {
+            String cast = processingEnv.getTypeUtils().isSameType(field.asType(), processingEnv.getTypeUtils().erasure(field.asType()))
+                    ? "" : "(" + field.asType() + ") ";
+            if (setter.startsWith("=")) {
+                return "bean." + setter.substring(1) + " = " + cast + value;
+            }
+            return "bean." + setter + "(" + cast + value + ")";
+        }
+
+        String read() {
+            return getter.startsWith("=") ? "bean." + getter.substring(1) : "bean." + getter + "()";
+        }
+    }
+}
@@ -0,0 +1,686 @@
+package com.github.timo_reymann.csv_parser.sort;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.convert.ValueConverterFactory;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.MappingException;
+import com.github.timo_reymann.csv_parser.io.CsvReader;
+import com.github.timo_reymann.csv_parser.io.CsvWriter;
+import com.github.timo_reymann.csv_parser.io.Seperator;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.util.Workers;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Sort csv files larger than memory
+ * <p>
+ * The input is read in runs of a limited number of beans. Runs are sorted on multiple threads and written to
+ * temporary files, which are merged into the output afterwards. If there are more runs than can be merged at once,
+ * runs are merged in multiple passes.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvSorter<T> {
+    /**
+     * Class for bean
+     */
+    private final Class<T> clazz;
+
+    /**
+     * Input file, null if stream is used
+     */
+    private final File inputFile;
+
+    /**
+     * Input stream, null if file is used
+     */
+    private final InputStream inputStream;
+
+    /**
+     * Output file, null if stream is used
+     */
+    private final File outputFile;
+
+    /**
+     * Output stream, null if file is used
+     */
+    private final OutputStream outputStream;
+
+    /**
+     * Charset of input
+     */
+    private final Charset charset;
+
+    /**
+     * Seperator of input and output
+     */
+    private final String seperator;
+
+    /**
+     * Input and output have headings
+     */
+    private final boolean hasHeading;
+
+    /**
+     * Column keys (header name or index) to sort by
+     */
+    private final List<Object> sortKeys;
+
+    /**
+     * Comparator applied after the sort keys
+     */
+    private final Comparator<? super T> comparator;
+
+    /**
+     * Maximum number of beans sorted in memory at once per thread
+     */
+    private final int maxRowsPerRun;
+
+    /**
+     * Maximum number of runs merged at once
+     */
+    private final int maxMergeFanIn;
+
+    /**
+     * Number of threads sorting runs
+     */
+    private final int parallelism;
+
+    /**
+     * Directory for temporary files, null for the default temporary directory
+     */
+    private final File tempDirectory;
+
+    /**
+     * Maximum size of all temporary files
+     */
+    private final long maxTempBytes;
+
+    /**
+     * Converters for field types
+     */
+    private final ConverterRegistry converters;
+
+    /**
+     * Binding used for sort keys and runs
+     */
+    private CsvBinder<T> binder;
+
+    /**
+     * Temporary files currently existing
+     */
+    private final List<File> tempFiles = new ArrayList<>();
+
+    /**
+     * Size of temporary files currently existing
+     */
+    private long tempBytes;
+
+    private CsvSorter(Builder<T> builder) {
+        this.clazz = builder.clazz;
+        this.inputFile = builder.inputFile;
+        this.inputStream = builder.inputStream;
+        this.outputFile = builder.outputFile;
+        this.outputStream = builder.outputStream;
+        this.charset = builder.charset;
+        this.seperator = builder.seperator;
+        this.hasHeading = builder.hasHeading;
+        this.sortKeys = builder.sortKeys;
+        this.comparator = builder.comparator;
+        this.maxRowsPerRun = builder.maxRowsPerRun;
+        this.maxMergeFanIn = builder.maxMergeFanIn;
+        this.parallelism = builder.parallelism;
+        this.tempDirectory = builder.tempDirectory;
+        this.maxTempBytes = builder.maxTempBytes;
+        this.converters = builder.converters;
+    }
+
+    /**
+     * Sort input into output
+     *
+     * @return Number of sorted lines
+     * @throws IOException      Error reading or writing files or temporary files exceed their limit
+     * @throws MappingException Error mapping lines to beans
+     */
+    public long sort() throws IOException {
+        binder = new CsvBinder<>(clazz, converters);
+        Comparator<T> order = createComparator();
+
+        try {
+            List<File> runs = new ArrayList<>();
+            long lines = createRuns(order, runs);
+
+            while (runs.size() > maxMergeFanIn) {
+                List<File> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += maxMergeFanIn) {
+                    List<File> group = runs.subList(i, Math.min(runs.size(), i + maxMergeFanIn));
+                    File run = createTempFile();
+                    try (CsvWriter<T> writer = createRunWriter(run)) {
+                        merge(group, order, writer);
+                    }
+                    deleteTempFiles(group);
+                    addTempBytes(run);
+                    merged.add(run);
+                }
+                runs = merged;
+            }
+
+            try (CsvWriter<T> writer = createOutputWriter()) {
+                if (hasHeading) {
+                    writer.writeFileHeading();
+                }
+                merge(runs, order, writer);
+            }
+            return lines;
+        } catch (IllegalAccessException | InstantiationException | NoSuchMethodException | InvocationTargetException e) {
+            throw new MappingException("Error mapping bean " + clazz.getName(), e);
+        } finally {
+            deleteTempFiles(new ArrayList<>(tempFiles));
+        }
+    }
+
+    /**
+     * Create comparator for sort keys and comparator
+     *
+     * @return Comparator
+     */
+    private Comparator<T> createComparator() {
+        Comparator<T> order = null;
+        for (Object key : sortKeys) {
+            int slot = binder.getSlot(key);
+            if (slot == -1) {
+                throw new InvalidArgumentException("sortBy", key);
+            }
+
+            Comparator<T> keyOrder = (a, b) -> compareValues(getValue(a, slot), getValue(b, slot));
+            order = order == null ? keyOrder : order.thenComparing(keyOrder);
+        }
+
+        if (comparator != null) {
+            order = order == null ? comparator::compare : order.thenComparing(comparator);
+        }
+        return order;
+    }
+
+    private Object getValue(T bean, int slot) {
+        try {
+            return binder.get(bean, slot);
+        } catch (IllegalAccessException e) {
+            throw new MappingException("Error reading field " + binder.getColumn(slot).getName(), e);
+        }
+    }
+
+    /**
+     * Compare field values, null values first
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        } else if (a == null) {
+            return -1;
+        } else if (b == null) {
+            return 1;
+        } else if (a instanceof Comparable) {
+            return ((Comparable) a).compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    /**
+     * Read input in runs, sort runs on worker threads and write them to temporary files
+     *
+     * @param order Comparator
+     * @param runs  List to add temporary files of runs to, in input order
+     * @return Number of lines read
+     */
+    private long createRuns(Comparator<T> order, List<File> runs) throws IOException, IllegalAccessException,
+            InstantiationException, NoSuchMethodException, InvocationTargetException {
+        ExecutorService executor = Workers.newFixedThreadPool(parallelism, "csv-sorter");
+
+        long lines = 0;
+        ArrayDeque<Future<File>> pending = new ArrayDeque<>();
+        try (CsvReader<T> reader = createInputReader()) {
+            T bean = reader.readLine();
+            while (bean != null) {
+                List<T> run = new ArrayList<>(Math.min(maxRowsPerRun, 1 << 16));
+                while (bean != null && run.size() < maxRowsPerRun) {
+                    run.add(bean);
+                    bean = reader.readLine();
+                }
+                lines += run.size();
+
+                // Limit number of runs in memory
+                if (pending.size() >= parallelism) {
+                    runs.add(await(pending.poll()));
+                }
+                File file = createTempFile();
+                pending.add(executor.submit(() -> {
+                    run.sort(order);
+                    try (CsvWriter<T> writer = createRunWriter(file)) {
+                        writer.writeLine(run);
+                    }
+                    return file;
+                }));
+            }
+
+            while (!pending.isEmpty()) {
+                runs.add(await(pending.poll()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return lines;
+    }
+
+    private File await(Future<File> future) throws IOException, IllegalAccessException {
+        File run = Workers.await(future, IllegalAccessException.class, "sorting");
+        addTempBytes(run);
+        return run;
+    }
+
+    /**
+     * Merge sorted runs into writer, equal beans keep the order of their runs
+     *
+     * @param runs   Sorted runs
+     * @param order  Comparator
+     * @param writer Writer for merged beans
+     */
+    private void merge(List<File> runs, Comparator<T> order, CsvWriter<T> writer) throws IOException, IllegalAccessException,
+            InstantiationException, NoSuchMethodException, InvocationTargetException {
+        PriorityQueue<RunHead<T>> heads = new PriorityQueue<>((a, b) -> {
+            int result = order.compare(a.bean, b.bean);
+            return result != 0 ? result : Integer.compare(a.run, b.run);
+        });
+
+        List<CsvReader<T>> readers = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                CsvReader<T> reader = createRunReader(runs.get(i));
+                readers.add(reader);
+                T bean = reader.readLine();
+                if (bean != null) {
+                    heads.add(new RunHead<>(bean, i, reader));
+                }
+            }
+
+            while (!heads.isEmpty()) {
+                RunHead<T> head = heads.poll();
+                writer.writeLine(head.bean);
+                head.bean = head.reader.readLine();
+                if (head.bean != null) {
+                    heads.add(head);
+                }
+            }
+        } finally {
+            for (CsvReader<T> reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Check if columns are mapped by header name, runs need headings then
+     */
+    private boolean isMappedByHeading() {
+        return binder.getColumnCount() > 0 && binder.getColumn(0).getKey() instanceof String;
+    }
+
+    private CsvReader<T> createInputReader() {
+        CsvReader.Builder<T> builder = new CsvReader.Builder<T>()
+                .forClass(clazz)
+                .charset(charset)
+                .seperatedBy(seperator)
+                .withConverters(converters);
+        if (inputFile != null) {
+            builder.file(inputFile);
+        } else {
+            builder.inputStream(inputStream);
+        }
+        if (hasHeading) {
+            builder.hasHeading();
+        }
+        return builder.build();
+    }
+
+    private CsvWriter<T> createOutputWriter() throws IOException {
+        CsvWriter.Builder<T> builder = new CsvWriter.Builder<T>()
+                .forClass(clazz)
+                .seperatedBy(seperator)
+                .noAppend()
+                .withConverters(converters);
+        if (outputFile != null) {
+            builder.file(outputFile);
+        } else {
+            builder.outputStream(outputStream);
+        }
+        if (hasHeading) {
+            builder.hasHeading();
+        }
+        CsvWriter<T> writer = builder.build();
+        writer.setBinder(binder);
+        return writer;
+    }
+
+    private CsvReader<T> createRunReader(File run) {
+        CsvReader.Builder<T> builder = new CsvReader.Builder<T>()
+                .forClass(clazz)
+                .file(run)
+                .charset(StandardCharsets.UTF_8)
+                .seperatedBy(seperator)
+                .withConverters(converters);
+        if (isMappedByHeading()) {
+            builder.hasHeading();
+        }
+        return builder.build();
+    }
+
+    private CsvWriter<T> createRunWriter(File run) throws IOException {
+        CsvWriter<T> writer = new CsvWriter<>(clazz, run, false, isMappedByHeading(), seperator);
+        writer.setConverters(converters);
+        writer.setBinder(binder);
+        return writer;
+    }
+
+    private synchronized File createTempFile() throws IOException {
+        File file = File.createTempFile("csv-sort-", ".csv", tempDirectory);
+        tempFiles.add(file);
+        return file;
+    }
+
+    private synchronized void addTempBytes(File file) throws IOException {
+        tempBytes += file.length();
+        if (tempBytes > maxTempBytes) {
+            throw new IOException("Temporary files exceed limit of " + maxTempBytes + " bytes");
+        }
+    }
+
+    private synchronized void deleteTempFiles(List<File> files) {
+        for (File file : files) {
+            if (tempFiles.remove(file)) {
+                tempBytes -= file.length();
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Current bean of a run during merge
+     *
+     * @param <T> Type of bean
+     */
+    private static class RunHead<T> {
+        private T bean;
+        private final int run;
+        private final CsvReader<T> reader;
+
+        private RunHead(T bean, int run, CsvReader<T> reader) {
+            this.bean = bean;
+            this.run = run;
+            this.reader = reader;
+        }
+    }
+
+    /**
+     * Builder for csv sorter
+     *
+     * @param <T> Type of bean
+     */
+    public static class Builder<T> {
+        private Class<T> clazz;
+        private File inputFile;
+        private InputStream inputStream;
+        private File outputFile;
+        private OutputStream outputStream;
+        private Charset charset = Charset.defaultCharset();
+        private String seperator = Seperator.SEMICOLON;
+        private boolean hasHeading = false;
+        private final List<Object> sortKeys = new ArrayList<>();
+        private Comparator<? super T> comparator;
+        private int maxRowsPerRun = 100_000;
+        private int maxMergeFanIn = 64;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private File tempDirectory;
+        private long maxTempBytes = Long.MAX_VALUE;
+        private final ConverterRegistry converters = new ConverterRegistry();
+
+        /**
+         * Set class of bean
+         *
+         * @param clazz Class object for bean
+         * @return Current builder
+         */
+        public Builder<T> forClass(Class<T> clazz) {
+            this.clazz = clazz;
+            return this;
+        }
+
+        /**
+         * Set file to sort
+         *
+         * @param inputFile CSV file
+         * @return Current builder
+         */
+        public Builder<T> input(File inputFile) {
+            this.inputFile = inputFile;
+            return this;
+        }
+
+        /**
+         * Set stream to sort
+         *
+         * @param inputStream Input stream
+         * @return Current builder
+         */
+        public Builder<T> input(InputStream inputStream) {
+            this.inputStream = inputStream;
+            return this;
+        }
+
+        /**
+         * Set file to write sorted lines to, it is replaced
+         *
+         * @param outputFile CSV file
+         * @return Current builder
+         */
+        public Builder<T> output(File outputFile) {
+            this.outputFile = outputFile;
+            return this;
+        }
+
+        /**
+         * Set stream to write sorted lines to
+         *
+         * @param outputStream Output stream
+         * @return Current builder
+         */
+        public Builder<T> output(OutputStream outputStream) {
+            this.outputStream = outputStream;
+            return this;
+        }
+
+        /**
+         * Set charset of input, default it is the platform charset
+         *
+         * @param charset Charset
+         * @return Current builder
+         */
+        public Builder<T> charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Set seperator for input and output, default it is set to ';'
+         *
+         * @param seperator Seperator
+         * @return Current builder
+         */
+        public Builder<T> seperatedBy(String seperator) {
+            this.seperator = seperator;
+            return this;
+        }
+
+        /**
+         * Input and output have first row with heading
+         *
+         * @return Current builder
+         */
+        public Builder<T> hasHeading() {
+            this.hasHeading = true;
+            return this;
+        }
+
+        /**
+         * Sort by values of the fields mapped to the columns, null values first. Values are compared using their
+         * natural order if they are {@link Comparable}, otherwise by their string representation.
+         *
+         * @param keys Header names or indexes of columns
+         * @return Current builder
+         */
+        public Builder<T> sortBy(Object... keys) {
+            this.sortKeys.addAll(Arrays.asList(keys));
+            return this;
+        }
+
+        /**
+         * Sort using comparator, if sort keys are set as well the comparator is used for beans with equal keys
+         *
+         * @param comparator Comparator for beans
+         * @return Current builder
+         */
+        public Builder<T> comparator(Comparator<? super T> comparator) {
+            this.comparator = comparator;
+            return this;
+        }
+
+        /**
+         * Set maximum number of beans sorted in memory at once, default it is 100000. Up to one run per thread and
+         * the run currently read are held in memory.
+         *
+         * @param maxRowsPerRun Maximum number of beans per run
+         * @return Current builder
+         */
+        public Builder<T> maxRowsPerRun(int maxRowsPerRun) {
+            this.maxRowsPerRun = maxRowsPerRun;
+            return this;
+        }
+
+        /**
+         * Set maximum number of runs merged at once, default it is 64
+         *
+         * @param maxMergeFanIn Maximum number of runs, at least 2
+         * @return Current builder
+         */
+        public Builder<T> maxMergeFanIn(int maxMergeFanIn) {
+            this.maxMergeFanIn = maxMergeFanIn;
+            return this;
+        }
+
+        /**
+         * Set number of threads sorting runs, default it is the number of processors
+         *
+         * @param parallelism Number of threads
+         * @return Current builder
+         */
+        public Builder<T> parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set directory for temporary files, default it is the temporary directory of the platform
+         *
+         * @param tempDirectory Directory
+         * @return Current builder
+         */
+        public Builder<T> tempDirectory(File tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        /**
+         * Set maximum size of all temporary files existing at the same time, sorting fails if it is exceeded
+         *
+         * @param maxTempBytes Maximum size in bytes
+         * @return Current builder
+         */
+        public Builder<T> maxTempBytes(long maxTempBytes) {
+            this.maxTempBytes = maxTempBytes;
+            return this;
+        }
+
+        /**
+         * Register converter for fields of the given type
+         *
+         * @param type      Field type
+         * @param converter Converter
+         * @param <V>       Field type
+         * @return Current builder
+         */
+        public <V> Builder<T> withConverter(Class<V> type, ValueConverter<V> converter) {
+            this.converters.register(type, converter);
+            return this;
+        }
+
+        /**
+         * Register converter factory, e.g. for converters depending on {@link com.github.timo_reymann.csv_parser.meta.CsvColumn#format()}
+         *
+         * @param factory Converter factory
+         * @return Current builder
+         */
+        public Builder<T> withConverterFactory(ValueConverterFactory factory) {
+            this.converters.register(factory);
+            return this;
+        }
+
+        /**
+         * Build csv sorter
+         *
+         * @return Ready to use sorter
+         */
+        public CsvSorter<T> build() {
+            if (clazz == null) {
+                throw new InvalidArgumentException("class", clazz);
+            }
+
+            if ((inputFile == null) == (inputStream == null)) {
+                throw new IllegalArgumentException("Decide to use input stream or file, exactly one of them is required");
+            }
+
+            if ((outputFile == null) == (outputStream == null)) {
+                throw new IllegalArgumentException("Decide to use output stream or file, exactly one of them is required");
+            }
+
+            if (sortKeys.isEmpty() && comparator == null) {
+                throw new InvalidArgumentException("sortBy", sortKeys);
+            }
+
+            if (maxRowsPerRun < 1) {
+                throw new InvalidArgumentException("maxRowsPerRun", maxRowsPerRun);
+            }
+
+            if (maxMergeFanIn < 2) {
+                throw new InvalidArgumentException("maxMergeFanIn", maxMergeFanIn);
+            }
+
+            if (parallelism < 1) {
+                throw new InvalidArgumentException("parallelism", parallelism);
+            }
+
+            Seperator.validate(seperator);
+
+            return new CsvSorter<>(this);
+        }
+    }
+}
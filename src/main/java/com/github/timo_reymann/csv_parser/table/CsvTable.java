@@ -0,0 +1,219 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.exception.MappingException;
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Csv file loaded into columns, see {@link CsvTableLoader}
+ * <p>
+ * Every field of the bean is stored in its own column: numbers in primitive arrays with a null bitmap, strings
+ * dictionary encoded and all other types as converted objects. Beans are only created on request.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvTable<T> {
+    /**
+     * Binding of the columns to the bean
+     */
+    private final CsvBinder<T> binder;
+
+    /**
+     * Columns by binder slot
+     */
+    private final TableColumn[] columns;
+
+    /**
+     * Number of rows
+     */
+    private int rowCount;
+
+    /**
+     * Create empty table
+     *
+     * @param binder       Binding of the bean
+     * @param charset      Charset of raw values
+     * @param numberParser Parser for floating point values
+     */
+    CsvTable(CsvBinder<T> binder, Charset charset, FastDoubleParser numberParser) {
+        this.binder = binder;
+        this.columns = new TableColumn[binder.getColumnCount()];
+        for (int slot = 0; slot < columns.length; slot++) {
+            CsvBinder.Column column = binder.getColumn(slot);
+            Class<?> type = column.getType();
+            boolean builtIn = ConverterRegistry.isBuiltIn(column.getConverter());
+            if (type == int.class || type == Integer.class || type == short.class || type == Short.class
+                    || type == byte.class || type == Byte.class) {
+                columns[slot] = new IntColumn(column);
+            } else if (type == long.class || type == Long.class) {
+                columns[slot] = new LongColumn(column);
+            } else if (type == double.class || type == Double.class || type == float.class || type == Float.class) {
+                columns[slot] = new DoubleColumn(column, numberParser);
+            } else if (type == String.class && builtIn) {
+                columns[slot] = new DictionaryColumn(column, charset);
+            } else {
+                columns[slot] = new ObjectColumn(column);
+            }
+        }
+    }
+
+    /**
+     * Get number of rows
+     *
+     * @return Number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get number of columns
+     *
+     * @return Number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Get column
+     *
+     * @param index Index of column
+     * @return Column
+     */
+    public TableColumn getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Get column by field name
+     *
+     * @param name Name of field
+     * @return Column
+     * @throws IllegalArgumentException There is no column for the field
+     */
+    public TableColumn getColumn(String name) {
+        for (TableColumn column : columns) {
+            if (column.getName().equals(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field " + name);
+    }
+
+    /**
+     * Get column by field name
+     *
+     * @param name Name of field
+     * @param type Type of column
+     * @param <C>  Type of column
+     * @return Column
+     * @throws IllegalArgumentException There is no column of the type for the field
+     */
+    public <C extends TableColumn> C getColumn(String name, Class<C> type) {
+        TableColumn column = getColumn(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("Field " + name + " is stored in " + column.getClass().getSimpleName());
+        }
+        return type.cast(column);
+    }
+
+    /**
+     * Create bean for row, values are assigned without converting them again
+     *
+     * @param row Index of row
+     * @return New bean
+     * @throws MappingException Error creating bean
+     */
+    public T getBean(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range for " + rowCount + " rows");
+        }
+
+        T bean;
+        try {
+            bean = binder.newInstance();
+        } catch (IllegalAccessException | InstantiationException | NoSuchMethodException | InvocationTargetException e) {
+            throw new MappingException("Error creating bean " + binder.getBeanClass().getName(), e);
+        }
+
+        for (int slot = 0; slot < columns.length; slot++) {
+            Object value = columns[slot].getObject(row);
+            if (value != null) {
+                binder.set(bean, slot, value);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Get beans for all rows, beans are created while the stream is consumed
+     *
+     * @return Stream of beans
+     */
+    public Stream<T> beans() {
+        return IntStream.range(0, rowCount).mapToObj(this::getBean);
+    }
+
+    /**
+     * Append current record of tokenizer
+     *
+     * @param tokenizer Tokenizer holding the record
+     * @param indexes   Index of value in record per column, -1 for columns missing in the input
+     */
+    void append(CsvTokenizer tokenizer, int[] indexes) {
+        for (int slot = 0; slot < columns.length; slot++) {
+            columns[slot].append(tokenizer, indexes[slot]);
+        }
+        rowCount++;
+    }
+
+    /**
+     * Append all rows of another table of the same bean
+     *
+     * @param other Table to append
+     */
+    void append(CsvTable<T> other) {
+        for (int slot = 0; slot < columns.length; slot++) {
+            columns[slot].appendAll(other.columns[slot]);
+        }
+        rowCount += other.rowCount;
+    }
+
+    /**
+     * Write all columns in the binary format of {@link CsvTableCache}
+     *
+     * @param out Output
+     * @throws IOException Error writing output
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        for (TableColumn column : columns) {
+            column.writeTo(out);
+        }
+    }
+
+    /**
+     * Read all columns written by {@link #writeTo(DataOutputStream)} into the empty table
+     *
+     * @param in       Input
+     * @param rowCount Number of rows
+     * @throws IOException Error reading input
+     */
+    void readFrom(MappedInput in, int rowCount) throws IOException {
+        for (TableColumn column : columns) {
+            column.readFrom(in, rowCount);
+        }
+        this.rowCount = rowCount;
+    }
+}
@@ -0,0 +1,259 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary columnar cache for csv files that are read repeatedly
+ * <p>
+ * The first read records all values into a {@link CsvTable}, which is written next to the other cache files once
+ * the input was read completely. Later reads of the same file load the table through memory mapping, so values are
+ * neither tokenized nor converted again. Only fields without primitive or string representation are converted again,
+ * as they are stored in the format of their converter.
+ * <p>
+ * Every cache file stores the key it was created for: path, size and modification time of the source, the schema of
+ * the bean and the options of the reader. Cache files with a different key are stale and replaced on the next read.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvTableCache {
+    /**
+     * Extension of cache files
+     */
+    public static final String EXTENSION = ".colcache";
+
+    /**
+     * Magic number at the start of cache files
+     */
+    private static final int MAGIC = 0x43535643;
+
+    /**
+     * Version of the binary format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Directory containing the cache files
+     */
+    private final File directory;
+
+    /**
+     * Create cache storing files in directory, the directory is created on first store
+     *
+     * @param directory Cache directory
+     */
+    public CsvTableCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get cache file for source, the name is derived from path of source and bean class
+     *
+     * @param source    Source csv file
+     * @param beanClass Class of bean
+     * @return Cache file, might not exist
+     * @throws IOException Error resolving path of source
+     */
+    public File getFile(File source, Class<?> beanClass) throws IOException {
+        String id = source.getCanonicalPath() + '\0' + beanClass.getName();
+        long hash = 1125899906842597L;
+        for (int i = 0; i < id.length(); i++) {
+            hash = 31 * hash + id.charAt(i);
+        }
+        return new File(directory, Long.toHexString(hash) + "-" + source.getName() + EXTENSION);
+    }
+
+    /**
+     * Load table of source from cache
+     *
+     * @param source            Source csv file
+     * @param binder            Binding of the bean
+     * @param charset           Charset of source
+     * @param decimalSeparator  Decimal separator of floating point values
+     * @param groupingSeparator Grouping separator of floating point values or <code>0</code> if no grouping is used
+     * @param options           Options of the reader affecting the values, e.g. seperator and headings
+     * @param <T>               Type of bean
+     * @return Cached table or null if there is no cache file or it is stale
+     * @throws IOException Error reading cache file
+     */
+    public <T> CsvTable<T> load(File source, CsvBinder<T> binder, Charset charset, char decimalSeparator, char groupingSeparator,
+                                String options) throws IOException {
+        File file = getFile(source, binder.getBeanClass());
+        if (!file.isFile()) {
+            return null;
+        }
+
+        byte[] key = key(source, binder, charset, options);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedInput in = new MappedInput(channel);
+            if (channel.size() < 2 * Integer.BYTES || in.readInt() != MAGIC || in.readInt() != VERSION
+                    || !Arrays.equals(key, in.readBytes())) {
+                return null;
+            }
+
+            int rowCount = in.readInt();
+            CsvTable<T> table = new CsvTable<>(binder, charset, new FastDoubleParser(decimalSeparator, groupingSeparator));
+            table.readFrom(in, rowCount);
+            return table;
+        }
+    }
+
+    /**
+     * Start recording the source, the size and modification time are taken before reading, so changes while reading
+     * make the cache stale
+     *
+     * @param source            Source csv file
+     * @param binder            Binding of the bean
+     * @param charset           Charset of source
+     * @param decimalSeparator  Decimal separator of floating point values
+     * @param groupingSeparator Grouping separator of floating point values or <code>0</code> if no grouping is used
+     * @param options           Options of the reader affecting the values, e.g. seperator and headings
+     * @param indexes           Index of value in records per binder slot, -1 for fields missing in the source
+     * @param <T>               Type of bean
+     * @return Recorder to append records to
+     */
+    public <T> Recorder<T> record(File source, CsvBinder<T> binder, Charset charset, char decimalSeparator, char groupingSeparator,
+                                  String options, int[] indexes) {
+        CsvTable<T> table = new CsvTable<>(binder, charset, new FastDoubleParser(decimalSeparator, groupingSeparator));
+        return new Recorder<>(this, source, binder, key(source, binder, charset, options), table, indexes);
+    }
+
+    /**
+     * Write table to cache file, the file is written to a temporary file and moved in place afterwards
+     *
+     * @param source Source csv file
+     * @param binder Binding of the bean
+     * @param table  Table of source
+     * @param key    Key of the table
+     * @param <T>    Type of bean
+     * @throws IOException Error writing cache file
+     */
+    private <T> void store(File source, CsvBinder<T> binder, CsvTable<T> table, byte[] key) throws IOException {
+        Files.createDirectories(directory.toPath());
+        Path target = getFile(source, binder.getBeanClass()).toPath();
+        Path temp = Files.createTempFile(directory.toPath(), target.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                TableColumn.writeBytes(out, key);
+                out.writeInt(table.getRowCount());
+                table.writeTo(out);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Build key of source, the key is compared byte by byte
+     *
+     * @param source  Source csv file
+     * @param binder  Binding of the bean
+     * @param charset Charset of source
+     * @param options Options of the reader
+     * @return Key
+     */
+    private static byte[] key(File source, CsvBinder<?> binder, Charset charset, String options) {
+        StringBuilder key = new StringBuilder()
+                .append("source=").append(source.getAbsolutePath())
+                .append("\nsize=").append(source.length())
+                .append("\nmodified=").append(source.lastModified())
+                .append("\ncharset=").append(charset.name())
+                .append("\noptions=").append(options)
+                .append("\nbean=").append(binder.getBeanClass().getName());
+        for (int slot = 0; slot < binder.getColumnCount(); slot++) {
+            CsvBinder.Column column = binder.getColumn(slot);
+            key.append("\ncolumn=").append(column.getName())
+                    .append(':').append(column.getType().getName())
+                    .append(':').append(column.getKey())
+                    .append(':').append(column.getCsvColumn() == null ? "" : column.getCsvColumn().format())
+                    .append(':').append(column.getConverter().getClass().getName());
+        }
+        return key.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Recorder for records of a source read for the first time
+     *
+     * @param <T> Type of bean
+     */
+    public static class Recorder<T> {
+        /**
+         * Cache to store table in
+         */
+        private final CsvTableCache cache;
+
+        /**
+         * Source csv file
+         */
+        private final File source;
+
+        /**
+         * Binding of the bean
+         */
+        private final CsvBinder<T> binder;
+
+        /**
+         * Key taken before reading the source
+         */
+        private final byte[] key;
+
+        /**
+         * Recorded values
+         */
+        private final CsvTable<T> table;
+
+        /**
+         * Index of value in records per binder slot
+         */
+        private final int[] indexes;
+
+        private Recorder(CsvTableCache cache, File source, CsvBinder<T> binder, byte[] key, CsvTable<T> table, int[] indexes) {
+            this.cache = cache;
+            this.source = source;
+            this.binder = binder;
+            this.key = key;
+            this.table = table;
+            this.indexes = indexes;
+        }
+
+        /**
+         * Append current record of tokenizer
+         *
+         * @param tokenizer Tokenizer holding the record
+         * @throws com.github.timo_reymann.csv_parser.exception.ParseException Error converting value
+         */
+        public void append(CsvTokenizer tokenizer) {
+            table.append(tokenizer, indexes);
+        }
+
+        /**
+         * Store recorded table, must only be called once the whole source was recorded
+         *
+         * @throws IOException Error writing cache file
+         */
+        public void store() throws IOException {
+            cache.store(source, binder, table, key);
+        }
+    }
+}
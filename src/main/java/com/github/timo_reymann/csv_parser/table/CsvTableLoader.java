@@ -0,0 +1,359 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.convert.ValueConverter;
+import com.github.timo_reymann.csv_parser.convert.ValueConverterFactory;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.io.FileChunks;
+import com.github.timo_reymann.csv_parser.io.Seperator;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load csv files into a {@link CsvTable}
+ * <p>
+ * Values are read from the tokenizer straight into the columns without creating beans. Files are split into chunks
+ * at line breaks outside of quoted values, which are loaded on multiple threads and appended in order afterwards.
+ *
+ * @param <T> Type of bean
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class CsvTableLoader<T> {
+    /**
+     * Default minimum size of a chunk loaded by one thread
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Class of bean
+     */
+    private final Class<T> clazz;
+
+    /**
+     * Input file, null if stream is used
+     */
+    private final File file;
+
+    /**
+     * Input stream, null if file is used
+     */
+    private final InputStream inputStream;
+
+    /**
+     * Charset of input
+     */
+    private final Charset charset;
+
+    /**
+     * Seperator of input
+     */
+    private final char seperator;
+
+    /**
+     * Input has heading
+     */
+    private final boolean hasHeading;
+
+    /**
+     * Converters for field types
+     */
+    private final ConverterRegistry converters;
+
+    /**
+     * Parser for floating point values
+     */
+    private final FastDoubleParser numberParser;
+
+    /**
+     * Number of threads
+     */
+    private final int parallelism;
+
+    /**
+     * Minimum size of a chunk
+     */
+    private final long chunkSize;
+
+    /**
+     * Binding of the bean, resolved on load
+     */
+    private CsvBinder<T> binder;
+
+    /**
+     * Index of value in records per binder slot, resolved on load
+     */
+    private int[] indexes;
+
+    private CsvTableLoader(Builder<T> builder) {
+        this.clazz = builder.clazz;
+        this.file = builder.file;
+        this.inputStream = builder.inputStream;
+        this.charset = builder.charset;
+        this.seperator = builder.seperator.charAt(0);
+        this.hasHeading = builder.hasHeading;
+        this.converters = builder.converters;
+        this.numberParser = new FastDoubleParser(builder.decimalSeparator, builder.groupingSeparator);
+        this.parallelism = builder.parallelism;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    /**
+     * Load input into table
+     *
+     * @return Loaded table
+     * @throws IOException    Error reading input
+     * @throws ParseException Error converting value
+     */
+    public CsvTable<T> load() throws IOException {
+        binder = new CsvBinder<>(clazz, converters);
+
+        if (file == null) {
+            try (CsvTokenizer tokenizer = new CsvTokenizer(inputStream, charset, seperator, '"')) {
+                resolveColumns(tokenizer);
+                return load(tokenizer, false);
+            }
+        }
+
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new FileInputStream(file), charset, seperator, '"')) {
+            resolveColumns(tokenizer);
+        }
+
+        return FileChunks.process(file, charset, seperator, parallelism, chunkSize, "csv-table-loader",
+                (tokenizer, first) -> load(tokenizer, first && hasHeading), CsvTable::append);
+    }
+
+    /**
+     * Resolve index of value per binder slot, the heading is read if present
+     *
+     * @param tokenizer Tokenizer at start of input
+     */
+    private void resolveColumns(CsvTokenizer tokenizer) throws IOException {
+        List<String> headings = new ArrayList<>();
+        if (hasHeading && tokenizer.nextRecord()) {
+            headings = Arrays.asList(tokenizer.getFields());
+        }
+
+        indexes = new int[binder.getColumnCount()];
+        for (int slot = 0; slot < indexes.length; slot++) {
+            Object key = binder.getColumn(slot).getKey();
+            indexes[slot] = key instanceof Integer ? (int) key : headings.indexOf(key);
+        }
+    }
+
+    /**
+     * Load records of tokenizer
+     *
+     * @param tokenizer   Tokenizer
+     * @param skipHeading Skip first record
+     * @return Table of records
+     */
+    private CsvTable<T> load(CsvTokenizer tokenizer, boolean skipHeading) throws IOException {
+        CsvTable<T> table = new CsvTable<>(binder, tokenizer.getCharset(), numberParser);
+        if (skipHeading) {
+            tokenizer.nextRecord();
+        }
+        while (tokenizer.nextRecord()) {
+            table.append(tokenizer, indexes);
+        }
+        return table;
+    }
+
+    /**
+     * Builder for csv table loader
+     *
+     * @param <T> Type of bean
+     */
+    public static class Builder<T> {
+        private Class<T> clazz;
+        private File file;
+        private InputStream inputStream;
+        private Charset charset = Charset.defaultCharset();
+        private String seperator = Seperator.SEMICOLON;
+        private boolean hasHeading = false;
+        private char decimalSeparator = '.';
+        private char groupingSeparator = FastDoubleParser.NO_GROUPING;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long chunkSize = DEFAULT_CHUNK_SIZE;
+        private final ConverterRegistry converters = new ConverterRegistry();
+
+        /**
+         * Set class of bean defining the columns
+         *
+         * @param clazz Class object for bean
+         * @return Current builder
+         */
+        public Builder<T> forClass(Class<T> clazz) {
+            this.clazz = clazz;
+            return this;
+        }
+
+        /**
+         * Set file to load, files are loaded in parallel chunks
+         *
+         * @param file CSV file
+         * @return Current builder
+         */
+        public Builder<T> file(File file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Set stream to load, streams are loaded on the calling thread
+         *
+         * @param inputStream Input stream
+         * @return Current builder
+         */
+        public Builder<T> inputStream(InputStream inputStream) {
+            this.inputStream = inputStream;
+            return this;
+        }
+
+        /**
+         * Set charset of input, default it is the platform charset
+         *
+         * @param charset Charset
+         * @return Current builder
+         */
+        public Builder<T> charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Set seperator, default it is set to ';'
+         *
+         * @param seperator Seperator, must be a single ASCII char
+         * @return Current builder
+         */
+        public Builder<T> seperatedBy(String seperator) {
+            this.seperator = seperator;
+            return this;
+        }
+
+        /**
+         * Input has first row with heading
+         *
+         * @return Current builder
+         */
+        public Builder<T> hasHeading() {
+            this.hasHeading = true;
+            return this;
+        }
+
+        /**
+         * Set decimal separator for floating point columns, default it is '.'
+         *
+         * @param decimalSeparator Decimal separator
+         * @return Current builder
+         */
+        public Builder<T> decimalSeparator(char decimalSeparator) {
+            this.decimalSeparator = decimalSeparator;
+            return this;
+        }
+
+        /**
+         * Set grouping separator for floating point columns, default values are not grouped
+         *
+         * @param groupingSeparator Grouping separator
+         * @return Current builder
+         */
+        public Builder<T> groupingSeparator(char groupingSeparator) {
+            this.groupingSeparator = groupingSeparator;
+            return this;
+        }
+
+        /**
+         * Register converter for fields of the given type
+         *
+         * @param type      Field type
+         * @param converter Converter
+         * @param <V>       Field type
+         * @return Current builder
+         */
+        public <V> Builder<T> withConverter(Class<V> type, ValueConverter<V> converter) {
+            this.converters.register(type, converter);
+            return this;
+        }
+
+        /**
+         * Register converter factory, e.g. for converters depending on {@link com.github.timo_reymann.csv_parser.meta.CsvColumn#format()}
+         *
+         * @param factory Converter factory
+         * @return Current builder
+         */
+        public Builder<T> withConverterFactory(ValueConverterFactory factory) {
+            this.converters.register(factory);
+            return this;
+        }
+
+        /**
+         * Set number of threads loading chunks of files, default it is the number of processors
+         *
+         * @param parallelism Number of threads, 1 for input with line breaks in quoted values
+         * @return Current builder
+         */
+        public Builder<T> parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set minimum size of chunks files are split into, default it is {@link #DEFAULT_CHUNK_SIZE}
+         *
+         * @param chunkSize Minimum size in bytes
+         * @return Current builder
+         */
+        public Builder<T> chunkSize(long chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Build csv table loader
+         *
+         * @return Ready to use loader
+         */
+        public CsvTableLoader<T> build() {
+            if (clazz == null) {
+                throw new InvalidArgumentException("class", clazz);
+            }
+
+            if ((file == null) == (inputStream == null)) {
+                throw new IllegalArgumentException("Decide to use inputStream or file, exactly one of them is required");
+            }
+
+            if (file != null && !file.exists()) {
+                throw new InvalidArgumentException("file", file);
+            }
+
+            if (seperator == null || seperator.length() != 1 || seperator.charAt(0) >= 0x80) {
+                throw new InvalidArgumentException("seperator", seperator);
+            }
+
+            if (decimalSeparator == groupingSeparator) {
+                throw new InvalidArgumentException("groupingSeparator", groupingSeparator);
+            }
+
+            if (parallelism < 1) {
+                throw new InvalidArgumentException("parallelism", parallelism);
+            }
+
+            if (chunkSize < 1) {
+                throw new InvalidArgumentException("chunkSize", chunkSize);
+            }
+
+            converters.numberFormat(decimalSeparator, groupingSeparator);
+            return new CsvTableLoader<>(this);
+        }
+    }
+}
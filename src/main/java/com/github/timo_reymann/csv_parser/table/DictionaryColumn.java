@@ -0,0 +1,276 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dictionary encoded column for string fields
+ * <p>
+ * Every distinct value is decoded once and stored in the dictionary, rows store the code of their value. Values are
+ * looked up by their raw bytes in an open addressing hash table, so repeated values are never decoded again.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class DictionaryColumn extends TableColumn {
+    /**
+     * Code of null values
+     */
+    public static final int NULL = -1;
+
+    /**
+     * Codes per chunk
+     */
+    private int[][] chunks = new int[8][];
+
+    /**
+     * Distinct values by code
+     */
+    private final List<String> dictionary = new ArrayList<>();
+
+    /**
+     * Charset of raw values
+     */
+    private final Charset charset;
+
+    /**
+     * Code + 1 per slot, 0 for empty slots
+     */
+    private int[] slots = new int[64];
+
+    /**
+     * Hash per code
+     */
+    private int[] hashes = new int[32];
+
+    /**
+     * Offset of raw value in {@link #bytes} per code
+     */
+    private int[] offsets = new int[33];
+
+    /**
+     * Raw values of all codes
+     */
+    private byte[] bytes = new byte[512];
+
+    DictionaryColumn(CsvBinder.Column binding, Charset charset) {
+        super(binding);
+        this.charset = charset;
+    }
+
+    /**
+     * Get distinct values
+     *
+     * @return Values by code
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    /**
+     * Get code of value
+     *
+     * @param row Index of row
+     * @return Code or {@link #NULL}
+     */
+    public int getCode(int row) {
+        return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * Get value
+     *
+     * @param row Index of row
+     * @return Value or null
+     */
+    public String get(int row) {
+        int code = getCode(row);
+        return code == NULL ? null : dictionary.get(code);
+    }
+
+    /**
+     * Get codes of chunk
+     *
+     * @param chunk Index of chunk
+     * @return Codes, only the first {@link #getChunkLength(int)} are valid
+     */
+    public int[] getChunk(int chunk) {
+        return chunks[chunk];
+    }
+
+    /**
+     * Get code of value
+     *
+     * @param value Value
+     * @return Code or {@link #NULL} if the value does not exist
+     */
+    public int indexOf(String value) {
+        return value == null ? NULL : dictionary.indexOf(value);
+    }
+
+    /**
+     * Count rows with value
+     *
+     * @param value Value
+     * @return Number of rows
+     */
+    public int count(String value) {
+        int code = indexOf(value);
+        if (code == NULL && value != null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            int[] codes = chunks[chunk];
+            int length = getChunkLength(chunk);
+            for (int i = 0; i < length; i++) {
+                count += codes[i] == code ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return getCode(row) == NULL;
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return get(row);
+    }
+
+    @Override
+    void append(CsvTokenizer tokenizer, int index) {
+        int code = NULL;
+        if (index >= 0 && index < tokenizer.getFieldCount()) {
+            code = code(tokenizer.getBuffer(), tokenizer.getFieldStart(index), tokenizer.getFieldEnd(index));
+        }
+        add(code);
+    }
+
+    @Override
+    void appendAll(TableColumn other) {
+        DictionaryColumn column = (DictionaryColumn) other;
+        int[] codes = new int[column.dictionary.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = code(column.bytes, column.offsets[i], column.offsets[i + 1]);
+        }
+
+        for (int row = 0; row < column.size; row++) {
+            int code = column.getCode(row);
+            add(code == NULL ? NULL : codes[code]);
+        }
+    }
+
+    @Override
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(dictionary.size());
+        for (int code = 0; code < dictionary.size(); code++) {
+            writeBytes(out, Arrays.copyOfRange(bytes, offsets[code], offsets[code + 1]));
+        }
+
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            int length = getChunkLength(chunk);
+            ByteBuffer codes = ByteBuffer.allocate(length * Integer.BYTES);
+            codes.asIntBuffer().put(chunks[chunk], 0, length);
+            out.write(codes.array());
+        }
+    }
+
+    @Override
+    void readFrom(MappedInput in, int rowCount) throws IOException {
+        // Raw values are added in order of their codes, so the codes stay valid
+        int distinct = in.readInt();
+        for (int code = 0; code < distinct; code++) {
+            byte[] value = in.readBytes();
+            code(value, 0, value.length);
+        }
+
+        size = rowCount;
+        int chunkCount = getChunkCount();
+        chunks = new int[Math.max(chunkCount, 8)][];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunks[chunk] = new int[CHUNK_SIZE];
+            in.readInts(chunks[chunk], getChunkLength(chunk));
+        }
+    }
+
+    private void add(int code) {
+        int row = size;
+        if (isChunkStart(row)) {
+            int chunk = row >>> CHUNK_SHIFT;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunk] = new int[CHUNK_SIZE];
+        }
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = code;
+        size++;
+    }
+
+    /**
+     * Find code of raw value, new values are added to the dictionary
+     *
+     * @param buffer Buffer
+     * @param start  Start of value
+     * @param end    End of value (exclusive)
+     * @return Code
+     */
+    private int code(byte[] buffer, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        hash ^= hash >>> 16;
+
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int code = slots[slot] - 1;
+            if (hashes[code] == hash && Arrays.equals(bytes, offsets[code], offsets[code + 1], buffer, start, end)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int code = dictionary.size();
+        if (code + 1 >= hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            offsets = Arrays.copyOf(offsets, hashes.length + 1);
+        }
+        int offset = offsets[code];
+        if (offset + end - start > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, offset + end - start));
+        }
+        System.arraycopy(buffer, start, bytes, offset, end - start);
+        offsets[code + 1] = offset + end - start;
+        hashes[code] = hash;
+        dictionary.add(new String(buffer, start, end - start, charset));
+
+        slots[slot] = code + 1;
+        // Keep load factor below 0.5
+        if (dictionary.size() * 2 > slots.length) {
+            int[] rehashed = new int[slots.length * 2];
+            for (int i = 0; i < dictionary.size(); i++) {
+                int position = hashes[i] & (rehashed.length - 1);
+                while (rehashed[position] != 0) {
+                    position = (position + 1) & (rehashed.length - 1);
+                }
+                rehashed[position] = i + 1;
+            }
+            slots = rehashed;
+        }
+        return code;
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.util.FastDoubleParser;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.OptionalDouble;
+
+/**
+ * Column for double and float fields
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class DoubleColumn extends PrimitiveColumn {
+    /**
+     * Values per chunk
+     */
+    private double[][] chunks = new double[8][];
+
+    /**
+     * Parser for values
+     */
+    private final FastDoubleParser parser;
+
+    /**
+     * Field is a float
+     */
+    private final boolean isFloat;
+
+    DoubleColumn(CsvBinder.Column binding, FastDoubleParser parser) {
+        super(binding);
+        this.parser = parser;
+        this.isFloat = binding.getType() == float.class || binding.getType() == Float.class;
+    }
+
+    /**
+     * Get value
+     *
+     * @param row Index of row
+     * @return Value, 0 for null values
+     */
+    public double get(int row) {
+        return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * Get values of chunk, null values are 0
+     *
+     * @param chunk Index of chunk
+     * @return Values, only the first {@link #getChunkLength(int)} are valid
+     */
+    public double[] getChunk(int chunk) {
+        return chunks[chunk];
+    }
+
+    /**
+     * Sum of all values
+     *
+     * @return Sum
+     */
+    public double sum() {
+        double sum = 0;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            double[] values = chunks[chunk];
+            int length = getChunkLength(chunk);
+            for (int i = 0; i < length; i++) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Smallest value
+     *
+     * @return Smallest non null value, empty if there are none
+     */
+    public OptionalDouble min() {
+        return reduce(true);
+    }
+
+    /**
+     * Largest value
+     *
+     * @return Largest non null value, empty if there are none
+     */
+    public OptionalDouble max() {
+        return reduce(false);
+    }
+
+    private OptionalDouble reduce(boolean min) {
+        if (getNullCount() == size) {
+            return OptionalDouble.empty();
+        }
+
+        double result = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            double[] values = chunks[chunk];
+            int length = getChunkLength(chunk);
+            long[] nulls = getNullChunk(chunk);
+            if (nulls == null) {
+                // Branch free loop without null checks
+                for (int i = 0; i < length; i++) {
+                    result = min ? Math.min(result, values[i]) : Math.max(result, values[i]);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    if ((nulls[i >>> 6] & (1L << i)) == 0) {
+                        result = min ? Math.min(result, values[i]) : Math.max(result, values[i]);
+                    }
+                }
+            }
+        }
+        return OptionalDouble.of(result);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return isFloat ? (Object) (float) get(row) : (Object) get(row);
+    }
+
+    @Override
+    void writeChunk(DataOutputStream out, int chunk, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length * Double.BYTES);
+        bytes.asDoubleBuffer().put(chunks[chunk], 0, length);
+        out.write(bytes.array());
+    }
+
+    @Override
+    void readChunk(MappedInput in, int chunk, int length) throws IOException {
+        in.readDoubles(chunks[chunk], length);
+    }
+
+    @Override
+    void allocate(int row) {
+        if (isChunkStart(row)) {
+            int chunk = row >>> CHUNK_SHIFT;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunk] = new double[CHUNK_SIZE];
+        }
+    }
+
+    @Override
+    boolean parse(int row, byte[] buffer, int start, int end) {
+        try {
+            chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = isFloat ? parser.parseFloat(buffer, start, end) : parser.parseDouble(buffer, start, end);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    void set(int row, Object value) {
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = ((Number) value).doubleValue();
+    }
+
+    @Override
+    void copy(PrimitiveColumn other, int otherRow, int row) {
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = ((DoubleColumn) other).get(otherRow);
+    }
+}
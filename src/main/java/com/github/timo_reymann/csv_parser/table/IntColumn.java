@@ -0,0 +1,185 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+/**
+ * Column for int, short and byte fields
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class IntColumn extends PrimitiveColumn {
+    /**
+     * Values per chunk
+     */
+    private int[][] chunks = new int[8][];
+
+    /**
+     * Smallest value of the field type
+     */
+    private final long min;
+
+    /**
+     * Largest value of the field type
+     */
+    private final long max;
+
+    IntColumn(CsvBinder.Column binding) {
+        super(binding);
+        Class<?> type = binding.getType();
+        if (type == short.class || type == Short.class) {
+            min = Short.MIN_VALUE;
+            max = Short.MAX_VALUE;
+        } else if (type == byte.class || type == Byte.class) {
+            min = Byte.MIN_VALUE;
+            max = Byte.MAX_VALUE;
+        } else {
+            min = Integer.MIN_VALUE;
+            max = Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Get value
+     *
+     * @param row Index of row
+     * @return Value, 0 for null values
+     */
+    public int get(int row) {
+        return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * Get values of chunk, null values are 0
+     *
+     * @param chunk Index of chunk
+     * @return Values, only the first {@link #getChunkLength(int)} are valid
+     */
+    public int[] getChunk(int chunk) {
+        return chunks[chunk];
+    }
+
+    /**
+     * Sum of all values
+     *
+     * @return Sum
+     */
+    public long sum() {
+        long sum = 0;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            int[] values = chunks[chunk];
+            int length = getChunkLength(chunk);
+            for (int i = 0; i < length; i++) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Smallest value
+     *
+     * @return Smallest non null value, empty if there are none
+     */
+    public OptionalInt min() {
+        return reduce(true);
+    }
+
+    /**
+     * Largest value
+     *
+     * @return Largest non null value, empty if there are none
+     */
+    public OptionalInt max() {
+        return reduce(false);
+    }
+
+    private OptionalInt reduce(boolean min) {
+        if (getNullCount() == size) {
+            return OptionalInt.empty();
+        }
+
+        int result = min ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            int[] values = chunks[chunk];
+            int length = getChunkLength(chunk);
+            long[] nulls = getNullChunk(chunk);
+            if (nulls == null) {
+                // Branch free loop without null checks
+                for (int i = 0; i < length; i++) {
+                    result = min ? Math.min(result, values[i]) : Math.max(result, values[i]);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    if ((nulls[i >>> 6] & (1L << i)) == 0) {
+                        result = min ? Math.min(result, values[i]) : Math.max(result, values[i]);
+                    }
+                }
+            }
+        }
+        return OptionalInt.of(result);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        int value = get(row);
+        if (max == Short.MAX_VALUE) {
+            return (short) value;
+        } else if (max == Byte.MAX_VALUE) {
+            return (byte) value;
+        }
+        return value;
+    }
+
+    @Override
+    void writeChunk(DataOutputStream out, int chunk, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length * Integer.BYTES);
+        bytes.asIntBuffer().put(chunks[chunk], 0, length);
+        out.write(bytes.array());
+    }
+
+    @Override
+    void readChunk(MappedInput in, int chunk, int length) throws IOException {
+        in.readInts(chunks[chunk], length);
+    }
+
+    @Override
+    void allocate(int row) {
+        if (isChunkStart(row)) {
+            int chunk = row >>> CHUNK_SHIFT;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunk] = new int[CHUNK_SIZE];
+        }
+    }
+
+    @Override
+    boolean parse(int row, byte[] buffer, int start, int end) {
+        long value = parseLong(buffer, start, end, min, max);
+        if (value == Long.MIN_VALUE) {
+            return false;
+        }
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = (int) value;
+        return true;
+    }
+
+    @Override
+    void set(int row, Object value) {
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = ((Number) value).intValue();
+    }
+
+    @Override
+    void copy(PrimitiveColumn other, int otherRow, int row) {
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = ((IntColumn) other).get(otherRow);
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Column for long fields
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class LongColumn extends PrimitiveColumn {
+    /**
+     * Values per chunk
+     */
+    private long[][] chunks = new long[8][];
+
+    LongColumn(CsvBinder.Column binding) {
+        super(binding);
+    }
+
+    /**
+     * Get value
+     *
+     * @param row Index of row
+     * @return Value, 0 for null values
+     */
+    public long get(int row) {
+        return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * Get values of chunk, null values are 0
+     *
+     * @param chunk Index of chunk
+     * @return Values, only the first {@link #getChunkLength(int)} are valid
+     */
+    public long[] getChunk(int chunk) {
+        return chunks[chunk];
+    }
+
+    /**
+     * Sum of all values, overflows silently
+     *
+     * @return Sum
+     */
+    public long sum() {
+        long sum = 0;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            long[] values = chunks[chunk];
+            int length = getChunkLength(chunk);
+            for (int i = 0; i < length; i++) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Smallest value
+     *
+     * @return Smallest non null value, empty if there are none
+     */
+    public OptionalLong min() {
+        return reduce(true);
+    }
+
+    /**
+     * Largest value
+     *
+     * @return Largest non null value, empty if there are none
+     */
+    public OptionalLong max() {
+        return reduce(false);
+    }
+
+    private OptionalLong reduce(boolean min) {
+        if (getNullCount() == size) {
+            return OptionalLong.empty();
+        }
+
+        long result = min ? Long.MAX_VALUE : Long.MIN_VALUE;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            long[] values = chunks[chunk];
+            int length = getChunkLength(chunk);
+            long[] nulls = getNullChunk(chunk);
+            if (nulls == null) {
+                // Branch free loop without null checks
+                for (int i = 0; i < length; i++) {
+                    result = min ? Math.min(result, values[i]) : Math.max(result, values[i]);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    if ((nulls[i >>> 6] & (1L << i)) == 0) {
+                        result = min ? Math.min(result, values[i]) : Math.max(result, values[i]);
+                    }
+                }
+            }
+        }
+        return OptionalLong.of(result);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : get(row);
+    }
+
+    @Override
+    void writeChunk(DataOutputStream out, int chunk, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length * Long.BYTES);
+        bytes.asLongBuffer().put(chunks[chunk], 0, length);
+        out.write(bytes.array());
+    }
+
+    @Override
+    void readChunk(MappedInput in, int chunk, int length) throws IOException {
+        in.readLongs(chunks[chunk], length);
+    }
+
+    @Override
+    void allocate(int row) {
+        if (isChunkStart(row)) {
+            int chunk = row >>> CHUNK_SHIFT;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunk] = new long[CHUNK_SIZE];
+        }
+    }
+
+    @Override
+    boolean parse(int row, byte[] buffer, int start, int end) {
+        long value = parseLong(buffer, start, end, Long.MIN_VALUE + 1, Long.MAX_VALUE);
+        if (value == Long.MIN_VALUE) {
+            return false;
+        }
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = value;
+        return true;
+    }
+
+    @Override
+    void set(int row, Object value) {
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = ((Number) value).longValue();
+    }
+
+    @Override
+    void copy(PrimitiveColumn other, int otherRow, int row) {
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = ((LongColumn) other).get(otherRow);
+    }
+}
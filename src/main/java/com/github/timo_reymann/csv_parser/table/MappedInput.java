@@ -0,0 +1,147 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read a file through memory mapped windows, the window is moved when a read crosses its end. This keeps files larger
+ * than 2 GB readable, while values of one chunk are copied in bulk from the mapped memory.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+class MappedInput {
+    /**
+     * Size of mapped window
+     */
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Channel of file
+     */
+    private final FileChannel channel;
+
+    /**
+     * Size of file
+     */
+    private final long size;
+
+    /**
+     * Current window
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    /**
+     * Position of current window in file
+     */
+    private long offset;
+
+    /**
+     * Create input reading from the current start of the channel
+     *
+     * @param channel Channel of file
+     */
+    MappedInput(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    /**
+     * Ensure the next bytes are mapped
+     *
+     * @param length Number of bytes
+     * @return Window positioned at the next byte
+     * @throws EOFException File ends before
+     */
+    ByteBuffer require(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            long position = offset + buffer.position();
+            if (position + length > size) {
+                throw new EOFException("Cache file ends at " + size + ", required " + length + " bytes at " + position);
+            }
+            offset = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, Math.max(WINDOW_SIZE, length)));
+        }
+        return buffer;
+    }
+
+    /**
+     * Read int
+     *
+     * @return Value
+     */
+    int readInt() throws IOException {
+        return require(Integer.BYTES).getInt();
+    }
+
+    /**
+     * Read long
+     *
+     * @return Value
+     */
+    long readLong() throws IOException {
+        return require(Long.BYTES).getLong();
+    }
+
+    /**
+     * Read boolean written as single byte
+     *
+     * @return Value
+     */
+    boolean readBoolean() throws IOException {
+        return require(1).get() != 0;
+    }
+
+    /**
+     * Read bytes written with a length prefix
+     *
+     * @return Bytes or null if written as null
+     */
+    byte[] readBytes() throws IOException {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        require(length).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Read ints in bulk
+     *
+     * @param values Target array
+     * @param length Number of values
+     */
+    void readInts(int[] values, int length) throws IOException {
+        ByteBuffer window = require(length * Integer.BYTES);
+        window.asIntBuffer().get(values, 0, length);
+        window.position(window.position() + length * Integer.BYTES);
+    }
+
+    /**
+     * Read longs in bulk
+     *
+     * @param values Target array
+     * @param length Number of values
+     */
+    void readLongs(long[] values, int length) throws IOException {
+        ByteBuffer window = require(length * Long.BYTES);
+        window.asLongBuffer().get(values, 0, length);
+        window.position(window.position() + length * Long.BYTES);
+    }
+
+    /**
+     * Read doubles in bulk
+     *
+     * @param values Target array
+     * @param length Number of values
+     */
+    void readDoubles(double[] values, int length) throws IOException {
+        ByteBuffer window = require(length * Double.BYTES);
+        window.asDoubleBuffer().get(values, 0, length);
+        window.position(window.position() + length * Double.BYTES);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Column for fields without primitive or dictionary representation, values are stored as converted objects
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public class ObjectColumn extends TableColumn {
+    /**
+     * Values per chunk
+     */
+    private Object[][] chunks = new Object[8][];
+
+    ObjectColumn(CsvBinder.Column binding) {
+        super(binding);
+    }
+
+    /**
+     * Get value
+     *
+     * @param row Index of row
+     * @return Value or null
+     */
+    public Object get(int row) {
+        return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return get(row) == null;
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return get(row);
+    }
+
+    @Override
+    void append(CsvTokenizer tokenizer, int index) {
+        add(index >= 0 && index < tokenizer.getFieldCount() ? convert(tokenizer.getField(index)) : null);
+    }
+
+    @Override
+    void appendAll(TableColumn other) {
+        ObjectColumn column = (ObjectColumn) other;
+        for (int row = 0; row < column.size; row++) {
+            add(column.get(row));
+        }
+    }
+
+    /**
+     * Values are written in the format of the converter, as there is no binary representation for arbitrary types
+     */
+    @Override
+    void writeTo(DataOutputStream out) throws IOException {
+        StringBuilder value = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            Object object = get(row);
+            if (object == null) {
+                writeBytes(out, null);
+            } else {
+                value.setLength(0);
+                binding.getConverter().write(object, value);
+                writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Override
+    void readFrom(MappedInput in, int rowCount) throws IOException {
+        for (int row = 0; row < rowCount; row++) {
+            byte[] value = in.readBytes();
+            add(value == null ? null : convert(new String(value, StandardCharsets.UTF_8)));
+        }
+    }
+
+    private void add(Object value) {
+        int row = size;
+        if (isChunkStart(row)) {
+            int chunk = row >>> CHUNK_SHIFT;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunk] = new Object[CHUNK_SIZE];
+        }
+        chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK] = value;
+        size++;
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Column of primitive values with a null bitmap, null values are stored as 0 so sums can ignore the bitmap
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public abstract class PrimitiveColumn extends TableColumn {
+    /**
+     * Bitmap per chunk, set bits mark null values. Chunks without null values are null.
+     */
+    private long[][] nulls = new long[8][];
+
+    /**
+     * Number of null values
+     */
+    private int nullCount;
+
+    /**
+     * Values can be parsed from the raw bytes, because the built-in converter is used
+     */
+    final boolean builtIn;
+
+    PrimitiveColumn(CsvBinder.Column binding) {
+        super(binding);
+        this.builtIn = ConverterRegistry.isBuiltIn(binding.getConverter());
+    }
+
+    /**
+     * Get number of null values
+     *
+     * @return Number of null values
+     */
+    public int getNullCount() {
+        return nullCount;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        int chunk = row >>> CHUNK_SHIFT;
+        long[] bitmap = chunk < nulls.length ? nulls[chunk] : null;
+        return bitmap != null && (bitmap[(row & CHUNK_MASK) >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Get null bitmap of chunk, bit i of word i / 64 marks row i of the chunk as null
+     *
+     * @param chunk Index of chunk
+     * @return Bitmap or null if chunk has no null values
+     */
+    public long[] getNullChunk(int chunk) {
+        return chunk < nulls.length ? nulls[chunk] : null;
+    }
+
+    /**
+     * Mark row as null
+     *
+     * @param row Index of row
+     */
+    void setNull(int row) {
+        int chunk = row >>> CHUNK_SHIFT;
+        if (chunk >= nulls.length) {
+            nulls = Arrays.copyOf(nulls, Math.max(chunk + 1, nulls.length * 2));
+        }
+        if (nulls[chunk] == null) {
+            nulls[chunk] = new long[CHUNK_SIZE / 64];
+        }
+        nulls[chunk][(row & CHUNK_MASK) >>> 6] |= 1L << row;
+        nullCount++;
+    }
+
+    @Override
+    void append(CsvTokenizer tokenizer, int index) {
+        int row = size;
+        allocate(row);
+        if (index >= 0 && index < tokenizer.getFieldCount()) {
+            int start = tokenizer.getFieldStart(index);
+            int end = tokenizer.getFieldEnd(index);
+            if (start != end) {
+                if (!builtIn || !parse(row, tokenizer.getBuffer(), start, end)) {
+                    Object value = convert(tokenizer.getField(index));
+                    if (value == null) {
+                        setNull(row);
+                    } else {
+                        set(row, value);
+                    }
+                }
+                size++;
+                return;
+            }
+        }
+        setNull(row);
+        size++;
+    }
+
+    @Override
+    void appendAll(TableColumn other) {
+        PrimitiveColumn column = (PrimitiveColumn) other;
+        for (int i = 0; i < column.size; i++) {
+            int row = size;
+            allocate(row);
+            if (column.isNull(i)) {
+                setNull(row);
+            } else {
+                copy(column, i, row);
+            }
+            size++;
+        }
+    }
+
+    @Override
+    void writeTo(DataOutputStream out) throws IOException {
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            long[] bitmap = getNullChunk(chunk);
+            out.writeBoolean(bitmap != null);
+            if (bitmap != null) {
+                ByteBuffer bytes = ByteBuffer.allocate(bitmap.length * Long.BYTES);
+                bytes.asLongBuffer().put(bitmap);
+                out.write(bytes.array());
+            }
+            writeChunk(out, chunk, getChunkLength(chunk));
+        }
+    }
+
+    @Override
+    void readFrom(MappedInput in, int rowCount) throws IOException {
+        size = rowCount;
+        int chunkCount = getChunkCount();
+        nulls = new long[Math.max(chunkCount, 8)][];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (in.readBoolean()) {
+                long[] bitmap = new long[CHUNK_SIZE / 64];
+                in.readLongs(bitmap, bitmap.length);
+                for (long word : bitmap) {
+                    nullCount += Long.bitCount(word);
+                }
+                nulls[chunk] = bitmap;
+            }
+            allocate(chunk << CHUNK_SHIFT);
+            readChunk(in, chunk, getChunkLength(chunk));
+        }
+    }
+
+    /**
+     * Write values of chunk
+     *
+     * @param out    Output
+     * @param chunk  Index of chunk
+     * @param length Number of rows in chunk
+     * @throws IOException Error writing output
+     */
+    abstract void writeChunk(DataOutputStream out, int chunk, int length) throws IOException;
+
+    /**
+     * Read values of allocated chunk
+     *
+     * @param in     Input
+     * @param chunk  Index of chunk
+     * @param length Number of rows in chunk
+     * @throws IOException Error reading input
+     */
+    abstract void readChunk(MappedInput in, int chunk, int length) throws IOException;
+
+    /**
+     * Allocate chunk for row if required
+     *
+     * @param row Index of row
+     */
+    abstract void allocate(int row);
+
+    /**
+     * Parse raw bytes of the built-in format into row
+     *
+     * @param row    Index of row
+     * @param buffer Buffer
+     * @param start  Start of value
+     * @param end    End of value (exclusive)
+     * @return Value could be parsed, if not the converter is used
+     */
+    abstract boolean parse(int row, byte[] buffer, int start, int end);
+
+    /**
+     * Set converted value
+     *
+     * @param row   Index of row
+     * @param value Value converted by the converter of the field
+     */
+    abstract void set(int row, Object value);
+
+    /**
+     * Copy value of other column
+     *
+     * @param other    Column of same type
+     * @param otherRow Row in other column
+     * @param row      Row in this column
+     */
+    abstract void copy(PrimitiveColumn other, int otherRow, int row);
+
+    /**
+     * Parse decimal integer without leading or trailing chars
+     *
+     * @param buffer Buffer
+     * @param start  Start of value
+     * @param end    End of value (exclusive)
+     * @param min    Minimum value
+     * @param max    Maximum value
+     * @return Value or {@link Long#MIN_VALUE} if the value is invalid or out of range
+     */
+    static long parseLong(byte[] buffer, int start, int end, long min, long max) {
+        boolean negative = buffer[start] == '-';
+        int position = negative || buffer[start] == '+' ? start + 1 : start;
+        // At most 18 digits can not overflow, longer values are left to the converter
+        if (position == end || end - position > 18) {
+            return Long.MIN_VALUE;
+        }
+
+        long result = 0;
+        for (; position < end; position++) {
+            int digit = buffer[position] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            result = result * 10 + digit;
+        }
+        result = negative ? -result : result;
+        return result < min || result > max ? Long.MIN_VALUE : result;
+    }
+}
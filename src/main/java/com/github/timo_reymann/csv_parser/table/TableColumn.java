@@ -0,0 +1,174 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import com.github.timo_reymann.csv_parser.io.CsvTokenizer;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Column of a {@link CsvTable}
+ * <p>
+ * Values are stored in chunks of {@link #CHUNK_SIZE} rows, so the column grows without copying values.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public abstract class TableColumn {
+    /**
+     * Number of rows per chunk
+     */
+    public static final int CHUNK_SIZE = 1 << 14;
+
+    static final int CHUNK_SHIFT = 14;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Binding of the column to the bean field
+     */
+    final CsvBinder.Column binding;
+
+    /**
+     * Number of rows
+     */
+    int size;
+
+    TableColumn(CsvBinder.Column binding) {
+        this.binding = binding;
+    }
+
+    /**
+     * Get name of mapped field
+     *
+     * @return Field name
+     */
+    public String getName() {
+        return binding.getName();
+    }
+
+    /**
+     * Get type of mapped field
+     *
+     * @return Field type
+     */
+    public Class<?> getType() {
+        return binding.getType();
+    }
+
+    /**
+     * Get number of rows
+     *
+     * @return Number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get number of chunks
+     *
+     * @return Number of chunks
+     */
+    public int getChunkCount() {
+        return (size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+    }
+
+    /**
+     * Get number of rows in chunk, all chunks except the last one are full
+     *
+     * @param chunk Index of chunk
+     * @return Number of rows
+     */
+    public int getChunkLength(int chunk) {
+        return Math.min(CHUNK_SIZE, size - (chunk << CHUNK_SHIFT));
+    }
+
+    /**
+     * Check if value is null, i.e. the column was missing or an empty number
+     *
+     * @param row Index of row
+     * @return Value is null
+     */
+    public abstract boolean isNull(int row);
+
+    /**
+     * Get value boxed as the field type
+     *
+     * @param row Index of row
+     * @return Value or null
+     */
+    public abstract Object getObject(int row);
+
+    /**
+     * Append value of the current record
+     *
+     * @param tokenizer Tokenizer holding the record
+     * @param index     Index of value in record, values out of range are null
+     */
+    abstract void append(CsvTokenizer tokenizer, int index);
+
+    /**
+     * Append all values of another column of the same field
+     *
+     * @param other Column to append
+     */
+    abstract void appendAll(TableColumn other);
+
+    /**
+     * Write all values in the binary format of {@link CsvTableCache}
+     *
+     * @param out Output
+     * @throws IOException Error writing output
+     */
+    abstract void writeTo(DataOutputStream out) throws IOException;
+
+    /**
+     * Read values written by {@link #writeTo(DataOutputStream)} into the empty column
+     *
+     * @param in       Input
+     * @param rowCount Number of rows
+     * @throws IOException Error reading input
+     */
+    abstract void readFrom(MappedInput in, int rowCount) throws IOException;
+
+    /**
+     * Write bytes with length prefix
+     *
+     * @param out   Output
+     * @param bytes Bytes, null is written as length -1
+     * @throws IOException Error writing output
+     */
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Check if the row is the first of a new chunk
+     *
+     * @param row Index of row
+     * @return Chunk must be allocated
+     */
+    static boolean isChunkStart(int row) {
+        return (row & CHUNK_MASK) == 0;
+    }
+
+    /**
+     * Convert value using the converter of the binding
+     *
+     * @param value Raw value
+     * @return Converted value
+     */
+    Object convert(String value) {
+        try {
+            return binding.getConverter().read(value);
+        } catch (Exception e) {
+            throw new ParseException("Error parsing value '" + value + "' for field " + getName(), e);
+        }
+    }
+}
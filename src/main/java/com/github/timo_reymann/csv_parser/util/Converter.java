@@ -5,17 +5,37 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
-import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class Converter {
-    private static final HashMap<String, DateTimeFormatter> FORMATTER_CACHE = new HashMap<>();
+    private static final ConcurrentHashMap<String, DateTimeFormatter> FORMATTER_CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Optional<FixedWidthDateTimeFormat>> FIXED_WIDTH_FORMAT_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Parser for floating point values
+     */
+    private final FastDoubleParser doubleParser;
+
+    public Converter() {
+        this(FastDoubleParser.DEFAULT);
+    }
+
+    /**
+     * Create converter with custom floating point parser, e.g. for german number formats
+     *
+     * @param doubleParser Parser for floating point values
+     */
+    public Converter(FastDoubleParser doubleParser) {
+        this.doubleParser = doubleParser;
+    }
 
     public int convertToInt(String input) {
         return Integer.parseInt(input);
     }
 
     public float convertToFloat(String input) {
-        return Float.parseFloat(input);
+        return doubleParser.parseFloat(input, 0, input.length());
     }
 
     public boolean convertToBoolean(String input) {
@@ -23,26 +43,45 @@ public final class Converter {
     }
 
     public double convertToDouble(String input) {
-        return Double.parseDouble(input);
+        return doubleParser.parseDouble(input, 0, input.length());
     }
 
     public LocalDateTime convertToLocalDateTime(String pattern, String input) {
+        FixedWidthDateTimeFormat fixedWidthFormat = getFixedWidthFormat(pattern);
+        if (fixedWidthFormat != null) {
+            LocalDateTime value = fixedWidthFormat.parseLocalDateTime(input, 0, input.length());
+            if (value != null) {
+                return value;
+            }
+        }
         return LocalDateTime.parse(input, getFormatter(pattern));
     }
 
     public LocalDate convertToLocalDate(String pattern, String input) {
+        FixedWidthDateTimeFormat fixedWidthFormat = getFixedWidthFormat(pattern);
+        if (fixedWidthFormat != null) {
+            LocalDate value = fixedWidthFormat.parseLocalDate(input, 0, input.length());
+            if (value != null) {
+                return value;
+            }
+        }
         return LocalDate.parse(input, getFormatter(pattern));
     }
 
     private DateTimeFormatter getFormatter(String pattern) {
-        DateTimeFormatter formatter = FORMATTER_CACHE.get(pattern);
-
-        if (formatter == null) {
-            formatter = DateTimeFormatter.ofPattern(pattern);
-            FORMATTER_CACHE.put(pattern, formatter);
-        }
+        return FORMATTER_CACHE.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    }
 
-        return formatter;
+    /**
+     * Get compiled fixed width format for pattern
+     *
+     * @param pattern Pattern
+     * @return Compiled format or null if the pattern is not supported by {@link FixedWidthDateTimeFormat}
+     */
+    private FixedWidthDateTimeFormat getFixedWidthFormat(String pattern) {
+        return FIXED_WIDTH_FORMAT_CACHE
+                .computeIfAbsent(pattern, p -> Optional.ofNullable(FixedWidthDateTimeFormat.compile(p)))
+                .orElse(null);
     }
 
     public <T> void setField(Field field, Object object, T value) throws IllegalAccessException {
@@ -57,10 +96,43 @@ public final class Converter {
         if (value == null)
             return "";
 
+        FixedWidthDateTimeFormat fixedWidthFormat = getFixedWidthFormat(pattern);
+        if (fixedWidthFormat != null) {
+            StringBuilder out = new StringBuilder(24);
+            if (fixedWidthFormat.formatTo(value, out)) {
+                return out.toString();
+            }
+        }
+
         return getFormatter(pattern).format(value);
     }
 
     public String formatLocalDate(String pattern, LocalDate value) {
         return format(pattern, value);
     }
+
+    public void appendLocalDateTime(String pattern, LocalDateTime value, StringBuilder out) {
+        appendTo(pattern, value, out);
+    }
+
+    public void appendLocalDate(String pattern, LocalDate value, StringBuilder out) {
+        appendTo(pattern, value, out);
+    }
+
+    /**
+     * Append formatted value to builder, using the fixed width fast path if possible
+     *
+     * @param pattern Pattern
+     * @param value   Value to format, null values are skipped
+     * @param out     Builder to append to
+     */
+    private void appendTo(String pattern, TemporalAccessor value, StringBuilder out) {
+        if (value == null)
+            return;
+
+        FixedWidthDateTimeFormat fixedWidthFormat = getFixedWidthFormat(pattern);
+        if (fixedWidthFormat == null || !fixedWidthFormat.formatTo(value, out)) {
+            getFormatter(pattern).formatTo(value, out);
+        }
+    }
 }
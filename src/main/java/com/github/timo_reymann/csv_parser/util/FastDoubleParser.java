@@ -0,0 +1,479 @@
+package com.github.timo_reymann.csv_parser.util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decimal to binary floating point parser working on char and byte ranges.
+ * <p>
+ * Plain decimal numbers are converted using the exact Clinger fast path or the Eisel-Lemire algorithm,
+ * both are correctly rounded. Inputs that are not plain decimal numbers (hex floats, <code>NaN</code>,
+ * more than 19 significant digits, surrounding whitespace, ...) and the rare cases Eisel-Lemire can not
+ * decide are handed over to {@link Double#parseDouble(String)} respectively {@link Float#parseFloat(String)}.
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class FastDoubleParser {
+    /**
+     * Marker for "no grouping separator"
+     */
+    public static final char NO_GROUPING = 0;
+
+    /**
+     * Parser using '.' as decimal separator without grouping
+     */
+    public static final FastDoubleParser DEFAULT = new FastDoubleParser('.', NO_GROUPING);
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private static final int MAX_DIGITS = 19;
+
+    /**
+     * Decimal separator
+     */
+    private final char decimalSeparator;
+
+    /**
+     * Grouping separator, {@link #NO_GROUPING} if not used
+     */
+    private final char groupingSeparator;
+
+    /**
+     * Create new parser
+     *
+     * @param decimalSeparator  Decimal separator, e.g. ',' for german numbers
+     * @param groupingSeparator Grouping separator skipped in the integer part or {@link #NO_GROUPING}
+     */
+    public FastDoubleParser(char decimalSeparator, char groupingSeparator) {
+        if (decimalSeparator == groupingSeparator) {
+            throw new IllegalArgumentException("Decimal and grouping separator must be different");
+        }
+        this.decimalSeparator = decimalSeparator;
+        this.groupingSeparator = groupingSeparator;
+    }
+
+    /**
+     * Parse double
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return Parsed value
+     * @throws NumberFormatException Input is not a number
+     */
+    public double parseDouble(CharSequence input, int start, int end) {
+        double value = parse(input, start, end, false);
+        return Double.isNaN(value) ? Double.parseDouble(normalize(input, start, end)) : value;
+    }
+
+    /**
+     * Parse double from bytes in an ASCII compatible encoding
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return Parsed value
+     * @throws NumberFormatException Input is not a number
+     */
+    public double parseDouble(byte[] input, int start, int end) {
+        double value = parse(input, start, end, false);
+        return Double.isNaN(value) ? Double.parseDouble(normalize(new AsciiSequence(input), start, end)) : value;
+    }
+
+    /**
+     * Parse float
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return Parsed value
+     * @throws NumberFormatException Input is not a number
+     */
+    public float parseFloat(CharSequence input, int start, int end) {
+        double value = parse(input, start, end, true);
+        return Double.isNaN(value) ? Float.parseFloat(normalize(input, start, end)) : (float) value;
+    }
+
+    /**
+     * Parse float from bytes in an ASCII compatible encoding
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return Parsed value
+     * @throws NumberFormatException Input is not a number
+     */
+    public float parseFloat(byte[] input, int start, int end) {
+        double value = parse(input, start, end, true);
+        return Double.isNaN(value) ? Float.parseFloat(normalize(new AsciiSequence(input), start, end)) : (float) value;
+    }
+
+    /**
+     * Convert input to the representation expected by the JDK parsers, e.g. for {@link java.math.BigDecimal}
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return Input without grouping separators and '.' as decimal separator
+     */
+    public String normalize(CharSequence input, int start, int end) {
+        if (decimalSeparator == '.' && groupingSeparator == NO_GROUPING) {
+            return input.subSequence(start, end).toString();
+        }
+
+        StringBuilder normalized = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == groupingSeparator) {
+                continue;
+            }
+            normalized.append(c == decimalSeparator ? '.' : c);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Scan plain decimal number and convert it
+     *
+     * @param input  Input
+     * @param start  Start index (inclusive)
+     * @param end    End index (exclusive)
+     * @param single Convert to float precision
+     * @return Correctly rounded value or NaN if the fallback must be used
+     */
+    private double parse(CharSequence input, int start, int end, boolean single) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            negative = input.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        boolean seenDecimalSeparator = false;
+        for (; i < end; i++) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significantDigits > 0 || c != '0') {
+                    if (++significantDigits > MAX_DIGITS) {
+                        return Double.NaN;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (seenDecimalSeparator) {
+                    exponent--;
+                }
+            } else if (c == decimalSeparator && !seenDecimalSeparator) {
+                seenDecimalSeparator = true;
+            } else if (groupingSeparator == NO_GROUPING || c != groupingSeparator || seenDecimalSeparator || digits == 0) {
+                break;
+            }
+        }
+
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+                negativeExponent = input.charAt(i) == '-';
+                i++;
+            }
+
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                char c = input.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+            }
+            if (i == exponentStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != end) {
+            return Double.NaN;
+        }
+        return single ? toFloat(negative, mantissa, exponent) : toDouble(negative, mantissa, exponent);
+    }
+
+    /**
+     * Scan plain decimal number in an ASCII compatible encoding and convert it
+     *
+     * @param input  Input
+     * @param start  Start index (inclusive)
+     * @param end    End index (exclusive)
+     * @param single Convert to float precision
+     * @return Correctly rounded value or NaN if the fallback must be used
+     */
+    private double parse(byte[] input, int start, int end, boolean single) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (input[i] == '-' || input[i] == '+')) {
+            negative = input[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        boolean seenDecimalSeparator = false;
+        for (; i < end; i++) {
+            int c = input[i] & 0xFF;
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significantDigits > 0 || c != '0') {
+                    if (++significantDigits > MAX_DIGITS) {
+                        return Double.NaN;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (seenDecimalSeparator) {
+                    exponent--;
+                }
+            } else if (c == decimalSeparator && !seenDecimalSeparator) {
+                seenDecimalSeparator = true;
+            } else if (groupingSeparator == NO_GROUPING || c != groupingSeparator || seenDecimalSeparator || digits == 0) {
+                break;
+            }
+        }
+
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        if (i < end && (input[i] == 'e' || input[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (input[i] == '-' || input[i] == '+')) {
+                negativeExponent = input[i] == '-';
+                i++;
+            }
+
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                int c = input[i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+            }
+            if (i == exponentStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != end) {
+            return Double.NaN;
+        }
+        return single ? toFloat(negative, mantissa, exponent) : toDouble(negative, mantissa, exponent);
+    }
+
+    private static double toDouble(boolean negative, long mantissa, int exponent) {
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        double value = Double.NaN;
+        if (mantissa > 0 && mantissa <= (1L << 53)) {
+            if (exponent >= 0 && exponent <= 22) {
+                value = (double) mantissa * DOUBLE_POWERS_OF_TEN[exponent];
+            } else if (exponent < 0 && exponent >= -22) {
+                value = (double) mantissa / DOUBLE_POWERS_OF_TEN[-exponent];
+            }
+        }
+
+        if (Double.isNaN(value)) {
+            long bits = EiselLemire.compute(mantissa, exponent, 52, 1023);
+            if (bits == -1) {
+                return Double.NaN;
+            }
+            value = Double.longBitsToDouble(bits);
+        }
+        return negative ? -value : value;
+    }
+
+    private static double toFloat(boolean negative, long mantissa, int exponent) {
+        if (mantissa == 0) {
+            return negative ? -0.0f : 0.0f;
+        }
+
+        float value = Float.NaN;
+        if (mantissa > 0 && mantissa <= (1L << 24)) {
+            if (exponent >= 0 && exponent <= 10) {
+                value = (float) mantissa * FLOAT_POWERS_OF_TEN[exponent];
+            } else if (exponent < 0 && exponent >= -10) {
+                value = (float) mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+            }
+        }
+
+        if (Float.isNaN(value)) {
+            long bits = EiselLemire.compute(mantissa, exponent, 23, 127);
+            if (bits == -1) {
+                return Double.NaN;
+            }
+            value = Float.intBitsToFloat((int) bits);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Eisel-Lemire algorithm, see "Number Parsing at a Gigabyte per Second" (Daniel Lemire, 2021)
+     */
+    private static final class EiselLemire {
+        private static final int MIN_EXPONENT = -348;
+        private static final int MAX_EXPONENT = 347;
+
+        /**
+         * 128 bit approximations (rounded down) of the powers of ten, normalized to have the highest bit set.
+         * Index 2n contains the high, 2n+1 the low bits.
+         */
+        private static final long[] POWERS_OF_TEN = computePowersOfTen();
+
+        private static long[] computePowersOfTen() {
+            long[] table = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) * 2];
+            BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+            for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+                BigInteger value;
+                if (exponent >= 0) {
+                    value = BigInteger.TEN.pow(exponent);
+                    int bits = value.bitLength();
+                    value = bits > 128 ? value.shiftRight(bits - 128) : value.shiftLeft(128 - bits);
+                } else {
+                    BigInteger divisor = BigInteger.TEN.pow(-exponent);
+                    value = BigInteger.ONE.shiftLeft(127 + divisor.bitLength()).divide(divisor);
+                }
+                int index = (exponent - MIN_EXPONENT) * 2;
+                table[index] = value.shiftRight(64).longValue();
+                table[index + 1] = value.and(mask).longValue();
+            }
+            return table;
+        }
+
+        private static long unsignedMultiplyHigh(long x, long y) {
+            return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+        }
+
+        /**
+         * Compute the binary representation of mantissa * 10^exponent
+         *
+         * @param mantissa      Decimal mantissa, must not be zero
+         * @param exponent      Decimal exponent
+         * @param mantissaBits  Explicit mantissa bits of the target type (52 for double, 23 for float)
+         * @param exponentBias  Exponent bias of the target type (1023 for double, 127 for float)
+         * @return Raw bits or -1 if the result can not be determined
+         */
+        static long compute(long mantissa, int exponent, int mantissaBits, int exponentBias) {
+            if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+                return -1;
+            }
+
+            int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+            long normalized = mantissa << leadingZeros;
+            long binaryExponent = ((217706L * exponent) >> 16) + 64 + exponentBias - leadingZeros;
+
+            int index = (exponent - MIN_EXPONENT) * 2;
+            long high = unsignedMultiplyHigh(normalized, POWERS_OF_TEN[index]);
+            long low = normalized * POWERS_OF_TEN[index];
+
+            int shift = 64 - mantissaBits - 3;
+            long precisionMask = (1L << shift) - 1;
+            if ((high & precisionMask) == precisionMask && Long.compareUnsigned(low + normalized, normalized) < 0) {
+                long secondHigh = unsignedMultiplyHigh(normalized, POWERS_OF_TEN[index + 1]);
+                long secondLow = normalized * POWERS_OF_TEN[index + 1];
+                long mergedHigh = high;
+                long mergedLow = low + secondHigh;
+                if (Long.compareUnsigned(mergedLow, low) < 0) {
+                    mergedHigh++;
+                }
+                if ((mergedHigh & precisionMask) == precisionMask && mergedLow + 1 == 0
+                        && Long.compareUnsigned(secondLow + normalized, normalized) < 0) {
+                    return -1;
+                }
+                high = mergedHigh;
+                low = mergedLow;
+            }
+
+            long msb = high >>> 63;
+            long result = high >>> (msb + shift);
+            binaryExponent -= 1 ^ msb;
+
+            // Exactly halfway between two values
+            if (low == 0 && (high & precisionMask) == 0 && (result & 3) == 1) {
+                return -1;
+            }
+
+            result += result & 1;
+            result >>>= 1;
+            if ((result >>> (mantissaBits + 1)) > 0) {
+                result >>>= 1;
+                binaryExponent++;
+            }
+
+            // Subnormal or infinite
+            if (binaryExponent <= 0 || binaryExponent >= (2L * exponentBias + 1)) {
+                return -1;
+            }
+
+            return binaryExponent << mantissaBits | (result & ((1L << mantissaBits) - 1));
+        }
+    }
+
+    /**
+     * Char view on bytes in an ASCII compatible encoding
+     */
+    private static final class AsciiSequence implements CharSequence {
+        private final byte[] bytes;
+
+        AsciiSequence(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, bytes.length).toString();
+        }
+    }
+}
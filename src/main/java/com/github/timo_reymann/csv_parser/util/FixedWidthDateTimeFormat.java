@@ -0,0 +1,321 @@
+package com.github.timo_reymann.csv_parser.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+
+/**
+ * Compiled representation of a fixed width date/time pattern like <code>yyyy-MM-dd</code> or
+ * <code>dd.MM.yyyy HH:mm:ss</code>. Values are parsed and formatted by digit position without
+ * going through {@link java.time.format.DateTimeFormatter}.
+ * <p>
+ * Only the pattern letters <code>yyyy</code>, <code>uuuu</code>, <code>MM</code>, <code>dd</code>, <code>HH</code>,
+ * <code>mm</code>, <code>ss</code> and <code>SSS</code> plus literals are supported. Parse and format methods return
+ * <code>null</code>/<code>false</code> for everything they can not handle exactly like the formatter would, so
+ * callers can fall back to the formatter in that case.
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class FixedWidthDateTimeFormat {
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int MILLI = 6;
+
+    /**
+     * Marker for digit positions in the template
+     */
+    private static final char DIGIT = 0;
+
+    /**
+     * Expected char for every position, {@link #DIGIT} for digits
+     */
+    private final char[] template;
+
+    /**
+     * Start position for every field, -1 if the field is not part of the pattern
+     */
+    private final int[] offsets;
+
+    private FixedWidthDateTimeFormat(char[] template, int[] offsets) {
+        this.template = template;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Compile pattern
+     *
+     * @param pattern Pattern as used for {@link java.time.format.DateTimeFormatter#ofPattern(String)}
+     * @return Compiled format or null if the pattern is not a supported fixed width pattern
+     */
+    public static FixedWidthDateTimeFormat compile(String pattern) {
+        StringBuilder template = new StringBuilder();
+        int[] offsets = new int[7];
+        Arrays.fill(offsets, -1);
+
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    template.append('\'');
+                    i += 2;
+                    continue;
+                }
+                // Quoted literal, doubled quotes inside are escaped quotes
+                i++;
+                while (true) {
+                    if (i == pattern.length()) {
+                        return null;
+                    }
+                    char literal = pattern.charAt(i);
+                    if (literal == '\'') {
+                        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                            template.append('\'');
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    template.append(literal);
+                    i++;
+                }
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int end = i;
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+                int field = fieldFor(c, end - i);
+                if (field == -1 || offsets[field] != -1) {
+                    return null;
+                }
+                offsets[field] = template.length();
+                for (int j = i; j < end; j++) {
+                    template.append(DIGIT);
+                }
+                i = end;
+            } else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                // Optional sections and reserved chars
+                return null;
+            } else {
+                template.append(c);
+                i++;
+            }
+        }
+
+        if (offsets[YEAR] == -1 || offsets[MONTH] == -1 || offsets[DAY] == -1) {
+            return null;
+        }
+
+        char[] chars = new char[template.length()];
+        template.getChars(0, chars.length, chars, 0);
+        return new FixedWidthDateTimeFormat(chars, offsets);
+    }
+
+    private static int fieldFor(char letter, int count) {
+        switch (letter) {
+            case 'y':
+            case 'u':
+                return count == 4 ? YEAR : -1;
+            case 'M':
+                return count == 2 ? MONTH : -1;
+            case 'd':
+                return count == 2 ? DAY : -1;
+            case 'H':
+                return count == 2 ? HOUR : -1;
+            case 'm':
+                return count == 2 ? MINUTE : -1;
+            case 's':
+                return count == 2 ? SECOND : -1;
+            case 'S':
+                return count == 3 ? MILLI : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Check if the pattern contains time fields
+     *
+     * @return true if hour, minute, second or milliseconds are part of the pattern
+     */
+    private boolean hasTime() {
+        return offsets[HOUR] != -1 || offsets[MINUTE] != -1 || offsets[SECOND] != -1 || offsets[MILLI] != -1;
+    }
+
+    /**
+     * Match input against template
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return true if all literals and digit positions match
+     */
+    private boolean matches(CharSequence input, int start, int end) {
+        if (end - start != template.length) {
+            return false;
+        }
+
+        for (int i = 0; i < template.length; i++) {
+            char c = input.charAt(start + i);
+            char expected = template[i];
+            if (expected == DIGIT) {
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            } else if (c != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int read(CharSequence input, int start, int field, int digits, int defaultValue) {
+        int offset = offsets[field];
+        if (offset == -1) {
+            return defaultValue;
+        }
+
+        int value = 0;
+        for (int i = start + offset, end = i + digits; i < end; i++) {
+            value = value * 10 + (input.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parse date, time fields in the pattern are validated but ignored
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return Parsed date or null if the input can not be handled by the fast path
+     */
+    public LocalDate parseLocalDate(CharSequence input, int start, int end) {
+        LocalDateTime dateTime = parse(input, start, end);
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    /**
+     * Parse date time, seconds and milliseconds default to zero if not part of the pattern
+     *
+     * @param input Input
+     * @param start Start index (inclusive)
+     * @param end   End index (exclusive)
+     * @return Parsed date time or null if the input can not be handled by the fast path
+     */
+    public LocalDateTime parseLocalDateTime(CharSequence input, int start, int end) {
+        if (offsets[HOUR] == -1 || offsets[MINUTE] == -1) {
+            return null;
+        }
+        return parse(input, start, end);
+    }
+
+    private LocalDateTime parse(CharSequence input, int start, int end) {
+        if (!matches(input, start, end)) {
+            return null;
+        }
+
+        int year = read(input, start, YEAR, 4, 0);
+        int month = read(input, start, MONTH, 2, 0);
+        int day = read(input, start, DAY, 2, 0);
+        int hour = read(input, start, HOUR, 2, 0);
+        int minute = read(input, start, MINUTE, 2, 0);
+        int second = read(input, start, SECOND, 2, 0);
+        int milli = read(input, start, MILLI, 3, 0);
+
+        // Leave everything the formatter resolves in a special way (e.g. day 31 in short months) to the formatter
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return null;
+        }
+
+        return LocalDateTime.of(year, month, day, hour, minute, second, milli * 1_000_000);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return ((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Append formatted value to builder
+     *
+     * @param value Value to format, must be a {@link LocalDate} or {@link LocalDateTime}
+     * @param out   Builder to append to
+     * @return true if the value was written, false if the formatter must be used instead
+     */
+    public boolean formatTo(TemporalAccessor value, StringBuilder out) {
+        LocalDate date;
+        int hour = 0, minute = 0, second = 0, nano = 0;
+        if (value instanceof LocalDateTime) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            date = dateTime.toLocalDate();
+            hour = dateTime.getHour();
+            minute = dateTime.getMinute();
+            second = dateTime.getSecond();
+            nano = dateTime.getNano();
+        } else if (value instanceof LocalDate && !hasTime()) {
+            date = (LocalDate) value;
+        } else {
+            return false;
+        }
+
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            return false;
+        }
+
+        for (int i = 0; i < template.length; i++) {
+            if (template[i] != DIGIT) {
+                out.append(template[i]);
+                continue;
+            }
+
+            if (i == offsets[YEAR]) {
+                appendPadded(out, year, 4);
+                i += 3;
+            } else if (i == offsets[MONTH]) {
+                appendPadded(out, date.getMonthValue(), 2);
+                i++;
+            } else if (i == offsets[DAY]) {
+                appendPadded(out, date.getDayOfMonth(), 2);
+                i++;
+            } else if (i == offsets[HOUR]) {
+                appendPadded(out, hour, 2);
+                i++;
+            } else if (i == offsets[MINUTE]) {
+                appendPadded(out, minute, 2);
+                i++;
+            } else if (i == offsets[SECOND]) {
+                appendPadded(out, second, 2);
+                i++;
+            } else {
+                appendPadded(out, nano / 1_000_000, 3);
+                i += 2;
+            }
+        }
+        return true;
+    }
+
+    private static void appendPadded(StringBuilder out, int value, int digits) {
+        for (int divisor = digits == 4 ? 1000 : digits == 3 ? 100 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.timo_reymann.csv_parser.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Worker threads shared by the parallel readers, writers and sorters
+ *
+ * @author Timo Reymann
+ * @since 19.10.26
+ */
+public final class Workers {
+    private Workers() {
+    }
+
+    /**
+     * Create factory for daemon threads, so workers never keep the JVM from exiting
+     *
+     * @param name Name of threads
+     * @return Thread factory
+     */
+    public static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Create pool with a fixed number of daemon threads
+     *
+     * @param threads Number of threads
+     * @param name    Name of threads
+     * @return Executor, callers have to shut it down
+     */
+    public static ExecutorService newFixedThreadPool(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, daemonThreads(name));
+    }
+
+    /**
+     * Wait for result of a task, exceptions thrown by the task are rethrown as they are
+     *
+     * @param future Result of task
+     * @param task   Description of task for the exception on interrupts, e.g. "sorting"
+     * @param <R>    Type of result
+     * @return Result
+     * @throws IOException Error thrown by the task, other checked exceptions are wrapped
+     */
+    public static <R> R await(Future<R> future, String task) throws IOException {
+        return await(future, IOException.class, task);
+    }
+
+    /**
+     * Wait for result of a task, exceptions thrown by the task are rethrown as they are
+     *
+     * @param future  Result of task
+     * @param checked Additional checked exception thrown by the task
+     * @param task    Description of task for the exception on interrupts, e.g. "sorting"
+     * @param <R>     Type of result
+     * @param <E>     Type of additional checked exception
+     * @return Result
+     * @throws IOException Error thrown by the task, other checked exceptions are wrapped
+     * @throws E           Additional checked exception thrown by the task
+     */
+    public static <R, E extends Exception> R await(Future<R> future, Class<E> checked, String task) throws IOException, E {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while " + task);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (checked.isInstance(cause)) {
+                throw checked.cast(cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 module com.github.timo_reymann.csv_parser {
     requires static lombok;
+    requires static java.compiler;
     requires transitive org.mapstruct.processor;
     exports com.github.timo_reymann.csv_parser.io;
+    exports com.github.timo_reymann.csv_parser.convert;
     exports com.github.timo_reymann.csv_parser.meta;
     exports com.github.timo_reymann.csv_parser.exception;
+    exports com.github.timo_reymann.csv_parser.sort;
+    exports com.github.timo_reymann.csv_parser.aggregate;
+    exports com.github.timo_reymann.csv_parser.table;
+    exports com.github.timo_reymann.csv_parser.join;
+    provides javax.annotation.processing.Processor with com.github.timo_reymann.csv_parser.processor.CsvMapperProcessor;
 }
\ No newline at end of file
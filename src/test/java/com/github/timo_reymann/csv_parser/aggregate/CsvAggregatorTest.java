@@ -0,0 +1,177 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvAggregatorTest {
+    private File file;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        file = Files.createTempFile("aggregate", ".csv").toFile();
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        file.delete();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testQuotedLineBreaksAcrossChunks() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            content.append("k;\"multi\nline ").append(i).append("\"\n");
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        for (int parallelism : new int[]{1, 4}) {
+            List<AggregateRow> rows = new CsvAggregator.Builder()
+                    .file(file)
+                    .charset(StandardCharsets.UTF_8)
+                    .groupBy(0)
+                    .count()
+                    .parallelism(parallelism)
+                    .chunkSize(4096)
+                    .build()
+                    .aggregate();
+
+            assertEquals(1, rows.size());
+            assertEquals("k", rows.get(0).getKey(0));
+            assertEquals(20_000, rows.get(0).getCount());
+        }
+    }
+
+    @Test
+    public void testStrayQuoteInUnquotedValue() throws Exception {
+        StringBuilder content = new StringBuilder("x;12\" pipe\n");
+        for (int i = 0; i < 200; i++) {
+            content.append("z;\"quoted \"\"value\"\"\nline\"\n").append("x;plain\n");
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("x", 201L);
+        expected.put("z", 200L);
+        for (int parallelism : new int[]{1, 4}) {
+            Map<String, Long> counts = new CsvAggregator.Builder()
+                    .file(file)
+                    .charset(StandardCharsets.UTF_8)
+                    .groupBy(0)
+                    .count()
+                    .parallelism(parallelism)
+                    .chunkSize(64)
+                    .build()
+                    .aggregate()
+                    .stream()
+                    .collect(Collectors.toMap(row -> row.getKey(0), AggregateRow::getCount));
+            assertEquals(expected, counts);
+        }
+    }
+
+    @Test
+    public void testParallelChunksEqualSequential() throws Exception {
+        Random random = new Random(42);
+        Map<String, double[]> expected = new LinkedHashMap<>();
+        StringBuilder content = new StringBuilder("customer;region;amount\n");
+        for (int i = 0; i < 5000; i++) {
+            String customer = "customer" + random.nextInt(200);
+            int amount = random.nextInt(1000) - 100;
+            content.append(customer).append(";r").append(i % 3).append(';').append(amount).append('\n');
+
+            double[] values = expected.computeIfAbsent(customer, key -> new double[]{0, 0, Double.MAX_VALUE, -Double.MAX_VALUE});
+            values[0]++;
+            values[1] += amount;
+            values[2] = Math.min(values[2], amount);
+            values[3] = Math.max(values[3], amount);
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        for (int parallelism : new int[]{1, 4}) {
+            List<AggregateRow> rows = new CsvAggregator.Builder()
+                    .file(file)
+                    .charset(StandardCharsets.UTF_8)
+                    .hasHeading()
+                    .groupBy("customer")
+                    .count()
+                    .aggregate(AggregateFunction.SUM, "amount")
+                    .aggregate(AggregateFunction.MIN, 2)
+                    .aggregate(AggregateFunction.MAX, "amount")
+                    .aggregate(AggregateFunction.AVG, "amount")
+                    .parallelism(parallelism)
+                    .chunkSize(1024)
+                    .build()
+                    .aggregate();
+
+            assertEquals(new ArrayList<>(expected.keySet()), rows.stream().map(row -> row.getKey(0)).collect(Collectors.toList()));
+            for (AggregateRow row : rows) {
+                double[] values = expected.get(row.getKey(0));
+                assertEquals(values[0], row.getValue(0));
+                assertEquals((long) values[0], row.getCount());
+                assertEquals(values[1], row.getValue(1));
+                assertEquals(values[2], row.getValue(2));
+                assertEquals(values[3], row.getValue(3));
+                assertEquals(values[1] / values[0], row.getValue(4), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleKeysAndEmptyValues() throws Exception {
+        List<AggregateRow> rows = new CsvAggregator.Builder()
+                .inputStream(stream("a;bc;1,5\nab;c;2\na;bc;\n\"a\";\"bc\";1.000,5\n"))
+                .groupBy(0, 1)
+                .aggregate(AggregateFunction.SUM, 2)
+                .aggregate(AggregateFunction.COUNT, 2)
+                .aggregate(AggregateFunction.MIN, 3)
+                .decimalSeparator(',')
+                .groupingSeparator('.')
+                .build()
+                .aggregate();
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{"a", "bc"}, rows.get(0).getKeys());
+        assertEquals(1002.0, rows.get(0).getValue(0));
+        assertEquals(2.0, rows.get(0).getValue(1));
+        assertEquals(3, rows.get(0).getCount());
+        assertTrue(Double.isNaN(rows.get(0).getValue(2)));
+        assertArrayEquals(new String[]{"ab", "c"}, rows.get(1).getKeys());
+        assertEquals(2.0, rows.get(1).getValue(0));
+    }
+
+    @Test
+    public void testInvalidInput() {
+        assertThrows(InvalidArgumentException.class, () -> new CsvAggregator.Builder()
+                .inputStream(stream("a;b\n"))
+                .groupBy(0)
+                .build());
+        assertThrows(InvalidArgumentException.class, () -> new CsvAggregator.Builder()
+                .inputStream(stream("a;b\n1;2\n"))
+                .hasHeading()
+                .groupBy("c")
+                .count()
+                .build()
+                .aggregate());
+        assertThrows(ParseException.class, () -> new CsvAggregator.Builder()
+                .inputStream(stream("a;b\n"))
+                .aggregate(AggregateFunction.SUM, 1)
+                .build()
+                .aggregate());
+    }
+}
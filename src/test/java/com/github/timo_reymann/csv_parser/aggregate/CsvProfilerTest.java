@@ -0,0 +1,154 @@
+package com.github.timo_reymann.csv_parser.aggregate;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvProfilerTest {
+    private File file;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        file = Files.createTempFile("profile", ".csv").toFile();
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testProfileStream() throws IOException {
+        String content = "id;name;price;active;date;note\n"
+                + "1;Apple;1.5;true;2019-10-26;\"a;b\"\n"
+                + "2;Banana;2;FALSE;2019-10-27;\n"
+                + "3;Cherry;-0.25;true;2019-13-01\n"
+                + "4;Apple;;false;2020-01-01;x\n";
+        List<ColumnProfile> columns = new CsvProfiler.Builder()
+                .inputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .build()
+                .profile();
+
+        assertEquals(6, columns.size());
+        ColumnProfile id = columns.get(0);
+        assertEquals("id", id.getName());
+        assertEquals(ColumnType.INTEGER, id.getType());
+        assertEquals(4, id.getDistinctCount());
+        assertEquals(1, id.getMinNumber());
+        assertEquals(4, id.getMaxNumber());
+
+        ColumnProfile name = columns.get(1);
+        assertEquals(ColumnType.TEXT, name.getType());
+        assertEquals(3, name.getDistinctCount());
+        assertEquals("Apple", name.getMinValue());
+        assertEquals("Cherry", name.getMaxValue());
+        assertEquals(5, name.getMinLength());
+        assertEquals(6, name.getMaxLength());
+        assertEquals(4, name.getLengthHistogram()[ColumnProfile.getLengthBucket(5)]);
+        assertTrue(Double.isNaN(name.getMinNumber()));
+
+        ColumnProfile price = columns.get(2);
+        assertEquals(ColumnType.DECIMAL, price.getType());
+        assertEquals(1, price.getEmptyCount());
+        assertEquals(-0.25, price.getMinNumber());
+        assertEquals(2, price.getMaxNumber());
+
+        assertEquals(ColumnType.BOOLEAN, columns.get(3).getType());
+        ColumnProfile date = columns.get(4);
+        assertEquals(ColumnType.TEXT, date.getType());
+        assertEquals(3, date.getTypeCount(ColumnType.DATE));
+
+        ColumnProfile note = columns.get(5);
+        assertEquals(3, note.getCount());
+        assertEquals(1, note.getMissingCount());
+        assertEquals(1, note.getEmptyCount());
+        assertEquals("a;b", note.getMinValue());
+        assertEquals(0, note.getMinLength());
+    }
+
+    @Test
+    public void testParallelChunksEqualSequential() throws IOException {
+        StringBuilder content = new StringBuilder("id;category;amount\n");
+        for (int i = 0; i < 50_000; i++) {
+            content.append(i).append(";Category ").append(i % 97).append(';');
+            if (i % 10 != 0) {
+                content.append(i % 1000).append(',').append(i % 100);
+            }
+            content.append('\n');
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<ColumnProfile> sequential = builder().parallelism(1).build().profile();
+        List<ColumnProfile> parallel = builder().parallelism(4).chunkSize(16 * 1024).build().profile();
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).toString(), parallel.get(i).toString());
+            assertArrayEquals(sequential.get(i).getLengthHistogram(), parallel.get(i).getLengthHistogram());
+            assertEquals(sequential.get(i).getMaxNumber(), parallel.get(i).getMaxNumber());
+        }
+
+        ColumnProfile id = parallel.get(0);
+        assertEquals(50_000, id.getCount());
+        assertEquals(49_999, id.getMaxNumber());
+        assertEquals(50_000, id.getDistinctCount(), 50_000 * 0.05);
+        assertEquals(97, parallel.get(1).getDistinctCount(), 3);
+
+        ColumnProfile amount = parallel.get(2);
+        assertEquals(ColumnType.DECIMAL, amount.getType());
+        assertEquals(5_000, amount.getEmptyCount());
+        assertEquals(999.99, amount.getMaxNumber());
+    }
+
+    @Test
+    public void testQuotedLineBreaksAcrossChunks() throws IOException {
+        StringBuilder content = new StringBuilder("id;note\n");
+        for (int i = 0; i < 20_000; i++) {
+            content.append(i).append(";\"multi\nline ").append(i % 10).append("\"\n");
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<ColumnProfile> sequential = builder().parallelism(1).build().profile();
+        List<ColumnProfile> parallel = builder().parallelism(4).chunkSize(4096).build().profile();
+
+        assertEquals(2, parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).toString(), parallel.get(i).toString());
+        }
+        ColumnProfile id = parallel.get(0);
+        assertEquals(ColumnType.INTEGER, id.getType());
+        assertEquals(20_000, id.getCount());
+        ColumnProfile note = parallel.get(1);
+        assertEquals(20_000, note.getCount());
+        assertEquals(0, note.getMissingCount());
+        assertEquals("multi\nline 0".length(), note.getMinLength());
+        assertEquals("multi\nline 0".length(), note.getMaxLength());
+        assertEquals(10, note.getDistinctCount());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(InvalidArgumentException.class, () -> builder().precision(30).build());
+        assertThrows(InvalidArgumentException.class, () -> builder().seperatedBy(";;").build());
+    }
+
+    private CsvProfiler.Builder builder() {
+        return new CsvProfiler.Builder()
+                .file(file)
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .decimalSeparator(',');
+    }
+}
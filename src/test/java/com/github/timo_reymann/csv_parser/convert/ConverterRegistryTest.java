@@ -0,0 +1,128 @@
+package com.github.timo_reymann.csv_parser.convert;
+
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithExtendedTypes;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithFallbackTypes;
+import com.github.timo_reymann.csv_parser.io.CsvReader;
+import com.github.timo_reymann.csv_parser.io.CsvWriter;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConverterRegistryTest {
+    private static final ValueConverter<StringBuilder> STRING_BUILDER_CONVERTER = new ValueConverter<StringBuilder>() {
+        @Override
+        public StringBuilder read(String value) {
+            return new StringBuilder(value);
+        }
+
+        @Override
+        public void write(StringBuilder value, StringBuilder out) {
+            out.append(value);
+        }
+    };
+
+    @Test
+    public void testMissingConverterWritesToString() throws Exception {
+        TestEntityWithFallbackTypes entity = new TestEntityWithFallbackTypes();
+        entity.setRaw("raw");
+        entity.setSequence(new StringBuilder("sequence"));
+        entity.setSerializable(42L);
+        entity.setLetter('x');
+        entity.setBoxedLetter('y');
+        entity.setDuration(Duration.ofMinutes(90));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter<TestEntityWithFallbackTypes> writer = new CsvWriter.Builder<TestEntityWithFallbackTypes>()
+                .forClass(TestEntityWithFallbackTypes.class)
+                .outputStream(out)
+                .build();
+        writer.writeLine(entity);
+        writer.close();
+
+        assertEquals("raw;sequence;42;x;y;PT1H30M", new String(out.toByteArray(), StandardCharsets.UTF_8).trim());
+    }
+
+    @Test
+    public void testMissingConverterReadsRawString() throws Exception {
+        CsvReader<TestEntityWithFallbackTypes> reader = new CsvReader.Builder<TestEntityWithFallbackTypes>()
+                .forClass(TestEntityWithFallbackTypes.class)
+                .inputStream(new ByteArrayInputStream("raw;sequence;\nraw;sequence;42;x\n".getBytes(StandardCharsets.UTF_8)))
+                .build();
+        TestEntityWithFallbackTypes read = reader.readLine();
+
+        assertEquals("raw", read.getRaw());
+        assertEquals("sequence", read.getSequence());
+        assertEquals("", read.getSerializable());
+        assertEquals('\0', read.getLetter());
+        assertNull(read.getDuration());
+
+        // Fields that can not hold a string are only rejected when a value is read
+        assertThrows(ParseException.class, reader::readLine);
+        reader.close();
+        assertNotNull(new CsvBinder<>(TestEntityWithFallbackTypes.class, new ConverterRegistry()));
+    }
+
+    @Test
+    public void testExtendedTypesRoundTrip() throws Exception {
+        TestEntityWithExtendedTypes entity = new TestEntityWithExtendedTypes();
+        entity.setId(12_345_678_901L);
+        entity.setAmount(new BigDecimal("1234.56"));
+        entity.setStatus(TestEntityWithExtendedTypes.Status.CLOSED);
+        entity.setCreated(Instant.parse("2020-02-29T10:15:30.250Z"));
+        entity.setReference(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"));
+        entity.setNote(new StringBuilder("note"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter<TestEntityWithExtendedTypes> writer = new CsvWriter.Builder<TestEntityWithExtendedTypes>()
+                .forClass(TestEntityWithExtendedTypes.class)
+                .outputStream(out)
+                .withConverter(StringBuilder.class, STRING_BUILDER_CONVERTER)
+                .build();
+        writer.writeLine(entity);
+        writer.close();
+
+        String line = new String(out.toByteArray(), StandardCharsets.UTF_8).trim();
+        assertEquals("12345678901;1234.56;CLOSED;2020-02-29T10:15:30.250Z;123e4567-e89b-12d3-a456-426614174000;note;", line);
+
+        CsvReader<TestEntityWithExtendedTypes> reader = new CsvReader.Builder<TestEntityWithExtendedTypes>()
+                .forClass(TestEntityWithExtendedTypes.class)
+                .inputStream(new ByteArrayInputStream(out.toByteArray()))
+                .withConverter(StringBuilder.class, STRING_BUILDER_CONVERTER)
+                .build();
+        TestEntityWithExtendedTypes read = reader.readLine();
+
+        assertEquals(entity.getId(), read.getId());
+        assertEquals(entity.getAmount(), read.getAmount());
+        assertEquals(entity.getStatus(), read.getStatus());
+        assertEquals(entity.getCreated(), read.getCreated());
+        assertEquals(entity.getReference(), read.getReference());
+        assertEquals("note", read.getNote().toString());
+        assertNull(read.getOptional());
+    }
+
+    @Test
+    public void testGermanNumberFormat() throws Exception {
+        CsvReader<TestEntityWithExtendedTypes> reader = new CsvReader.Builder<TestEntityWithExtendedTypes>()
+                .forClass(TestEntityWithExtendedTypes.class)
+                .inputStream(new ByteArrayInputStream("1;1.234,56;OPEN;;;;7".getBytes(StandardCharsets.UTF_8)))
+                .withConverter(StringBuilder.class, STRING_BUILDER_CONVERTER)
+                .decimalSeparator(',')
+                .groupingSeparator('.')
+                .build();
+        TestEntityWithExtendedTypes read = reader.readLine();
+
+        assertEquals(new BigDecimal("1234.56"), read.getAmount());
+        assertNull(read.getCreated());
+        assertEquals(Integer.valueOf(7), read.getOptional());
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.timo_reymann.csv_parser.helper;
+
+import com.github.timo_reymann.csv_parser.meta.CsvColumn;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class TestEntityWithAllTypes {
+    @CsvColumn(index = 0)
+    private int intValue;
+
+    @CsvColumn(index = 1)
+    private long longValue;
+
+    @CsvColumn(index = 2)
+    private short shortValue;
+
+    @CsvColumn(index = 3)
+    private byte byteValue;
+
+    @CsvColumn(index = 4)
+    private boolean booleanValue;
+
+    @CsvColumn(index = 5)
+    private double doubleValue;
+
+    @CsvColumn(index = 6)
+    private float floatValue;
+
+    @CsvColumn(index = 7)
+    private Integer boxedInt;
+
+    @CsvColumn(index = 8)
+    private Double boxedDouble;
+
+    @CsvColumn(index = 9)
+    private Float boxedFloat;
+
+    @CsvColumn(index = 10)
+    private String text;
+
+    @CsvColumn(index = 11)
+    private BigDecimal decimal;
+
+    @CsvColumn(index = 12)
+    private BigInteger integer;
+
+    @CsvColumn(index = 13)
+    private TestEntityWithExtendedTypes.Status status;
+
+    @CsvColumn(index = 14)
+    private Instant instant;
+
+    @CsvColumn(index = 15)
+    private UUID uuid;
+
+    @CsvColumn(index = 16, format = "dd.MM.yyyy")
+    private LocalDate date;
+
+    @CsvColumn(index = 17, format = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime dateTime;
+
+    @CsvColumn(index = 18, format = "EEEE, d. MMMM yyyy")
+    private LocalDate textDate;
+}
@@ -0,0 +1,36 @@
+package com.github.timo_reymann.csv_parser.helper;
+
+import com.github.timo_reymann.csv_parser.meta.CsvColumn;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class TestEntityWithExtendedTypes {
+    @CsvColumn(index = 0)
+    private long id;
+
+    @CsvColumn(index = 1)
+    private BigDecimal amount;
+
+    @CsvColumn(index = 2)
+    private Status status;
+
+    @CsvColumn(index = 3)
+    private Instant created;
+
+    @CsvColumn(index = 4)
+    private UUID reference;
+
+    @CsvColumn(index = 5)
+    private StringBuilder note;
+
+    @CsvColumn(index = 6)
+    private Integer optional;
+
+    public enum Status {
+        OPEN, CLOSED
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.timo_reymann.csv_parser.helper;
+
+import com.github.timo_reymann.csv_parser.meta.CsvColumn;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+@Data
+public class TestEntityWithFallbackTypes {
+    @CsvColumn(index = 0)
+    private Object raw;
+
+    @CsvColumn(index = 1)
+    private CharSequence sequence;
+
+    @CsvColumn(index = 2)
+    private Serializable serializable;
+
+    @CsvColumn(index = 3)
+    private char letter;
+
+    @CsvColumn(index = 4)
+    private Character boxedLetter;
+
+    @CsvColumn(index = 5)
+    private Duration duration;
+}
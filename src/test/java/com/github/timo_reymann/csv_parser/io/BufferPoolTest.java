@@ -0,0 +1,122 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithNumericIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferPoolTest {
+    @Test
+    public void testAcquireAndRelease() {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        byte[] small = pool.acquire(5000);
+        assertEquals(8192, small.length);
+        pool.release(small);
+        assertSame(small, pool.acquire(6000));
+        assertEquals(0, pool.getPooledBytes());
+
+        byte[] huge = pool.acquire(BufferPool.MAX_SIZE + 1);
+        assertEquals(BufferPool.MAX_SIZE + 1, huge.length);
+        pool.release(huge);
+        pool.release(new byte[5000]);
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testCapacityIsBounded() {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        byte[][] buffers = new byte[3][];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(512 * 1024);
+        }
+        for (byte[] buffer : buffers) {
+            pool.release(buffer);
+        }
+        assertEquals(1024 * 1024, pool.getPooledBytes());
+
+        byte[] reused = pool.acquire(300 * 1024);
+        assertTrue(reused == buffers[0] || reused == buffers[1]);
+        assertEquals(512 * 1024, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testSizeFor() {
+        BufferPool pool = new BufferPool(0);
+        assertEquals(BufferPool.MIN_SIZE, pool.sizeFor(String.class, 100, CsvTokenizer.DEFAULT_BUFFER_SIZE));
+        assertEquals(16 * 1024, pool.sizeFor(String.class, 10_000, CsvTokenizer.DEFAULT_BUFFER_SIZE));
+        assertEquals(CsvTokenizer.DEFAULT_BUFFER_SIZE, pool.sizeFor(String.class, -1, CsvTokenizer.DEFAULT_BUFFER_SIZE));
+        assertEquals(1024 * 1024, pool.sizeFor(String.class, 100L * 1024 * 1024, CsvTokenizer.DEFAULT_BUFFER_SIZE));
+
+        pool.recordRows(String.class, 1000 * 1000, 1000);
+        assertEquals(1000, pool.getRowWidth(String.class));
+        assertEquals(512 * 1024, pool.sizeFor(String.class, -1, CsvTokenizer.DEFAULT_BUFFER_SIZE));
+        assertEquals(0, pool.getRowWidth(Integer.class));
+
+        pool.recordRows(String.class, 2000 * 100, 100);
+        assertEquals(1250, pool.getRowWidth(String.class));
+        assertEquals(0, new BufferPool(0).getRowWidth(String.class));
+    }
+
+    @Test
+    public void testTokenizerReturnsBuffer() throws IOException {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        char[] longValue = new char[6000];
+        Arrays.fill(longValue, 'x');
+        byte[] input = ("a;b\n" + new String(longValue) + ";c\n").getBytes(StandardCharsets.UTF_8);
+
+        CsvTokenizer tokenizer = new CsvTokenizer(new ByteArrayInputStream(input), StandardCharsets.UTF_8, ';', '"', 16, pool);
+        assertEquals(BufferPool.MIN_SIZE, tokenizer.getBuffer().length);
+        assertTrue(tokenizer.nextRecord());
+        assertTrue(tokenizer.nextRecord());
+        assertEquals(6000, tokenizer.getField(0).length());
+        byte[] grown = tokenizer.getBuffer();
+        assertEquals(8192, grown.length);
+        assertFalse(tokenizer.nextRecord());
+        assertEquals(input.length, tokenizer.getBytesRead());
+        assertEquals(2, tokenizer.getRecordCount());
+
+        tokenizer.close();
+        assertThrows(IOException.class, tokenizer::nextRecord);
+        assertSame(grown, pool.acquire(8192));
+    }
+
+    @Test
+    public void testReaderAndWriterRecordRowWidth() throws Exception {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter<TestEntityWithNumericIndex> writer = new CsvWriter.Builder<TestEntityWithNumericIndex>()
+                .forClass(TestEntityWithNumericIndex.class)
+                .outputStream(out)
+                .bufferPool(pool)
+                .build()) {
+            for (int i = 0; i < 1000; i++) {
+                TestEntityWithNumericIndex entity = new TestEntityWithNumericIndex();
+                entity.setSomeStringCol("Line " + i);
+                entity.setSomeIntCol(i);
+                writer.writeLine(entity);
+            }
+        }
+        int written = pool.getRowWidth(TestEntityWithNumericIndex.class);
+        assertTrue(written >= 8 && written <= 13, String.valueOf(written));
+
+        try (CsvReader<TestEntityWithNumericIndex> reader = new CsvReader.Builder<TestEntityWithNumericIndex>()
+                .forClass(TestEntityWithNumericIndex.class)
+                .inputStream(new ByteArrayInputStream(out.toByteArray()))
+                .bufferPool(pool)
+                .build()) {
+            List<TestEntityWithNumericIndex> entities = reader.lines().collect(Collectors.toList());
+            assertEquals(1000, entities.size());
+            assertEquals("Line 999", entities.get(999).getSomeStringCol());
+        }
+        int read = pool.getRowWidth(TestEntityWithNumericIndex.class);
+        assertTrue(read >= 8 && read <= 13, String.valueOf(read));
+    }
+}
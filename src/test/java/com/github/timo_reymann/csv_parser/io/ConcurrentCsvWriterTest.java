@@ -0,0 +1,142 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentCsvWriterTest {
+    private static final int THREADS = 8;
+    private static final int LINES_PER_THREAD = 5_000;
+
+    private File directory;
+    private File file;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("concurrent").toFile();
+        file = new File(directory, "entities.csv");
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (ConcurrentCsvWriter<TestEntityWithHeadings> writer = builder().stripes(4).stripeSize(512).build()) {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < LINES_PER_THREAD; i++) {
+                        writer.writeLine(entity(thread * LINES_PER_THREAD + i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            assertEquals(THREADS * LINES_PER_THREAD, writer.getWrittenLines());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<TestEntityWithHeadings> entities = read();
+        assertEquals(THREADS * LINES_PER_THREAD, entities.size());
+        assertEquals(THREADS * LINES_PER_THREAD, entities.stream().map(TestEntityWithHeadings::getSomeNumber).distinct().count());
+        for (TestEntityWithHeadings entity : entities) {
+            assertEquals("Text, " + entity.getSomeNumber(), entity.getSomeText());
+        }
+
+        // Lines of the same thread keep their order
+        List<Integer> firstThread = entities.stream()
+                .map(TestEntityWithHeadings::getSomeNumber)
+                .filter(number -> number < LINES_PER_THREAD)
+                .collect(Collectors.toList());
+        for (int i = 0; i < LINES_PER_THREAD; i++) {
+            assertEquals(i, (int) firstThread.get(i));
+        }
+    }
+
+    @Test
+    public void testHeadingResolvedOnOpen() throws Exception {
+        try (ConcurrentCsvWriter<TestEntityWithHeadings> writer = builder().build()) {
+            writer.writeLine(Arrays.asList(entity(1), entity(2)));
+        }
+        try (ConcurrentCsvWriter<TestEntityWithHeadings> writer = builder().build()) {
+            writer.writeLine(entity(3));
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals(1, lines.stream().filter(line -> line.contains("someNumberCol")).count());
+        assertEquals(3, read().size());
+    }
+
+    @Test
+    public void testClosed() throws Exception {
+        ConcurrentCsvWriter<TestEntityWithHeadings> writer = builder().build();
+        writer.writeLine(entity(1));
+        writer.close();
+        writer.close();
+
+        assertThrows(IOException.class, () -> writer.writeLine(entity(2)));
+        assertEquals(1, read().size());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(InvalidArgumentException.class, () -> new ConcurrentCsvWriter.Builder<TestEntityWithHeadings>().build());
+        assertThrows(InvalidArgumentException.class, () -> builder().stripes(3).build());
+        assertThrows(InvalidArgumentException.class, () -> builder().stripeSize(0).build());
+    }
+
+    private TestEntityWithHeadings entity(int i) {
+        TestEntityWithHeadings entity = new TestEntityWithHeadings();
+        entity.setSomeNumber(i);
+        entity.setSomeText("Text, " + i);
+        return entity;
+    }
+
+    private ConcurrentCsvWriter.Builder<TestEntityWithHeadings> builder() throws IOException {
+        return new ConcurrentCsvWriter.Builder<TestEntityWithHeadings>()
+                .writer(new CsvWriter.Builder<TestEntityWithHeadings>()
+                        .forClass(TestEntityWithHeadings.class)
+                        .file(file)
+                        .hasHeading()
+                        .build());
+    }
+
+    private List<TestEntityWithHeadings> read() throws IOException {
+        try (CsvReader<TestEntityWithHeadings> reader = new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .build()) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvBlockIndexTest {
+    private static final LocalDate START = LocalDate.of(2019, 10, 26);
+
+    private File directory;
+    private File file;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("blockindex").toFile();
+        file = new File(directory, "entities.csv");
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testIndexWrittenAndUsedForLookups() throws Exception {
+        try (CsvWriter<TestEntityWithHeadings> writer = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .hasHeading()
+                .noAppend()
+                .blockIndex("someNumberCol", "someDate")
+                .blockSize(4096)
+                .build()) {
+            for (int i = 0; i < 20_000; i++) {
+                writer.writeLine(entity(i));
+            }
+        }
+
+        CsvBlockIndex index = CsvBlockIndex.load(file, binder());
+        assertNotNull(index);
+        assertTrue(index.getBlockCount() > 100);
+        assertEquals(Arrays.asList("someNumberCol", "someDate"), index.getColumns());
+        assertEquals(1, index.select(Collections.singletonList(new CsvBlockIndex.Condition(binder(), "someNumberCol", 12_345, null, true))).cardinality());
+
+        List<TestEntityWithHeadings> found = read(builder().where("someNumberCol", 12_345));
+        assertEquals(1, found.size());
+        assertEquals("Text 12345", found.get(0).getSomeText());
+
+        List<TestEntityWithHeadings> range = read(builder().whereBetween("someDate", START.plusDays(10), START.plusDays(12)));
+        assertEquals(300, range.size());
+        assertEquals(1000, (int) range.get(0).getSomeNumber());
+        assertEquals(1299, (int) range.get(299).getSomeNumber());
+
+        // Conditions on columns without index are checked for every record
+        assertEquals(1, read(builder().where("someTextCol", "Text 7")).size());
+        assertTrue(read(builder().where("someNumberCol", 20_000)).isEmpty());
+    }
+
+    @Test
+    public void testIndexRecordedWhileReading() throws Exception {
+        StringBuilder content = new StringBuilder("someNumberCol;someTextCol\n");
+        for (int i = 0; i < 5_000; i++) {
+            content.append(i).append(";Text ").append(i).append('\n');
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        assertNull(CsvBlockIndex.load(file, binder()));
+
+        assertEquals(5_000, read(builder().blockIndex("someNumberCol").blockSize(1024)).size());
+        CsvBlockIndex index = CsvBlockIndex.load(file, binder());
+        assertNotNull(index);
+        assertEquals("someNumberCol;someTextCol\n".length(), index.getDataStart());
+
+        List<Integer> numbers = read(builder().whereBetween("someNumberCol", 4_990, null)).stream()
+                .map(TestEntityWithHeadings::getSomeNumber)
+                .collect(Collectors.toList());
+        assertEquals(10, numbers.size());
+        assertEquals(4_990, (int) numbers.get(0));
+
+        // Changed files make the index stale, conditions are still checked for every record
+        Files.write(file.toPath(), "someNumberCol;someTextCol\n1;Text 1\n4995;Text 4995\n".getBytes(StandardCharsets.UTF_8));
+        assertNull(CsvBlockIndex.load(file, binder()));
+        assertEquals(1, read(builder().where("someNumberCol", 4995)).size());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(InvalidArgumentException.class, () -> builder().where("unknown", 1).build());
+        assertThrows(InvalidArgumentException.class, () -> builder().where("someNumberCol", null).build());
+        assertThrows(InvalidArgumentException.class, () -> new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .inputStream(new ByteArrayInputStream(new byte[0]))
+                .blockIndex("someNumberCol")
+                .build());
+        assertThrows(InvalidArgumentException.class, () -> new CsvWriter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .blockIndex("unknown")
+                .build());
+        assertThrows(InvalidArgumentException.class, () -> builder().blockSize(0));
+    }
+
+    private TestEntityWithHeadings entity(int i) {
+        TestEntityWithHeadings entity = new TestEntityWithHeadings();
+        entity.setSomeNumber(i);
+        entity.setSomeText("Text " + i);
+        entity.setLocalDate(START.plusDays(i / 100));
+        return entity;
+    }
+
+    private CsvBinder<TestEntityWithHeadings> binder() {
+        return new CsvBinder<>(TestEntityWithHeadings.class, new ConverterRegistry());
+    }
+
+    private CsvReader.Builder<TestEntityWithHeadings> builder() throws IOException {
+        if (!file.exists()) {
+            Files.createFile(file.toPath());
+        }
+        return new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading();
+    }
+
+    private List<TestEntityWithHeadings> read(CsvReader.Builder<TestEntityWithHeadings> builder) throws IOException {
+        try (CsvReader<TestEntityWithHeadings> reader = builder.build()) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
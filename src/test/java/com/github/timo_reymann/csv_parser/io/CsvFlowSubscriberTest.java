@@ -0,0 +1,126 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithNumericIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvFlowSubscriberTest {
+    private static TestEntityWithNumericIndex entity(int number) {
+        TestEntityWithNumericIndex entity = new TestEntityWithNumericIndex();
+        entity.setSomeIntCol(number);
+        entity.setSomeStringCol("Line " + number);
+        return entity;
+    }
+
+    private static CsvWriter<TestEntityWithNumericIndex> writer(ByteArrayOutputStream out) throws IOException {
+        return new CsvWriter.Builder<TestEntityWithNumericIndex>()
+                .forClass(TestEntityWithNumericIndex.class)
+                .outputStream(out)
+                .build();
+    }
+
+    private static List<String> lines(ByteArrayOutputStream out) {
+        List<String> lines = new ArrayList<>();
+        for (String line : new String(out.toByteArray(), Charset.defaultCharset()).split("\\R")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testSubmissionPublisher() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvFlowSubscriber<TestEntityWithNumericIndex> subscriber = new CsvFlowSubscriber.Builder<TestEntityWithNumericIndex>()
+                .writer(writer(out))
+                .bufferSize(1024)
+                .build();
+
+        try (SubmissionPublisher<TestEntityWithNumericIndex> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(subscriber);
+            for (int i = 0; i < 10_000; i++) {
+                publisher.submit(entity(i));
+            }
+        }
+        subscriber.getCompletion().get(10, TimeUnit.SECONDS);
+
+        List<String> lines = lines(out);
+        assertEquals(10_000, lines.size());
+        assertEquals(10_000, subscriber.getWrittenCount());
+        assertEquals("Line 0;0", lines.get(0));
+        assertEquals("Line 9999;9999", lines.get(9999));
+    }
+
+    @Test
+    public void testDemandFitsBufferAndDeadlineFlush() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvFlowSubscriber<TestEntityWithNumericIndex> subscriber = new CsvFlowSubscriber.Builder<TestEntityWithNumericIndex>()
+                .writer(writer(out))
+                .bufferSize(100_000)
+                .flushInterval(Duration.ofMillis(20))
+                .build();
+
+        List<Long> requests = new ArrayList<>();
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requests.add(n);
+            }
+
+            @Override
+            public void cancel() {
+                fail("Not cancelled");
+            }
+        });
+
+        // Initial estimate of 128 chars per line
+        assertEquals(100_000 / 128, requests.get(0));
+        for (int i = 0; i < requests.get(0); i++) {
+            subscriber.onNext(entity(i));
+        }
+        // Lines of 11 to 13 chars, the next batch fills the rest of the buffer
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(1) > (100_000 - 781 * 13) / 13 && requests.get(1) < (100_000 - 781 * 11) / 11, requests.toString());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lines(out).size() < requests.get(0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(requests.get(0).intValue(), lines(out).size());
+        assertFalse(subscriber.getCompletion().isDone());
+
+        subscriber.onComplete();
+        assertTrue(subscriber.getCompletion().isDone());
+        assertFalse(subscriber.getCompletion().isCompletedExceptionally());
+    }
+
+    @Test
+    public void testErrorCompletesExceptionally() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvFlowSubscriber<TestEntityWithNumericIndex> subscriber = new CsvFlowSubscriber.Builder<TestEntityWithNumericIndex>()
+                .writer(writer(out))
+                .build();
+
+        try (SubmissionPublisher<TestEntityWithNumericIndex> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(subscriber);
+            publisher.submit(entity(1));
+            publisher.closeExceptionally(new IllegalStateException("Upstream failed"));
+        }
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> subscriber.getCompletion().get(10, TimeUnit.SECONDS));
+        assertEquals("Upstream failed", error.getCause().getMessage());
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvRowReaderTest {
+    private static CsvRowReader.Builder builder(String content) {
+        return new CsvRowReader.Builder()
+                .inputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))
+                .charset(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRowIsReused() throws Exception {
+        try (CsvRowReader reader = builder("\uFEFFname;count;amount\nAnna;3;1.5\n\"Bj\u00f6rn; B\";-42;-0.25\n").hasHeading().build()) {
+            assertEquals(Arrays.asList("name", "count", "amount"), reader.getHeadings());
+
+            CsvRow first = reader.readRow();
+            CharSequence name = first.getCharSequence("name");
+            assertEquals(3, first.size());
+            assertEquals("Anna", name.toString());
+            assertEquals('n', name.charAt(1));
+            assertEquals(3, first.getInt("count"));
+            assertEquals(1.5, first.getDouble(2));
+
+            CsvRow second = reader.readRow();
+            assertSame(first, second);
+            assertSame(name, second.getCharSequence(0));
+            assertEquals("Bj\u00f6rn; B", second.getCharSequence(0).toString());
+            assertEquals(-42L, second.getLong("count"));
+            assertEquals(-0.25, second.getDouble("amount"));
+
+            assertNull(reader.readRow());
+        }
+    }
+
+    @Test
+    public void testForEachWithDetectedDialect() throws Exception {
+        List<String> values = new ArrayList<>();
+        try (CsvRowReader reader = builder("id,value\n1,a\n2,b\n3,\n").detectDialect().build()) {
+            assertEquals(',', reader.getDialect().getSeperator().charAt(0));
+            reader.forEach(row -> values.add(row.getInt("id") + "=" + row.getCharSequence(1) + (row.isEmpty(1) ? "(empty)" : "")));
+        }
+        assertEquals(Arrays.asList("1=a", "2=b", "3=(empty)"), values);
+    }
+
+    @Test
+    public void testExplicitNoHeadingOverridesDetection() throws Exception {
+        try (CsvRowReader reader = builder("id,value\n1,a\n2,b\n").detectDialect().noHeading().build()) {
+            assertTrue(reader.getDialect().isHasHeading());
+            assertEquals("id", reader.readRow().getString(0));
+            assertEquals(1, reader.readRow().getInt(0));
+        }
+    }
+
+    @Test
+    public void testInvalidAccess() throws Exception {
+        try (CsvRowReader reader = builder("a;b\n2147483648;x\n").hasHeading().build()) {
+            CsvRow row = reader.readRow();
+            assertEquals(2147483648L, row.getLong(0));
+            assertThrows(NumberFormatException.class, () -> row.getInt(0));
+            assertThrows(NumberFormatException.class, () -> row.getInt("b"));
+            assertThrows(NumberFormatException.class, () -> row.getDouble("b"));
+            assertThrows(IllegalArgumentException.class, () -> row.getCharSequence("c"));
+            assertThrows(IndexOutOfBoundsException.class, () -> row.getCharSequence(2));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvTokenizerTest {
+    private static List<List<String>> tokenize(String input, Charset charset, int bufferSize) throws IOException {
+        return tokenize(input, charset, bufferSize, ";");
+    }
+
+    private static List<List<String>> tokenize(String input, Charset charset, int bufferSize, String seperator) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new ByteArrayInputStream(input.getBytes(charset)), charset, ';', '"', bufferSize)) {
+            tokenizer.setSeperator(seperator);
+            while (tokenizer.nextRecord()) {
+                records.add(Arrays.asList(tokenizer.getFields()));
+            }
+        }
+        return records;
+    }
+
+    private static void assertTokenized(String input, List<List<String>> expected) throws IOException {
+        // Small buffers force refills at every possible position
+        for (int bufferSize = 1; bufferSize < 12; bufferSize++) {
+            assertEquals(expected, tokenize(input, StandardCharsets.UTF_8, bufferSize), "Buffer size " + bufferSize);
+        }
+        assertEquals(expected, tokenize(input, StandardCharsets.UTF_8, CsvTokenizer.DEFAULT_BUFFER_SIZE));
+    }
+
+    @Test
+    public void testUnquoted() throws IOException {
+        assertTokenized("a;b;c\n1;;3\n", Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList("1", "", "3")));
+        assertTokenized("a;b;\r\n\r\n\nx", Arrays.asList(Arrays.asList("a", "b", ""), Arrays.asList("x")));
+    }
+
+    @Test
+    public void testQuotedValues() throws IOException {
+        assertTokenized("\"a;b\";\"multi\r\nline\";\"say \"\"hi\"\"\"\n\"\";x",
+                Arrays.asList(Arrays.asList("a;b", "multi\r\nline", "say \"hi\""), Arrays.asList("", "x")));
+        // Text after closing quote is kept, quotes in unquoted values are no quotes
+        assertTokenized("\"ab\"c;d\"e\n", Arrays.asList(Arrays.asList("abc", "d\"e")));
+        // Unterminated quote consumes until end of input
+        assertTokenized("\"abc;def\nghi", Arrays.asList(Arrays.asList("abc;def\nghi")));
+    }
+
+    @Test
+    public void testBomAndCharsets() throws IOException {
+        assertTokenized("\uFEFFäö;ü\n", Arrays.asList(Arrays.asList("äö", "ü")));
+        assertEquals(Arrays.asList(Arrays.asList("äö", "\"x\n\"")),
+                tokenize("äö;\"\"\"x\n\"\"\"\n", StandardCharsets.UTF_16, 3));
+        assertEquals(Arrays.asList(Arrays.asList("äö", "ü")), tokenize("äö;ü", StandardCharsets.ISO_8859_1, 2));
+        assertTrue(CsvTokenizer.isAsciiCompatible(Charset.forName("windows-1252")));
+        assertFalse(CsvTokenizer.isAsciiCompatible(StandardCharsets.UTF_16LE));
+    }
+
+    @Test
+    public void testPeekDoesNotConsume() throws IOException {
+        byte[] input = "a;b\nc;d\n".getBytes(StandardCharsets.UTF_8);
+        CsvTokenizer tokenizer = new CsvTokenizer(new ByteArrayInputStream(input), StandardCharsets.UTF_8, ';', '"', 2);
+        assertEquals("a;b\n", tokenizer.peek(4));
+        assertTrue(tokenizer.nextRecord());
+        assertEquals("a", tokenizer.getField(0));
+        assertTrue(tokenizer.nextRecord());
+        assertEquals("d", tokenizer.getField(1));
+        assertFalse(tokenizer.nextRecord());
+    }
+
+    @Test
+    public void testMultiByteSeperator() throws IOException {
+        List<List<String>> expected = Arrays.asList(Arrays.asList("a", "b|c", "", "d|"), Arrays.asList("x||yz", "|w|"));
+        for (int bufferSize = 1; bufferSize < 12; bufferSize++) {
+            assertEquals(expected, tokenize("a||b|c||||d|\n\"x||y\"z|||w|", StandardCharsets.UTF_8, bufferSize, "||"),
+                    "Buffer size " + bufferSize);
+        }
+
+        // Non ASCII seperators are encoded in the charset of the input
+        List<List<String>> umlauts = Arrays.asList(Arrays.asList("ä", "°", ""), Arrays.asList("\"§\""));
+        for (Charset charset : new Charset[]{StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16}) {
+            for (int bufferSize = 1; bufferSize < 6; bufferSize++) {
+                assertEquals(umlauts, tokenize("ä§°§\n\"\"\"§\"\"\"", charset, bufferSize, "§"), charset + ", buffer size " + bufferSize);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidSeperator() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvTokenizer(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_8, '§', '"'));
+        CsvTokenizer tokenizer = new CsvTokenizer(new ByteArrayInputStream(new byte[0]), StandardCharsets.US_ASCII, ';', '"');
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.setSeperator(""));
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.setSeperator("\n"));
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.setSeperator("§"));
+    }
+}
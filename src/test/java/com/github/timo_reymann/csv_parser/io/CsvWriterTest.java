@@ -1,19 +1,39 @@
 package com.github.timo_reymann.csv_parser.io;
 
 import com.github.timo_reymann.csv_parser.CsvParserTestCase;
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
 import com.github.timo_reymann.csv_parser.helper.FileHelper;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithAllTypes;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithExtendedTypes;
 import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
 import com.github.timo_reymann.csv_parser.helper.TestEntityWithNumericIndex;
+import com.github.timo_reymann.csv_parser.util.Platform;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class CsvWriterTest extends CsvParserTestCase {
     private static File TMP_FILE_WRITE_HEADING = new File("tmp_heading.csv");
@@ -127,4 +147,321 @@ public class CsvWriterTest extends CsvParserTestCase {
         csvWriterHeadingIndex.close();
         FileHelper.assertContentEquals(FileHelper.loadResourceFromTestClasspath("with_headings.csv"), TMP_FILE_WRITE_HEADING);
     }
+
+    @Test
+    public void testQuotesOnlyWhenNeeded() throws IOException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+        String[] values = {"plain", "with;seperator", "with \"quotes\"", "multi\nline"};
+        for (String value : values) {
+            TestEntityWithNumericIndex entity = new TestEntityWithNumericIndex();
+            entity.setSomeStringCol(value);
+            entity.setSomeIntCol(1);
+            csvWriterNumericIndex.writeLine(entity);
+        }
+        csvWriterNumericIndex.close();
+
+        String content = new String(Files.readAllBytes(TMP_FILE_WRITE_NUMERIC.toPath()), StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("plain;1"));
+        assertTrue(content.contains("\"with;seperator\";1"));
+        assertTrue(content.contains("\"with \"\"quotes\"\"\";1"));
+
+        CsvReader<TestEntityWithNumericIndex> reader = new CsvReader.Builder<TestEntityWithNumericIndex>()
+                .file(TMP_FILE_WRITE_NUMERIC)
+                .charset(StandardCharsets.UTF_8)
+                .forClass(TestEntityWithNumericIndex.class)
+                .build();
+        for (String value : values) {
+            assertEquals(value, reader.readLine().getSomeStringCol());
+        }
+        assertNull(reader.readLine());
+        reader.close();
+    }
+
+    private static List<TestEntityWithHeadings> createEntities(int count) {
+        List<TestEntityWithHeadings> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TestEntityWithHeadings entity = new TestEntityWithHeadings();
+            entity.setSomeNumber(i);
+            entity.setSomeText(i % 7 == 0 ? "Line; \"" + i + "\"" : "Thöis is line" + i);
+            entity.setSomeBoolean(i % 2 == 0);
+            entity.setSomeDouble(i / 3.0);
+            entity.setLocalDate(LocalDate.of(2017, 6, 7).plusDays(i));
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    @Test
+    public void testParallelWriteEqualsSequential() throws IOException, IllegalAccessException {
+        List<TestEntityWithHeadings> entities = createEntities(CsvWriter.PARALLEL_CHUNK_SIZE * 5 + 17);
+        csvWriterHeadingIndex.writeLine(entities);
+        csvWriterHeadingIndex.close();
+        byte[] expected = Files.readAllBytes(TMP_FILE_WRITE_HEADING.toPath());
+
+        CsvWriter<TestEntityWithHeadings> parallelWriter = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .file(TMP_FILE_WRITE_HEADING)
+                .noAppend()
+                .forClass(TestEntityWithHeadings.class)
+                .hasHeading()
+                .parallelism(3)
+                .build();
+        parallelWriter.writeLinesParallel(entities.subList(0, 10));
+        parallelWriter.writeLinesParallel(entities.stream().skip(10));
+        parallelWriter.close();
+        assertArrayEquals(expected, Files.readAllBytes(TMP_FILE_WRITE_HEADING.toPath()));
+
+        // Streams are written using the default charset, so compare with sequential output to a stream
+        ByteArrayOutputStream sequentialOut = new ByteArrayOutputStream();
+        BufferPool sequentialPool = new BufferPool(0);
+        CsvWriter<TestEntityWithHeadings> sequentialStreamWriter = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .outputStream(sequentialOut)
+                .forClass(TestEntityWithHeadings.class)
+                .hasHeading()
+                .bufferPool(sequentialPool)
+                .build();
+        sequentialStreamWriter.writeLine(entities);
+        sequentialStreamWriter.close();
+
+        ByteArrayOutputStream parallelOut = new ByteArrayOutputStream();
+        BufferPool parallelPool = new BufferPool(0);
+        CsvWriter<TestEntityWithHeadings> parallelStreamWriter = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .outputStream(parallelOut)
+                .forClass(TestEntityWithHeadings.class)
+                .hasHeading()
+                .bufferPool(parallelPool)
+                .parallelism(3)
+                .build();
+        parallelStreamWriter.writeLinesParallel(entities);
+        parallelStreamWriter.close();
+        assertArrayEquals(sequentialOut.toByteArray(), parallelOut.toByteArray());
+
+        // Row widths are learned from parallel writes as well
+        int rowWidth = sequentialPool.getRowWidth(TestEntityWithHeadings.class);
+        assertTrue(rowWidth > 0);
+        assertEquals(rowWidth, parallelPool.getRowWidth(TestEntityWithHeadings.class));
+    }
+
+    @Test
+    public void testAtomicReplacesFileOnClose() throws IOException, IllegalAccessException {
+        Files.write(TMP_FILE_WRITE_HEADING.toPath(), "old\n".getBytes(StandardCharsets.UTF_8));
+        CsvWriter<TestEntityWithHeadings> writer = atomicWriter().noAppend().build();
+        writer.writeLine(createEntities(1000));
+        writer.flush();
+        assertEquals("old\n", new String(Files.readAllBytes(TMP_FILE_WRITE_HEADING.toPath()), StandardCharsets.UTF_8));
+
+        writer.commit();
+        writer.close();
+        assertThrows(IOException.class, writer::commit);
+        assertEquals(1001, Files.readAllLines(TMP_FILE_WRITE_HEADING.toPath(), StandardCharsets.UTF_8).size());
+        assertEquals(TMP_FILE_WRITE_HEADING, writer.getFile());
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testAtomicAppendAndAbort() throws IOException, IllegalAccessException {
+        CsvWriter<TestEntityWithHeadings> writer = atomicWriter().build();
+        writeFirstLineWithHeading(writer);
+        writer.commit();
+
+        writer = atomicWriter().build();
+        writeSecondLineWithHeading(writer);
+        writer.commit();
+        List<String> lines = Files.readAllLines(TMP_FILE_WRITE_HEADING.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+
+        writer = atomicWriter().build();
+        writeSecondLineWithHeading(writer);
+        writer.abort();
+        assertEquals(lines, Files.readAllLines(TMP_FILE_WRITE_HEADING.toPath(), StandardCharsets.UTF_8));
+        assertNoTemporaryFiles();
+
+        assertThrows(IllegalStateException.class, () -> csvWriterHeadingIndex.abort());
+        assertThrows(InvalidArgumentException.class, () -> new CsvWriter.Builder<TestEntityWithHeadings>()
+                .outputStream(new ByteArrayOutputStream())
+                .forClass(TestEntityWithHeadings.class)
+                .atomic()
+                .build());
+    }
+
+    @Test
+    public void testMultiCharSeperatorRoundTrip() throws Exception {
+        File file = Files.createTempFile("seperator", ".csv").toFile();
+        file.deleteOnExit();
+        for (String seperator : new String[]{"||", "\u00a7", ";;"}) {
+            List<TestEntityWithNumericIndex> entities = new ArrayList<>();
+            for (String text : new String[]{"plain", "a|b", "a||b", "x\u00a7y", ";", "ends with |", "|| first"}) {
+                TestEntityWithNumericIndex entity = new TestEntityWithNumericIndex();
+                entity.setSomeStringCol(text);
+                entity.setSomeIntCol(text.length());
+                entities.add(entity);
+            }
+
+            CsvWriter<TestEntityWithNumericIndex> writer = new CsvWriter.Builder<TestEntityWithNumericIndex>()
+                    .forClass(TestEntityWithNumericIndex.class)
+                    .file(file)
+                    .noAppend()
+                    .seperatedBy(seperator)
+                    .build();
+            writer.writeLine(entities);
+            writer.close();
+
+            try (CsvReader<TestEntityWithNumericIndex> reader = new CsvReader.Builder<TestEntityWithNumericIndex>()
+                    .forClass(TestEntityWithNumericIndex.class)
+                    .file(file)
+                    .charset(StandardCharsets.UTF_8)
+                    .seperatedBy(seperator)
+                    .build()) {
+                assertEquals(entities, reader.lines().collect(Collectors.toList()), seperator);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidSeperator() {
+        assertThrows(InvalidArgumentException.class, () -> new CsvWriter<>(TestEntityWithHeadings.class, new ByteArrayOutputStream(), false, false, ""));
+        for (String seperator : new String[]{null, "", "\"", "\n"}) {
+            assertThrows(InvalidArgumentException.class, () -> new CsvWriter.Builder<TestEntityWithHeadings>()
+                    .outputStream(new ByteArrayOutputStream())
+                    .forClass(TestEntityWithHeadings.class)
+                    .seperatedBy(seperator)
+                    .build());
+        }
+    }
+
+    @Test
+    public void testAtomicExceptionLeavesFileUntouched() throws IOException {
+        Files.write(TMP_FILE_WRITE_HEADING.toPath(), "old\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> {
+            try (CsvWriter<TestEntityWithHeadings> writer = atomicWriter().noAppend().build()) {
+                writer.writeLine(createEntities(1000));
+                writer.flush();
+                throw new IllegalStateException("Export failed");
+            }
+        });
+
+        assertEquals("old\n", new String(Files.readAllBytes(TMP_FILE_WRITE_HEADING.toPath()), StandardCharsets.UTF_8));
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testGroupCommitDurability() throws IOException, IllegalAccessException {
+        CsvWriter<TestEntityWithHeadings> writer = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .file(TMP_FILE_WRITE_HEADING)
+                .noAppend()
+                .forClass(TestEntityWithHeadings.class)
+                .hasHeading()
+                .durability(Durability.groupCommit(null, 1))
+                .build();
+        writeFirstLineWithHeading(writer);
+        // Forced without flushing
+        assertEquals(2, Files.readAllLines(TMP_FILE_WRITE_HEADING.toPath(), StandardCharsets.UTF_8).size());
+        writer.close();
+
+        assertTrue(Durability.groupCommit(Duration.ofMillis(10), 0).isGroupCommit());
+        assertFalse(Durability.onClose().isGroupCommit());
+        assertThrows(InvalidArgumentException.class, () -> Durability.groupCommit(null, 0));
+        assertThrows(InvalidArgumentException.class, () -> Durability.groupCommit(Duration.ZERO, 1024));
+    }
+
+    private CsvWriter.Builder<TestEntityWithHeadings> atomicWriter() {
+        return new CsvWriter.Builder<TestEntityWithHeadings>()
+                .file(TMP_FILE_WRITE_HEADING)
+                .forClass(TestEntityWithHeadings.class)
+                .hasHeading()
+                .atomic()
+                .durability(Durability.onClose());
+    }
+
+    private void assertNoTemporaryFiles() {
+        File directory = TMP_FILE_WRITE_HEADING.getAbsoluteFile().getParentFile();
+        assertEquals(0, directory.listFiles((dir, name) -> name.startsWith("." + TMP_FILE_WRITE_HEADING.getName())).length);
+    }
+
+    @Test
+    public void testWriteAllTypesMatchesStringConversion() throws IOException, IllegalAccessException {
+        List<TestEntityWithAllTypes> entities = new ArrayList<>();
+        entities.add(allTypes(42, 0.1, 0.1f, "plain", Instant.ofEpochSecond(1_571_097_600L)));
+        entities.add(allTypes(-7, 1e-5, Float.MAX_VALUE, "a;\"b\"", Instant.ofEpochSecond(1_571_097_600L, 123_000_000)));
+        entities.add(allTypes(Integer.MIN_VALUE, -0.0, 1.0E10f, "line\nbreak", Instant.ofEpochSecond(-1L, 1)));
+        // Longer than the initial line buffer
+        entities.add(allTypes(1, Double.MIN_VALUE, Float.NaN, "wide ä".repeat(200), Instant.EPOCH));
+        entities.add(new TestEntityWithAllTypes());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter<TestEntityWithAllTypes> writer = new CsvWriter.Builder<TestEntityWithAllTypes>()
+                .outputStream(out)
+                .forClass(TestEntityWithAllTypes.class)
+                .build();
+        for (TestEntityWithAllTypes entity : entities) {
+            writer.writeLine(entity);
+        }
+        writer.close();
+
+        StringBuilder expected = new StringBuilder();
+        for (TestEntityWithAllTypes entity : entities) {
+            expected.append(String.join(";",
+                    String.valueOf(entity.getIntValue()),
+                    String.valueOf(entity.getLongValue()),
+                    String.valueOf(entity.getShortValue()),
+                    String.valueOf(entity.getByteValue()),
+                    String.valueOf(entity.isBooleanValue()),
+                    String.valueOf(entity.getDoubleValue()),
+                    String.valueOf(entity.getFloatValue()),
+                    toString(entity.getBoxedInt()),
+                    toString(entity.getBoxedDouble()),
+                    toString(entity.getBoxedFloat()),
+                    quote(entity.getText()),
+                    toString(entity.getDecimal()),
+                    toString(entity.getInteger()),
+                    toString(entity.getStatus()),
+                    toString(entity.getInstant()),
+                    toString(entity.getUuid()),
+                    format("dd.MM.yyyy", entity.getDate()),
+                    format("yyyy-MM-dd'T'HH:mm:ss.SSS", entity.getDateTime()),
+                    format("EEEE, d. MMMM yyyy", entity.getTextDate())))
+                    .append(Platform.getLineSeperator());
+        }
+        assertArrayEquals(expected.toString().getBytes(Charset.defaultCharset()), out.toByteArray());
+    }
+
+    private static TestEntityWithAllTypes allTypes(int number, double doubleValue, float floatValue, String text, Instant instant) {
+        TestEntityWithAllTypes entity = new TestEntityWithAllTypes();
+        entity.setIntValue(number);
+        entity.setLongValue(number * 100_000_000_000L);
+        entity.setShortValue((short) number);
+        entity.setByteValue((byte) number);
+        entity.setBooleanValue(number > 0);
+        entity.setDoubleValue(doubleValue);
+        entity.setFloatValue(floatValue);
+        entity.setBoxedInt(number);
+        entity.setBoxedDouble(doubleValue * 3);
+        entity.setBoxedFloat(floatValue / 3);
+        entity.setText(text);
+        entity.setDecimal(new BigDecimal("12345.6789").multiply(BigDecimal.valueOf(number)));
+        entity.setInteger(BigInteger.TEN.pow(30).multiply(BigInteger.valueOf(number)));
+        entity.setStatus(number > 0 ? TestEntityWithExtendedTypes.Status.OPEN : TestEntityWithExtendedTypes.Status.CLOSED);
+        entity.setInstant(instant);
+        entity.setUuid(new UUID(number, number * 31L));
+        entity.setDate(LocalDate.of(2019, 10, 26).plusDays(number % 1000));
+        entity.setDateTime(LocalDateTime.of(2017, 6, 4, 15, 10, 20, 7_000_000).plusSeconds(number));
+        entity.setTextDate(LocalDate.of(2020, 2, 29));
+        return entity;
+    }
+
+    private static String toString(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(";") || value.contains("\"") || value.contains("\n")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static String format(String pattern, TemporalAccessor value) {
+        return value == null ? "" : DateTimeFormatter.ofPattern(pattern).format(value);
+    }
 }
@@ -0,0 +1,117 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.helper.FileHelper;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithNumericIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DialectDetectorTest {
+    private final DialectDetector detector = new DialectDetector();
+
+    @Test
+    public void testDetectSeperator() {
+        assertEquals(",", detector.detect("id,name,price\n1,Foo,1.5\n2,Bar,2.5\n", true).getSeperator());
+        assertEquals("\t", detector.detect("id\tname\n1\tFoo, Bar\n2\tBaz\n", true).getSeperator());
+        assertEquals("|", detector.detect("a|b|c\n1|2|3\n", true).getSeperator());
+        // Decimal commas must not win over the seperator
+        assertEquals(";", detector.detect("1,5;2,5\n3,5;4,5\n", true).getSeperator());
+    }
+
+    @Test
+    public void testQuotedValues() {
+        Dialect dialect = detector.detect("'id','text'\n'1','a, b; c'\n'2','multi\nline'\n", true);
+        assertEquals(",", dialect.getSeperator());
+        assertEquals('\'', dialect.getQuoteChar());
+    }
+
+    @Test
+    public void testHeadingsBomAndLineSeperator() {
+        Dialect dialect = detector.detect("\uFEFFname;age\r\nFoo;12\r\nBar;13\r\n", true);
+        assertTrue(dialect.isHasBom());
+        assertTrue(dialect.isHasHeading());
+        assertEquals("\r\n", dialect.getLineSeperator());
+
+        dialect = detector.detect("Foo;12\nBar;13\n", true);
+        assertFalse(dialect.isHasBom());
+        assertFalse(dialect.isHasHeading());
+        assertEquals("\n", dialect.getLineSeperator());
+    }
+
+    @Test
+    public void testIncompleteSample() {
+        // Cut off last line must not break consistency
+        assertEquals(",", detector.detect("a,b,c\n1,2,3\n4,5", false).getSeperator());
+    }
+
+    @Test
+    public void testReaderWithDetectedDialect() throws Exception {
+        CsvReader<TestEntityWithHeadings> reader = new CsvReader.Builder<TestEntityWithHeadings>()
+                .file(FileHelper.loadResourceFromTestClasspath("headings_diff_seperator.csv"))
+                .forClass(TestEntityWithHeadings.class)
+                .detectDialect()
+                .build();
+
+        assertEquals("|", reader.getDialect().getSeperator());
+        assertTrue(reader.getDialect().isHasHeading());
+        assertEquals(1, reader.readLine().getSomeNumber());
+        assertEquals(2, reader.readLine().getSomeNumber());
+        reader.close();
+    }
+
+    @Test
+    public void testReaderWithoutHeadings() throws Exception {
+        byte[] data = "This is line 1,1\nThis is line 2,2\n".getBytes(StandardCharsets.UTF_8);
+        CsvReader<TestEntityWithNumericIndex> reader = new CsvReader.Builder<TestEntityWithNumericIndex>()
+                .inputStream(new ByteArrayInputStream(data))
+                .forClass(TestEntityWithNumericIndex.class)
+                .detectDialect(20)
+                .build();
+
+        assertFalse(reader.getDialect().isHasHeading());
+        assertEquals("This is line 1", reader.readLine().getSomeStringCol());
+        assertEquals(Integer.valueOf(2), reader.readLine().getSomeIntCol());
+        reader.close();
+    }
+
+    @Test
+    public void testReaderWithoutTrailingLineBreak() throws Exception {
+        for (String input : new String[]{"a;1\nc;22", "a;1\nc;\"22\"", "\"a\";1\n\"c\""}) {
+            CsvReader<TestEntityWithNumericIndex> reader = new CsvReader.Builder<TestEntityWithNumericIndex>()
+                    .inputStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))
+                    .forClass(TestEntityWithNumericIndex.class)
+                    .detectDialect()
+                    .build();
+
+            TestEntityWithNumericIndex first = reader.readLine();
+            assertEquals("a", first.getSomeStringCol(), input);
+            assertEquals(Integer.valueOf(1), first.getSomeIntCol(), input);
+            TestEntityWithNumericIndex second = reader.readLine();
+            assertEquals("c", second.getSomeStringCol(), input);
+            assertNull(reader.readLine(), input);
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testExplicitNoHeadingOverridesDetection() throws Exception {
+        byte[] data = "First line,10,ab\nline 1,1,a\nline 2,2,b\n".getBytes(StandardCharsets.UTF_8);
+        CsvReader<TestEntityWithNumericIndex> reader = new CsvReader.Builder<TestEntityWithNumericIndex>()
+                .inputStream(new ByteArrayInputStream(data))
+                .forClass(TestEntityWithNumericIndex.class)
+                .detectDialect()
+                .noHeading()
+                .build();
+
+        assertTrue(reader.getDialect().isHasHeading());
+        TestEntityWithNumericIndex first = reader.readLine();
+        assertEquals("First line", first.getSomeStringCol());
+        assertEquals(Integer.valueOf(10), first.getSomeIntCol());
+        assertEquals("line 1", reader.readLine().getSomeStringCol());
+        reader.close();
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import com.github.timo_reymann.csv_parser.util.Platform;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedCsvWriterTest {
+    private File directory;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("partitions").toFile();
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    private static TestEntityWithHeadings entity(int number) {
+        TestEntityWithHeadings entity = new TestEntityWithHeadings();
+        entity.setSomeNumber(number);
+        entity.setSomeText("Line " + number);
+        return entity;
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPartitionsWithEviction() throws Exception {
+        PartitionedCsvWriter<TestEntityWithHeadings, Integer> writer = new PartitionedCsvWriter.Builder<TestEntityWithHeadings, Integer>()
+                .forClass(TestEntityWithHeadings.class)
+                .directory(directory)
+                .partitionBy(bean -> bean.getSomeNumber() % 3)
+                .maxOpenFiles(2)
+                .hasHeading()
+                .build();
+
+        for (int i = 0; i < 30; i++) {
+            writer.writeLine(entity(i));
+        }
+        writer.close();
+
+        assertEquals(3, writer.getFiles().size());
+        for (int key = 0; key < 3; key++) {
+            List<String> lines = readLines(new File(directory, key + ".csv"));
+            assertEquals(11, lines.size());
+            assertTrue(lines.get(0).startsWith("\uFEFF"));
+            for (int row = 1; row < lines.size(); row++) {
+                assertFalse(lines.get(row).startsWith("\uFEFF"));
+                assertTrue(lines.get(row).contains("Line " + ((row - 1) * 3 + key)));
+            }
+        }
+    }
+
+    @Test
+    public void testRollByRowsAndBytes() throws Exception {
+        PartitionedCsvWriter<TestEntityWithHeadings, String> writer = new PartitionedCsvWriter.Builder<TestEntityWithHeadings, String>()
+                .forClass(TestEntityWithHeadings.class)
+                .directory(directory)
+                .partitionBy(bean -> "all")
+                .maxRowsPerFile(4)
+                .hasHeading()
+                .build();
+        for (int i = 0; i < 10; i++) {
+            writer.writeLine(entity(i));
+        }
+        writer.close();
+
+        assertEquals(3, writer.getFiles().size());
+        assertEquals(5, readLines(new File(directory, "all.csv")).size());
+        assertEquals(5, readLines(new File(directory, "all.1.csv")).size());
+        assertEquals(3, readLines(new File(directory, "all.2.csv")).size());
+
+        long maxBytes = 300;
+        PartitionedCsvWriter<TestEntityWithHeadings, String> sizeWriter = new PartitionedCsvWriter.Builder<TestEntityWithHeadings, String>()
+                .forClass(TestEntityWithHeadings.class)
+                .directory(directory)
+                .partitionBy(bean -> "size")
+                .fileName((key, part) -> key + "_" + part + ".csv")
+                .maxBytesPerFile(maxBytes)
+                .hasHeading()
+                .build();
+        for (int i = 0; i < 20; i++) {
+            sizeWriter.writeLine(entity(i));
+        }
+        sizeWriter.close();
+
+        int rows = 0;
+        assertTrue(sizeWriter.getFiles().size() > 1);
+        for (File file : sizeWriter.getFiles()) {
+            assertTrue(file.length() <= maxBytes, file + " has " + file.length() + " bytes");
+            rows += readLines(file).size() - 1;
+        }
+        assertEquals(20, rows);
+    }
+
+    @Test
+    public void testRollByBytesCountsHeading() throws Exception {
+        // Lines of entities 1 to 9 have the same length, measure heading and line with a single file
+        PartitionedCsvWriter<TestEntityWithHeadings, String> probe = builder("probe", Long.MAX_VALUE).build();
+        probe.writeLine(entity(1));
+        probe.writeLine(entity(2));
+        probe.close();
+        long twoLines = probe.getFiles().get(0).length();
+        long lineBytes = (long) readLines(probe.getFiles().get(0)).get(1).getBytes(StandardCharsets.UTF_8).length
+                + Platform.getLineSeperator().length();
+        long headingBytes = twoLines - 2 * lineBytes;
+
+        long maxBytes = headingBytes + 3 * lineBytes;
+        PartitionedCsvWriter<TestEntityWithHeadings, String> writer = builder("exact", maxBytes).build();
+        for (int i = 1; i <= 9; i++) {
+            writer.writeLine(entity(i));
+        }
+        writer.close();
+
+        assertEquals(3, writer.getFiles().size());
+        for (File file : writer.getFiles()) {
+            assertEquals(maxBytes, file.length(), file.getName());
+            assertEquals(4, readLines(file).size());
+        }
+    }
+
+    private PartitionedCsvWriter.Builder<TestEntityWithHeadings, String> builder(String key, long maxBytes) {
+        return new PartitionedCsvWriter.Builder<TestEntityWithHeadings, String>()
+                .forClass(TestEntityWithHeadings.class)
+                .directory(directory)
+                .partitionBy(bean -> key)
+                .maxBytesPerFile(maxBytes)
+                .hasHeading();
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import com.github.timo_reymann.csv_parser.exception.MappingException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedCsvReaderTest {
+    private File directory;
+
+    @BeforeEach
+    protected void setUp() throws Exception {
+        directory = Files.createTempDirectory("shards").toFile();
+
+        PartitionedCsvWriter<TestEntityWithHeadings, Integer> writer = new PartitionedCsvWriter.Builder<TestEntityWithHeadings, Integer>()
+                .forClass(TestEntityWithHeadings.class)
+                .directory(directory)
+                .partitionBy(bean -> bean.getSomeNumber() % 10)
+                .hasHeading()
+                .build();
+        for (int i = 0; i < 5000; i++) {
+            TestEntityWithHeadings entity = new TestEntityWithHeadings();
+            entity.setSomeNumber(i);
+            entity.setSomeText("Line " + i);
+            writer.writeLine(entity);
+        }
+        writer.close();
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    private ShardedCsvReader.Builder<TestEntityWithHeadings> builder() {
+        return new ShardedCsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .directory(directory)
+                .hasHeading()
+                .parallelism(3)
+                .batchSize(7);
+    }
+
+    @Test
+    public void testOrdered() {
+        ShardedCsvReader<TestEntityWithHeadings> reader = builder().build();
+        assertEquals(10, reader.getFiles().size());
+
+        List<Integer> expected = IntStream.range(0, 5000).boxed()
+                .sorted(Comparator.comparing((Integer i) -> i % 10).thenComparing(i -> i))
+                .collect(Collectors.toList());
+        try (Stream<TestEntityWithHeadings> lines = reader.lines()) {
+            assertEquals(expected, lines.map(TestEntityWithHeadings::getSomeNumber).collect(Collectors.toList()));
+        }
+
+        try (Stream<TestEntityWithHeadings> lines = reader.lines()) {
+            assertEquals(Arrays.asList(0, 10, 20), lines.limit(3).map(TestEntityWithHeadings::getSomeNumber).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testUnorderedWithGlob() {
+        ShardedCsvReader<TestEntityWithHeadings> reader = builder()
+                .unordered()
+                .build();
+
+        int[] sum = new int[1];
+        reader.forEach(bean -> sum[0] += bean.getSomeNumber());
+        assertEquals(4999 * 5000 / 2, sum[0]);
+
+        ShardedCsvReader<TestEntityWithHeadings> odd = new ShardedCsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .directory(directory, "[13579].csv")
+                .hasHeading()
+                .unordered()
+                .build();
+        try (Stream<TestEntityWithHeadings> lines = odd.lines()) {
+            assertTrue(lines.allMatch(bean -> bean.getSomeNumber() % 2 == 1));
+        }
+    }
+
+    @Test
+    public void testShardWithOtherHeadings() throws IOException {
+        Files.write(new File(directory, "5.csv").toPath(), "someTextCol\nfoo\n".getBytes(StandardCharsets.UTF_8));
+        ShardedCsvReader<TestEntityWithHeadings> reader = builder().build();
+        try (Stream<TestEntityWithHeadings> lines = reader.lines()) {
+            assertThrows(MappingException.class, () -> lines.forEach(bean -> {
+            }));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.timo_reymann.csv_parser.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StructuralScannerTest {
+    private static final byte[] ALPHABET = "ab;\"\n\r, äx".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testSwarMatchesScalar() {
+        Random random = new Random(7);
+        byte[] buffer = new byte[StructuralScanner.BLOCK_SIZE + 16];
+        StructuralScanner scalar = new ScalarStructuralScanner();
+        StructuralScanner swar = new SwarStructuralScanner();
+
+        for (int run = 0; run < 20_000; run++) {
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = run % 2 == 0 ? ALPHABET[random.nextInt(ALPHABET.length)] : (byte) random.nextInt();
+            }
+            int offset = random.nextInt(16);
+            byte seperator = (byte) (run % 3 == 0 ? ';' : random.nextInt(128));
+            assertEquals(scalar.scan(buffer, offset, seperator, (byte) '"'), swar.scan(buffer, offset, seperator, (byte) '"'));
+        }
+    }
+
+    private static List<List<String>> tokenize(byte[] input, StructuralScanner scanner, int bufferSize) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        CsvTokenizer tokenizer = new CsvTokenizer(new ByteArrayInputStream(input), StandardCharsets.UTF_8, ';', '"', bufferSize);
+        tokenizer.setScanner(scanner);
+        while (tokenizer.nextRecord()) {
+            records.add(Arrays.asList(tokenizer.getFields()));
+        }
+        return records;
+    }
+
+    @Test
+    public void testTokenizerWithScanner() throws IOException {
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            byte[] input = new byte[random.nextInt(2000)];
+            for (int i = 0; i < input.length; i++) {
+                // Mostly long plain values to cover whole blocks
+                input[i] = random.nextInt(20) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)] : (byte) ('a' + random.nextInt(26));
+            }
+            List<List<String>> expected = tokenize(input, null, CsvTokenizer.DEFAULT_BUFFER_SIZE);
+            for (int bufferSize : new int[]{1, 63, 64, 65, 200, CsvTokenizer.DEFAULT_BUFFER_SIZE}) {
+                assertEquals(expected, tokenize(input, new SwarStructuralScanner(), bufferSize));
+                assertEquals(expected, tokenize(input, new ScalarStructuralScanner(), bufferSize));
+            }
+        }
+    }
+}
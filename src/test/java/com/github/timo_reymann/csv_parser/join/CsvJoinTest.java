@@ -0,0 +1,147 @@
+package com.github.timo_reymann.csv_parser.join;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithNumericIndex;
+import com.github.timo_reymann.csv_parser.io.CsvReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvJoinTest {
+    private File directory;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("join").toFile();
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testInnerJoinInMemory() {
+        List<JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings>> rows = join(builder());
+
+        assertEquals(700, rows.size());
+        for (JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings> row : rows) {
+            assertEquals(row.getLeft().getSomeIntCol(), row.getRight().getSomeNumber());
+            assertEquals("Customer " + row.getRight().getSomeNumber(), row.getRight().getSomeText());
+        }
+        // Order of the probe side is kept
+        assertEquals("Order 0", rows.get(0).getLeft().getSomeStringCol());
+        assertEquals("Order 1", rows.get(1).getLeft().getSomeStringCol());
+    }
+
+    @Test
+    public void testLeftJoinSpilled() {
+        List<JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings>> rows = join(builder()
+                .type(JoinType.LEFT)
+                .maxRowsInMemory(10)
+                .partitions(4));
+
+        assertEquals(1000, rows.size());
+        assertEquals(300, rows.stream().filter(row -> row.getRight() == null).count());
+        assertEquals(1000, rows.stream().map(row -> row.getLeft().getSomeStringCol()).distinct().count());
+        rows.stream()
+                .filter(row -> row.getRight() != null)
+                .forEach(row -> assertEquals(row.getLeft().getSomeIntCol(), row.getRight().getSomeNumber()));
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testLeftJoinBuildingLeftSide() {
+        List<JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings>> inMemory = join(builder()
+                .type(JoinType.LEFT)
+                .buildLeft());
+        List<JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings>> spilled = join(builder()
+                .type(JoinType.LEFT)
+                .buildLeft()
+                .maxRowsInMemory(50)
+                .partitions(2));
+
+        assertEquals(1000, inMemory.size());
+        assertEquals(sorted(inMemory), sorted(spilled));
+        assertEquals(300, spilled.stream().filter(row -> row.getRight() == null).count());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(InvalidArgumentException.class, () -> new CsvJoin.Builder<TestEntityWithNumericIndex, TestEntityWithHeadings>()
+                .left(orders())
+                .right(customers())
+                .on(1, "unknown")
+                .build());
+        assertThrows(InvalidArgumentException.class, () -> builder().partitions(3).build());
+        assertThrows(InvalidArgumentException.class, () -> builder().maxRowsInMemory(0).build());
+        assertThrows(InvalidArgumentException.class, () -> new CsvJoin.Builder<TestEntityWithNumericIndex, TestEntityWithHeadings>()
+                .left(orders())
+                .right(customers())
+                .build());
+    }
+
+    private List<String> sorted(List<JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings>> rows) {
+        return rows.stream()
+                .map(row -> row.getLeft().getSomeStringCol() + "=" + (row.getRight() == null ? null : row.getRight().getSomeText()))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private List<JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings>> join(CsvJoin.Builder<TestEntityWithNumericIndex, TestEntityWithHeadings> builder) {
+        try (Stream<JoinedRow<TestEntityWithNumericIndex, TestEntityWithHeadings>> rows = builder.build().join()) {
+            return rows.collect(Collectors.toList());
+        }
+    }
+
+    private CsvJoin.Builder<TestEntityWithNumericIndex, TestEntityWithHeadings> builder() {
+        return new CsvJoin.Builder<TestEntityWithNumericIndex, TestEntityWithHeadings>()
+                .left(orders())
+                .right(customers())
+                .on(1, "someNumberCol")
+                .tempDirectory(directory);
+    }
+
+    /**
+     * 1000 orders, the customers of 300 of them do not exist
+     */
+    private CsvReader<TestEntityWithNumericIndex> orders() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("Order ").append(i).append(';').append(i % 10 < 7 ? i % 100 : 100 + i).append('\n');
+        }
+        return new CsvReader.Builder<TestEntityWithNumericIndex>()
+                .forClass(TestEntityWithNumericIndex.class)
+                .inputStream(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)))
+                .charset(StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private CsvReader<TestEntityWithHeadings> customers() {
+        StringBuilder content = new StringBuilder("someNumberCol;someTextCol\n");
+        for (int i = 0; i < 100; i++) {
+            content.append(i).append(";Customer ").append(i).append('\n');
+        }
+        return new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .inputStream(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)))
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.timo_reymann.csv_parser.meta;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvSchemaRegistryTest {
+    public static class GrandParent {
+        @CsvColumn(headerName = "a")
+        private String a;
+    }
+
+    public static class Parent extends GrandParent {
+        @CsvColumn(headerName = "b")
+        private String b;
+    }
+
+    public static class Child extends Parent {
+        @CsvColumn(headerName = "c")
+        private String c;
+    }
+
+    public static class IndexedBean {
+        @CsvColumn(headerName = "annotated")
+        private String value;
+    }
+
+    public static class StaleBean {
+        @CsvColumn(headerName = "annotated")
+        private String value;
+    }
+
+    public static class WarmBean {
+        @CsvColumn(index = 0)
+        private String value;
+    }
+
+    private static List<String> headerNames(Map<Field, CsvColumn> columns) {
+        return columns.values().stream().map(CsvColumn::headerName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFullHierarchy() {
+        Map<Field, CsvColumn> columns = CsvSchemaRegistry.getColumns(Child.class);
+        assertEquals(Arrays.asList("c", "b", "a"), headerNames(columns));
+        assertSame(columns, CsvSchemaRegistry.getColumns(Child.class));
+        assertNotNull(new CsvMetaDataReader<>(Child.class).getEffectiveValueForColumnMapping().get("a"));
+    }
+
+    @Test
+    public void testConcurrentLookup() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<Field, CsvColumn>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                lookups.add(executor.submit(() -> CsvSchemaRegistry.getColumns(Parent.class)));
+            }
+            Map<Field, CsvColumn> first = lookups.get(0).get();
+            for (Future<Map<Field, CsvColumn>> lookup : lookups) {
+                assertSame(first, lookup.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testIndexIsUsedInsteadOfAnnotations() throws IOException {
+        String index = "# comment\n"
+                + CsvSchemaRegistry.formatIndexEntry(IndexedBean.class.getName(), IndexedBean.class.getName(), "value", -1, "from\tindex", "none") + "\n"
+                + CsvSchemaRegistry.formatIndexEntry(StaleBean.class.getName(), StaleBean.class.getName(), "missing", -1, "from index", "none") + "\n";
+        assertEquals(Arrays.asList(IndexedBean.class.getName(), StaleBean.class.getName()), CsvSchemaRegistry.readIndex(new StringReader(index)));
+
+        assertEquals(Collections.singletonList("from\tindex"), headerNames(CsvSchemaRegistry.getColumns(IndexedBean.class)));
+        assertEquals(Collections.singletonList("annotated"), headerNames(CsvSchemaRegistry.getColumns(StaleBean.class)));
+
+        assertThrows(IOException.class, () -> CsvSchemaRegistry.readIndex(new StringReader("broken\tline\n")));
+    }
+
+    @Test
+    public void testWriteIndex() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvSchemaRegistry.writeIndex(out, Child.class);
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(Child.class.getName() + "\t" + GrandParent.class.getName() + "\ta\t-1\ta\tnone", lines[2]);
+        assertEquals(Collections.singletonList(Child.class.getName()), CsvSchemaRegistry.readIndex(new StringReader(out.toString())));
+    }
+
+    @Test
+    public void testWarmUpIndexed() throws IOException {
+        Path directory = Files.createTempDirectory("schema-index");
+        try {
+            Path index = directory.resolve(CsvSchemaRegistry.INDEX_RESOURCE);
+            Files.createDirectories(index.getParent());
+            Files.write(index, (CsvSchemaRegistry.formatIndexEntry(WarmBean.class.getName(), WarmBean.class.getName(), "value", 3, "", "none") + "\n"
+                    + CsvSchemaRegistry.formatIndexEntry("com.example.Missing", "com.example.Missing", "value", 0, "", "none") + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+                assertEquals(Collections.singletonList(WarmBean.class), CsvSchemaRegistry.warmUpIndexed(loader));
+            }
+            assertEquals(3, CsvSchemaRegistry.getColumns(WarmBean.class).values().iterator().next().index());
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+}
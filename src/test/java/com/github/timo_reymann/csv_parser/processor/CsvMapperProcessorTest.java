@@ -0,0 +1,225 @@
+package com.github.timo_reymann.csv_parser.processor;
+
+import com.github.timo_reymann.csv_parser.convert.ConverterRegistry;
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import com.github.timo_reymann.csv_parser.io.CsvReader;
+import com.github.timo_reymann.csv_parser.meta.CsvBinder;
+import com.github.timo_reymann.csv_parser.meta.CsvLazyBean;
+import com.github.timo_reymann.csv_parser.meta.CsvMapper;
+import com.github.timo_reymann.csv_parser.meta.CsvMappers;
+import com.github.timo_reymann.csv_parser.meta.CsvSchemaRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvMapperProcessorTest {
+    private static final String ACCESSOR_BEAN = "package beans;\n" +
+            "import com.github.timo_reymann.csv_parser.meta.CsvColumn;\n" +
+            "public class AccessorBean {\n" +
+            "    @CsvColumn(headerName = \"name\") private String name;\n" +
+            "    @CsvColumn(headerName = \"count\") private int count;\n" +
+            "    @CsvColumn(headerName = \"active\") private boolean active;\n" +
+            "    @CsvColumn(headerName = \"date\", format = \"dd.MM.yyyy\") java.time.LocalDate date;\n" +
+            "    public String getName() { return name; }\n" +
+            "    public void setName(String name) { this.name = name; }\n" +
+            "    public int getCount() { return count; }\n" +
+            "    public void setCount(int count) { this.count = count; }\n" +
+            "    public boolean isActive() { return active; }\n" +
+            "    public void setActive(boolean active) { this.active = active; }\n" +
+            "}\n";
+
+    private static final String PRIVATE_BEAN = "package beans;\n" +
+            "import com.github.timo_reymann.csv_parser.meta.CsvColumn;\n" +
+            "public class PrivateBean {\n" +
+            "    @CsvColumn(index = 0) private String name;\n" +
+            "}\n";
+
+    private static final String LAZY_BEAN = "package beans;\n" +
+            "import com.github.timo_reymann.csv_parser.meta.CsvColumn;\n" +
+            "public class LazyBean {\n" +
+            "    @CsvColumn(headerName = \"name\") private String name;\n" +
+            "    @CsvColumn(headerName = \"count\") private int count;\n" +
+            "    @CsvColumn(headerName = \"date\", format = \"dd.MM.yyyy\") private java.time.LocalDate date;\n" +
+            "    public String getName() { return name; }\n" +
+            "    public void setName(String name) { this.name = name; }\n" +
+            "    public int getCount() { return count; }\n" +
+            "    public void setCount(int count) { this.count = count; }\n" +
+            "    public java.time.LocalDate getDate() { return date; }\n" +
+            "    public void setDate(java.time.LocalDate date) { this.date = date; }\n" +
+            "    public boolean equals(Object o) {\n" +
+            "        if (!(o instanceof LazyBean)) return false;\n" +
+            "        LazyBean b = (LazyBean) o;\n" +
+            "        return java.util.Objects.equals(name, b.name) && count == b.count && java.util.Objects.equals(date, b.date);\n" +
+            "    }\n" +
+            "    public int hashCode() { return java.util.Objects.hash(name, count, date); }\n" +
+            "}\n";
+
+    private static final String LOMBOK_BEAN = "package beans;\n" +
+            "import com.github.timo_reymann.csv_parser.meta.CsvColumn;\n" +
+            "import lombok.AccessLevel;\n" +
+            "@lombok.Data\n" +
+            "public class LombokBean {\n" +
+            "    @CsvColumn(index = 0) @lombok.Getter(AccessLevel.NONE) @lombok.Setter(AccessLevel.NONE) private String name;\n" +
+            "}\n";
+
+    private static URLClassLoader classLoader;
+
+    private static Path classes;
+
+    @BeforeAll
+    public static void compile() throws Exception {
+        Path tempDir = Files.createTempDirectory("csv-mapper");
+        Path sources = Files.createDirectories(tempDir.resolve("src/beans"));
+        classes = Files.createDirectories(tempDir.resolve("classes"));
+        Files.write(sources.resolve("AccessorBean.java"), ACCESSOR_BEAN.getBytes(StandardCharsets.UTF_8));
+        Files.write(sources.resolve("PrivateBean.java"), PRIVATE_BEAN.getBytes(StandardCharsets.UTF_8));
+        Files.write(sources.resolve("LazyBean.java"), LAZY_BEAN.getBytes(StandardCharsets.UTF_8));
+        Files.write(sources.resolve("LombokBean.java"), LOMBOK_BEAN.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            // Lombok itself does not run, so only accessors written by hand exist
+            String classPath = new File(CsvMapper.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath()
+                    + File.pathSeparator + new File(lombok.Data.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-classpath", classPath, "-d", classes.toString(), "-implicit:class"),
+                    null, fileManager.getJavaFileObjects(sources.resolve("AccessorBean.java").toFile(), sources.resolve("PrivateBean.java").toFile(),
+                            sources.resolve("LazyBean.java").toFile(), sources.resolve("LombokBean.java").toFile()));
+            task.setProcessors(Collections.singletonList(new CsvMapperProcessor()));
+            assertTrue(task.call());
+        }
+
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, CsvMapperProcessorTest.class.getClassLoader());
+    }
+
+    @Test
+    public void testMapperGenerated() throws Exception {
+        Class<?> beanClass = classLoader.loadClass("beans.AccessorBean");
+        assertNotNull(CsvMappers.find(beanClass));
+        assertEquals("beans.AccessorBean_CsvMapper", CsvMappers.getMapperName(beanClass));
+    }
+
+    @Test
+    public void testNoMapperForInaccessibleFields() throws Exception {
+        assertNull(CsvMappers.find(classLoader.loadClass("beans.PrivateBean")));
+    }
+
+    @Test
+    public void testFieldLombokAnnotationOverridesClass() throws Exception {
+        // Accessors disabled on the field are not generated by @Data, so the bean falls back to reflection
+        assertNull(CsvMappers.find(classLoader.loadClass("beans.LombokBean")));
+    }
+
+    @Test
+    public void testSchemaIndexWritten() throws Exception {
+        List<String> index = Files.readAllLines(classes.resolve(CsvSchemaRegistry.INDEX_RESOURCE), StandardCharsets.UTF_8);
+        assertTrue(index.contains("beans.PrivateBean\tbeans.PrivateBean\tname\t0\t\tnone"), index.toString());
+        assertTrue(index.contains("beans.AccessorBean\tbeans.AccessorBean\tdate\t-1\tdate\tdd.MM.yyyy"), index.toString());
+
+        Class<?> beanClass = classLoader.loadClass("beans.PrivateBean");
+        assertEquals(Collections.singletonList(beanClass), CsvSchemaRegistry.warmUpIndexed(classLoader).stream()
+                .filter(type -> type == beanClass).collect(Collectors.toList()));
+        assertEquals("name", CsvSchemaRegistry.getColumns(beanClass).keySet().iterator().next().getName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGeneratedMapperRoundTrip() throws Exception {
+        CsvBinder<Object> binder = new CsvBinder<>((Class<Object>) classLoader.loadClass("beans.AccessorBean"), new ConverterRegistry());
+        assertTrue(binder.isGenerated());
+
+        Object bean = binder.newInstance();
+        binder.read(bean, binder.getSlot("name"), "Timo");
+        binder.read(bean, binder.getSlot("count"), "42");
+        binder.read(bean, binder.getSlot("active"), "true");
+        binder.read(bean, binder.getSlot("date"), "07.06.2017");
+        binder.read(bean, binder.getSlot("count"), null);
+
+        for (String key : new String[]{"name", "count", "active", "date"}) {
+            StringBuilder out = new StringBuilder();
+            binder.write(bean, binder.getSlot(key), out);
+            assertEquals(expected(key), out.toString(), key);
+        }
+        assertEquals(42, binder.get(bean, binder.getSlot("count")));
+        assertEquals(Boolean.TRUE, binder.get(bean, binder.getSlot("active")));
+
+        binder.set(bean, binder.getSlot("count"), 7);
+        binder.set(bean, binder.getSlot("count"), null);
+        binder.set(bean, binder.getSlot("name"), null);
+        assertEquals(7, binder.get(bean, binder.getSlot("count")));
+        assertNull(binder.get(bean, binder.getSlot("name")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> read(String beanClass, String content, boolean lazy) throws Exception {
+        CsvReader.Builder<Object> builder = new CsvReader.Builder<Object>()
+                .forClass((Class<Object>) classLoader.loadClass(beanClass))
+                .inputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))
+                .hasHeading();
+        if (lazy) {
+            builder.lazy();
+        }
+        try (CsvReader<Object> reader = builder.build()) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testLazyBean() throws Exception {
+        String content = "name;date;count\nTimo;07.06.2017;42\nx;;\nbroken;01.01.2020;x\n";
+        List<Object> beans = read("beans.LazyBean", content, true);
+        Class<?> beanClass = classLoader.loadClass("beans.LazyBean");
+        assertTrue(beans.get(0) instanceof CsvLazyBean);
+        assertEquals(42, beanClass.getMethod("getCount").invoke(beans.get(0)));
+        assertEquals(LocalDate.of(2017, 6, 7), beanClass.getMethod("getDate").invoke(beans.get(0)));
+        assertNull(beanClass.getMethod("getDate").invoke(beans.get(1)));
+
+        // Invalid values are only noticed when accessed, set values are never converted
+        assertEquals("broken", beanClass.getMethod("getName").invoke(beans.get(2)));
+        InvocationTargetException error = assertThrows(InvocationTargetException.class, () -> beanClass.getMethod("getCount").invoke(beans.get(2)));
+        assertTrue(error.getCause() instanceof ParseException);
+        beanClass.getMethod("setCount", int.class).invoke(beans.get(2), 7);
+        assertEquals(7, beanClass.getMethod("getCount").invoke(beans.get(2)));
+
+        List<Object> eager = read("beans.LazyBean", content.substring(0, content.indexOf("broken")), false);
+        assertFalse(eager.get(0) instanceof CsvLazyBean);
+        assertEquals(beans.subList(0, 2), eager);
+    }
+
+    @Test
+    public void testNoLazyBeanForDirectFieldAccess() throws Exception {
+        List<Object> beans = read("beans.AccessorBean", "name;count\nTimo;1\n", true);
+        assertFalse(beans.get(0) instanceof CsvLazyBean);
+    }
+
+    private static String expected(String key) {
+        switch (key) {
+            case "name":
+                return "Timo";
+            case "count":
+                return "42";
+            case "active":
+                return "true";
+            default:
+                return "07.06.2017";
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.timo_reymann.csv_parser.sort;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import com.github.timo_reymann.csv_parser.io.CsvReader;
+import com.github.timo_reymann.csv_parser.io.CsvWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvSorterTest {
+    private File directory;
+    private File tempDirectory;
+    private File input;
+    private File output;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("sort").toFile();
+        tempDirectory = new File(directory, "tmp");
+        tempDirectory.mkdir();
+        input = new File(directory, "input.csv");
+        output = new File(directory, "output.csv");
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        for (File file : tempDirectory.listFiles()) {
+            file.delete();
+        }
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    private List<TestEntityWithHeadings> writeInput(int count) throws Exception {
+        Random random = new Random(42);
+        List<TestEntityWithHeadings> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TestEntityWithHeadings entity = new TestEntityWithHeadings();
+            entity.setSomeNumber(random.nextInt(50));
+            entity.setSomeText("Line " + i);
+            entity.setEmpty("");
+            entity.setSomeBoolean(random.nextBoolean() ? Boolean.TRUE : null);
+            entities.add(entity);
+        }
+
+        try (CsvWriter<TestEntityWithHeadings> writer = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(input)
+                .hasHeading()
+                .noAppend()
+                .build()) {
+            writer.writeLine(entities);
+        }
+        return entities;
+    }
+
+    private List<TestEntityWithHeadings> readOutput() {
+        try (CsvReader<TestEntityWithHeadings> reader = new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(output)
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .build()) {
+            return reader.lines().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void testSortWithMultipleMergePasses() throws Exception {
+        List<TestEntityWithHeadings> expected = writeInput(2500);
+        expected.sort(Comparator.comparing(TestEntityWithHeadings::getSomeNumber));
+
+        long lines = new CsvSorter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .input(input)
+                .output(output)
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .sortBy("someNumberCol")
+                .maxRowsPerRun(100)
+                .maxMergeFanIn(4)
+                .parallelism(3)
+                .tempDirectory(tempDirectory)
+                .build()
+                .sort();
+
+        assertEquals(2500, lines);
+        assertEquals(expected, readOutput());
+        assertEquals(0, tempDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testSortByMultipleKeys() throws Exception {
+        List<TestEntityWithHeadings> expected = writeInput(500);
+        expected.sort(Comparator.comparing(TestEntityWithHeadings::getSomeBoolean, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(TestEntityWithHeadings::getSomeNumber, Comparator.reverseOrder())
+                .thenComparing(TestEntityWithHeadings::getSomeText));
+
+        new CsvSorter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .input(input)
+                .output(output)
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .sortBy("someBoolCol")
+                .comparator(Comparator.comparing(TestEntityWithHeadings::getSomeNumber).reversed()
+                        .thenComparing(TestEntityWithHeadings::getSomeText))
+                .maxRowsPerRun(64)
+                .tempDirectory(tempDirectory)
+                .build()
+                .sort();
+
+        assertEquals(expected, readOutput());
+    }
+
+    @Test
+    public void testTempLimitExceeded() throws Exception {
+        writeInput(1000);
+
+        CsvSorter<TestEntityWithHeadings> sorter = new CsvSorter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .input(input)
+                .output(output)
+                .hasHeading()
+                .sortBy("someNumberCol")
+                .maxRowsPerRun(100)
+                .maxTempBytes(1024)
+                .tempDirectory(tempDirectory)
+                .build();
+
+        assertThrows(IOException.class, sorter::sort);
+        assertEquals(0, tempDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testInvalidSortKey() {
+        CsvSorter.Builder<TestEntityWithHeadings> builder = new CsvSorter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .input(input)
+                .output(output);
+        assertThrows(InvalidArgumentException.class, builder::build);
+        assertThrows(InvalidArgumentException.class, () -> builder.sortBy("unknown").build().sort());
+    }
+}
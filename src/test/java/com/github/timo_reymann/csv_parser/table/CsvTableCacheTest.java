@@ -0,0 +1,129 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.exception.InvalidArgumentException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import com.github.timo_reymann.csv_parser.io.CsvReader;
+import com.github.timo_reymann.csv_parser.io.CsvWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvTableCacheTest {
+    private File directory;
+    private File file;
+    private File cacheDirectory;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("cache").toFile();
+        file = new File(directory, "data.csv");
+        cacheDirectory = new File(directory, "cache");
+    }
+
+    @AfterEach
+    protected void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private List<TestEntityWithHeadings> writeFile(int count) throws Exception {
+        List<TestEntityWithHeadings> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TestEntityWithHeadings entity = new TestEntityWithHeadings();
+            entity.setSomeNumber(i % 9 == 0 ? null : i - 500);
+            entity.setSomeDouble(i / 4.0);
+            entity.setSomeFloat(0.25f * (i % 3));
+            entity.setSomeText("Category " + (i % 11));
+            entity.setSomeBoolean(i % 2 == 0);
+            entity.setLocalDate(LocalDate.of(2020, 1, 1).plusDays(i % 365));
+            entity.setEmpty("");
+            entities.add(entity);
+        }
+
+        try (CsvWriter<TestEntityWithHeadings> writer = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .hasHeading()
+                .noAppend()
+                .build()) {
+            writer.writeLine(entities);
+        }
+        return entities;
+    }
+
+    private List<TestEntityWithHeadings> read() {
+        try (CsvReader<TestEntityWithHeadings> reader = new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .hasHeading()
+                .cache(cacheDirectory)
+                .build()) {
+            return reader.lines().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void testCacheIsWrittenAndUsed() throws Exception {
+        List<TestEntityWithHeadings> entities = writeFile(40_000);
+        File cacheFile = new CsvTableCache(cacheDirectory).getFile(file, TestEntityWithHeadings.class);
+        assertFalse(cacheFile.exists());
+
+        assertEquals(entities, read());
+        assertTrue(cacheFile.isFile());
+
+        // Same size and modification time, so the changed content is not noticed
+        long modified = file.lastModified();
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        Files.write(file.toPath(), content.replace("Category", "Kategory").getBytes(StandardCharsets.UTF_8));
+        assertTrue(file.setLastModified(modified));
+        assertEquals(entities, read());
+
+        assertTrue(file.setLastModified(modified + 2000));
+        List<TestEntityWithHeadings> changed = read();
+        assertEquals(entities.size(), changed.size());
+        assertEquals("Kategory 3", changed.get(3).getSomeText());
+        assertEquals(entities.get(3).getLocalDate(), changed.get(3).getLocalDate());
+        assertEquals(changed, read());
+    }
+
+    @Test
+    public void testPartialReadIsNotCached() throws Exception {
+        writeFile(100);
+        try (CsvReader<TestEntityWithHeadings> reader = new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .hasHeading()
+                .cache(cacheDirectory)
+                .build()) {
+            assertNotNull(reader.readLine());
+        }
+        assertFalse(new CsvTableCache(cacheDirectory).getFile(file, TestEntityWithHeadings.class).exists());
+    }
+
+    @Test
+    public void testCacheRequiresFile() {
+        assertThrows(InvalidArgumentException.class, () -> new CsvReader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .inputStream(new ByteArrayInputStream(new byte[0]))
+                .cache(cacheDirectory)
+                .build());
+    }
+}
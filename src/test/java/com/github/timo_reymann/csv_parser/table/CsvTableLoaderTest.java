@@ -0,0 +1,146 @@
+package com.github.timo_reymann.csv_parser.table;
+
+import com.github.timo_reymann.csv_parser.exception.ParseException;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithHeadings;
+import com.github.timo_reymann.csv_parser.helper.TestEntityWithNumericIndex;
+import com.github.timo_reymann.csv_parser.io.CsvWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvTableLoaderTest {
+    private File file;
+
+    @BeforeEach
+    protected void setUp() throws IOException {
+        file = Files.createTempFile("table", ".csv").toFile();
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        file.delete();
+    }
+
+    private List<TestEntityWithHeadings> writeFile(int count) throws Exception {
+        Random random = new Random(42);
+        List<TestEntityWithHeadings> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TestEntityWithHeadings entity = new TestEntityWithHeadings();
+            entity.setSomeNumber(i % 7 == 0 ? null : random.nextInt(1000) - 500);
+            entity.setSomeDouble(random.nextInt(10000) / 100.0);
+            entity.setSomeFloat(0.5f * (i % 5));
+            entity.setSomeText("Category " + random.nextInt(20));
+            entity.setSomeBoolean(i % 2 == 0);
+            entity.setLocalDate(LocalDate.of(2020, 1, 1).plusDays(i % 365));
+            entity.setEmpty("");
+            entities.add(entity);
+        }
+
+        try (CsvWriter<TestEntityWithHeadings> writer = new CsvWriter.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .hasHeading()
+                .noAppend()
+                .build()) {
+            writer.writeLine(entities);
+        }
+        return entities;
+    }
+
+    @Test
+    public void testParallelLoad() throws Exception {
+        List<TestEntityWithHeadings> entities = writeFile(40_000);
+
+        CsvTable<TestEntityWithHeadings> table = new CsvTableLoader.Builder<TestEntityWithHeadings>()
+                .forClass(TestEntityWithHeadings.class)
+                .file(file)
+                .charset(StandardCharsets.UTF_8)
+                .hasHeading()
+                .parallelism(4)
+                .chunkSize(4096)
+                .build()
+                .load();
+
+        assertEquals(entities.size(), table.getRowCount());
+        assertEquals(entities, table.beans().collect(Collectors.toList()));
+
+        IntColumn numbers = table.getColumn("someNumber", IntColumn.class);
+        assertEquals(entities.stream().filter(e -> e.getSomeNumber() != null).mapToLong(TestEntityWithHeadings::getSomeNumber).sum(), numbers.sum());
+        assertEquals(entities.stream().filter(e -> e.getSomeNumber() != null).mapToInt(TestEntityWithHeadings::getSomeNumber).min().getAsInt(), numbers.min().getAsInt());
+        assertEquals((40_000 + 6) / 7, numbers.getNullCount());
+        assertTrue(numbers.isNull(0));
+        assertNull(numbers.getObject(7));
+
+        DoubleColumn doubles = table.getColumn("someDouble", DoubleColumn.class);
+        assertEquals(entities.stream().mapToDouble(TestEntityWithHeadings::getSomeDouble).max().getAsDouble(), doubles.max().getAsDouble());
+        assertEquals(2.0f, table.getColumn("someFloat").getObject(4));
+
+        DictionaryColumn texts = table.getColumn("someText", DictionaryColumn.class);
+        assertEquals(20, texts.getDictionary().size());
+        assertEquals(entities.stream().filter(e -> e.getSomeText().equals("Category 3")).count(), texts.count("Category 3"));
+        assertTrue(table.getColumn("localDate") instanceof ObjectColumn);
+    }
+
+    @Test
+    public void testParallelLoadWithQuotedLineBreaks() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            content.append("\"multi\nline ").append(i).append("\";").append(i).append('\n');
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        CsvTable<TestEntityWithNumericIndex> table = new CsvTableLoader.Builder<TestEntityWithNumericIndex>()
+                .forClass(TestEntityWithNumericIndex.class)
+                .file(file)
+                .charset(StandardCharsets.UTF_8)
+                .parallelism(4)
+                .chunkSize(4096)
+                .build()
+                .load();
+
+        assertEquals(20_000, table.getRowCount());
+        assertEquals(20_000L * 19_999 / 2, table.getColumn("someIntCol", IntColumn.class).sum());
+        for (int i = 0; i < 20_000; i += 997) {
+            assertEquals("multi\nline " + i, table.getBean(i).getSomeStringCol());
+        }
+    }
+
+    @Test
+    public void testLoadStreamByIndex() throws Exception {
+        CsvTable<TestEntityWithNumericIndex> table = new CsvTableLoader.Builder<TestEntityWithNumericIndex>()
+                .forClass(TestEntityWithNumericIndex.class)
+                .inputStream(new ByteArrayInputStream("a;1\nb;\na;41\n".getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .load();
+
+        assertEquals(3, table.getRowCount());
+        TestEntityWithNumericIndex bean = table.getBean(1);
+        assertNull(bean.getSomeIntCol());
+        assertEquals("b", bean.getSomeStringCol());
+        assertEquals(42, table.getColumn("someIntCol", IntColumn.class).sum());
+        assertEquals(2, table.getColumn("someStringCol", DictionaryColumn.class).getDictionary().size());
+        assertThrows(IllegalArgumentException.class, () -> table.getColumn("someStringCol", IntColumn.class));
+    }
+
+    @Test
+    public void testInvalidNumber() {
+        assertThrows(ParseException.class, () -> new CsvTableLoader.Builder<TestEntityWithNumericIndex>()
+                .forClass(TestEntityWithNumericIndex.class)
+                .inputStream(new ByteArrayInputStream("a;x\n".getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .load());
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.timo_reymann.csv_parser.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FastDoubleParserTest {
+    private static final FastDoubleParser GERMAN = new FastDoubleParser(',', '.');
+
+    private static void assertParsedLikeJdk(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(Double.doubleToRawLongBits(Double.parseDouble(input)),
+                Double.doubleToRawLongBits(FastDoubleParser.DEFAULT.parseDouble(input, 0, input.length())), input);
+        assertEquals(Double.doubleToRawLongBits(Double.parseDouble(input)),
+                Double.doubleToRawLongBits(FastDoubleParser.DEFAULT.parseDouble(bytes, 0, bytes.length)), input);
+        assertEquals(Float.floatToRawIntBits(Float.parseFloat(input)),
+                Float.floatToRawIntBits(FastDoubleParser.DEFAULT.parseFloat(input, 0, input.length())), input);
+    }
+
+    @Test
+    public void testSimpleValues() {
+        String[] inputs = {"0", "-0", "0.0", "1", "-1", "45.0", "100.45", "120.122", "120.12234", ".5", "5.",
+                "1e10", "1E-10", "+3.25", "0.1", "0.30000000000000004", "9007199254740993", "1.7976931348623157e308",
+                "4.9e-324", "2.2250738585072014E-308", "1e400", "1e-400", "123456789012345678901234567890",
+                "NaN", "-Infinity", "0x1p3", " 1.5 ", "1d", "3.4028235e38", "1.4e-45"};
+        for (String input : inputs) {
+            assertParsedLikeJdk(input);
+        }
+    }
+
+    @Test
+    public void testRandomValues() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            assertParsedLikeJdk(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            assertParsedLikeJdk(Float.toString(Float.intBitsToFloat(random.nextInt())));
+            assertParsedLikeJdk((random.nextInt(2_000_000) - 1_000_000) + "." + random.nextInt(100_000) + "e" + (random.nextInt(640) - 320));
+        }
+    }
+
+    @Test
+    public void testInvalidInput() {
+        assertThrows(NumberFormatException.class, () -> FastDoubleParser.DEFAULT.parseDouble("1.2.3", 0, 5));
+        assertThrows(NumberFormatException.class, () -> FastDoubleParser.DEFAULT.parseDouble("", 0, 0));
+        assertThrows(NumberFormatException.class, () -> FastDoubleParser.DEFAULT.parseDouble("1e", 0, 2));
+        assertThrows(NumberFormatException.class, () -> GERMAN.parseDouble("abc", 0, 3));
+    }
+
+    @Test
+    public void testGermanFormat() {
+        assertEquals(1234.56, GERMAN.parseDouble("1.234,56", 0, 8));
+        assertEquals(-1234567.5, GERMAN.parseDouble("x-1.234.567,5x", 1, 13));
+        assertEquals(0.25f, GERMAN.parseFloat("0,25", 0, 4));
+        byte[] bytes = "1.234,56".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(1234.56, GERMAN.parseDouble(bytes, 0, bytes.length));
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.timo_reymann.csv_parser.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedWidthDateTimeFormatTest {
+    @Test
+    public void testUnsupportedPatterns() {
+        assertNull(FixedWidthDateTimeFormat.compile("none"));
+        assertNull(FixedWidthDateTimeFormat.compile("yy-MM-dd"));
+        assertNull(FixedWidthDateTimeFormat.compile("yyyy-MMM-dd"));
+        assertNull(FixedWidthDateTimeFormat.compile("yyyy-MM-dd[ HH:mm]"));
+        assertNull(FixedWidthDateTimeFormat.compile("HH:mm:ss"));
+    }
+
+    @Test
+    public void testParseLocalDate() {
+        assertEquals(LocalDate.of(2017, 6, 7), FixedWidthDateTimeFormat.compile("yyyy-MM-dd").parseLocalDate("2017-06-07", 0, 10));
+        assertEquals(LocalDate.of(2017, 6, 7), FixedWidthDateTimeFormat.compile("dd.MM.yyyy").parseLocalDate("x07.06.2017x", 1, 11));
+        assertEquals(LocalDate.of(2020, 2, 29), FixedWidthDateTimeFormat.compile("yyyyMMdd").parseLocalDate("20200229", 0, 8));
+    }
+
+    @Test
+    public void testParseLocalDateTime() {
+        FixedWidthDateTimeFormat format = FixedWidthDateTimeFormat.compile("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        assertEquals(LocalDateTime.of(2018, 10, 2, 15, 30, 12, 123_000_000), format.parseLocalDateTime("2018-10-02T15:30:12.123", 0, 23));
+        assertEquals(LocalDateTime.of(2018, 10, 2, 15, 30), FixedWidthDateTimeFormat.compile("dd.MM.yyyy HH:mm").parseLocalDateTime("02.10.2018 15:30", 0, 16));
+    }
+
+    @Test
+    public void testFallbackCases() {
+        FixedWidthDateTimeFormat format = FixedWidthDateTimeFormat.compile("yyyy-MM-dd");
+        assertNull(format.parseLocalDate("2017-6-07", 0, 9));
+        assertNull(format.parseLocalDate("2017/06/07", 0, 10));
+        assertNull(format.parseLocalDate("2017-02-30", 0, 10));
+        assertNull(format.parseLocalDate("2017-13-01", 0, 10));
+        assertNull(format.parseLocalDateTime("2017-06-07", 0, 10));
+        assertFalse(FixedWidthDateTimeFormat.compile("yyyy-MM-dd HH:mm").formatTo(LocalDate.of(2017, 1, 1), new StringBuilder()));
+    }
+
+    @Test
+    public void testFormatMatchesFormatter() {
+        String[] patterns = {"yyyy-MM-dd", "dd.MM.yyyy", "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss.SSS", "MM/dd/uuuu HH:mm",
+                "HH 'o''clock' dd.MM.yyyy", "dd''MM''yyyy", "yyyy-MM-dd'''T'''"};
+        LocalDateTime value = LocalDateTime.of(987, 3, 4, 5, 6, 7, 89_000_000);
+
+        for (String pattern : patterns) {
+            StringBuilder out = new StringBuilder();
+            assertTrue(FixedWidthDateTimeFormat.compile(pattern).formatTo(value, out));
+            assertEquals(DateTimeFormatter.ofPattern(pattern).format(value), out.toString());
+        }
+    }
+}
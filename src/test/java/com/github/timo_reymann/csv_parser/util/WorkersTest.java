@@ -0,0 +1,45 @@
+package com.github.timo_reymann.csv_parser.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkersTest {
+    @Test
+    public void testAwaitUnwrapsExceptions() throws Exception {
+        ExecutorService executor = Workers.newFixedThreadPool(1, "test-worker");
+        try {
+            assertTrue(executor.submit(() -> Thread.currentThread().isDaemon()).get());
+            assertEquals("test-worker", executor.submit(() -> Thread.currentThread().getName()).get());
+            assertEquals("done", Workers.await(executor.submit(() -> "done"), "testing"));
+
+            IOException io = new IOException("io");
+            assertSame(io, assertThrows(IOException.class, () -> Workers.await(executor.submit(() -> {
+                throw io;
+            }), "testing")));
+
+            UncheckedIOException unchecked = new UncheckedIOException(io);
+            assertSame(unchecked, assertThrows(UncheckedIOException.class, () -> Workers.await(executor.submit(() -> {
+                throw unchecked;
+            }), "testing")));
+
+            IllegalAccessException access = new IllegalAccessException("access");
+            assertSame(access, assertThrows(IllegalAccessException.class, () -> Workers.await(executor.submit(() -> {
+                throw access;
+            }), IllegalAccessException.class, "testing")));
+
+            TimeoutException other = new TimeoutException("other");
+            IOException wrapped = assertThrows(IOException.class, () -> Workers.await(executor.submit(() -> {
+                throw other;
+            }), "testing"));
+            assertSame(other, wrapped.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}